@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.rap.addons.fileupload.internal.BufferPoolStore;
+
+
+/**
+ * A bounded, thread-safe pool of transfer buffers. Buffers are borrowed with {@link #acquire()}
+ * and must be returned with {@link #release(ByteBuffer)} when they are no longer used. If the pool
+ * is empty, a new buffer is allocated. If the pool is full, released buffers are discarded.
+ * <p>
+ * Every application context provides a pool of heap buffers and a pool of direct buffers that are
+ * shared by all upload receivers of this application.
+ * </p>
+ *
+ * @see #getInstance()
+ */
+public final class BufferPool {
+
+  /**
+   * The default size of a pooled buffer in bytes.
+   */
+  public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+  /**
+   * The default number of buffers that are retained by a pool.
+   */
+  public static final int DEFAULT_CAPACITY = 32;
+
+  private final boolean direct;
+  private final Queue<ByteBuffer> buffers;
+  private final AtomicInteger size;
+  private final AtomicLong hitCount;
+  private final AtomicLong missCount;
+  private volatile int bufferSize;
+  private volatile int capacity;
+
+  /**
+   * Constructs a new buffer pool.
+   *
+   * @param bufferSize the size of the pooled buffers in bytes, must be positive
+   * @param capacity the maximum number of buffers retained by this pool, must not be negative
+   * @param direct <code>true</code> to pool direct buffers, <code>false</code> to pool heap
+   *          buffers
+   */
+  public BufferPool( int bufferSize, int capacity, boolean direct ) {
+    checkBufferSize( bufferSize );
+    checkCapacity( capacity );
+    this.bufferSize = bufferSize;
+    this.capacity = capacity;
+    this.direct = direct;
+    buffers = new ConcurrentLinkedQueue<ByteBuffer>();
+    size = new AtomicInteger();
+    hitCount = new AtomicLong();
+    missCount = new AtomicLong();
+  }
+
+  /**
+   * Returns the pool of heap buffers for the current application context. Outside of a request,
+   * a pool shared by all applications is returned.
+   *
+   * @return the heap buffer pool, never <code>null</code>
+   */
+  public static BufferPool getInstance() {
+    return BufferPoolStore.getInstance().getHeapPool();
+  }
+
+  /**
+   * Returns the pool of direct buffers for the current application context. Outside of a
+   * request, a pool shared by all applications is returned.
+   *
+   * @return the direct buffer pool, never <code>null</code>
+   */
+  public static BufferPool getDirectInstance() {
+    return BufferPoolStore.getInstance().getDirectPool();
+  }
+
+  /**
+   * Borrows a buffer from this pool. The returned buffer is cleared and has a capacity of
+   * <code>getBufferSize()</code> bytes.
+   *
+   * @return a buffer, never <code>null</code>
+   */
+  public ByteBuffer acquire() {
+    ByteBuffer result = buffers.poll();
+    while( result != null && result.capacity() != bufferSize ) {
+      // buffer size has changed since this buffer was pooled
+      size.decrementAndGet();
+      result = buffers.poll();
+    }
+    if( result != null ) {
+      size.decrementAndGet();
+      hitCount.incrementAndGet();
+    } else {
+      missCount.incrementAndGet();
+      result = direct ? ByteBuffer.allocateDirect( bufferSize ) : ByteBuffer.allocate( bufferSize );
+    }
+    return result;
+  }
+
+  /**
+   * Returns a buffer to this pool. The buffer must not be used anymore after calling this method.
+   * Buffers that have not been obtained from this pool are ignored.
+   *
+   * @param buffer the buffer to return, must not be <code>null</code>
+   */
+  public void release( ByteBuffer buffer ) {
+    if( buffer == null ) {
+      throw new NullPointerException( "buffer is null" );
+    }
+    if( buffer.isDirect() == direct && buffer.capacity() == bufferSize ) {
+      if( size.incrementAndGet() <= capacity ) {
+        buffer.clear();
+        buffers.offer( buffer );
+      } else {
+        size.decrementAndGet();
+      }
+    }
+  }
+
+  /**
+   * Returns whether this pool contains direct buffers.
+   *
+   * @return <code>true</code> for a pool of direct buffers, <code>false</code> for heap buffers
+   */
+  public boolean isDirect() {
+    return direct;
+  }
+
+  /**
+   * Returns the size of the buffers provided by this pool.
+   *
+   * @return the buffer size in bytes
+   */
+  public int getBufferSize() {
+    return bufferSize;
+  }
+
+  /**
+   * Sets the size of the buffers provided by this pool. Pooled buffers of a different size are
+   * discarded.
+   *
+   * @param bufferSize the buffer size in bytes, must be positive
+   */
+  public void setBufferSize( int bufferSize ) {
+    checkBufferSize( bufferSize );
+    this.bufferSize = bufferSize;
+  }
+
+  /**
+   * Returns the maximum number of buffers retained by this pool.
+   *
+   * @return the pool capacity
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Sets the maximum number of buffers retained by this pool.
+   *
+   * @param capacity the pool capacity, must not be negative
+   */
+  public void setCapacity( int capacity ) {
+    checkCapacity( capacity );
+    this.capacity = capacity;
+  }
+
+  /**
+   * Returns the number of requests that have been served with a pooled buffer.
+   *
+   * @return the number of pool hits
+   */
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  /**
+   * Returns the number of requests that required a new buffer to be allocated.
+   *
+   * @return the number of pool misses
+   */
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  private static void checkBufferSize( int bufferSize ) {
+    if( bufferSize <= 0 ) {
+      throw new IllegalArgumentException( "bufferSize must be positive" );
+    }
+  }
+
+  private static void checkCapacity( int capacity ) {
+    if( capacity < 0 ) {
+      throw new IllegalArgumentException( "capacity must not be negative" );
+    }
+  }
+
+}
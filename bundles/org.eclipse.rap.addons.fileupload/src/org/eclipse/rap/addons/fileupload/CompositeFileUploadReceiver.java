@@ -0,0 +1,395 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+
+import org.eclipse.rap.addons.fileupload.internal.ChunkRingBuffer;
+
+
+/**
+ * A file upload receiver that passes every received file to several child receivers, e.g. to
+ * store a file while computing a checksum and scanning it at the same time. The uploaded data is
+ * read from the client only once.
+ * <p>
+ * By default, all child receivers run one after the other on the thread that receives the upload.
+ * The first child consumes the data while it is read from the client, and a copy of the data is
+ * spooled to a temporary file from which the other children consume it afterwards. No additional
+ * threads are used in this mode. Note that this is not a single pass over the data: the file is
+ * written to the temporary directory in addition to whatever the children store, which requires
+ * as much free disk space as the file is large, and the other children only start once the
+ * upload has been received completely, so the upload takes as long as all children together.
+ * Set an executor to consume the data in a single pass.
+ * </p>
+ * <p>
+ * If an executor is set, every child receiver consumes the data on an executor thread from a
+ * bounded ring buffer of chunks. Data is read ahead by up to the ring buffer size while a slow
+ * child catches up, so that a temporarily slow child does not throttle the upload, and no data is
+ * spooled. Note that child receivers that run on an executor thread have no access to the RWT
+ * context.
+ * </p>
+ * <p>
+ * If a child receiver fails, the other children continue to receive the file, and the first
+ * failure is reported when all children have finished.
+ * </p>
+ */
+public class CompositeFileUploadReceiver extends FileUploadReceiver {
+
+  /**
+   * The default number of chunks that can be read ahead of the slowest child receiver.
+   */
+  public static final int DEFAULT_RING_BUFFER_SIZE = 16;
+
+  private static final String SPOOL_FILE_PREFIX = "upload";
+  private static final String SPOOL_FILE_SUFFIX = ".spool";
+
+  private final FileUploadReceiver[] receivers;
+  private int ringBufferSize = DEFAULT_RING_BUFFER_SIZE;
+  private Executor executor;
+
+  /**
+   * Constructs a receiver that passes all received files to the given receivers.
+   *
+   * @param receivers the child receivers, must not be <code>null</code> or empty
+   */
+  public CompositeFileUploadReceiver( FileUploadReceiver... receivers ) {
+    if( receivers == null ) {
+      throw new NullPointerException( "receivers is null" );
+    }
+    if( receivers.length == 0 ) {
+      throw new IllegalArgumentException( "receivers is empty" );
+    }
+    for( FileUploadReceiver receiver : receivers ) {
+      if( receiver == null ) {
+        throw new NullPointerException( "receiver is null" );
+      }
+    }
+    this.receivers = receivers.clone();
+  }
+
+  @Override
+  public void receive( InputStream dataStream, FileDetails details ) throws IOException {
+    Executor currentExecutor = executor;
+    if( receivers.length == 1 ) {
+      receivers[ 0 ].receive( dataStream, details );
+    } else if( currentExecutor == null ) {
+      receiveSequentially( dataStream, details );
+    } else {
+      receiveConcurrently( dataStream, details, currentExecutor );
+    }
+  }
+
+  /**
+   * Called when the upload handler of this receiver has expired. Disposes of all child receivers.
+   * If a child fails, the other children are disposed of nevertheless, and the first failure is
+   * rethrown afterwards.
+   */
+  @Override
+  public void dispose() {
+    RuntimeException failure = null;
+    for( FileUploadReceiver receiver : receivers ) {
+      try {
+        receiver.dispose();
+      } catch( RuntimeException exception ) {
+        failure = failure == null ? exception : failure;
+      }
+    }
+    if( failure != null ) {
+      throw failure;
+    }
+  }
+
+  /**
+   * Returns the child receivers.
+   *
+   * @return the child receivers
+   */
+  public FileUploadReceiver[] getReceivers() {
+    return receivers.clone();
+  }
+
+  /**
+   * Returns the number of chunks that can be read ahead of the slowest child receiver.
+   *
+   * @return the ring buffer size
+   * @see #setRingBufferSize(int)
+   */
+  public int getRingBufferSize() {
+    return ringBufferSize;
+  }
+
+  /**
+   * Sets the number of chunks that can be read ahead of the slowest child receiver when the
+   * children run on an executor. Every chunk takes one pooled transfer buffer. The default is
+   * {@link #DEFAULT_RING_BUFFER_SIZE}. A size of 1 makes all child receivers proceed in lock-step.
+   *
+   * @param ringBufferSize the number of chunks, must be positive
+   * @see BufferPool#getBufferSize()
+   */
+  public void setRingBufferSize( int ringBufferSize ) {
+    if( ringBufferSize <= 0 ) {
+      throw new IllegalArgumentException( "ringBufferSize must be positive" );
+    }
+    this.ringBufferSize = ringBufferSize;
+  }
+
+  /**
+   * Returns the executor that runs the child receivers.
+   *
+   * @return the executor, or <code>null</code> if the children run on the receiving thread
+   * @see #setExecutor(Executor)
+   */
+  public Executor getExecutor() {
+    return executor;
+  }
+
+  /**
+   * Sets the executor that runs the child receivers concurrently. The executor must be able to
+   * run all children of a file at the same time, otherwise uploads stall. The executor is not
+   * shut down by this receiver, its lifecycle is up to the caller. If <code>null</code>, which is
+   * the default, the children run one after the other on the receiving thread.
+   *
+   * @param executor the executor, or <code>null</code> to run the children on the receiving thread
+   */
+  public void setExecutor( Executor executor ) {
+    this.executor = executor;
+  }
+
+  private void receiveSequentially( InputStream dataStream, FileDetails details )
+    throws IOException
+  {
+    File spoolFile = File.createTempFile( SPOOL_FILE_PREFIX, SPOOL_FILE_SUFFIX );
+    UploadCleanupService.getInstance().register( spoolFile );
+    try {
+      Throwable failure = null;
+      SpoolingInputStream spoolingStream = new SpoolingInputStream( dataStream, spoolFile );
+      try {
+        try {
+          receivers[ 0 ].receive( spoolingStream, details );
+        } catch( Throwable exception ) {
+          failure = exception;
+        }
+        // a child that stops reading must not truncate the data of the others
+        spoolingStream.drain();
+      } finally {
+        spoolingStream.close();
+      }
+      for( int i = 1; i < receivers.length; i++ ) {
+        InputStream spoolStream = new BufferedInputStream( new FileInputStream( spoolFile ) );
+        try {
+          receivers[ i ].receive( spoolStream, details );
+        } catch( Throwable exception ) {
+          failure = failure == null ? exception : failure;
+        } finally {
+          spoolStream.close();
+        }
+      }
+      rethrow( failure );
+    } finally {
+      spoolFile.delete();
+      UploadCleanupService.getInstance().unregister( spoolFile );
+    }
+  }
+
+  private void receiveConcurrently( InputStream dataStream,
+                                    FileDetails details,
+                                    Executor executor )
+    throws IOException
+  {
+    BufferPool pool = BufferPool.getInstance();
+    ByteBuffer[] buffers = new ByteBuffer[ ringBufferSize ];
+    byte[][] slots = new byte[ ringBufferSize ][];
+    for( int i = 0; i < buffers.length; i++ ) {
+      buffers[ i ] = pool.acquire();
+      slots[ i ] = buffers[ i ].array();
+    }
+    try {
+      ChunkRingBuffer ringBuffer = new ChunkRingBuffer( slots, receivers.length );
+      CountDownLatch latch = new CountDownLatch( receivers.length );
+      ChildTask[] tasks = startChildren( executor, ringBuffer, details, latch );
+      IOException failure = null;
+      try {
+        boolean finished = false;
+        while( !finished ) {
+          finished = ringBuffer.publish( dataStream ) == -1;
+        }
+      } catch( IOException exception ) {
+        failure = exception;
+      } finally {
+        ringBuffer.close( failure );
+      }
+      awaitChildren( latch );
+      if( failure != null ) {
+        throw failure;
+      }
+      for( ChildTask task : tasks ) {
+        rethrow( task.failure );
+      }
+    } finally {
+      for( ByteBuffer buffer : buffers ) {
+        pool.release( buffer );
+      }
+    }
+  }
+
+  private ChildTask[] startChildren( Executor executor,
+                                     ChunkRingBuffer ringBuffer,
+                                     FileDetails details,
+                                     CountDownLatch latch )
+  {
+    ChildTask[] result = new ChildTask[ receivers.length ];
+    for( int i = 0; i < receivers.length; i++ ) {
+      result[ i ] = new ChildTask( receivers[ i ], ringBuffer, i, details, latch );
+      try {
+        executor.execute( result[ i ] );
+      } catch( RuntimeException exception ) {
+        result[ i ].finish( exception );
+      }
+    }
+    return result;
+  }
+
+  private static void awaitChildren( CountDownLatch latch ) throws IOException {
+    try {
+      latch.await();
+    } catch( InterruptedException exception ) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException( "Interrupted while waiting for child receivers" );
+    }
+  }
+
+  private static void rethrow( Throwable failure ) throws IOException {
+    if( failure instanceof IOException ) {
+      throw ( IOException )failure;
+    } else if( failure instanceof RuntimeException ) {
+      throw ( RuntimeException )failure;
+    } else if( failure instanceof Error ) {
+      throw ( Error )failure;
+    }
+  }
+
+  private static final class ChildTask implements Runnable {
+
+    private final FileUploadReceiver receiver;
+    private final ChunkRingBuffer ringBuffer;
+    private final int consumer;
+    private final FileDetails details;
+    private final CountDownLatch latch;
+    // published to the receiving thread by the latch
+    Throwable failure;
+
+    ChildTask( FileUploadReceiver receiver,
+               ChunkRingBuffer ringBuffer,
+               int consumer,
+               FileDetails details,
+               CountDownLatch latch )
+    {
+      this.receiver = receiver;
+      this.ringBuffer = ringBuffer;
+      this.consumer = consumer;
+      this.details = details;
+      this.latch = latch;
+    }
+
+    public void run() {
+      Throwable throwable = null;
+      try {
+        receiver.receive( ringBuffer.createInputStream( consumer ), details );
+      } catch( Throwable exception ) {
+        throwable = exception;
+      } finally {
+        finish( throwable );
+      }
+    }
+
+    void finish( Throwable throwable ) {
+      failure = throwable;
+      // a child that stops reading must not block the others
+      ringBuffer.detach( consumer );
+      latch.countDown();
+    }
+
+  }
+
+  /*
+   * Passes the data stream through while writing a copy of all data that has been read to a file.
+   * A failure of the data stream is remembered, so that it is not mistaken for a failure of the
+   * consuming child.
+   */
+  private static final class SpoolingInputStream extends InputStream {
+
+    private final InputStream dataStream;
+    private final OutputStream spoolStream;
+    private final byte[] singleByte;
+    private IOException failure;
+
+    SpoolingInputStream( InputStream dataStream, File spoolFile ) throws IOException {
+      this.dataStream = dataStream;
+      spoolStream = new FileOutputStream( spoolFile );
+      singleByte = new byte[ 1 ];
+    }
+
+    @Override
+    public int read() throws IOException {
+      int result = read( singleByte, 0, 1 );
+      return result == -1 ? -1 : singleByte[ 0 ] & 0xff;
+    }
+
+    @Override
+    public int read( byte[] bytes, int offset, int length ) throws IOException {
+      if( failure != null ) {
+        throw failure;
+      }
+      int result;
+      try {
+        result = dataStream.read( bytes, offset, length );
+      } catch( IOException exception ) {
+        failure = exception;
+        throw exception;
+      }
+      if( result > 0 ) {
+        spoolStream.write( bytes, offset, result );
+      }
+      return result;
+    }
+
+    void drain() throws IOException {
+      BufferPool pool = BufferPool.getInstance();
+      ByteBuffer buffer = pool.acquire();
+      try {
+        byte[] bytes = buffer.array();
+        boolean finished = false;
+        while( !finished ) {
+          finished = read( bytes, 0, bytes.length ) == -1;
+        }
+      } finally {
+        pool.release( buffer );
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      spoolStream.close();
+    }
+
+  }
+
+}
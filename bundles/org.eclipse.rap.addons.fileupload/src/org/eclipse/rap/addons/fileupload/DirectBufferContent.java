@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * The content of a file that has been received by a {@link DirectBufferFileUploadReceiver}. The
+ * content is held in a sequence of direct buffers outside of the Java heap. It must be disposed of
+ * to release the memory budget.
+ *
+ * @noinstantiate This class is not intended to be instantiated by clients.
+ */
+public final class DirectBufferContent {
+
+  private final FileDetails details;
+  private final ByteBuffer[] buffers;
+  private final long length;
+  private final long capacity;
+  private final DirectMemoryBudget budget;
+  private final AtomicLong usage;
+  private boolean disposed;
+
+  DirectBufferContent( FileDetails details,
+                       ByteBuffer[] buffers,
+                       long length,
+                       long capacity,
+                       DirectMemoryBudget budget,
+                       AtomicLong usage )
+  {
+    this.details = details;
+    this.buffers = buffers;
+    this.length = length;
+    this.capacity = capacity;
+    this.budget = budget;
+    this.usage = usage;
+  }
+
+  /**
+   * Returns the details of the received file as transmitted by the client.
+   *
+   * @return the file details
+   */
+  public FileDetails getFileDetails() {
+    return details;
+  }
+
+  /**
+   * Returns the number of bytes received.
+   *
+   * @return the content length in bytes
+   */
+  public long getLength() {
+    return length;
+  }
+
+  /**
+   * Returns read-only views of the buffers that hold the content, in order. Every view is
+   * positioned at the beginning of its data. The views can be passed to a gathering channel
+   * directly. They must not be used after this content has been disposed of.
+   *
+   * @return the buffer views
+   * @throws IllegalStateException if this content has been disposed of
+   */
+  public synchronized ByteBuffer[] getBuffers() {
+    checkDisposed();
+    ByteBuffer[] result = new ByteBuffer[ buffers.length ];
+    for( int i = 0; i < buffers.length; i++ ) {
+      result[ i ] = buffers[ i ].asReadOnlyBuffer();
+    }
+    return result;
+  }
+
+  /**
+   * Opens a stream to read the content. The stream must not be used after this content has been
+   * disposed of.
+   *
+   * @return a new input stream
+   * @throws IllegalStateException if this content has been disposed of
+   */
+  public InputStream openStream() {
+    return new BufferInputStream( getBuffers() );
+  }
+
+  /**
+   * Drops the buffers and releases their memory from the off-heap memory budget. Subsequent calls
+   * have no effect.
+   */
+  public synchronized void dispose() {
+    if( !disposed ) {
+      disposed = true;
+      // the memory is freed when the buffers are collected, even if this content is still in use
+      for( int i = 0; i < buffers.length; i++ ) {
+        buffers[ i ] = null;
+      }
+      budget.release( capacity );
+      usage.addAndGet( -capacity );
+    }
+  }
+
+  /**
+   * Returns whether this content has been disposed of.
+   *
+   * @return <code>true</code> if the content has been disposed of
+   */
+  public synchronized boolean isDisposed() {
+    return disposed;
+  }
+
+  private void checkDisposed() {
+    if( disposed ) {
+      throw new IllegalStateException( "Content is disposed" );
+    }
+  }
+
+  private static final class BufferInputStream extends InputStream {
+
+    private final ByteBuffer[] buffers;
+    private int index;
+
+    BufferInputStream( ByteBuffer[] buffers ) {
+      this.buffers = buffers;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int result = -1;
+      ByteBuffer buffer = nextBuffer();
+      if( buffer != null ) {
+        result = buffer.get() & 0xff;
+      }
+      return result;
+    }
+
+    @Override
+    public int read( byte[] bytes, int offset, int length ) throws IOException {
+      int result = length == 0 ? 0 : -1;
+      ByteBuffer buffer = length == 0 ? null : nextBuffer();
+      if( buffer != null ) {
+        result = Math.min( length, buffer.remaining() );
+        buffer.get( bytes, offset, result );
+      }
+      return result;
+    }
+
+    @Override
+    public int available() throws IOException {
+      ByteBuffer buffer = nextBuffer();
+      return buffer == null ? 0 : buffer.remaining();
+    }
+
+    private ByteBuffer nextBuffer() {
+      while( index < buffers.length && !buffers[ index ].hasRemaining() ) {
+        index++;
+      }
+      return index < buffers.length ? buffers[ index ] : null;
+    }
+
+  }
+
+}
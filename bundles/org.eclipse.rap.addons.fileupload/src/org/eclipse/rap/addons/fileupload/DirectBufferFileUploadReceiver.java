@@ -0,0 +1,246 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * A file upload receiver that stores received files in direct buffers outside of the Java heap,
+ * e.g. to pass them on to a native or NIO consumer. A file is stored in a sequence of segments
+ * that grow with the amount of data received, up to a maximum segment size, so that small files
+ * occupy little memory and large files are held in few buffers. The off-heap memory allocated by
+ * all receivers that share a {@link DirectMemoryBudget} is limited. When the budget is exhausted,
+ * the receiver waits for memory to be released before it reads more data from the client.
+ * Received contents must be disposed of to release their memory, contents that remain when the
+ * upload handler expires are disposed of by {@link #dispose()}.
+ *
+ * @see DirectBufferContent
+ */
+public class DirectBufferFileUploadReceiver extends FileUploadReceiver {
+
+  /**
+   * The default time in milliseconds to wait for off-heap memory to be released.
+   */
+  public static final long DEFAULT_BUDGET_TIMEOUT = 30 * 1000;
+
+  /**
+   * The default maximum size of a segment in bytes.
+   */
+  public static final int DEFAULT_SEGMENT_SIZE = 1024 * 1024;
+
+  private static final int INITIAL_SEGMENT_SIZE = 8192;
+
+  private final DirectMemoryBudget budget;
+  // guarded by itself, contents are disposed of by the sweeper while files are received
+  private final List<DirectBufferContent> contents;
+  private final AtomicLong usage;
+  private long budgetTimeout = DEFAULT_BUDGET_TIMEOUT;
+  private int segmentSize = DEFAULT_SEGMENT_SIZE;
+
+  /**
+   * Constructs a receiver whose off-heap memory is limited by the given budget.
+   *
+   * @param budget the budget to allocate memory from, must not be <code>null</code>
+   */
+  public DirectBufferFileUploadReceiver( DirectMemoryBudget budget ) {
+    if( budget == null ) {
+      throw new NullPointerException( "budget is null" );
+    }
+    this.budget = budget;
+    contents = new ArrayList<DirectBufferContent>();
+    usage = new AtomicLong();
+  }
+
+  @Override
+  public void receive( InputStream dataStream, FileDetails details ) throws IOException {
+    int maxSegmentSize = segmentSize;
+    ReadableByteChannel channel = Channels.newChannel( dataStream );
+    List<ByteBuffer> buffers = new ArrayList<ByteBuffer>();
+    long length = 0;
+    long capacity = 0;
+    boolean completed = false;
+    try {
+      ByteBuffer buffer = null;
+      boolean finished = false;
+      while( !finished ) {
+        if( buffer == null || !buffer.hasRemaining() ) {
+          // read ahead a single byte to avoid reserving memory for a buffer that remains empty
+          int next = dataStream.read();
+          if( next != -1 ) {
+            buffer = allocate( getNextSegmentSize( capacity, maxSegmentSize ) );
+            buffers.add( buffer );
+            capacity += buffer.capacity();
+            buffer.put( ( byte )next );
+            length++;
+          } else {
+            finished = true;
+          }
+        } else {
+          int bytesRead = channel.read( buffer );
+          if( bytesRead != -1 ) {
+            length += bytesRead;
+          } else {
+            finished = true;
+          }
+        }
+      }
+      completed = true;
+    } finally {
+      if( !completed ) {
+        release( capacity );
+      }
+    }
+    for( ByteBuffer buffer : buffers ) {
+      buffer.flip();
+    }
+    ByteBuffer[] array = buffers.toArray( new ByteBuffer[ buffers.size() ] );
+    DirectBufferContent content
+      = new DirectBufferContent( details, array, length, capacity, budget, usage );
+    synchronized( contents ) {
+      contents.add( content );
+    }
+  }
+
+  /**
+   * Returns the contents of all files that have been received so far, including contents that have
+   * already been disposed of.
+   *
+   * @return the received contents or an empty array if no files have been received yet
+   */
+  public DirectBufferContent[] getContents() {
+    synchronized( contents ) {
+      return contents.toArray( new DirectBufferContent[ 0 ] );
+    }
+  }
+
+  /**
+   * Called when the upload handler of this receiver has expired. Disposes of all received
+   * contents, returns their memory to the budget and removes them from this receiver.
+   *
+   * @see DirectBufferContent#dispose()
+   */
+  @Override
+  public void dispose() {
+    DirectBufferContent[] removed;
+    synchronized( contents ) {
+      removed = contents.toArray( new DirectBufferContent[ 0 ] );
+      contents.clear();
+    }
+    for( DirectBufferContent content : removed ) {
+      content.dispose();
+    }
+  }
+
+  /**
+   * Returns the number of bytes of off-heap memory currently held by the contents received by this
+   * receiver.
+   *
+   * @return the used memory in bytes
+   */
+  public long getDirectMemoryUsage() {
+    return usage.get();
+  }
+
+  /**
+   * Returns the budget that limits the off-heap memory of this receiver.
+   *
+   * @return the budget
+   */
+  public DirectMemoryBudget getBudget() {
+    return budget;
+  }
+
+  /**
+   * Returns the maximum size of a segment in bytes.
+   *
+   * @return the maximum segment size
+   * @see #setSegmentSize(int)
+   */
+  public int getSegmentSize() {
+    return segmentSize;
+  }
+
+  /**
+   * Sets the maximum size of the direct buffers that hold the content of a file. The first
+   * segment of a file holds up to 8 KB, every further segment is as large as all previous
+   * segments together, until the maximum size is reached.
+   *
+   * @param segmentSize the maximum segment size in bytes, must be positive
+   * @see #getSegmentSize()
+   */
+  public void setSegmentSize( int segmentSize ) {
+    if( segmentSize <= 0 ) {
+      throw new IllegalArgumentException( "segmentSize must be positive" );
+    }
+    this.segmentSize = segmentSize;
+  }
+
+  /**
+   * Returns the maximum time in milliseconds to wait for off-heap memory to be released.
+   *
+   * @return the timeout in milliseconds
+   * @see #setBudgetTimeout(long)
+   */
+  public long getBudgetTimeout() {
+    return budgetTimeout;
+  }
+
+  /**
+   * Sets the maximum time in milliseconds to wait for off-heap memory to be released when the
+   * budget is exhausted. If no memory becomes available in time, the upload fails. A value of 0
+   * fails immediately.
+   *
+   * @param budgetTimeout the timeout in milliseconds, must not be negative
+   * @see #getBudgetTimeout()
+   */
+  public void setBudgetTimeout( long budgetTimeout ) {
+    if( budgetTimeout < 0 ) {
+      throw new IllegalArgumentException( "budgetTimeout must not be negative" );
+    }
+    this.budgetTimeout = budgetTimeout;
+  }
+
+  private ByteBuffer allocate( int size ) throws IOException {
+    boolean acquired;
+    try {
+      acquired = budget.acquire( size, budgetTimeout );
+    } catch( InterruptedException exception ) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException( "Interrupted while waiting for off-heap memory" );
+    }
+    if( !acquired ) {
+      throw new IOException( "Off-heap memory budget exhausted" );
+    }
+    usage.addAndGet( size );
+    return ByteBuffer.allocateDirect( size );
+  }
+
+  private void release( long capacity ) {
+    budget.release( capacity );
+    usage.addAndGet( -capacity );
+  }
+
+  // every new segment doubles the capacity allocated so far, until the maximum size is reached
+  private static int getNextSegmentSize( long capacity, int maxSegmentSize ) {
+    long size = Math.max( INITIAL_SEGMENT_SIZE, capacity );
+    return ( int )Math.min( size, maxSegmentSize );
+  }
+
+}
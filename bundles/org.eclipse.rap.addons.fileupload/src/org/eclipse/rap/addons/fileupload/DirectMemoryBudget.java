@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload;
+
+
+/**
+ * Limits the total amount of off-heap memory that is held by direct buffer receivers. A budget can
+ * be shared by any number of receivers. When the budget is exhausted, receivers wait until memory
+ * is released, which stops reading from the client until then.
+ *
+ * @see DirectBufferFileUploadReceiver
+ */
+public final class DirectMemoryBudget {
+
+  private final long limit;
+  private long used;
+  private long waitCount;
+
+  /**
+   * Constructs a new budget.
+   *
+   * @param limit the maximum number of bytes of off-heap memory, must be positive
+   */
+  public DirectMemoryBudget( long limit ) {
+    if( limit <= 0 ) {
+      throw new IllegalArgumentException( "limit must be positive" );
+    }
+    this.limit = limit;
+  }
+
+  /**
+   * Returns the maximum number of bytes of off-heap memory.
+   *
+   * @return the limit in bytes
+   */
+  public long getLimit() {
+    return limit;
+  }
+
+  /**
+   * Returns the number of bytes of off-heap memory currently held by receivers.
+   *
+   * @return the used memory in bytes
+   */
+  public synchronized long getUsed() {
+    return used;
+  }
+
+  /**
+   * Returns how often a receiver had to wait for memory to be released.
+   *
+   * @return the number of waits
+   */
+  public synchronized long getWaitCount() {
+    return waitCount;
+  }
+
+  synchronized boolean acquire( long bytes, long timeout ) throws InterruptedException {
+    boolean result = false;
+    if( bytes <= limit ) {
+      if( used + bytes > limit && timeout > 0 ) {
+        waitCount++;
+        long deadline = System.currentTimeMillis() + timeout;
+        long remaining = timeout;
+        while( used + bytes > limit && remaining > 0 ) {
+          wait( remaining );
+          remaining = deadline - System.currentTimeMillis();
+        }
+      }
+      if( used + bytes <= limit ) {
+        used += bytes;
+        result = true;
+      }
+    }
+    return result;
+  }
+
+  synchronized void release( long bytes ) {
+    used -= bytes;
+    notifyAll();
+  }
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2014 EclipseSource and others.
+ * Copyright (c) 2011, 2026 EclipseSource and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,64 +13,350 @@ package org.eclipse.rap.addons.fileupload;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+
+import org.eclipse.rap.addons.fileupload.internal.DirectorySync;
+import org.eclipse.rap.addons.fileupload.internal.FileDetailsImpl;
+import org.eclipse.rap.addons.fileupload.internal.FsyncStatistics;
+import org.eclipse.rap.addons.fileupload.internal.MessageDigests;
+import org.eclipse.rap.addons.fileupload.internal.ShardedDirectory;
+import org.eclipse.rap.addons.fileupload.internal.StreamDigests;
+import org.eclipse.rap.addons.fileupload.internal.StreamUtil;
 
 
 /**
  * A file upload receiver that stores received files on disk.
+ * <p>
+ * By default, every file is stored in a new temporary directory of its own. These directories are
+ * tracked by the {@link UploadCleanupService}, which deletes a directory when its target file is
+ * released. Alternatively, files can be stored in a shared storage root, see
+ * {@link #setStorageRoot(File)}. The content type of a received file is written to a file next to
+ * it, unless a metadata store is set, see {@link #setMetadataStore(FileMetadataStore)}. To keep
+ * partially received files from appearing under their final names, see
+ * {@link #setStaging(boolean)}.
+ * </p>
  */
 public class DiskFileUploadReceiver extends FileUploadReceiver {
 
+  /**
+   * Determines whether received files are forced to disk before an upload is completed.
+   *
+   * @see DiskFileUploadReceiver#setDurability(Durability)
+   */
+  public static enum Durability {
+
+    /**
+     * Received files are not forced to disk. They are written by the operating system at its own
+     * discretion and may be lost on power failure even when the upload has completed.
+     */
+    NONE,
+
+    /**
+     * Every received file is forced to disk before it is closed, and so is the directory that
+     * contains it, where the platform supports this.
+     */
+    FSYNC
+
+  }
+
   private static final String DEFAULT_CONTENT_TYPE_FILE_NAME = "content-type.tmp";
+  private static final String CONTENT_TYPE_FILE_SUFFIX = ".content-type";
   private static final String DEFAULT_TARGET_FILE_NAME = "upload.tmp";
+  private static final String STAGING_FILE_SUFFIX = ".part";
   private static final String TEMP_DIRECTORY_PREFIX = "fileupload_";
+  private static final long DEFAULT_TRANSFER_WINDOW_SIZE = 1024 * 1024;
 
   private List<File> targetFiles;
   private File contentTypeFile;
+  private boolean channelTransfer;
+  private long transferWindowSize = DEFAULT_TRANSFER_WINDOW_SIZE;
+  private boolean preallocation;
+  private ShardedDirectory storage;
+  private FileMetadataStore metadataStore;
+  private String[] digestAlgorithms;
+  private Durability durability;
+  private boolean staging;
 
   public DiskFileUploadReceiver() {
     targetFiles = new ArrayList<File>();
+    digestAlgorithms = new String[ 0 ];
+    durability = Durability.NONE;
   }
 
   @Override
   public void receive( InputStream dataStream, FileDetails details ) throws IOException {
-    File targetFile = createTargetFile( details );
-    FileOutputStream outputStream = new FileOutputStream( targetFile );
-    try {
-      copy( dataStream, outputStream );
-    } finally {
-      outputStream.close();
+    StreamDigests digests = null;
+    InputStream inputStream = dataStream;
+    if( metadataStore != null ) {
+      digests = new StreamDigests( getMissingDigestAlgorithms( details ) );
+      inputStream = digests.wrap( inputStream );
     }
-    targetFiles.add( targetFile );
-    contentTypeFile = createContentTypeFile( targetFile, details );
-    if( contentTypeFile != null ) {
-      PrintWriter pw = new PrintWriter( contentTypeFile );
-      pw.print( details.getContentType() );
-      pw.close();
+    if( staging ) {
+      File stagingFile = createStagingFile( details );
+      File targetFile = getCommittedFile( stagingFile );
+      boolean committed = false;
+      try {
+        long length = write( inputStream, stagingFile, details );
+        storeMetadata( targetFile, details, length, digests );
+        if( !stagingFile.renameTo( targetFile ) ) {
+          throw new IOException( "Unable to commit file: " + targetFile.getAbsolutePath() );
+        }
+        committed = true;
+        forceDirectory( targetFile.getParentFile(), durability );
+      } finally {
+        if( !committed ) {
+          discard( stagingFile, targetFile );
+        }
+      }
+      targetFiles.add( targetFile );
+    } else {
+      File targetFile = createTargetFile( details );
+      long length = write( inputStream, targetFile, details );
+      forceDirectory( targetFile.getParentFile(), durability );
+      targetFiles.add( targetFile );
+      storeMetadata( targetFile, details, length, digests );
+    }
+  }
+
+  /**
+   * Enables or disables staging of received files. When enabled, received data is written to a
+   * staging file next to the target file, whose name ends with <code>.part</code>. Only when all
+   * data has been written, the staging file is renamed to the target file, so that the target
+   * file never appears with partial contents. If receiving fails, the staging file is deleted
+   * immediately, before the upload listeners are notified about the failure. On most file
+   * systems, the rename is atomic. With {@link Durability#FSYNC}, the rename is forced to disk as
+   * well. In staging mode, target files are not created by <code>createTargetFile()</code>. The
+   * default is <code>false</code>.
+   *
+   * @param staging <code>true</code> to enable staging
+   */
+  public void setStaging( boolean staging ) {
+    this.staging = staging;
+  }
+
+  /**
+   * Returns whether received files are written to staging files first.
+   *
+   * @return <code>true</code> if staging is enabled
+   * @see #setStaging(boolean)
+   */
+  public boolean isStaging() {
+    return staging;
+  }
+
+  /**
+   * Enables or disables the channel-based write mode. When enabled, received data is written to the
+   * target file using {@link FileChannel#transferFrom(ReadableByteChannel, long, long)} instead of
+   * copying it through an intermediate buffer. The default is <code>false</code>.
+   *
+   * @param channelTransfer <code>true</code> to enable channel transfer
+   * @see #setTransferWindowSize(long)
+   */
+  public void setChannelTransfer( boolean channelTransfer ) {
+    this.channelTransfer = channelTransfer;
+  }
+
+  /**
+   * Returns whether the channel-based write mode is enabled.
+   *
+   * @return <code>true</code> if channel transfer is enabled
+   * @see #setChannelTransfer(boolean)
+   */
+  public boolean isChannelTransfer() {
+    return channelTransfer;
+  }
+
+  /**
+   * Sets the maximum number of bytes to transfer in a single channel transfer operation. Only
+   * used when channel transfer is enabled. The default value is 1 MB.
+   *
+   * @param transferWindowSize the transfer window size in bytes, must be positive
+   * @see #setChannelTransfer(boolean)
+   */
+  public void setTransferWindowSize( long transferWindowSize ) {
+    if( transferWindowSize <= 0 ) {
+      throw new IllegalArgumentException( "transferWindowSize must be positive" );
+    }
+    this.transferWindowSize = transferWindowSize;
+  }
+
+  /**
+   * Returns the maximum number of bytes to transfer in a single channel transfer operation.
+   *
+   * @return the transfer window size in bytes
+   * @see #setTransferWindowSize(long)
+   */
+  public long getTransferWindowSize() {
+    return transferWindowSize;
+  }
+
+  /**
+   * Enables or disables preallocation of target files. When enabled, the target file is extended
+   * to the expected content length with {@link java.io.RandomAccessFile#setLength(long)} before
+   * any data is written, and truncated to the actual length when the upload has completed or
+   * failed. Every byte is written only once. Depending on the file system, this either reserves
+   * the space of the file up front or merely sets its length without allocating any blocks.
+   * <p>
+   * Files are only preallocated if the client transmitted the length of the individual file.
+   * Browsers do not do this for the parts of multipart requests, so preallocation only applies to
+   * chunked uploads and to clients that send the length of every file. The default is
+   * <code>false</code>.
+   * </p>
+   *
+   * @param preallocation <code>true</code> to enable preallocation
+   * @see FileDetails#getContentLength()
+   */
+  public void setPreallocation( boolean preallocation ) {
+    this.preallocation = preallocation;
+  }
+
+  /**
+   * Returns whether preallocation of target files is enabled.
+   *
+   * @return <code>true</code> if preallocation is enabled
+   * @see #setPreallocation(boolean)
+   */
+  public boolean isPreallocation() {
+    return preallocation;
+  }
+
+  /**
+   * Sets a root directory that is shared by all files stored by this receiver. Files are stored in
+   * two levels of shard directories below the root, which are created on demand. To avoid
+   * collisions, the name of every target file is the original file name prefixed with a random id
+   * and a dash, e.g. <code>3f/a2/3fa2...-report.pdf</code>. Unlike per-file temporary
+   * directories, files below a storage root are not deleted when the JVM exits. The default is
+   * <code>null</code>, which stores every file in a temporary directory of its own.
+   *
+   * @param storageRoot the root directory or <code>null</code> to use temporary directories
+   * @see #getTargetFiles()
+   */
+  public void setStorageRoot( File storageRoot ) {
+    storage = storageRoot == null ? null : new ShardedDirectory( storageRoot );
+  }
+
+  /**
+   * Returns the root directory that is shared by all files stored by this receiver.
+   *
+   * @return the storage root or <code>null</code> if every file is stored in a temporary
+   *         directory of its own
+   * @see #setStorageRoot(File)
+   */
+  public File getStorageRoot() {
+    return storage == null ? null : storage.getRoot();
+  }
+
+  /**
+   * Sets whether received files are forced to disk before an upload is completed. Forcing a file
+   * and the directory that contains it ensures that the file survives a power failure once the
+   * upload has been reported as finished, but may considerably increase the time needed to store
+   * small files. Directories are only forced on Java 7 and newer, and not on platforms that do not
+   * allow to open directories, such as Windows. The latencies of forcing files and directories are
+   * reported by the <code>FsyncStatistics</code> MBean. The default is {@link Durability#NONE}.
+   *
+   * @param durability the durability of received files, must not be <code>null</code>
+   */
+  public void setDurability( Durability durability ) {
+    if( durability == null ) {
+      throw new NullPointerException( "durability is null" );
     }
+    this.durability = durability;
+  }
+
+  /**
+   * Returns whether received files are forced to disk before an upload is completed.
+   *
+   * @return the durability of received files
+   * @see #setDurability(Durability)
+   */
+  public Durability getDurability() {
+    return durability;
+  }
+
+  /**
+   * Sets a store for the metadata of received files. When a store is set, the original file name,
+   * content type, size and digests of every received file are put into the store instead of
+   * writing the content type to a file next to the target file, so that no additional file is
+   * created per upload. Entries are not removed from the store when target files are deleted. The
+   * default is <code>null</code>, which writes the content type to a file.
+   *
+   * @param metadataStore the metadata store or <code>null</code> to write content type files
+   * @see #setDigestAlgorithms(String...)
+   * @see IndexFileMetadataStore
+   */
+  public void setMetadataStore( FileMetadataStore metadataStore ) {
+    this.metadataStore = metadataStore;
+  }
+
+  /**
+   * Returns the store for the metadata of received files.
+   *
+   * @return the metadata store or <code>null</code> if content types are written to files
+   * @see #setMetadataStore(FileMetadataStore)
+   */
+  public FileMetadataStore getMetadataStore() {
+    return metadataStore;
+  }
+
+  /**
+   * Sets the names of the message digest algorithms, e.g. <code>"SHA-256"</code>, that are computed
+   * for every received file while it is written to disk. Digests are only computed when a
+   * metadata store is set, and are stored with the metadata of the file. Digests that the upload
+   * handler computes anyway are not computed a second time.
+   *
+   * @param algorithms the names of the digest algorithms, must not be <code>null</code>
+   * @throws IllegalArgumentException if one of the algorithms is not available
+   * @see #setMetadataStore(FileMetadataStore)
+   * @see FileMetadata#getDigest(String)
+   * @see FileUploadHandler#setDigestAlgorithms(String...)
+   */
+  public void setDigestAlgorithms( String... algorithms ) {
+    MessageDigests.checkAlgorithms( algorithms );
+    digestAlgorithms = algorithms.clone();
+  }
+
+  /**
+   * Returns the names of the message digest algorithms that are computed for every received file.
+   *
+   * @return the names of the digest algorithms, never <code>null</code>
+   * @see #setDigestAlgorithms(String...)
+   */
+  public String[] getDigestAlgorithms() {
+    return digestAlgorithms.clone();
   }
 
   /**
    * Obtains the content type provided by the client when the given file was uploaded. This method
-   * does not look at the uploaded file contents to determine the content type.
+   * does not look at the uploaded file contents to determine the content type. The content type of
+   * files received with a metadata store is not written to a file and has to be obtained from the
+   * store instead.
    *
    * @param uploadedFile - the file that was uploaded and handled by an instance of
    *        DiskFileUploadReceiver.
    * @return the content type of the uploaded file or <code>null</code> if the content type could
    *         not be found.
+   * @see #setMetadataStore(FileMetadataStore)
    */
   public static String getContentType( File uploadedFile ) {
     String contentType = null;
     BufferedReader br = null;
     if( uploadedFile.exists() ) {
-      File cTypeFile = new File( uploadedFile.getParentFile(), DEFAULT_CONTENT_TYPE_FILE_NAME );
+      File parent = uploadedFile.getParentFile();
+      File cTypeFile = new File( parent, uploadedFile.getName() + CONTENT_TYPE_FILE_SUFFIX );
+      if( !cTypeFile.exists() ) {
+        cTypeFile = new File( parent, DEFAULT_CONTENT_TYPE_FILE_NAME );
+      }
       if( cTypeFile.exists() ) {
         try {
           br = new BufferedReader( new InputStreamReader( new FileInputStream( cTypeFile ) ) );
@@ -100,6 +386,25 @@ public class DiskFileUploadReceiver extends FileUploadReceiver {
     return targetFiles.toArray( new File[ 0 ] );
   }
 
+  /**
+   * Releases the target files that are stored in temporary directories from the
+   * {@link UploadCleanupService}, which deletes these directories unless the files have been
+   * retained. Files in a storage root are not tracked and are kept. Afterwards, no target files
+   * are returned anymore.
+   *
+   * @see UploadCleanupService#retain(File)
+   */
+  @Override
+  public void dispose() {
+    if( storage == null ) {
+      UploadCleanupService cleanupService = UploadCleanupService.getInstance();
+      for( File targetFile : targetFiles ) {
+        cleanupService.release( targetFile );
+      }
+    }
+    targetFiles.clear();
+  }
+
   /**
    * Creates a file to save the received data to. Subclasses may override.
    *
@@ -107,13 +412,7 @@ public class DiskFileUploadReceiver extends FileUploadReceiver {
    * @return the file to store the data in
    */
   protected File createTargetFile( FileDetails details ) throws IOException {
-    String fileName = DEFAULT_TARGET_FILE_NAME;
-    if( details != null && details.getFileName() != null ) {
-      fileName = details.getFileName();
-    }
-    File result = new File( createTempDirectory(), fileName );
-    result.createNewFile();
-    return result;
+    return createFile( getFileName( details ) );
   }
 
   /**
@@ -126,6 +425,10 @@ public class DiskFileUploadReceiver extends FileUploadReceiver {
   protected File createContentTypeFile( File uploadedFile, FileDetails details )
       throws IOException {
     String fileName = DEFAULT_CONTENT_TYPE_FILE_NAME;
+    if( storage != null ) {
+      // the directory is shared with other files
+      fileName = uploadedFile.getName() + CONTENT_TYPE_FILE_SUFFIX;
+    }
     File result = null;
     if( details != null && details.getContentType() != null ) {
       result = new File( uploadedFile.getParentFile(), fileName );
@@ -134,31 +437,230 @@ public class DiskFileUploadReceiver extends FileUploadReceiver {
     return result;
   }
 
+  private long write( InputStream inputStream, File file, FileDetails details )
+    throws IOException
+  {
+    long length;
+    RandomAccessFile randomAccessFile = new RandomAccessFile( file, "rw" );
+    try {
+      FileChannel channel = randomAccessFile.getChannel();
+      long preallocatedLength = preallocation ? getExpectedLength( details ) : 0;
+      // also discards previous contents of a file returned by createTargetFile()
+      randomAccessFile.setLength( preallocatedLength );
+      boolean completed = false;
+      try {
+        if( channelTransfer ) {
+          length = transfer( inputStream, channel, transferWindowSize );
+        } else {
+          length = StreamUtil.copy( inputStream, Channels.newOutputStream( channel ) );
+        }
+        completed = true;
+      } finally {
+        if( !completed && preallocatedLength > 0 ) {
+          // the position of the channel is the number of bytes written so far
+          truncateQuietly( channel, channel.position() );
+        }
+      }
+      if( length < preallocatedLength ) {
+        channel.truncate( length );
+      }
+      force( channel, durability );
+    } finally {
+      randomAccessFile.close();
+    }
+    return length;
+  }
+
+  private void storeMetadata( File targetFile,
+                              FileDetails details,
+                              long length,
+                              StreamDigests digests )
+    throws IOException
+  {
+    if( metadataStore != null ) {
+      String fileName = details == null ? null : details.getFileName();
+      String contentType = details == null ? null : details.getContentType();
+      FileMetadata metadata = new FileMetadata( fileName,
+                                                contentType,
+                                                length,
+                                                getHexDigests( details, digests ) );
+      metadataStore.put( targetFile, metadata );
+    } else {
+      contentTypeFile = createContentTypeFile( targetFile, details );
+      if( contentTypeFile != null ) {
+        PrintWriter pw = new PrintWriter( contentTypeFile );
+        pw.print( details.getContentType() );
+        pw.close();
+      }
+    }
+  }
+
+  /*
+   * Returns the digest algorithms that are not already computed by the upload handler for the
+   * stream that is passed to this receiver.
+   */
+  private String[] getMissingDigestAlgorithms( FileDetails details ) {
+    StreamDigests handlerDigests = getHandlerDigests( details );
+    List<String> result = new ArrayList<String>();
+    for( String algorithm : digestAlgorithms ) {
+      if( handlerDigests == null || !handlerDigests.contains( algorithm ) ) {
+        result.add( algorithm );
+      }
+    }
+    return result.toArray( new String[ result.size() ] );
+  }
+
+  private Map<String, String> getHexDigests( FileDetails details, StreamDigests digests ) {
+    Map<String, String> result = new HashMap<String, String>();
+    Map<String, String> ownDigests = digests.getHexDigests();
+    if( ownDigests != null ) {
+      result.putAll( ownDigests );
+    }
+    StreamDigests handlerDigests = getHandlerDigests( details );
+    for( String algorithm : digestAlgorithms ) {
+      if( handlerDigests != null && handlerDigests.contains( algorithm ) ) {
+        // the stream has been read completely, hence the digests of the handler are complete
+        result.put( algorithm, handlerDigests.getHexDigests().get( algorithm ) );
+      }
+    }
+    return result;
+  }
+
+  private static StreamDigests getHandlerDigests( FileDetails details ) {
+    StreamDigests result = null;
+    if( details instanceof FileDetailsImpl ) {
+      result = ( ( FileDetailsImpl )details ).getStreamDigests();
+    }
+    return result;
+  }
+
+  private File createStagingFile( FileDetails details ) throws IOException {
+    return createFile( getFileName( details ) + STAGING_FILE_SUFFIX );
+  }
+
+  private File createFile( String fileName ) throws IOException {
+    File result;
+    if( storage != null ) {
+      result = storage.createFile( fileName );
+    } else {
+      result = new File( createTempDirectory( metadataStore ), fileName );
+      result.createNewFile();
+    }
+    return result;
+  }
+
+  /*
+   * Deletes a staging file that has not been committed, along with the metadata that has already
+   * been stored for its target file.
+   */
+  private void discard( File stagingFile, File targetFile ) {
+    stagingFile.delete();
+    if( metadataStore != null ) {
+      try {
+        metadataStore.remove( targetFile );
+      } catch( IOException exception ) {
+        // the metadata of a missing file is harmless, don't hide the original exception
+      }
+    }
+    File directory = stagingFile.getParentFile();
+    if( storage != null ) {
+      new File( directory, targetFile.getName() + CONTENT_TYPE_FILE_SUFFIX ).delete();
+    } else {
+      // the temporary directory was created for this file only
+      new File( directory, DEFAULT_CONTENT_TYPE_FILE_NAME ).delete();
+      directory.delete();
+      UploadCleanupService.getInstance().unregister( directory );
+    }
+  }
 
-  private static File createTempDirectory() throws IOException {
+  private static String getFileName( FileDetails details ) {
+    String result = DEFAULT_TARGET_FILE_NAME;
+    if( details != null && details.getFileName() != null ) {
+      result = details.getFileName();
+    }
+    return result;
+  }
+
+  private static File getCommittedFile( File stagingFile ) {
+    String name = stagingFile.getName();
+    String targetName = name.substring( 0, name.length() - STAGING_FILE_SUFFIX.length() );
+    return new File( stagingFile.getParentFile(), targetName );
+  }
+
+  private static File createTempDirectory( FileMetadataStore metadataStore ) throws IOException {
     File result = File.createTempFile( TEMP_DIRECTORY_PREFIX, "" );
     result.delete();
     if( result.mkdir() ) {
-      result.deleteOnExit();
+      UploadCleanupService.getInstance().register( result, metadataStore );
     } else {
       throw new IOException( "Unable to create temp directory: " + result.getAbsolutePath() );
     }
     return result;
   }
 
-  private static void copy( InputStream inputStream, OutputStream outputStream )
+  private static long getExpectedLength( FileDetails details ) {
+    return details != null && details.getContentLength() > 0 ? details.getContentLength() : 0;
+  }
+
+  private static void truncateQuietly( FileChannel channel, long length ) {
+    try {
+      channel.truncate( length );
+    } catch( IOException exception ) {
+      // don't hide the original exception
+    }
+  }
+
+  private static void force( FileChannel channel, Durability durability ) throws IOException {
+    if( durability == Durability.FSYNC ) {
+      FsyncStatistics statistics = FsyncStatistics.getInstance();
+      long startTime = System.nanoTime();
+      try {
+        channel.force( true );
+      } catch( IOException exception ) {
+        statistics.fsyncFailed();
+        throw exception;
+      }
+      statistics.fsyncCompleted( System.nanoTime() - startTime );
+    }
+  }
+
+  /*
+   * Forces the entry of a file that has been created in the given directory to disk.
+   */
+  private static void forceDirectory( File directory, Durability durability ) throws IOException {
+    if( durability == Durability.FSYNC ) {
+      FsyncStatistics statistics = FsyncStatistics.getInstance();
+      long startTime = System.nanoTime();
+      boolean synced;
+      try {
+        synced = DirectorySync.sync( directory );
+      } catch( IOException exception ) {
+        statistics.fsyncFailed();
+        throw exception;
+      }
+      if( synced ) {
+        statistics.fsyncCompleted( System.nanoTime() - startTime );
+      }
+    }
+  }
+
+  private static long transfer( InputStream inputStream, FileChannel channel, long windowSize )
     throws IOException
   {
-    byte[] buffer = new byte[ 8192 ];
+    ReadableByteChannel inputChannel = Channels.newChannel( inputStream );
+    long position = 0;
     boolean finished = false;
     while( !finished ) {
-      int bytesRead = inputStream.read( buffer );
-      if( bytesRead != -1 ) {
-        outputStream.write( buffer, 0, bytesRead );
+      long bytesTransferred = channel.transferFrom( inputChannel, position, windowSize );
+      if( bytesTransferred > 0 ) {
+        position += bytesTransferred;
+        // keep track of the bytes written in case the transfer fails
+        channel.position( position );
       } else {
         finished = true;
       }
     }
+    return position;
   }
 
 }
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * The metadata of a stored file: the original file name and content type as transmitted by the
+ * client, the size of the stored file and its message digests. Instances are immutable.
+ *
+ * @see FileMetadataStore
+ */
+public final class FileMetadata {
+
+  private final String fileName;
+  private final String contentType;
+  private final long size;
+  private final Map<String, String> digests;
+
+  /**
+   * Constructs new file metadata.
+   *
+   * @param fileName the original file name or <code>null</code> if unknown
+   * @param contentType the content type or <code>null</code> if unknown
+   * @param size the size of the stored file in bytes
+   * @param digests the hexadecimal digests by algorithm name or <code>null</code> if no digests
+   *          have been computed
+   */
+  public FileMetadata( String fileName, String contentType, long size, Map<String, String> digests )
+  {
+    this.fileName = fileName;
+    this.contentType = contentType;
+    this.size = size;
+    if( digests == null || digests.isEmpty() ) {
+      this.digests = Collections.emptyMap();
+    } else {
+      this.digests = Collections.unmodifiableMap( new HashMap<String, String>( digests ) );
+    }
+  }
+
+  /**
+   * Returns the original file name as transmitted by the client.
+   *
+   * @return the file name or <code>null</code> if unknown
+   */
+  public String getFileName() {
+    return fileName;
+  }
+
+  /**
+   * Returns the content type as transmitted by the client.
+   *
+   * @return the content type or <code>null</code> if unknown
+   */
+  public String getContentType() {
+    return contentType;
+  }
+
+  /**
+   * Returns the size of the stored file.
+   *
+   * @return the size in bytes
+   */
+  public long getSize() {
+    return size;
+  }
+
+  /**
+   * Returns the message digest of the stored file for the given algorithm.
+   *
+   * @param algorithm the name of the digest algorithm, e.g. <code>"SHA-256"</code>
+   * @return the digest as lower-case hexadecimal string or <code>null</code> if no digest has been
+   *         computed for the given algorithm
+   */
+  public String getDigest( String algorithm ) {
+    return digests.get( algorithm );
+  }
+
+  /**
+   * Returns all digests of the stored file.
+   *
+   * @return an unmodifiable map of hexadecimal digests by algorithm name, never <code>null</code>
+   */
+  public Map<String, String> getDigests() {
+    return digests;
+  }
+
+}
@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload;
+
+import java.io.File;
+import java.io.IOException;
+
+
+/**
+ * Stores the metadata of uploaded files, e.g. for a {@link DiskFileUploadReceiver}. Lookups should
+ * not require access to the file system. Implementations must be thread-safe.
+ *
+ * @see MemoryFileMetadataStore
+ * @see IndexFileMetadataStore
+ * @see DiskFileUploadReceiver#setMetadataStore(FileMetadataStore)
+ */
+public interface FileMetadataStore {
+
+  /**
+   * Stores the metadata of the given file, replacing any metadata that has been stored for this
+   * file before.
+   *
+   * @param file the file the metadata belongs to, must not be <code>null</code>
+   * @param metadata the metadata, must not be <code>null</code>
+   * @throws IOException if the metadata could not be stored
+   */
+  void put( File file, FileMetadata metadata ) throws IOException;
+
+  /**
+   * Returns the metadata of the given file.
+   *
+   * @param file the file to look up
+   * @return the metadata or <code>null</code> if no metadata has been stored for this file
+   */
+  FileMetadata get( File file );
+
+  /**
+   * Removes the metadata of the given file, e.g. when the file has been deleted.
+   *
+   * @param file the file to remove the metadata of
+   * @throws IOException if the metadata could not be removed
+   */
+  void remove( File file ) throws IOException;
+
+}
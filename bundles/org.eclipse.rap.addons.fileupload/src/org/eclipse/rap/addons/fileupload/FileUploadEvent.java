@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2013 EclipseSource and others.
+ * Copyright (c) 2011, 2026 EclipseSource and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -29,7 +29,8 @@ public abstract class FileUploadEvent extends EventObject {
   }
 
   /**
-   * Array with details about successfully uploaded files.
+   * Array with details about successfully uploaded files. The array is shared by all listeners and
+   * must not be modified. The details implement {@link ReceivedFileDetails}.
    *
    * @return an array with details about successfully uploaded files.
    */
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2012 EclipseSource and others.
+ * Copyright (c) 2011, 2026 EclipseSource and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,6 +13,8 @@ package org.eclipse.rap.addons.fileupload;
 import org.eclipse.rap.addons.fileupload.internal.FileUploadHandlerStore;
 import org.eclipse.rap.addons.fileupload.internal.FileUploadListenerList;
 import org.eclipse.rap.addons.fileupload.internal.FileUploadServiceHandler;
+import org.eclipse.rap.addons.fileupload.internal.MessageDigests;
+import org.eclipse.rap.rwt.RWT;
 
 
 /**
@@ -20,6 +22,22 @@ import org.eclipse.rap.addons.fileupload.internal.FileUploadServiceHandler;
  * handler, the server will accept file uploads to the URL returned by <code>getUploadUrl()</code>.
  * Upload listeners can be attached to react on progress. When the upload has finished, a
  * FileUploadHandler has to be disposed of by calling its <code>dispose()</code> method.
+ * <p>
+ * A handler that is created within a UI session is disposed of automatically when this UI session
+ * is destroyed. Optionally, an idle timeout can be set, after which a handler that has not received
+ * any upload requests is disposed of automatically.
+ * </p>
+ * <p>
+ * Besides multipart POST requests, the upload URL also accepts resumable uploads. A client sends
+ * consecutive chunks of a single file as PUT requests with a header
+ * <code>Content-Range: bytes &lt;first&gt;-&lt;last&gt;/&lt;total&gt;</code>, and may query the
+ * number of bytes committed so far with an empty PUT request and the header
+ * <code>Content-Range: bytes *&#47;&lt;total&gt;</code>. Every response contains the committed
+ * offset in the header <code>Upload-Offset</code>. A chunk that does not start at the committed
+ * offset is rejected with status 416. The file name can be transmitted with a
+ * <code>Content-Disposition</code> header. Listeners are notified of the finished upload after
+ * the last chunk has been received.
+ * </p>
  *
  * @noextend This class is not intended to be subclassed by clients.
  */
@@ -29,6 +47,14 @@ public class FileUploadHandler {
   private final FileUploadReceiver receiver;
   private final FileUploadListenerList listeners;
   private long maxFileSize = -1;
+  private String[] digestAlgorithms = new String[ 0 ];
+  private boolean asyncProcessing;
+  private long asyncTimeout = 10 * 60 * 1000;
+  private long progressInterval;
+  private long progressByteThreshold;
+  private int progressPercentThreshold;
+  private volatile long idleTimeout;
+  private volatile long maxBandwidth;
 
   /**
    * Constructs a file upload handler that is associated with the given receiver. The receiver is
@@ -45,6 +71,7 @@ public class FileUploadHandler {
     token = FileUploadHandlerStore.createToken();
     listeners = new FileUploadListenerList();
     FileUploadHandlerStore.getInstance().registerHandler( token, this );
+    UploadCleanupService.getInstance().attach( RWT.getApplicationContext() );
   }
 
   /**
@@ -96,7 +123,12 @@ public class FileUploadHandler {
   /**
    * Closes and de-registers the upload handler. After calling this method, no subsequent upload
    * requests for this handler will be accepted anymore. Clients <em>must</em> call this method
-   * before discarding the instance of the handler to allow it to be garbage collected.
+   * before discarding the instance of the handler to allow it to be garbage collected. The receiver
+   * of this handler is not disposed of, hence received files remain available. Only the receivers
+   * of handlers that expire are disposed of.
+   *
+   * @see FileUploadReceiver#dispose()
+   * @see #setIdleTimeout(long)
    */
   public void dispose() {
     FileUploadHandlerStore.getInstance().deregisterHandler( token );
@@ -120,6 +152,220 @@ public class FileUploadHandler {
     this.maxFileSize = maxFileSize;
   }
 
+  /**
+   * Returns the names of the message digest algorithms that are computed for every uploaded file.
+   * By default, no digests are computed.
+   *
+   * @return the names of the digest algorithms, never <code>null</code>
+   * @see #setDigestAlgorithms
+   */
+  public String[] getDigestAlgorithms() {
+    return digestAlgorithms.clone();
+  }
+
+  /**
+   * Sets the names of the message digest algorithms, e.g. <code>"SHA-256"</code>, that are computed
+   * for every uploaded file while its data is passed to the receiver. The digests are available
+   * from the file details of the upload event.
+   *
+   * @param algorithms the names of the digest algorithms, must not be <code>null</code>
+   * @throws IllegalArgumentException if one of the algorithms is not available
+   * @see ReceivedFileDetails#getDigest(String)
+   * @see #getDigestAlgorithms
+   */
+  public void setDigestAlgorithms( String... algorithms ) {
+    MessageDigests.checkAlgorithms( algorithms );
+    digestAlgorithms = algorithms.clone();
+  }
+
+  /**
+   * Returns whether uploads to this handler are read asynchronously.
+   *
+   * @return <code>true</code> if asynchronous processing is enabled
+   * @see #setAsyncProcessing
+   */
+  public boolean isAsyncProcessing() {
+    return asyncProcessing;
+  }
+
+  /**
+   * Enables or disables asynchronous processing of uploads. When enabled, and the servlet
+   * container supports asynchronous requests and non-blocking I/O (Servlet 3.1), the request data
+   * is read without blocking a container thread while the client transmits it. The data is passed
+   * to the receiver on a separate thread as it arrives, through a small buffer in memory. While
+   * the receiver does not keep up with the client, e.g. because of a bandwidth limit, reading
+   * waits for the receiver. On other containers, uploads are processed synchronously. The default
+   * is <code>false</code>.
+   * <p>
+   * Note that asynchronously processed uploads notify the listeners and call the receiver on a
+   * thread that has no RWT context.
+   * </p>
+   *
+   * @param asyncProcessing <code>true</code> to enable asynchronous processing
+   * @see #isAsyncProcessing
+   * @see #setAsyncTimeout
+   */
+  public void setAsyncProcessing( boolean asyncProcessing ) {
+    this.asyncProcessing = asyncProcessing;
+  }
+
+  /**
+   * Returns the time in milliseconds within which an asynchronously processed upload must be
+   * completed.
+   *
+   * @see #setAsyncTimeout
+   */
+  public long getAsyncTimeout() {
+    return asyncTimeout;
+  }
+
+  /**
+   * Sets the time in milliseconds within which an asynchronously processed upload must be
+   * completed. Uploads that take longer fail with status 408, so that a stalled client does not
+   * hold on to its resources. The default is ten minutes.
+   *
+   * @param asyncTimeout the timeout in milliseconds, must be positive
+   * @see #setAsyncProcessing
+   */
+  public void setAsyncTimeout( long asyncTimeout ) {
+    if( asyncTimeout <= 0 ) {
+      throw new IllegalArgumentException( "asyncTimeout must be positive" );
+    }
+    this.asyncTimeout = asyncTimeout;
+  }
+
+  /**
+   * Returns the minimum time in milliseconds between two progress notifications. The default
+   * value of 0 indicates no time-based throttling.
+   *
+   * @see #setProgressInterval
+   */
+  public long getProgressInterval() {
+    return progressInterval;
+  }
+
+  /**
+   * Sets the minimum time in milliseconds between two progress notifications. A value of 0
+   * indicates no time-based throttling.
+   * <p>
+   * When any progress threshold is set, listeners are notified of progress only when at least one
+   * of the thresholds has been reached since the last notification. The first and the final
+   * progress notification of an upload are always delivered.
+   * </p>
+   *
+   * @param progressInterval the interval in milliseconds, must not be negative
+   * @see #setProgressByteThreshold
+   * @see #setProgressPercentThreshold
+   */
+  public void setProgressInterval( long progressInterval ) {
+    if( progressInterval < 0 ) {
+      throw new IllegalArgumentException( "progressInterval must not be negative" );
+    }
+    this.progressInterval = progressInterval;
+  }
+
+  /**
+   * Returns the minimum number of bytes received between two progress notifications. The default
+   * value of 0 indicates no byte-based throttling.
+   *
+   * @see #setProgressByteThreshold
+   */
+  public long getProgressByteThreshold() {
+    return progressByteThreshold;
+  }
+
+  /**
+   * Sets the minimum number of bytes received between two progress notifications. A value of 0
+   * indicates no byte-based throttling.
+   *
+   * @param progressByteThreshold the number of bytes, must not be negative
+   * @see #setProgressInterval
+   */
+  public void setProgressByteThreshold( long progressByteThreshold ) {
+    if( progressByteThreshold < 0 ) {
+      throw new IllegalArgumentException( "progressByteThreshold must not be negative" );
+    }
+    this.progressByteThreshold = progressByteThreshold;
+  }
+
+  /**
+   * Returns the minimum progress in percent of the content length between two progress
+   * notifications. The default value of 0 indicates no percentage-based throttling.
+   *
+   * @see #setProgressPercentThreshold
+   */
+  public int getProgressPercentThreshold() {
+    return progressPercentThreshold;
+  }
+
+  /**
+   * Sets the minimum progress in percent of the content length between two progress
+   * notifications. A value of 0 indicates no percentage-based throttling. This threshold has no
+   * effect if the content length is unknown.
+   *
+   * @param progressPercentThreshold the percentage, must be between 0 and 100
+   * @see #setProgressInterval
+   */
+  public void setProgressPercentThreshold( int progressPercentThreshold ) {
+    if( progressPercentThreshold < 0 || progressPercentThreshold > 100 ) {
+      throw new IllegalArgumentException( "progressPercentThreshold must be between 0 and 100" );
+    }
+    this.progressPercentThreshold = progressPercentThreshold;
+  }
+
+  /**
+   * Returns the time in milliseconds after which this handler is disposed of if it has not been
+   * used. The default value of 0 indicates no timeout.
+   *
+   * @see #setIdleTimeout
+   */
+  public long getIdleTimeout() {
+    return idleTimeout;
+  }
+
+  /**
+   * Sets the time in milliseconds after which this handler is disposed of automatically if no
+   * upload request has been received for it. A handler does not expire while an upload is in
+   * progress. Expired handlers are removed periodically by a background task, which disposes of
+   * their receivers. A value of 0 indicates no timeout.
+   *
+   * @param idleTimeout the timeout in milliseconds, must not be negative
+   * @see #getIdleTimeout
+   */
+  public void setIdleTimeout( long idleTimeout ) {
+    if( idleTimeout < 0 ) {
+      throw new IllegalArgumentException( "idleTimeout must not be negative" );
+    }
+    this.idleTimeout = idleTimeout;
+  }
+
+  /**
+   * Returns the maximum number of bytes per second that all uploads to this handler may transmit
+   * together. The default value of 0 indicates no limit.
+   *
+   * @see #setMaxBandwidth
+   */
+  public long getMaxBandwidth() {
+    return maxBandwidth;
+  }
+
+  /**
+   * Sets the maximum number of bytes per second that all uploads to this handler may transmit
+   * together. Uploads that exceed the limit are slowed down by reading the uploaded data at a
+   * lower rate. In addition, the bandwidth of all uploads of a UI session can be limited with
+   * {@link UploadAdmissionControl#setMaxBandwidthPerSession(long)}. A value of 0 indicates no
+   * limit.
+   *
+   * @param maxBandwidth the maximum bandwidth in bytes per second, must not be negative
+   * @see #getMaxBandwidth
+   */
+  public void setMaxBandwidth( long maxBandwidth ) {
+    if( maxBandwidth < 0 ) {
+      throw new IllegalArgumentException( "maxBandwidth must not be negative" );
+    }
+    this.maxBandwidth = maxBandwidth;
+  }
+
   FileUploadListenerList getListeners() {
     return listeners;
   }
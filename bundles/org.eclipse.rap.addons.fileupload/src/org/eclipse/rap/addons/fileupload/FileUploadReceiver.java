@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2013 EclipseSource and others.
+ * Copyright (c) 2011, 2026 EclipseSource and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -29,4 +29,17 @@ public abstract class FileUploadReceiver {
    */
   public abstract void receive( InputStream stream, FileDetails details ) throws IOException;
 
+  /**
+   * Called when the upload handler of this receiver has expired, i.e. it has exceeded its idle
+   * timeout or the UI session it has been created in has been destroyed. Receivers can release the
+   * resources that they hold for received files. This method is not called when the handler is
+   * disposed of explicitly, since the received files may still be in use. The default
+   * implementation does nothing.
+   *
+   * @see FileUploadHandler#setIdleTimeout(long)
+   */
+  public void dispose() {
+    // nothing to release by default
+  }
+
 }
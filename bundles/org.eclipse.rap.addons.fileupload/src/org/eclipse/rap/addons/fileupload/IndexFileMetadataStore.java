@@ -0,0 +1,413 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+
+/**
+ * A metadata store that keeps the metadata of all files in memory and persists it in a single
+ * append-only index file in a storage root. Every change appends one line to the index, so that
+ * storing metadata does not create any files. When the store is created, the index is read back
+ * into memory. Lookups never access the file system.
+ * <p>
+ * Files below the storage root are recorded with paths relative to the root, so the root can be
+ * moved as a whole. As removed entries remain in the index until it is compacted, applications
+ * that remove many entries should call {@link #compact()} from time to time. A compaction that is
+ * interrupted, e.g. by a crash, is recovered when the store is created again. So is a change that
+ * has only been written partially, it is discarded.
+ * </p>
+ *
+ * @see DiskFileUploadReceiver#setStorageRoot(File)
+ */
+public class IndexFileMetadataStore implements FileMetadataStore {
+
+  /**
+   * The name of the index file in the storage root.
+   */
+  public static final String INDEX_FILE_NAME = "metadata.index";
+
+  private static final String COMPACTED_FILE_SUFFIX = ".tmp";
+  private static final String ENCODING = "UTF-8";
+  private static final String PUT = "+";
+  private static final String REMOVE = "-";
+  private static final char SEPARATOR = '\t';
+  private static final String NULL = "\\0";
+  private static final int PARTIAL_LINE_BLOCK_SIZE = 512;
+
+  private final File root;
+  private final File indexFile;
+  private final File compactedFile;
+  private final ConcurrentMap<File, FileMetadata> entries;
+  private Writer writer;
+
+  /**
+   * Constructs a metadata store with an index file in the given storage root. If the index file
+   * exists, its entries are loaded. Otherwise the storage root and the index file are created.
+   *
+   * @param storageRoot the directory to keep the index file in, must not be <code>null</code>
+   * @throws IOException if the index file could not be read or created
+   */
+  public IndexFileMetadataStore( File storageRoot ) throws IOException {
+    if( storageRoot == null ) {
+      throw new NullPointerException( "storageRoot is null" );
+    }
+    root = storageRoot.getAbsoluteFile();
+    indexFile = new File( root, INDEX_FILE_NAME );
+    compactedFile = new File( root, INDEX_FILE_NAME + COMPACTED_FILE_SUFFIX );
+    entries = new ConcurrentHashMap<File, FileMetadata>();
+    if( !root.isDirectory() && !root.mkdirs() ) {
+      throw new IOException( "Unable to create storage root: " + root );
+    }
+    recover();
+    File currentFile = getCurrentFile();
+    if( currentFile.exists() ) {
+      discardPartialLine( currentFile );
+      load( currentFile );
+    }
+    writer = openWriter( currentFile, true );
+  }
+
+  /**
+   * Returns the index file of this store.
+   *
+   * @return the index file
+   */
+  public File getIndexFile() {
+    return indexFile;
+  }
+
+  public synchronized void put( File file, FileMetadata metadata ) throws IOException {
+    if( file == null ) {
+      throw new NullPointerException( "file is null" );
+    }
+    if( metadata == null ) {
+      throw new NullPointerException( "metadata is null" );
+    }
+    File absoluteFile = file.getAbsoluteFile();
+    append( formatPut( absoluteFile, metadata ) );
+    entries.put( absoluteFile, metadata );
+  }
+
+  public FileMetadata get( File file ) {
+    return file == null ? null : entries.get( file.getAbsoluteFile() );
+  }
+
+  public synchronized void remove( File file ) throws IOException {
+    if( file == null ) {
+      throw new NullPointerException( "file is null" );
+    }
+    File absoluteFile = file.getAbsoluteFile();
+    if( entries.containsKey( absoluteFile ) ) {
+      append( REMOVE + SEPARATOR + escape( toPath( absoluteFile ) ) );
+      entries.remove( absoluteFile );
+    }
+  }
+
+  /**
+   * Returns the number of files whose metadata is stored.
+   *
+   * @return the number of entries
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Rewrites the index file so that it only contains the current entries. The entries are written
+   * to a new file that replaces the index file when it is complete.
+   *
+   * @throws IOException if the index file could not be rewritten
+   */
+  public synchronized void compact() throws IOException {
+    checkOpen();
+    if( getCurrentFile() == compactedFile ) {
+      // a previous compaction could not replace the index file, it must not be overwritten
+      replaceIndexFile();
+    }
+    writeCompactedFile();
+    replaceIndexFile();
+  }
+
+  /**
+   * Closes the index file. The store cannot be modified anymore afterwards, but lookups still
+   * succeed.
+   *
+   * @throws IOException if the index file could not be closed
+   */
+  public synchronized void close() throws IOException {
+    if( writer != null ) {
+      writer.close();
+      writer = null;
+    }
+  }
+
+  private void writeCompactedFile() throws IOException {
+    FileOutputStream outputStream = new FileOutputStream( compactedFile );
+    try {
+      OutputStreamWriter streamWriter = new OutputStreamWriter( outputStream, ENCODING );
+      Writer compactedWriter = new BufferedWriter( streamWriter );
+      for( Entry<File, FileMetadata> entry : entries.entrySet() ) {
+        compactedWriter.write( formatPut( entry.getKey(), entry.getValue() ) );
+        compactedWriter.write( '\n' );
+      }
+      compactedWriter.flush();
+      // the compacted file must be complete on disk before it replaces the index
+      outputStream.getFD().sync();
+    } finally {
+      outputStream.close();
+    }
+  }
+
+  private void replaceIndexFile() throws IOException {
+    Writer currentWriter = writer;
+    writer = null;
+    try {
+      currentWriter.close();
+      // File#renameTo replaces an existing file atomically on POSIX systems, but fails on others
+      if(    !compactedFile.renameTo( indexFile )
+          && ( !indexFile.delete() || !compactedFile.renameTo( indexFile ) ) )
+      {
+        throw new IOException( "Unable to replace index file: " + indexFile );
+      }
+    } finally {
+      // continue with the file that is read back, even if it could not be replaced
+      writer = openWriter( getCurrentFile(), true );
+    }
+  }
+
+  /*
+   * Completes or discards a compaction that has been interrupted. The compacted file is complete
+   * if the index file has already been deleted, otherwise the index file is still valid.
+   */
+  private void recover() {
+    if( indexFile.exists() ) {
+      compactedFile.delete();
+    } else if( compactedFile.exists() ) {
+      compactedFile.renameTo( indexFile );
+    }
+  }
+
+  // the compacted file is only current if the index file has been deleted but not yet replaced
+  private File getCurrentFile() {
+    return !indexFile.exists() && compactedFile.exists() ? compactedFile : indexFile;
+  }
+
+  private void load( File file ) throws IOException {
+    BufferedReader reader
+      = new BufferedReader( new InputStreamReader( new FileInputStream( file ), ENCODING ) );
+    try {
+      String line = reader.readLine();
+      while( line != null ) {
+        // lines that cannot be parsed are skipped
+        String[] fields = line.split( String.valueOf( SEPARATOR ), -1 );
+        if( PUT.equals( fields[ 0 ] ) && fields.length == 6 ) {
+          loadPut( fields );
+        } else if( REMOVE.equals( fields[ 0 ] ) && fields.length == 2 ) {
+          entries.remove( toFile( unescape( fields[ 1 ] ) ) );
+        }
+        line = reader.readLine();
+      }
+    } finally {
+      reader.close();
+    }
+  }
+
+  /*
+   * Truncates the file after its last line feed. A line without a line feed has been written
+   * partially, e.g. before a crash. It may still be parsable but contain truncated values, and new
+   * lines must not be appended to it.
+   */
+  private static void discardPartialLine( File file ) throws IOException {
+    RandomAccessFile randomAccessFile = new RandomAccessFile( file, "rw" );
+    try {
+      byte[] bytes = new byte[ PARTIAL_LINE_BLOCK_SIZE ];
+      long end = randomAccessFile.length();
+      long position = end;
+      boolean finished = false;
+      while( !finished && position > 0 ) {
+        int length = ( int )Math.min( bytes.length, position );
+        randomAccessFile.seek( position - length );
+        randomAccessFile.readFully( bytes, 0, length );
+        int index = length - 1;
+        while( index >= 0 && bytes[ index ] != '\n' ) {
+          index--;
+        }
+        if( index >= 0 ) {
+          position = position - length + index + 1;
+          finished = true;
+        } else {
+          position -= length;
+        }
+      }
+      if( position < end ) {
+        randomAccessFile.setLength( position );
+      }
+    } finally {
+      randomAccessFile.close();
+    }
+  }
+
+  private void loadPut( String[] fields ) {
+    try {
+      long size = Long.parseLong( fields[ 2 ] );
+      FileMetadata metadata = new FileMetadata( unescape( fields[ 3 ] ),
+                                                unescape( fields[ 4 ] ),
+                                                size,
+                                                parseDigests( fields[ 5 ] ) );
+      entries.put( toFile( unescape( fields[ 1 ] ) ), metadata );
+    } catch( NumberFormatException exception ) {
+      // skip malformed line
+    }
+  }
+
+  private void append( String record ) throws IOException {
+    checkOpen();
+    writer.write( record );
+    writer.write( '\n' );
+    writer.flush();
+  }
+
+  private void checkOpen() throws IOException {
+    if( writer == null ) {
+      throw new IOException( "Metadata store is closed" );
+    }
+  }
+
+  private String formatPut( File file, FileMetadata metadata ) {
+    StringBuilder builder = new StringBuilder();
+    builder.append( PUT ).append( SEPARATOR );
+    builder.append( escape( toPath( file ) ) ).append( SEPARATOR );
+    builder.append( metadata.getSize() ).append( SEPARATOR );
+    builder.append( escape( metadata.getFileName() ) ).append( SEPARATOR );
+    builder.append( escape( metadata.getContentType() ) ).append( SEPARATOR );
+    builder.append( formatDigests( metadata.getDigests() ) );
+    return builder.toString();
+  }
+
+  private String toPath( File file ) {
+    String result = file.getPath();
+    String rootPath = root.getPath() + File.separator;
+    if( result.startsWith( rootPath ) ) {
+      result = result.substring( rootPath.length() );
+    }
+    return result;
+  }
+
+  private File toFile( String path ) {
+    File file = new File( path );
+    return file.isAbsolute() ? file : new File( root, path );
+  }
+
+  private static String formatDigests( Map<String, String> digests ) {
+    StringBuilder builder = new StringBuilder();
+    for( Entry<String, String> entry : digests.entrySet() ) {
+      if( builder.length() > 0 ) {
+        builder.append( ',' );
+      }
+      builder.append( escape( entry.getKey() ) ).append( '=' ).append( entry.getValue() );
+    }
+    return builder.toString();
+  }
+
+  private static Map<String, String> parseDigests( String field ) {
+    Map<String, String> result = new HashMap<String, String>();
+    if( field.length() > 0 ) {
+      for( String digest : field.split( "," ) ) {
+        int index = digest.lastIndexOf( '=' );
+        if( index != -1 ) {
+          result.put( unescape( digest.substring( 0, index ) ), digest.substring( index + 1 ) );
+        }
+      }
+    }
+    return result;
+  }
+
+  static String escape( String value ) {
+    String result = NULL;
+    if( value != null ) {
+      StringBuilder builder = new StringBuilder( value.length() );
+      for( int i = 0; i < value.length(); i++ ) {
+        char character = value.charAt( i );
+        switch( character ) {
+          case '\\':
+            builder.append( "\\\\" );
+          break;
+          case '\t':
+            builder.append( "\\t" );
+          break;
+          case '\n':
+            builder.append( "\\n" );
+          break;
+          case '\r':
+            builder.append( "\\r" );
+          break;
+          case ',':
+            builder.append( "\\c" );
+          break;
+          default:
+            builder.append( character );
+        }
+      }
+      result = builder.toString();
+    }
+    return result;
+  }
+
+  static String unescape( String value ) {
+    String result = null;
+    if( !NULL.equals( value ) ) {
+      StringBuilder builder = new StringBuilder( value.length() );
+      for( int i = 0; i < value.length(); i++ ) {
+        char character = value.charAt( i );
+        if( character == '\\' && i + 1 < value.length() ) {
+          i++;
+          char escaped = value.charAt( i );
+          if( escaped == 't' ) {
+            builder.append( '\t' );
+          } else if( escaped == 'n' ) {
+            builder.append( '\n' );
+          } else if( escaped == 'r' ) {
+            builder.append( '\r' );
+          } else if( escaped == 'c' ) {
+            builder.append( ',' );
+          } else {
+            builder.append( escaped );
+          }
+        } else {
+          builder.append( character );
+        }
+      }
+      result = builder.toString();
+    }
+    return result;
+  }
+
+  private static Writer openWriter( File file, boolean append ) throws IOException {
+    FileOutputStream outputStream = new FileOutputStream( file, append );
+    return new BufferedWriter( new OutputStreamWriter( outputStream, ENCODING ) );
+  }
+
+}
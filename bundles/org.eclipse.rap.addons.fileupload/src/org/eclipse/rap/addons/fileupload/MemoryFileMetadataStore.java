@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload;
+
+import java.io.File;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+
+/**
+ * A metadata store that keeps the metadata of all files in memory. The metadata is lost when the
+ * store is garbage collected or the JVM exits.
+ */
+public class MemoryFileMetadataStore implements FileMetadataStore {
+
+  private final ConcurrentMap<File, FileMetadata> entries;
+
+  /**
+   * Constructs an empty metadata store.
+   */
+  public MemoryFileMetadataStore() {
+    entries = new ConcurrentHashMap<File, FileMetadata>();
+  }
+
+  public void put( File file, FileMetadata metadata ) {
+    checkFile( file );
+    if( metadata == null ) {
+      throw new NullPointerException( "metadata is null" );
+    }
+    entries.put( file.getAbsoluteFile(), metadata );
+  }
+
+  public FileMetadata get( File file ) {
+    return file == null ? null : entries.get( file.getAbsoluteFile() );
+  }
+
+  public void remove( File file ) {
+    checkFile( file );
+    entries.remove( file.getAbsoluteFile() );
+  }
+
+  /**
+   * Returns the number of files whose metadata is stored.
+   *
+   * @return the number of entries
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  private static void checkFile( File file ) {
+    if( file == null ) {
+      throw new NullPointerException( "file is null" );
+    }
+  }
+
+}
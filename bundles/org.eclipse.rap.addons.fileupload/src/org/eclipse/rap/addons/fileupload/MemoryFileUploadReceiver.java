@@ -0,0 +1,224 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * A file upload receiver that keeps received files in memory. Files that exceed a configurable
+ * threshold are written to a temporary file instead. Small uploads therefore never touch the
+ * file system. Received contents are held until they are disposed of, see {@link #dispose()} and
+ * {@link #clear()}. Temporary files that are not disposed of are tracked by the
+ * {@link UploadCleanupService}.
+ *
+ * @see ReceivedContent
+ */
+public class MemoryFileUploadReceiver extends FileUploadReceiver {
+
+  /**
+   * The default size in bytes up to which a file is kept in memory.
+   */
+  public static final int DEFAULT_THRESHOLD = 64 * 1024;
+
+  private static final String SPILL_FILE_PREFIX = "fileupload_";
+  private static final String SPILL_FILE_SUFFIX = ".tmp";
+  private static final int INITIAL_CAPACITY = 1024;
+
+  // guarded by itself, contents are disposed of by the sweeper while files are received
+  private final List<ReceivedContent> contents;
+  private int threshold;
+
+  /**
+   * Constructs a receiver that keeps files of up to <code>DEFAULT_THRESHOLD</code> bytes in
+   * memory.
+   */
+  public MemoryFileUploadReceiver() {
+    this( DEFAULT_THRESHOLD );
+  }
+
+  /**
+   * Constructs a receiver that keeps files of up to the given size in memory.
+   *
+   * @param threshold the maximum size in bytes of a file that is kept in memory, must not be
+   *          negative
+   */
+  public MemoryFileUploadReceiver( int threshold ) {
+    checkThreshold( threshold );
+    this.threshold = threshold;
+    contents = new ArrayList<ReceivedContent>();
+  }
+
+  @Override
+  public void receive( InputStream dataStream, FileDetails details ) throws IOException {
+    int threshold = this.threshold;
+    ContentBuffer memory = new ContentBuffer( getInitialCapacity( details, threshold ) );
+    File spillFile = null;
+    OutputStream spillStream = null;
+    long length = 0;
+    boolean completed = false;
+    BufferPool pool = BufferPool.getInstance();
+    ByteBuffer buffer = pool.acquire();
+    try {
+      byte[] bytes = buffer.array();
+      boolean finished = false;
+      while( !finished ) {
+        int bytesRead = dataStream.read( bytes );
+        if( bytesRead != -1 ) {
+          length += bytesRead;
+          if( spillStream == null && length > threshold ) {
+            spillFile = createSpillFile();
+            spillStream = new FileOutputStream( spillFile );
+            memory.writeTo( spillStream );
+            memory = null;
+          }
+          if( spillStream == null ) {
+            memory.write( bytes, 0, bytesRead );
+          } else {
+            spillStream.write( bytes, 0, bytesRead );
+          }
+        } else {
+          finished = true;
+        }
+      }
+      completed = true;
+    } finally {
+      pool.release( buffer );
+      if( spillStream != null ) {
+        spillStream.close();
+        if( !completed ) {
+          spillFile.delete();
+          UploadCleanupService.getInstance().unregister( spillFile );
+        }
+      }
+    }
+    ReceivedContent content;
+    if( spillFile == null ) {
+      content = new ReceivedContent( details, memory.getBuffer(), memory.size() );
+    } else {
+      content = new ReceivedContent( details, spillFile, length );
+    }
+    synchronized( contents ) {
+      contents.add( content );
+    }
+  }
+
+  /**
+   * Returns the contents of all files that have been received so far.
+   *
+   * @return the received contents or an empty array if no files have been received yet
+   */
+  public ReceivedContent[] getContents() {
+    synchronized( contents ) {
+      return contents.toArray( new ReceivedContent[ 0 ] );
+    }
+  }
+
+  /**
+   * Disposes of the contents of all files that have been received so far and removes them from
+   * this receiver. Applications should call this method once the contents have been processed.
+   *
+   * @see ReceivedContent#dispose()
+   */
+  public void clear() {
+    ReceivedContent[] removed;
+    synchronized( contents ) {
+      removed = contents.toArray( new ReceivedContent[ 0 ] );
+      contents.clear();
+    }
+    // deleting spill files does not block threads that receive files meanwhile
+    for( ReceivedContent content : removed ) {
+      content.dispose();
+    }
+  }
+
+  /**
+   * Called when the upload handler of this receiver has expired. Disposes of all received
+   * contents.
+   *
+   * @see #clear()
+   */
+  @Override
+  public void dispose() {
+    clear();
+  }
+
+  /**
+   * Returns the size in bytes up to which a file is kept in memory.
+   *
+   * @return the threshold in bytes
+   * @see #setThreshold(int)
+   */
+  public int getThreshold() {
+    return threshold;
+  }
+
+  /**
+   * Sets the size in bytes up to which a file is kept in memory. Larger files are written to a
+   * temporary file. A threshold of 0 stores all non-empty files on disk.
+   *
+   * @param threshold the threshold in bytes, must not be negative
+   * @see #getThreshold()
+   */
+  public void setThreshold( int threshold ) {
+    checkThreshold( threshold );
+    this.threshold = threshold;
+  }
+
+  /**
+   * Creates the temporary file that a file exceeding the threshold is written to. Subclasses may
+   * override.
+   *
+   * @return the file to store the data in
+   */
+  protected File createSpillFile() throws IOException {
+    File result = File.createTempFile( SPILL_FILE_PREFIX, SPILL_FILE_SUFFIX );
+    UploadCleanupService.getInstance().register( result );
+    return result;
+  }
+
+  private static int getInitialCapacity( FileDetails details, int threshold ) {
+    int result = Math.min( INITIAL_CAPACITY, threshold );
+    if( details != null && details.getContentLength() > 0 ) {
+      // the content length may be an upper bound, never allocate more than the threshold
+      result = ( int )Math.min( details.getContentLength(), threshold );
+    }
+    return result;
+  }
+
+  private static void checkThreshold( int threshold ) {
+    if( threshold < 0 ) {
+      throw new IllegalArgumentException( "threshold must not be negative" );
+    }
+  }
+
+  private static final class ContentBuffer extends ByteArrayOutputStream {
+
+    ContentBuffer( int size ) {
+      super( size );
+    }
+
+    // avoids the copy made by toByteArray()
+    byte[] getBuffer() {
+      return buf;
+    }
+
+  }
+
+}
@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+
+/**
+ * The content of a file that has been received by a {@link MemoryFileUploadReceiver}. Small files
+ * are held in memory, larger files are stored in a temporary file. The content can be read in the
+ * same way in both cases.
+ *
+ * @noinstantiate This class is not intended to be instantiated by clients.
+ */
+public final class ReceivedContent {
+
+  private final FileDetails details;
+  private final byte[] bytes;
+  private final File file;
+  private final long length;
+
+  ReceivedContent( FileDetails details, byte[] bytes, int length ) {
+    this.details = details;
+    this.bytes = bytes;
+    this.length = length;
+    file = null;
+  }
+
+  ReceivedContent( FileDetails details, File file, long length ) {
+    this.details = details;
+    this.file = file;
+    this.length = length;
+    bytes = null;
+  }
+
+  /**
+   * Returns the details of the received file as transmitted by the client.
+   *
+   * @return the file details
+   */
+  public FileDetails getFileDetails() {
+    return details;
+  }
+
+  /**
+   * Returns the number of bytes received.
+   *
+   * @return the content length in bytes
+   */
+  public long getLength() {
+    return length;
+  }
+
+  /**
+   * Returns whether the content is held in memory.
+   *
+   * @return <code>true</code> if the content is held in memory, <code>false</code> if it has been
+   *         written to a temporary file
+   */
+  public boolean isInMemory() {
+    return file == null;
+  }
+
+  /**
+   * Returns the temporary file that contains the content.
+   *
+   * @return the file or <code>null</code> if the content is held in memory
+   */
+  public File getFile() {
+    return file;
+  }
+
+  /**
+   * Opens a stream to read the content. Callers are responsible for closing the stream.
+   *
+   * @return a new input stream
+   * @throws IOException if the temporary file cannot be read
+   */
+  public InputStream openStream() throws IOException {
+    InputStream result;
+    if( file == null ) {
+      result = new ByteArrayInputStream( bytes, 0, ( int )length );
+    } else {
+      result = new FileInputStream( file );
+    }
+    return result;
+  }
+
+  /**
+   * Returns a read-only buffer with the content. Content that is stored in a temporary file is
+   * mapped into memory. As a buffer cannot hold more than <code>Integer.MAX_VALUE</code> bytes,
+   * larger content must be read with {@link #getByteBuffer(long, int)} or {@link #openStream()}.
+   *
+   * @return a read-only buffer, positioned at the beginning of the content
+   * @throws IOException if the temporary file cannot be mapped
+   * @throws IllegalStateException if the content is larger than <code>Integer.MAX_VALUE</code>
+   *           bytes
+   */
+  public ByteBuffer getByteBuffer() throws IOException {
+    if( length > Integer.MAX_VALUE ) {
+      throw new IllegalStateException( "Content is too large for a single buffer: " + length );
+    }
+    return getByteBuffer( 0, ( int )length );
+  }
+
+  /**
+   * Returns a read-only buffer with a section of the content. Content that is stored in a
+   * temporary file is mapped into memory. The section ends at the end of the content at the
+   * latest, hence large content can be read in consecutive sections of a fixed size.
+   *
+   * @param position the offset of the section within the content, must not be negative
+   * @param size the maximum size of the section in bytes, must not be negative
+   * @return a read-only buffer with the section, empty if the position is at or beyond the end
+   *         of the content
+   * @throws IOException if the temporary file cannot be mapped
+   */
+  public ByteBuffer getByteBuffer( long position, int size ) throws IOException {
+    if( position < 0 ) {
+      throw new IllegalArgumentException( "position must not be negative" );
+    }
+    if( size < 0 ) {
+      throw new IllegalArgumentException( "size must not be negative" );
+    }
+    int sectionSize = ( int )Math.max( 0, Math.min( size, length - position ) );
+    ByteBuffer result;
+    if( file == null ) {
+      int offset = ( int )Math.min( position, length );
+      result = ByteBuffer.wrap( bytes, offset, sectionSize ).slice().asReadOnlyBuffer();
+    } else {
+      RandomAccessFile randomAccessFile = new RandomAccessFile( file, "r" );
+      try {
+        // the mapping remains valid after the channel has been closed
+        FileChannel channel = randomAccessFile.getChannel();
+        result = channel.map( MapMode.READ_ONLY, Math.min( position, length ), sectionSize );
+      } finally {
+        randomAccessFile.close();
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Deletes the temporary file, if any. The content cannot be read anymore after calling this
+   * method.
+   */
+  public void dispose() {
+    if( file != null ) {
+      file.delete();
+      UploadCleanupService.getInstance().unregister( file );
+    }
+  }
+
+}
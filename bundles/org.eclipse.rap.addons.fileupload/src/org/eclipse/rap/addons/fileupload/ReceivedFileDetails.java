@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload;
+
+
+/**
+ * Provides details of a file that has been received completely. The file details returned by
+ * {@link FileUploadEvent#getFileDetails()} implement this interface.
+ *
+ * @noimplement This interface is not intended to be implemented by clients.
+ */
+public interface ReceivedFileDetails extends FileDetails {
+
+  /**
+   * The number of bytes that have actually been received for this file.
+   *
+   * @return the number of bytes received
+   */
+  long getBytesReceived();
+
+  /**
+   * The time it took to receive this file.
+   *
+   * @return the receive duration in milliseconds
+   */
+  long getReceiveDuration();
+
+  /**
+   * The message digest of the received file content for the given algorithm. Digests are only
+   * computed for the algorithms configured on the upload handler.
+   *
+   * @param algorithm the name of the digest algorithm, e.g. <code>"SHA-256"</code>
+   * @return the digest as lower-case hexadecimal string or <code>null</code> if no digest has been
+   *         computed for the given algorithm
+   * @see FileUploadHandler#setDigestAlgorithms(String...)
+   */
+  String getDigest( String algorithm );
+
+}
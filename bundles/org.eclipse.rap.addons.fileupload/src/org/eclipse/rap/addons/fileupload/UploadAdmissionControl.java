@@ -0,0 +1,227 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload;
+
+import static org.eclipse.rap.rwt.SingletonUtil.getUniqueInstance;
+
+import org.eclipse.rap.rwt.RWT;
+
+
+/**
+ * Limits the number of uploads that are processed concurrently and the number of bytes they
+ * transmit, both for the entire application and for every single UI session. An upload that would
+ * exceed a limit is rejected with the HTTP status 503 (Service Unavailable) and a
+ * <code>Retry-After</code> header. If a maximum wait time is set, the upload waits that long for
+ * running uploads to finish before it is rejected. Note that a waiting upload blocks a request
+ * thread of the servlet container.
+ * <p>
+ * The number of bytes of an upload is taken from the content length of its request. When a byte
+ * limit is set, uploads without a content length are rejected with the HTTP status 411 (Length
+ * Required). An upload that is larger than a byte limit on its own is admitted when no other
+ * upload is in progress. By default, no limits are set and uploads are admitted without any
+ * synchronization.
+ * </p>
+ * <p>
+ * In addition, the bandwidth of all uploads of a UI session can be limited. Uploads that exceed
+ * this limit are not rejected but slowed down.
+ * </p>
+ *
+ * @see FileUploadHandler#setMaxBandwidth(long)
+ */
+public final class UploadAdmissionControl {
+
+  /**
+   * The default time in milliseconds an upload waits to be admitted.
+   */
+  public static final long DEFAULT_MAX_WAIT_TIME = 0;
+
+  /**
+   * The default number of seconds a rejected client is asked to wait before it retries.
+   */
+  public static final int DEFAULT_RETRY_AFTER = 5;
+
+  private volatile int maxUploads;
+  private volatile long maxBytes;
+  private volatile int maxUploadsPerSession;
+  private volatile long maxBytesPerSession;
+  private volatile long maxBandwidthPerSession;
+  private volatile long maxWaitTime;
+  private volatile int retryAfter;
+
+  /**
+   * Constructs a new admission control without limits.
+   */
+  public UploadAdmissionControl() {
+    maxWaitTime = DEFAULT_MAX_WAIT_TIME;
+    retryAfter = DEFAULT_RETRY_AFTER;
+  }
+
+  /**
+   * Returns the admission control for the current application context. This method must be
+   * called from a thread that has access to the application context.
+   *
+   * @return the admission control, never <code>null</code>
+   */
+  public static UploadAdmissionControl getInstance() {
+    return getUniqueInstance( UploadAdmissionControl.class, RWT.getApplicationContext() );
+  }
+
+  /**
+   * Returns the maximum number of uploads that are processed concurrently in this application.
+   *
+   * @return the maximum number of uploads, 0 if unlimited
+   */
+  public int getMaxUploads() {
+    return maxUploads;
+  }
+
+  /**
+   * Sets the maximum number of uploads that are processed concurrently in this application.
+   *
+   * @param maxUploads the maximum number of uploads, 0 for no limit, must not be negative
+   */
+  public void setMaxUploads( int maxUploads ) {
+    checkNotNegative( maxUploads, "maxUploads" );
+    this.maxUploads = maxUploads;
+  }
+
+  /**
+   * Returns the maximum number of bytes that are transmitted concurrently by all uploads in this
+   * application.
+   *
+   * @return the maximum number of bytes, 0 if unlimited
+   */
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+
+  /**
+   * Sets the maximum number of bytes that are transmitted concurrently by all uploads in this
+   * application.
+   *
+   * @param maxBytes the maximum number of bytes, 0 for no limit, must not be negative
+   */
+  public void setMaxBytes( long maxBytes ) {
+    checkNotNegative( maxBytes, "maxBytes" );
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Returns the maximum number of uploads that are processed concurrently for a single UI session.
+   *
+   * @return the maximum number of uploads per session, 0 if unlimited
+   */
+  public int getMaxUploadsPerSession() {
+    return maxUploadsPerSession;
+  }
+
+  /**
+   * Sets the maximum number of uploads that are processed concurrently for a single UI session.
+   *
+   * @param maxUploadsPerSession the maximum number of uploads, 0 for no limit, must not be
+   *          negative
+   */
+  public void setMaxUploadsPerSession( int maxUploadsPerSession ) {
+    checkNotNegative( maxUploadsPerSession, "maxUploadsPerSession" );
+    this.maxUploadsPerSession = maxUploadsPerSession;
+  }
+
+  /**
+   * Returns the maximum number of bytes that are transmitted concurrently by all uploads of a
+   * single UI session.
+   *
+   * @return the maximum number of bytes per session, 0 if unlimited
+   */
+  public long getMaxBytesPerSession() {
+    return maxBytesPerSession;
+  }
+
+  /**
+   * Sets the maximum number of bytes that are transmitted concurrently by all uploads of a single
+   * UI session.
+   *
+   * @param maxBytesPerSession the maximum number of bytes, 0 for no limit, must not be negative
+   */
+  public void setMaxBytesPerSession( long maxBytesPerSession ) {
+    checkNotNegative( maxBytesPerSession, "maxBytesPerSession" );
+    this.maxBytesPerSession = maxBytesPerSession;
+  }
+
+  /**
+   * Returns the maximum number of bytes per second that all uploads of a single UI session may
+   * transmit together.
+   *
+   * @return the maximum bandwidth per session in bytes per second, 0 if unlimited
+   */
+  public long getMaxBandwidthPerSession() {
+    return maxBandwidthPerSession;
+  }
+
+  /**
+   * Sets the maximum number of bytes per second that all uploads of a single UI session may
+   * transmit together. The limit applies to uploads that start after it has been set.
+   *
+   * @param maxBandwidthPerSession the maximum bandwidth in bytes per second, 0 for no limit, must
+   *          not be negative
+   */
+  public void setMaxBandwidthPerSession( long maxBandwidthPerSession ) {
+    checkNotNegative( maxBandwidthPerSession, "maxBandwidthPerSession" );
+    this.maxBandwidthPerSession = maxBandwidthPerSession;
+  }
+
+  /**
+   * Returns the maximum time in milliseconds an upload waits to be admitted.
+   *
+   * @return the maximum wait time in milliseconds
+   */
+  public long getMaxWaitTime() {
+    return maxWaitTime;
+  }
+
+  /**
+   * Sets the maximum time in milliseconds an upload waits to be admitted before it is rejected.
+   * A value of 0, which is the default, rejects uploads that exceed a limit immediately. Limits
+   * that are raised while an upload is waiting take effect when the next upload finishes.
+   *
+   * @param maxWaitTime the maximum wait time in milliseconds, must not be negative
+   */
+  public void setMaxWaitTime( long maxWaitTime ) {
+    checkNotNegative( maxWaitTime, "maxWaitTime" );
+    this.maxWaitTime = maxWaitTime;
+  }
+
+  /**
+   * Returns the number of seconds a rejected client is asked to wait before it retries.
+   *
+   * @return the value of the <code>Retry-After</code> header in seconds
+   */
+  public int getRetryAfter() {
+    return retryAfter;
+  }
+
+  /**
+   * Sets the number of seconds a rejected client is asked to wait before it retries.
+   *
+   * @param retryAfter the value of the <code>Retry-After</code> header in seconds, must not be
+   *          negative
+   */
+  public void setRetryAfter( int retryAfter ) {
+    checkNotNegative( retryAfter, "retryAfter" );
+    this.retryAfter = retryAfter;
+  }
+
+  private static void checkNotNegative( long value, String name ) {
+    if( value < 0 ) {
+      throw new IllegalArgumentException( name + " must not be negative" );
+    }
+  }
+
+}
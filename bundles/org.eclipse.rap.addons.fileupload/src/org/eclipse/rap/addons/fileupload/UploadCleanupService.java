@@ -0,0 +1,529 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.rap.rwt.service.ApplicationContext;
+import org.eclipse.rap.rwt.service.ApplicationContextEvent;
+import org.eclipse.rap.rwt.service.ApplicationContextListener;
+
+
+/**
+ * Deletes the temporary files and directories that receivers create for uploaded files. It
+ * replaces {@link File#deleteOnExit()}, which keeps every path until the JVM exits and never frees
+ * disk space while the server is running.
+ * <p>
+ * Every tracked file has a reference count that starts at one. When the count drops to zero, the
+ * file is deleted asynchronously on a background thread, which processes pending deletions in
+ * batches. Optionally, files that are neither released nor retained within a maximum age are
+ * deleted as well. Files that have been retained are never deleted before they are released.
+ * </p>
+ * <p>
+ * The background thread runs while at least one application that uses file upload handlers is
+ * running, or once a file has been registered outside of such an application. When the last of
+ * these applications is stopped, all files that are still tracked are deleted. Files that are
+ * still tracked when the JVM exits are deleted by a shutdown hook.
+ * </p>
+ * <p>
+ * Releasing a file that is contained in a tracked directory releases that directory. Hence the
+ * target files of a {@link DiskFileUploadReceiver} can be released directly. When these files are
+ * deleted, their entries are removed from the metadata store of the receiver as well.
+ * </p>
+ */
+public final class UploadCleanupService {
+
+  /**
+   * The default interval in milliseconds between two runs of the background thread.
+   */
+  public static final long DEFAULT_CLEANUP_INTERVAL = 1000;
+
+  /**
+   * The default maximum number of files that are deleted in a single run.
+   */
+  public static final int DEFAULT_BATCH_SIZE = 1000;
+
+  /**
+   * The default maximum age in milliseconds of a tracked file, 0 keeps files until they are
+   * released.
+   */
+  public static final long DEFAULT_MAX_AGE = 0;
+
+  private final ConcurrentMap<File, Artifact> artifacts;
+  private final Queue<Artifact> pendingArtifacts;
+  private final Queue<Artifact> failedArtifacts;
+  private final AtomicLong reclaimedBytes;
+  private final AtomicLong deletionCount;
+  private final AtomicLong failureCount;
+  private final ConcurrentMap<ApplicationContext, Boolean> applicationContexts;
+  private volatile long maxAge;
+  private volatile int batchSize;
+  // read without locking when files are registered
+  private volatile ScheduledExecutorService executor;
+  private Thread shutdownHook;
+
+  UploadCleanupService() {
+    artifacts = new ConcurrentHashMap<File, Artifact>();
+    pendingArtifacts = new ConcurrentLinkedQueue<Artifact>();
+    failedArtifacts = new ConcurrentLinkedQueue<Artifact>();
+    reclaimedBytes = new AtomicLong();
+    deletionCount = new AtomicLong();
+    failureCount = new AtomicLong();
+    applicationContexts = new ConcurrentHashMap<ApplicationContext, Boolean>();
+    maxAge = DEFAULT_MAX_AGE;
+    batchSize = DEFAULT_BATCH_SIZE;
+  }
+
+  /**
+   * Returns the cleanup service that is shared by all applications in this JVM.
+   *
+   * @return the cleanup service, never <code>null</code>
+   */
+  public static UploadCleanupService getInstance() {
+    return InstanceHolder.INSTANCE;
+  }
+
+  /**
+   * Starts tracking the given file or directory with a reference count of one. Registering a file
+   * that is already tracked increments its reference count. If no application that uses file
+   * upload handlers is running, the background thread is started by the first registered file.
+   *
+   * @param file the file or directory to track, must not be <code>null</code>
+   */
+  public void register( File file ) {
+    register( file, null );
+  }
+
+  /*
+   * Tracks a file whose metadata, or the metadata of the files it contains, is removed from the
+   * given store when it is deleted.
+   */
+  void register( File file, FileMetadataStore metadataStore ) {
+    if( file == null ) {
+      throw new NullPointerException( "file is null" );
+    }
+    Artifact artifact = new Artifact( file, metadataStore, System.currentTimeMillis() );
+    Artifact existing = artifacts.putIfAbsent( file, artifact );
+    if( existing != null && !existing.retain() ) {
+      // the existing artifact has just been released, replace it
+      artifacts.put( file, artifact );
+    }
+    if( executor == null ) {
+      // files of receivers that are used outside of an application must be deleted as well
+      start();
+    }
+  }
+
+  /**
+   * Increments the reference count of the given tracked file, so that it is not deleted before it
+   * has been released one more time.
+   *
+   * @param file the tracked file or a file in a tracked directory
+   * @return <code>true</code> if the file is tracked, <code>false</code> otherwise
+   */
+  public boolean retain( File file ) {
+    Artifact artifact = getArtifact( file );
+    return artifact != null && artifact.retain();
+  }
+
+  /**
+   * Decrements the reference count of the given tracked file. When the count drops to zero, the
+   * file is deleted asynchronously.
+   *
+   * @param file the tracked file or a file in a tracked directory
+   * @return <code>true</code> if the file is tracked, <code>false</code> otherwise
+   */
+  public boolean release( File file ) {
+    Artifact artifact = getArtifact( file );
+    boolean result = artifact != null;
+    if( result && artifact.release() ) {
+      schedule( artifact );
+    }
+    return result;
+  }
+
+  /**
+   * Stops tracking the given file without deleting it, e.g. because it has already been deleted
+   * or has been moved to a permanent location.
+   *
+   * @param file the tracked file or a file in a tracked directory
+   * @return <code>true</code> if the file was tracked, <code>false</code> otherwise
+   */
+  public boolean unregister( File file ) {
+    Artifact artifact = getArtifact( file );
+    return artifact != null && artifacts.remove( artifact.file, artifact );
+  }
+
+  /**
+   * Returns the maximum time in milliseconds a file is tracked before it is deleted even though
+   * it has not been released. Retained files are not affected.
+   *
+   * @return the maximum age in milliseconds, 0 if files are kept until they are released
+   * @see #DEFAULT_MAX_AGE
+   */
+  public long getMaxAge() {
+    return maxAge;
+  }
+
+  /**
+   * Sets the maximum time in milliseconds a file is tracked before it is deleted even though it
+   * has not been released, e.g. because a receiver that is no longer used has not been disposed
+   * of. Files that have been retained or registered more than once are never deleted due to their
+   * age. The default of {@link #DEFAULT_MAX_AGE} keeps files until they are released or the
+   * application is stopped.
+   *
+   * @param maxAge the maximum age in milliseconds, 0 for no limit, must not be negative
+   */
+  public void setMaxAge( long maxAge ) {
+    if( maxAge < 0 ) {
+      throw new IllegalArgumentException( "maxAge must not be negative" );
+    }
+    this.maxAge = maxAge;
+  }
+
+  /**
+   * Returns the maximum number of files that are deleted in a single run.
+   *
+   * @return the batch size
+   */
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  /**
+   * Sets the maximum number of files that are deleted in a single run. If more deletions are
+   * pending, the next run starts immediately.
+   *
+   * @param batchSize the batch size, must be positive
+   */
+  public void setBatchSize( int batchSize ) {
+    if( batchSize <= 0 ) {
+      throw new IllegalArgumentException( "batchSize must be positive" );
+    }
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Returns the number of files and directories that are currently tracked and have not been
+   * released.
+   *
+   * @return the number of tracked files
+   */
+  public int getTrackedCount() {
+    return artifacts.size();
+  }
+
+  /**
+   * Returns the number of released files and directories that are waiting to be deleted.
+   *
+   * @return the number of pending deletions
+   */
+  public int getPendingCount() {
+    return pendingArtifacts.size();
+  }
+
+  /**
+   * Returns the number of files and directories that have been deleted by this service.
+   *
+   * @return the number of deletions
+   */
+  public long getDeletionCount() {
+    return deletionCount.get();
+  }
+
+  /**
+   * Returns the number of files and directories that could not be deleted. These are deleted
+   * again when the last application is stopped or the JVM exits.
+   *
+   * @return the number of failed deletions
+   */
+  public long getFailureCount() {
+    return failureCount.get();
+  }
+
+  /**
+   * Returns the number of bytes of disk space that have been freed by deleting files.
+   *
+   * @return the reclaimed bytes
+   */
+  public long getReclaimedBytes() {
+    return reclaimedBytes.get();
+  }
+
+  /*
+   * Schedules files that exceeded the maximum age for deletion and deletes a batch of pending
+   * files. Returns true if more deletions are pending.
+   */
+  boolean cleanUp( long now ) {
+    long maxAge = this.maxAge;
+    if( maxAge > 0 ) {
+      Iterator<Artifact> iterator = artifacts.values().iterator();
+      while( iterator.hasNext() ) {
+        Artifact artifact = iterator.next();
+        if( now - artifact.creationTime > maxAge && artifact.expire() ) {
+          schedule( artifact );
+        }
+      }
+    }
+    int batchSize = this.batchSize;
+    int count = 0;
+    Artifact artifact = count < batchSize ? pendingArtifacts.poll() : null;
+    while( artifact != null ) {
+      delete( artifact );
+      count++;
+      artifact = count < batchSize ? pendingArtifacts.poll() : null;
+    }
+    return !pendingArtifacts.isEmpty();
+  }
+
+  /*
+   * Deletes all tracked files, regardless of their reference count. Called when the last
+   * application is stopped or the JVM exits.
+   */
+  void deleteAll() {
+    for( Artifact artifact : artifacts.values() ) {
+      pendingArtifacts.add( artifact );
+    }
+    artifacts.clear();
+    pendingArtifacts.addAll( failedArtifacts );
+    failedArtifacts.clear();
+    Artifact artifact = pendingArtifacts.poll();
+    while( artifact != null ) {
+      delete( artifact );
+      artifact = pendingArtifacts.poll();
+    }
+  }
+
+  /*
+   * Runs the background thread for as long as the given application context is alive, unless it
+   * already runs for that context.
+   */
+  void attach( final ApplicationContext applicationContext ) {
+    if(    !applicationContexts.containsKey( applicationContext )
+        && applicationContexts.putIfAbsent( applicationContext, Boolean.TRUE ) == null )
+    {
+      applicationContext.addApplicationContextListener( new ApplicationContextListener() {
+        public void beforeDestroy( ApplicationContextEvent event ) {
+          detach( applicationContext );
+        }
+      } );
+      start();
+    }
+  }
+
+  synchronized boolean isRunning() {
+    return executor != null;
+  }
+
+  private void detach( ApplicationContext applicationContext ) {
+    if( applicationContexts.remove( applicationContext ) != null ) {
+      stop();
+    }
+  }
+
+  private synchronized void start() {
+    if( executor == null ) {
+      executor = Executors.newSingleThreadScheduledExecutor( new CleanupThreadFactory() );
+      executor.scheduleWithFixedDelay( new CleanupTask( this, executor ),
+                                       DEFAULT_CLEANUP_INTERVAL,
+                                       DEFAULT_CLEANUP_INTERVAL,
+                                       TimeUnit.MILLISECONDS );
+      shutdownHook = new Thread( new Runnable() {
+        public void run() {
+          deleteAll();
+        }
+      }, "FileUpload Cleanup Shutdown" );
+      Runtime.getRuntime().addShutdownHook( shutdownHook );
+    }
+  }
+
+  /*
+   * Stops the background thread and deletes all tracked files, unless an application that uses
+   * file upload handlers is still running.
+   */
+  synchronized void stop() {
+    if( executor != null && applicationContexts.isEmpty() ) {
+      executor.shutdown();
+      executor = null;
+      try {
+        Runtime.getRuntime().removeShutdownHook( shutdownHook );
+      } catch( IllegalStateException exception ) {
+        // the JVM is shutting down and runs the hook anyway
+      }
+      shutdownHook = null;
+      deleteAll();
+    }
+  }
+
+  private Artifact getArtifact( File file ) {
+    Artifact result = null;
+    if( file != null ) {
+      result = artifacts.get( file );
+      if( result == null && file.getParentFile() != null ) {
+        result = artifacts.get( file.getParentFile() );
+      }
+    }
+    return result;
+  }
+
+  private void schedule( Artifact artifact ) {
+    // only the thread that removes the artifact schedules its deletion
+    if( artifacts.remove( artifact.file, artifact ) ) {
+      pendingArtifacts.add( artifact );
+    }
+  }
+
+  private void delete( Artifact artifact ) {
+    long length = delete( artifact.file, artifact.metadataStore );
+    if( artifact.file.exists() ) {
+      failureCount.incrementAndGet();
+      failedArtifacts.add( artifact );
+    } else {
+      deletionCount.incrementAndGet();
+    }
+    reclaimedBytes.addAndGet( length );
+  }
+
+  private static long delete( File file, FileMetadataStore metadataStore ) {
+    long result = 0;
+    File[] children = file.listFiles();
+    if( children != null ) {
+      for( File child : children ) {
+        result += delete( child, metadataStore );
+      }
+    }
+    boolean isFile = file.isFile();
+    long length = isFile ? file.length() : 0;
+    if( file.delete() ) {
+      result += length;
+      if( isFile && metadataStore != null ) {
+        removeMetadata( metadataStore, file );
+      }
+    }
+    return result;
+  }
+
+  private static void removeMetadata( FileMetadataStore metadataStore, File file ) {
+    try {
+      metadataStore.remove( file );
+    } catch( IOException exception ) {
+      // the metadata of a missing file is harmless, e.g. if the store has been closed
+    }
+  }
+
+  private static final class Artifact {
+
+    final File file;
+    final FileMetadataStore metadataStore;
+    final long creationTime;
+    private final AtomicInteger references;
+
+    Artifact( File file, FileMetadataStore metadataStore, long creationTime ) {
+      this.file = file;
+      this.metadataStore = metadataStore;
+      this.creationTime = creationTime;
+      references = new AtomicInteger( 1 );
+    }
+
+    /*
+     * Increments the reference count unless the artifact has already been released.
+     */
+    boolean retain() {
+      boolean result = false;
+      boolean finished = false;
+      while( !finished ) {
+        int count = references.get();
+        if( count == 0 ) {
+          finished = true;
+        } else if( references.compareAndSet( count, count + 1 ) ) {
+          result = true;
+          finished = true;
+        }
+      }
+      return result;
+    }
+
+    /*
+     * Decrements the reference count and returns true if it has dropped to zero.
+     */
+    boolean release() {
+      boolean result = false;
+      boolean finished = false;
+      while( !finished ) {
+        int count = references.get();
+        if( count == 0 ) {
+          finished = true;
+        } else if( references.compareAndSet( count, count - 1 ) ) {
+          result = count == 1;
+          finished = true;
+        }
+      }
+      return result;
+    }
+
+    /*
+     * Drops the reference of the registration and returns true if the artifact has neither been
+     * released nor retained.
+     */
+    boolean expire() {
+      return references.compareAndSet( 1, 0 );
+    }
+
+  }
+
+  private static final class CleanupTask implements Runnable {
+
+    private final UploadCleanupService service;
+    private final ScheduledExecutorService executor;
+
+    CleanupTask( UploadCleanupService service, ScheduledExecutorService executor ) {
+      this.service = service;
+      this.executor = executor;
+    }
+
+    public void run() {
+      if( service.cleanUp( System.currentTimeMillis() ) ) {
+        // the batch was full, continue with the next batch right away
+        executor.execute( this );
+      }
+    }
+
+  }
+
+  private static final class CleanupThreadFactory implements ThreadFactory {
+
+    public Thread newThread( Runnable runnable ) {
+      Thread thread = new Thread( runnable, "FileUpload Cleanup" );
+      thread.setDaemon( true );
+      return thread;
+    }
+
+  }
+
+  private static final class InstanceHolder {
+
+    static final UploadCleanupService INSTANCE = new UploadCleanupService();
+
+  }
+
+}
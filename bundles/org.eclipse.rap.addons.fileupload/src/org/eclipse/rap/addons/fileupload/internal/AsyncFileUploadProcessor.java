@@ -0,0 +1,300 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.rap.addons.fileupload.BufferPool;
+
+
+/*
+ * Reads the request body with a Servlet 3.1 ReadListener, so that no container thread is blocked
+ * while a slow client transmits its data. The data that the container reports as available is
+ * passed through a bounded ring of chunks to a parser thread, which runs the regular
+ * FileUploadProcessor while the request is still being received. Hence the request is parsed
+ * incrementally, the maximum file size is enforced as soon as it is exceeded, and the data is only
+ * written once, by the receiver. The parser thread completes the request when it has finished,
+ * successfully or not. The upload fails if it has not been read completely within the async
+ * timeout of the handler.
+ *
+ * As long as the parser does not keep up with the client, e.g. because of a slow receiver or a
+ * bandwidth limit, the container thread waits for the parser to free a chunk.
+ *
+ * The callbacks and the parser run on threads without an RWT context, hence listeners and
+ * receivers are called without one as well.
+ *
+ * This class must only be loaded if the Servlet 3.1 API is available.
+ */
+final class AsyncFileUploadProcessor implements ReadListener, AsyncListener, Runnable {
+
+  private static final int RING_BUFFER_SIZE = 8;
+
+  private final FileUploadProcessor processor;
+  private final AsyncContext asyncContext;
+  private final HttpServletRequest request;
+  private final HttpServletResponse response;
+  private final Runnable completionCallback;
+  private final ChunkRingBuffer ringBuffer;
+  private final long contentLength;
+  private final AtomicBoolean completed;
+  private final CountDownLatch completion;
+  // only accessed by the container thread that reads the request
+  private ServletInputStream inputStream;
+  private long bytesRead;
+  // guarded by this
+  private boolean aborted;
+  private boolean allDataRead;
+
+  private AsyncFileUploadProcessor( FileUploadProcessor processor,
+                                    AsyncContext asyncContext,
+                                    HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    Runnable completionCallback )
+  {
+    this.processor = processor;
+    this.asyncContext = asyncContext;
+    this.request = request;
+    this.response = response;
+    this.completionCallback = completionCallback;
+    contentLength = request.getContentLength();
+    // the reader may still fill a chunk after the parser has finished, so chunks are not pooled
+    byte[][] chunks = new byte[ RING_BUFFER_SIZE ][ BufferPool.DEFAULT_BUFFER_SIZE ];
+    ringBuffer = new ChunkRingBuffer( chunks, 1 );
+    completed = new AtomicBoolean();
+    completion = new CountDownLatch( 1 );
+  }
+
+  /*
+   * The completion callback is run once the upload has been processed or has failed. If the
+   * upload cannot be started after the request has been put into asynchronous mode, the failure
+   * is reported and the request is completed right away.
+   */
+  static void start( FileUploadProcessor processor,
+                     HttpServletRequest request,
+                     HttpServletResponse response,
+                     Executor executor,
+                     Runnable completionCallback )
+    throws IOException
+  {
+    AsyncContext asyncContext = request.startAsync( request, response );
+    // the permit of the admission control is held until the upload completes or times out
+    asyncContext.setTimeout( processor.getAsyncTimeout() );
+    AsyncFileUploadProcessor listener
+      = new AsyncFileUploadProcessor( processor,
+                                      asyncContext,
+                                      request,
+                                      response,
+                                      completionCallback );
+    try {
+      listener.begin( executor );
+    } catch( IOException exception ) {
+      listener.failToStart( exception );
+    } catch( RuntimeException exception ) {
+      listener.failToStart( exception );
+    }
+  }
+
+  /*
+   * Parses the request on a thread of the executor.
+   */
+  public void run() {
+    try {
+      processor.handleFileUpload( new PipedRequest( request, ringBuffer ), response );
+    } catch( IOException exception ) {
+      // the client connection has already failed, nothing left to report
+    } finally {
+      complete();
+    }
+  }
+
+  public void onDataAvailable() throws IOException {
+    boolean finished = false;
+    while( !finished && !isStopped() && inputStream.isReady() ) {
+      int read = ringBuffer.publish( inputStream );
+      if( read == -1 ) {
+        finished = true;
+      } else {
+        bytesRead += read;
+        if( contentLength != -1 && bytesRead > contentLength ) {
+          String message = "Request body exceeds its Content-Length of " + contentLength + " bytes";
+          abort( new IOException( message ), HttpServletResponse.SC_BAD_REQUEST );
+        }
+      }
+    }
+  }
+
+  public synchronized void onAllDataRead() {
+    if( !aborted ) {
+      allDataRead = true;
+      ringBuffer.close( null );
+    }
+  }
+
+  public void onError( Throwable throwable ) {
+    Exception exception = throwable instanceof Exception
+                        ? ( Exception )throwable
+                        : new Exception( throwable.getMessage(), throwable );
+    abortAndWait( exception, HttpServletResponse.SC_INTERNAL_SERVER_ERROR );
+  }
+
+  public void onTimeout( AsyncEvent event ) {
+    String message = "Upload has not been completed within " + asyncContext.getTimeout() + " ms";
+    abortAndWait( new IOException( message ), HttpServletResponse.SC_REQUEST_TIMEOUT );
+  }
+
+  public void onError( AsyncEvent event ) {
+    onError( event.getThrowable() );
+  }
+
+  public void onComplete( AsyncEvent event ) {
+    // completed by the parser
+  }
+
+  public void onStartAsync( AsyncEvent event ) {
+    // not restarted
+  }
+
+  private void begin( Executor executor ) throws IOException {
+    inputStream = request.getInputStream();
+    asyncContext.addListener( this );
+    inputStream.setReadListener( this );
+    executor.execute( this );
+  }
+
+  private void failToStart( Exception exception ) throws IOException {
+    if( completed.compareAndSet( false, true ) ) {
+      // no parser is running, the container must not wait for it
+      ringBuffer.detach( 0 );
+      try {
+        int status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        processor.handleFailure( exception, status, response );
+      } finally {
+        finish();
+      }
+    }
+  }
+
+  /*
+   * Makes the parser fail and lets the container wait until it has reported the failure and
+   * completed the request. The parser fails as soon as it has consumed the chunks received so far.
+   */
+  private void abortAndWait( Exception exception, int status ) {
+    abort( exception, status );
+    try {
+      completion.await();
+    } catch( InterruptedException interruptedException ) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private synchronized void abort( Exception exception, int status ) {
+    if( !aborted && !allDataRead && !completed.get() ) {
+      aborted = true;
+      processor.setAbortCause( exception, status );
+      IOException failure = new IOException( exception.getMessage() );
+      failure.initCause( exception );
+      ringBuffer.close( failure );
+    }
+  }
+
+  private synchronized boolean isStopped() {
+    return aborted || completed.get();
+  }
+
+  private void complete() {
+    if( completed.compareAndSet( false, true ) ) {
+      // a producer that waits for a free chunk must not wait any longer
+      ringBuffer.detach( 0 );
+      finish();
+    }
+  }
+
+  private void finish() {
+    try {
+      completionCallback.run();
+      asyncContext.complete();
+    } catch( IllegalStateException exception ) {
+      // the container has already completed the request
+    } finally {
+      completion.countDown();
+    }
+  }
+
+  private static final class PipedRequest extends HttpServletRequestWrapper {
+
+    private final ChunkRingBuffer ringBuffer;
+
+    PipedRequest( HttpServletRequest request, ChunkRingBuffer ringBuffer ) {
+      super( request );
+      this.ringBuffer = ringBuffer;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+      return new PipedInputStream( ringBuffer.createInputStream( 0 ) );
+    }
+
+  }
+
+  private static final class PipedInputStream extends ServletInputStream {
+
+    private final InputStream inputStream;
+    private boolean finished;
+
+    PipedInputStream( InputStream inputStream ) {
+      this.inputStream = inputStream;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int result = inputStream.read();
+      finished = result == -1;
+      return result;
+    }
+
+    @Override
+    public int read( byte[] bytes, int offset, int length ) throws IOException {
+      int result = inputStream.read( bytes, offset, length );
+      finished = result == -1;
+      return result;
+    }
+
+    @Override
+    public boolean isFinished() {
+      return finished;
+    }
+
+    @Override
+    public boolean isReady() {
+      return true;
+    }
+
+    @Override
+    public void setReadListener( ReadListener readListener ) {
+      throw new IllegalStateException( "Piped request data is read synchronously" );
+    }
+
+  }
+
+}
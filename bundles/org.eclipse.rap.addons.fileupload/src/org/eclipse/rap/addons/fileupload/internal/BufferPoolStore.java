@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import static org.eclipse.rap.rwt.SingletonUtil.getUniqueInstance;
+
+import org.eclipse.rap.addons.fileupload.BufferPool;
+import org.eclipse.rap.rwt.RWT;
+import org.eclipse.rap.rwt.internal.service.ContextProvider;
+
+
+@SuppressWarnings( "restriction" )
+public final class BufferPoolStore {
+
+  private static final BufferPoolStore SHARED_INSTANCE = new BufferPoolStore();
+
+  private final BufferPool heapPool;
+  private final BufferPool directPool;
+
+  private BufferPoolStore() {
+    heapPool = new BufferPool( BufferPool.DEFAULT_BUFFER_SIZE, BufferPool.DEFAULT_CAPACITY, false );
+    directPool = new BufferPool( BufferPool.DEFAULT_BUFFER_SIZE, BufferPool.DEFAULT_CAPACITY, true );
+  }
+
+  public static BufferPoolStore getInstance() {
+    if( ContextProvider.hasContext() ) {
+      return getUniqueInstance( BufferPoolStore.class, RWT.getApplicationContext() );
+    }
+    return SHARED_INSTANCE;
+  }
+
+  public BufferPool getHeapPool() {
+    return heapPool;
+  }
+
+  public BufferPool getDirectPool() {
+    return directPool;
+  }
+
+}
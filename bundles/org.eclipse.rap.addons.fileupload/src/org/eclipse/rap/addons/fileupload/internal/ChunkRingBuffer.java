@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+
+
+/*
+ * A bounded ring of chunks that is written by a single producer and read by a fixed number of
+ * consumers. Every consumer reads every chunk. A slot is only reused after all consumers have read
+ * it, so the producer can be ahead of the slowest consumer by at most the number of slots.
+ *
+ * The data of a published slot is not modified until all consumers have advanced past it, hence
+ * consumers copy data outside of the lock.
+ */
+public final class ChunkRingBuffer {
+
+  private static final long DETACHED = Long.MAX_VALUE;
+
+  private final byte[][] slots;
+  private final int[] lengths;
+  private final long[] cursors;
+  private long published;
+  private boolean closed;
+  private IOException failure;
+
+  public ChunkRingBuffer( byte[][] slots, int consumerCount ) {
+    this.slots = slots;
+    lengths = new int[ slots.length ];
+    cursors = new long[ consumerCount ];
+  }
+
+  /*
+   * Fills the next free slot from the given stream, waiting for consumers to release a slot if
+   * necessary. Returns the number of bytes published or -1 at the end of the stream.
+   */
+  public int publish( InputStream inputStream ) throws IOException {
+    byte[] slot = claim();
+    int result = inputStream.read( slot );
+    if( result > 0 ) {
+      synchronized( this ) {
+        lengths[ ( int )( published % slots.length ) ] = result;
+        published++;
+        notifyAll();
+      }
+    }
+    return result;
+  }
+
+  /*
+   * Signals the end of data. If a failure is given, consumers that have not yet read all data
+   * receive an exception.
+   */
+  public synchronized void close( IOException failure ) {
+    closed = true;
+    this.failure = failure;
+    notifyAll();
+  }
+
+  /*
+   * Removes a consumer that does not read any further data.
+   */
+  public synchronized void detach( int consumer ) {
+    cursors[ consumer ] = DETACHED;
+    notifyAll();
+  }
+
+  public InputStream createInputStream( int consumer ) {
+    return new ConsumerInputStream( consumer );
+  }
+
+  private synchronized byte[] claim() throws IOException {
+    try {
+      while( published - getMinimumCursor() >= slots.length ) {
+        wait();
+      }
+    } catch( InterruptedException exception ) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException( "Interrupted while waiting for consumers" );
+    }
+    return slots[ ( int )( published % slots.length ) ];
+  }
+
+  private synchronized int awaitChunk( long sequence ) throws IOException {
+    try {
+      while( sequence >= published && !closed ) {
+        wait();
+      }
+    } catch( InterruptedException exception ) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException( "Interrupted while waiting for data" );
+    }
+    int result = -1;
+    if( sequence < published ) {
+      result = lengths[ ( int )( sequence % slots.length ) ];
+    } else if( failure != null ) {
+      IOException exception = new IOException( "Upload aborted: " + failure.getMessage() );
+      exception.initCause( failure );
+      throw exception;
+    }
+    return result;
+  }
+
+  private synchronized void advance( int consumer, long sequence ) {
+    if( cursors[ consumer ] != DETACHED ) {
+      cursors[ consumer ] = sequence;
+      notifyAll();
+    }
+  }
+
+  private long getMinimumCursor() {
+    long result = DETACHED;
+    for( int i = 0; i < cursors.length; i++ ) {
+      result = Math.min( result, cursors[ i ] );
+    }
+    return result;
+  }
+
+  private final class ConsumerInputStream extends InputStream {
+
+    private final int consumer;
+    private final byte[] singleByte;
+    private long sequence;
+    private int offset;
+
+    ConsumerInputStream( int consumer ) {
+      this.consumer = consumer;
+      singleByte = new byte[ 1 ];
+    }
+
+    @Override
+    public int read() throws IOException {
+      int result = read( singleByte, 0, 1 );
+      return result == -1 ? -1 : singleByte[ 0 ] & 0xff;
+    }
+
+    @Override
+    public int read( byte[] bytes, int off, int len ) throws IOException {
+      int result = 0;
+      if( len > 0 ) {
+        int length = awaitChunk( sequence );
+        if( length == -1 ) {
+          result = -1;
+        } else {
+          result = Math.min( len, length - offset );
+          byte[] slot = slots[ ( int )( sequence % slots.length ) ];
+          System.arraycopy( slot, offset, bytes, off, result );
+          offset += result;
+          if( offset == length ) {
+            offset = 0;
+            sequence++;
+            advance( consumer, sequence );
+          }
+        }
+      }
+      return result;
+    }
+
+  }
+
+}
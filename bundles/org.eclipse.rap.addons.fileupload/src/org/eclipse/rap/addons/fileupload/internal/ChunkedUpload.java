@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import org.eclipse.rap.addons.fileupload.BufferPool;
+import org.eclipse.rap.addons.fileupload.UploadCleanupService;
+
+
+/*
+ * The state of a resumable upload. Received chunks are appended to a staging file until the
+ * total length has been committed. The staging file is created in the given directory, or in the
+ * default temporary directory if it is null, and tracked by the UploadCleanupService in case the
+ * upload is never completed. Callers must synchronize on the instance.
+ */
+final class ChunkedUpload {
+
+  private static final String STAGING_FILE_PREFIX = "fileupload_";
+  private static final String STAGING_FILE_SUFFIX = ".part";
+
+  private final File directory;
+  private File stagingFile;
+  private long offset;
+  private long total = -1;
+  private boolean disposed;
+
+  ChunkedUpload( File directory ) {
+    this.directory = directory;
+  }
+
+  long getOffset() {
+    return offset;
+  }
+
+  long getTotal() {
+    return total;
+  }
+
+  void setTotal( long total ) {
+    this.total = total;
+  }
+
+  boolean isComplete() {
+    return total != -1 && offset == total;
+  }
+
+  /*
+   * Appends length bytes from the given stream. If the stream fails, the offset is advanced by the
+   * number of bytes actually written, so that the client can resume from there. If the stream ends
+   * before length bytes have been read, the chunk is discarded and false is returned.
+   */
+  boolean append( InputStream stream, long length ) throws IOException {
+    File file = getStagingFile();
+    long start = offset;
+    boolean result = true;
+    FileOutputStream outputStream = new FileOutputStream( file, true );
+    BufferPool bufferPool = BufferPool.getInstance();
+    ByteBuffer buffer = bufferPool.acquire();
+    try {
+      byte[] bytes = buffer.array();
+      long remaining = length;
+      while( remaining > 0 ) {
+        int bytesRead = stream.read( bytes, 0, ( int )Math.min( bytes.length, remaining ) );
+        if( bytesRead == -1 ) {
+          outputStream.getChannel().truncate( start );
+          offset = start;
+          result = false;
+          remaining = 0;
+        } else {
+          outputStream.write( bytes, 0, bytesRead );
+          offset += bytesRead;
+          remaining -= bytesRead;
+        }
+      }
+    } finally {
+      bufferPool.release( buffer );
+      outputStream.close();
+    }
+    return result;
+  }
+
+  InputStream openStream() throws IOException {
+    return new FileInputStream( getStagingFile() );
+  }
+
+  void dispose() {
+    if( stagingFile != null ) {
+      stagingFile.delete();
+      UploadCleanupService.getInstance().unregister( stagingFile );
+      stagingFile = null;
+    }
+    disposed = true;
+  }
+
+  boolean isDisposed() {
+    return disposed;
+  }
+
+  File getStagingFile() throws IOException {
+    if( stagingFile == null ) {
+      stagingFile = File.createTempFile( STAGING_FILE_PREFIX, STAGING_FILE_SUFFIX, directory );
+      UploadCleanupService.getInstance().register( stagingFile );
+    }
+    return stagingFile;
+  }
+
+}
@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+
+/*
+ * The value of a Content-Range header as used for chunked uploads. A chunk is transmitted with
+ * "bytes <first>-<last>/<total>", the committed offset is queried with an asterisk in place of
+ * the range. The total may also be an asterisk if it is not yet known.
+ */
+final class ContentRange {
+
+  private static final Pattern PATTERN
+    = Pattern.compile( "bytes\\s+(?:(\\d+)-(\\d+)|\\*)/(\\d+|\\*)" );
+
+  private final long first;
+  private final long last;
+  private final long total;
+
+  private ContentRange( long first, long last, long total ) {
+    this.first = first;
+    this.last = last;
+    this.total = total;
+  }
+
+  static ContentRange parse( String header ) {
+    ContentRange result = null;
+    if( header != null ) {
+      Matcher matcher = PATTERN.matcher( header.trim() );
+      if( matcher.matches() ) {
+        try {
+          long first = matcher.group( 1 ) == null ? -1 : Long.parseLong( matcher.group( 1 ) );
+          long last = matcher.group( 2 ) == null ? -1 : Long.parseLong( matcher.group( 2 ) );
+          long total = "*".equals( matcher.group( 3 ) ) ? -1 : Long.parseLong( matcher.group( 3 ) );
+          if( isValid( first, last, total ) ) {
+            result = new ContentRange( first, last, total );
+          }
+        } catch( NumberFormatException exception ) {
+          // numbers out of range, treat as invalid header
+        }
+      }
+    }
+    return result;
+  }
+
+  boolean isQuery() {
+    return first == -1;
+  }
+
+  long getFirst() {
+    return first;
+  }
+
+  long getLength() {
+    return isQuery() ? 0 : last - first + 1;
+  }
+
+  long getTotal() {
+    return total;
+  }
+
+  private static boolean isValid( long first, long last, long total ) {
+    boolean result = first <= last;
+    if( result && total != -1 ) {
+      result = last < total;
+    }
+    return result || ( first == -1 && last == -1 );
+  }
+
+}
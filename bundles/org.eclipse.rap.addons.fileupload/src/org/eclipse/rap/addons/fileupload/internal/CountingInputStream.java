@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+
+final class CountingInputStream extends FilterInputStream {
+
+  private long count;
+
+  CountingInputStream( InputStream in ) {
+    super( in );
+  }
+
+  long getCount() {
+    return count;
+  }
+
+  @Override
+  public int read() throws IOException {
+    int result = super.read();
+    if( result != -1 ) {
+      count++;
+    }
+    return result;
+  }
+
+  @Override
+  public int read( byte[] buffer, int offset, int length ) throws IOException {
+    int result = super.read( buffer, offset, length );
+    if( result != -1 ) {
+      count += result;
+    }
+    return result;
+  }
+
+  @Override
+  public long skip( long length ) throws IOException {
+    long result = super.skip( length );
+    count += result;
+    return result;
+  }
+
+  @Override
+  public boolean markSupported() {
+    return false;
+  }
+
+  @Override
+  public synchronized void mark( int readlimit ) {
+    // mark is not supported
+  }
+
+  @Override
+  public synchronized void reset() throws IOException {
+    throw new IOException( "mark/reset not supported" );
+  }
+
+}
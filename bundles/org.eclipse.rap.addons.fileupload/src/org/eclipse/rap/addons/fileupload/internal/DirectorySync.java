@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.channels.FileChannel;
+
+
+/*
+ * Forces the entries of a directory to disk, so that a file that has been created in or renamed
+ * into the directory is still found there after a power failure. Forcing the file itself only
+ * covers its contents.
+ *
+ * Directories cannot be opened with java.io, only with FileChannel.open() of Java 7, which is
+ * called reflectively as this bundle runs on older Java versions as well. Where this method is
+ * missing, or where directories cannot be opened at all, e.g. on Windows, which has no such
+ * requirement, directories are not synced.
+ */
+public final class DirectorySync {
+
+  private static final Method TO_PATH;
+  private static final Method OPEN;
+  private static final Object READ_OPTIONS;
+
+  static {
+    Method toPath = null;
+    Method open = null;
+    Object readOptions = null;
+    try {
+      toPath = File.class.getMethod( "toPath" );
+      Class<?> pathClass = Class.forName( "java.nio.file.Path" );
+      Class<?> optionClass = Class.forName( "java.nio.file.OpenOption" );
+      Class<?> standardOptionClass = Class.forName( "java.nio.file.StandardOpenOption" );
+      Object read = standardOptionClass.getField( "READ" ).get( null );
+      readOptions = Array.newInstance( optionClass, 1 );
+      Array.set( readOptions, 0, read );
+      open = FileChannel.class.getMethod( "open", pathClass, readOptions.getClass() );
+    } catch( Exception exception ) {
+      // running on Java 6 or older
+      open = null;
+    }
+    TO_PATH = toPath;
+    OPEN = open;
+    READ_OPTIONS = readOptions;
+  }
+
+  private DirectorySync() {
+    // prevent instantiation
+  }
+
+  /*
+   * Returns true if the directory has been forced to disk, false if directories are not synced on
+   * this platform.
+   */
+  public static boolean sync( File directory ) throws IOException {
+    FileChannel channel = open( directory );
+    if( channel != null ) {
+      try {
+        channel.force( true );
+      } finally {
+        channel.close();
+      }
+    }
+    return channel != null;
+  }
+
+  private static FileChannel open( File directory ) throws IOException {
+    FileChannel result = null;
+    if( OPEN != null ) {
+      try {
+        result = ( FileChannel )OPEN.invoke( null, TO_PATH.invoke( directory ), READ_OPTIONS );
+      } catch( InvocationTargetException exception ) {
+        Throwable cause = exception.getCause();
+        if( !directory.isDirectory() ) {
+          IOException failure = new IOException( "Directory not found: " + directory );
+          failure.initCause( cause );
+          throw failure;
+        } else if( cause instanceof RuntimeException ) {
+          throw ( RuntimeException )cause;
+        } else if( cause instanceof Error ) {
+          throw ( Error )cause;
+        }
+        // the platform does not allow to open directories
+      } catch( IllegalAccessException exception ) {
+        throw new IllegalStateException( "Unable to open directory: " + directory );
+      }
+    }
+    return result;
+  }
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2013 EclipseSource and others.
+ * Copyright (c) 2011, 2026 EclipseSource and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,19 +10,67 @@
  ******************************************************************************/
 package org.eclipse.rap.addons.fileupload.internal;
 
-import org.eclipse.rap.addons.fileupload.FileDetails;
+import java.util.Collections;
+import java.util.Map;
 
+import org.eclipse.rap.addons.fileupload.ReceivedFileDetails;
 
-public final class FileDetailsImpl implements FileDetails {
+
+public final class FileDetailsImpl implements ReceivedFileDetails {
 
   private final String fileName;
   private final String contentType;
   private final long contentLength;
+  private final long bytesReceived;
+  private final long receiveDuration;
+  private final Map<String, String> digests;
+  private final StreamDigests streamDigests;
 
   public FileDetailsImpl( String fileName, String contentType, long contentLength ) {
+    this( fileName, contentType, contentLength, -1, -1, null, null );
+  }
+
+  /*
+   * Constructs the details that are passed to a receiver together with a stream whose digests
+   * are computed by the upload processor.
+   */
+  public FileDetailsImpl( String fileName,
+                          String contentType,
+                          long contentLength,
+                          StreamDigests streamDigests )
+  {
+    this( fileName, contentType, contentLength, -1, -1, null, streamDigests );
+  }
+
+  public FileDetailsImpl( String fileName,
+                          String contentType,
+                          long contentLength,
+                          long bytesReceived,
+                          long receiveDuration,
+                          Map<String, String> digests )
+  {
+    this( fileName, contentType, contentLength, bytesReceived, receiveDuration, digests, null );
+  }
+
+  private FileDetailsImpl( String fileName,
+                           String contentType,
+                           long contentLength,
+                           long bytesReceived,
+                           long receiveDuration,
+                           Map<String, String> digests,
+                           StreamDigests streamDigests )
+  {
     this.fileName = fileName;
     this.contentType = contentType;
     this.contentLength = contentLength;
+    this.bytesReceived = bytesReceived;
+    this.receiveDuration = receiveDuration;
+    if( digests == null ) {
+      this.digests = Collections.emptyMap();
+    } else {
+      this.digests = Collections.unmodifiableMap( digests );
+    }
+    this.streamDigests = streamDigests;
   }
 
   public String getFileName() {
@@ -37,4 +85,23 @@ public final class FileDetailsImpl implements FileDetails {
     return contentLength;
   }
 
+  public long getBytesReceived() {
+    return bytesReceived;
+  }
+
+  public long getReceiveDuration() {
+    return receiveDuration;
+  }
+
+  public String getDigest( String algorithm ) {
+    return digests.get( algorithm );
+  }
+
+  /*
+   * Returns the digests that the upload processor computes while the file is received, or null.
+   */
+  public StreamDigests getStreamDigests() {
+    return streamDigests;
+  }
+
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2014 EclipseSource and others.
+ * Copyright (c) 2011, 2026 EclipseSource and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,20 +12,73 @@ package org.eclipse.rap.addons.fileupload.internal;
 
 import static org.eclipse.rap.rwt.SingletonUtil.getUniqueInstance;
 
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.File;
+import java.lang.ref.WeakReference;
+import java.security.SecureRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.rap.addons.fileupload.FileUploadHandler;
 import org.eclipse.rap.rwt.RWT;
+import org.eclipse.rap.rwt.internal.service.ContextProvider;
+import org.eclipse.rap.rwt.service.ApplicationContext;
+import org.eclipse.rap.rwt.service.ApplicationContextEvent;
+import org.eclipse.rap.rwt.service.ApplicationContextListener;
+import org.eclipse.rap.rwt.service.UISession;
+import org.eclipse.rap.rwt.service.UISessionEvent;
+import org.eclipse.rap.rwt.service.UISessionListener;
 
 
+@SuppressWarnings( "restriction" )
 public final class FileUploadHandlerStore {
 
-  private final Map<String, FileUploadHandler> handlers;
+  static final long SWEEP_INTERVAL = 30 * 1000;
+
+  private static final int TOKEN_LENGTH = 16;
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+  // SecureRandom is thread-safe but synchronized, use one instance per thread to avoid contention
+  private static final ThreadLocal<SecureRandom> RANDOM = new ThreadLocal<SecureRandom>() {
+    @Override
+    protected SecureRandom initialValue() {
+      return new SecureRandom();
+    }
+  };
+  // a single daemon thread sweeps the handler stores of all applications, it is shut down when
+  // the last application that uses it is destroyed
+  private static ScheduledExecutorService sweeper;
+  private static int sweeperUsers;
+
+  private final ConcurrentMap<String, Registration> handlers;
+  private final ConcurrentMap<String, ChunkedUpload> chunkedUploads;
+  private final AtomicLong evictionCount;
+  private final FileUploadStatistics statistics;
+  private ScheduledFuture<?> sweepTask;
+  private ExecutorService asyncExecutor;
 
   private FileUploadHandlerStore() {
-    handlers = Collections.synchronizedMap( new HashMap<String, FileUploadHandler>() );
+    handlers = new ConcurrentHashMap<String, Registration>();
+    chunkedUploads = new ConcurrentHashMap<String, ChunkedUpload>();
+    evictionCount = new AtomicLong();
+    statistics = new FileUploadStatistics( this, UploadAdmission.getInstance() );
+    ApplicationContext applicationContext = RWT.getApplicationContext();
+    statistics.register( applicationContext );
+    FsyncStatistics.acquire();
+    applicationContext.addApplicationContextListener( new ApplicationContextListener() {
+      public void beforeDestroy( ApplicationContextEvent event ) {
+        stopSweeper();
+        stopAsyncExecutor();
+        statistics.unregister();
+        FsyncStatistics.release();
+      }
+    } );
     RWT.getServiceManager().registerServiceHandler( FileUploadServiceHandler.SERVICE_HANDLER_ID,
                                                     new FileUploadServiceHandler() );
   }
@@ -35,21 +88,277 @@ public final class FileUploadHandlerStore {
   }
 
   public void registerHandler( String token, FileUploadHandler fileUploadHandler ) {
-    handlers.put( token, fileUploadHandler );
+    Registration registration = new Registration( this, token, fileUploadHandler );
+    Registration previous = handlers.put( token, registration );
+    if( previous != null ) {
+      previous.unbind();
+    }
+    registration.bind( getCurrentUISession() );
+    startSweeper();
   }
 
   public void deregisterHandler( String token ) {
-    handlers.remove( token );
+    Registration registration = handlers.remove( token );
+    if( registration != null ) {
+      // the receiver is kept, its files may still be used after the handler has been disposed of
+      registration.unbind();
+    }
+    discardChunkedUpload( token );
   }
 
   public FileUploadHandler getHandler( String token ) {
-    return handlers.get( token );
+    FileUploadHandler result = null;
+    Registration registration = token == null ? null : handlers.get( token );
+    if( registration != null ) {
+      long now = System.currentTimeMillis();
+      if( registration.isExpired( now ) ) {
+        evict( registration );
+      } else {
+        registration.touch( now );
+        result = registration.handler;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Marks the handler registered with the given token as in use, so that it does not expire while
+   * an upload is in progress.
+   */
+  public void touch( String token ) {
+    Registration registration = handlers.get( token );
+    if( registration != null ) {
+      registration.touch( System.currentTimeMillis() );
+    }
+  }
+
+  /**
+   * Returns the number of handlers that have been evicted because they exceeded their idle timeout
+   * or because the UI session they were created in has been destroyed.
+   */
+  public long getEvictionCount() {
+    return evictionCount.get();
+  }
+
+  FileUploadStatistics getStatistics() {
+    return statistics;
+  }
+
+  /*
+   * Returns the executor that parses asynchronously received uploads of this application. Its
+   * threads are created on demand and terminate when they have been idle for a minute. The
+   * executor is shut down with the application context.
+   */
+  synchronized Executor getAsyncExecutor() {
+    if( asyncExecutor == null ) {
+      ThreadFactory threadFactory = new DaemonThreadFactory( "FileUpload Parser" );
+      asyncExecutor = Executors.newCachedThreadPool( threadFactory );
+    }
+    return asyncExecutor;
+  }
+
+  private synchronized void stopAsyncExecutor() {
+    if( asyncExecutor != null ) {
+      // uploads that are still being parsed are finished, new ones are rejected
+      asyncExecutor.shutdown();
+    }
+  }
+
+  int getHandlerCount() {
+    return handlers.size();
+  }
+
+  void sweep( long now ) {
+    for( Registration registration : handlers.values() ) {
+      if( registration.isExpired( now ) ) {
+        evict( registration );
+      }
+    }
+  }
+
+  ChunkedUpload getChunkedUpload( String token, File stagingDirectory ) {
+    ChunkedUpload result = chunkedUploads.get( token );
+    if( result == null ) {
+      ChunkedUpload chunkedUpload = new ChunkedUpload( stagingDirectory );
+      result = chunkedUploads.putIfAbsent( token, chunkedUpload );
+      if( result == null ) {
+        result = chunkedUpload;
+      }
+    }
+    return result;
+  }
+
+  /*
+   * Returns the bandwidth limiter that is shared by all uploads of the handler registered with the
+   * given token, or null if no such handler is registered.
+   */
+  TokenBucket getBandwidthLimiter( String token ) {
+    TokenBucket result = null;
+    Registration registration = token == null ? null : handlers.get( token );
+    if( registration != null ) {
+      result = registration.bandwidthLimiter;
+      result.setRate( registration.handler.getMaxBandwidth() );
+    }
+    return result;
+  }
+
+  void discardChunkedUpload( String token ) {
+    ChunkedUpload chunkedUpload = chunkedUploads.remove( token );
+    if( chunkedUpload != null ) {
+      synchronized( chunkedUpload ) {
+        chunkedUpload.dispose();
+      }
+    }
+  }
+
+  private void evict( Registration registration ) {
+    // only the thread that removes the registration counts the eviction
+    if( handlers.remove( registration.token, registration ) ) {
+      registration.unbind();
+      discardChunkedUpload( registration.token );
+      registration.handler.getReceiver().dispose();
+      evictionCount.incrementAndGet();
+    }
+  }
+
+  private synchronized void startSweeper() {
+    if( sweepTask == null ) {
+      sweepTask = acquireSweeper().scheduleWithFixedDelay( new SweepTask( this ),
+                                                           SWEEP_INTERVAL,
+                                                           SWEEP_INTERVAL,
+                                                           TimeUnit.MILLISECONDS );
+    }
+  }
+
+  private synchronized void stopSweeper() {
+    if( sweepTask != null ) {
+      sweepTask.cancel( false );
+      sweepTask = null;
+      releaseSweeper();
+    }
+  }
+
+  static synchronized boolean isSweeperRunning() {
+    return sweeper != null;
+  }
+
+  private static synchronized ScheduledExecutorService acquireSweeper() {
+    if( sweeper == null ) {
+      ThreadFactory threadFactory = new DaemonThreadFactory( "FileUploadHandler Sweeper" );
+      sweeper = Executors.newSingleThreadScheduledExecutor( threadFactory );
+    }
+    sweeperUsers++;
+    return sweeper;
+  }
+
+  private static synchronized void releaseSweeper() {
+    sweeperUsers--;
+    if( sweeperUsers == 0 ) {
+      sweeper.shutdown();
+      sweeper = null;
+    }
+  }
+
+  private static UISession getCurrentUISession() {
+    UISession result = null;
+    if( ContextProvider.hasContext() ) {
+      result = RWT.getUISession();
+    }
+    return result;
   }
 
   public static String createToken() {
-    int random1 = ( int )( Math.random() * 0xfffffff );
-    int random2 = ( int )( Math.random() * 0xfffffff );
-    return Integer.toHexString( random1 ) + Integer.toHexString( random2 );
+    byte[] bytes = new byte[ TOKEN_LENGTH ];
+    RANDOM.get().nextBytes( bytes );
+    char[] result = new char[ TOKEN_LENGTH * 2 ];
+    for( int i = 0; i < TOKEN_LENGTH; i++ ) {
+      result[ i * 2 ] = HEX_DIGITS[ ( bytes[ i ] >> 4 ) & 0xf ];
+      result[ i * 2 + 1 ] = HEX_DIGITS[ bytes[ i ] & 0xf ];
+    }
+    return new String( result );
+  }
+
+  private static final class Registration implements UISessionListener {
+
+    private final FileUploadHandlerStore store;
+    final String token;
+    final FileUploadHandler handler;
+    final TokenBucket bandwidthLimiter;
+    private volatile long lastAccessTime;
+    private UISession uiSession;
+
+    Registration( FileUploadHandlerStore store, String token, FileUploadHandler handler ) {
+      this.store = store;
+      this.token = token;
+      this.handler = handler;
+      bandwidthLimiter = new TokenBucket( 0 );
+      lastAccessTime = System.currentTimeMillis();
+    }
+
+    void touch( long now ) {
+      lastAccessTime = now;
+    }
+
+    boolean isExpired( long now ) {
+      long idleTimeout = handler.getIdleTimeout();
+      return idleTimeout > 0 && now - lastAccessTime > idleTimeout;
+    }
+
+    synchronized void bind( UISession uiSession ) {
+      if( uiSession != null && uiSession.isBound() ) {
+        this.uiSession = uiSession;
+        uiSession.addUISessionListener( this );
+      }
+    }
+
+    synchronized void unbind() {
+      if( uiSession != null ) {
+        if( uiSession.isBound() ) {
+          uiSession.removeUISessionListener( this );
+        }
+        uiSession = null;
+      }
+    }
+
+    public void beforeDestroy( UISessionEvent event ) {
+      store.evict( this );
+    }
+
+  }
+
+  private static final class SweepTask implements Runnable {
+
+    // do not keep the store of a destroyed application alive, throwing cancels the task
+    private final WeakReference<FileUploadHandlerStore> storeReference;
+
+    SweepTask( FileUploadHandlerStore store ) {
+      storeReference = new WeakReference<FileUploadHandlerStore>( store );
+    }
+
+    public void run() {
+      FileUploadHandlerStore store = storeReference.get();
+      if( store == null ) {
+        throw new IllegalStateException( "Handler store has been garbage collected" );
+      }
+      store.sweep( System.currentTimeMillis() );
+    }
+
+  }
+
+  private static final class DaemonThreadFactory implements ThreadFactory {
+
+    private final String name;
+
+    DaemonThreadFactory( String name ) {
+      this.name = name;
+    }
+
+    public Thread newThread( Runnable runnable ) {
+      Thread thread = new Thread( runnable, name );
+      thread.setDaemon( true );
+      return thread;
+    }
+
   }
 
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2013 EclipseSource and others.
+ * Copyright (c) 2011, 2026 EclipseSource and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,52 +10,84 @@
  ******************************************************************************/
 package org.eclipse.rap.addons.fileupload.internal;
 
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.Set;
-
 import org.eclipse.rap.addons.fileupload.FileUploadEvent;
 import org.eclipse.rap.addons.fileupload.FileUploadListener;
 
 
+/*
+ * Listeners are added and removed on the UI thread, but notified on the thread that processes the
+ * upload request. Modifications replace the listener array, notifications iterate over the array
+ * that was current when they started, without locking or allocating.
+ */
 public final class FileUploadListenerList {
 
-  private final Set<FileUploadListener> listeners;
+  private static final FileUploadListener[] EMPTY = new FileUploadListener[ 0 ];
+
+  private final Object lock;
+  private volatile FileUploadListener[] listeners;
 
   public FileUploadListenerList() {
-    listeners = new HashSet<FileUploadListener>();
+    lock = new Object();
+    listeners = EMPTY;
   }
 
   public void addUploadListener( FileUploadListener listener ) {
-    listeners.add( listener );
+    synchronized( lock ) {
+      FileUploadListener[] current = listeners;
+      if( indexOf( current, listener ) == -1 ) {
+        FileUploadListener[] result = new FileUploadListener[ current.length + 1 ];
+        System.arraycopy( current, 0, result, 0, current.length );
+        result[ current.length ] = listener;
+        listeners = result;
+      }
+    }
   }
 
   public void removeUploadListener( FileUploadListener listener ) {
-    listeners.remove( listener );
+    synchronized( lock ) {
+      FileUploadListener[] current = listeners;
+      int index = indexOf( current, listener );
+      if( index != -1 ) {
+        FileUploadListener[] result = EMPTY;
+        if( current.length > 1 ) {
+          result = new FileUploadListener[ current.length - 1 ];
+          System.arraycopy( current, 0, result, 0, index );
+          System.arraycopy( current, index + 1, result, index, current.length - index - 1 );
+        }
+        listeners = result;
+      }
+    }
   }
 
   public void notifyUploadProgress( FileUploadEvent event ) {
-    Iterator iterator = listeners.iterator();
-    while( iterator.hasNext() ) {
-      FileUploadListener listener = ( FileUploadListener )iterator.next();
-      listener.uploadProgress( event );
+    FileUploadListener[] snapshot = listeners;
+    for( int i = 0; i < snapshot.length; i++ ) {
+      snapshot[ i ].uploadProgress( event );
     }
   }
 
   public void notifyUploadFinished( FileUploadEvent event ) {
-    Iterator iterator = listeners.iterator();
-    while( iterator.hasNext() ) {
-      FileUploadListener listener = ( FileUploadListener )iterator.next();
-      listener.uploadFinished( event );
+    FileUploadListener[] snapshot = listeners;
+    for( int i = 0; i < snapshot.length; i++ ) {
+      snapshot[ i ].uploadFinished( event );
     }
   }
 
   public void notifyUploadFailed( FileUploadEvent event ) {
-    Iterator iterator = listeners.iterator();
-    while( iterator.hasNext() ) {
-      FileUploadListener listener = ( FileUploadListener )iterator.next();
-      listener.uploadFailed( event );
+    FileUploadListener[] snapshot = listeners;
+    for( int i = 0; i < snapshot.length; i++ ) {
+      snapshot[ i ].uploadFailed( event );
+    }
+  }
+
+  private static int indexOf( FileUploadListener[] listeners, FileUploadListener listener ) {
+    int result = -1;
+    for( int i = 0; result == -1 && i < listeners.length; i++ ) {
+      if( listeners[ i ].equals( listener ) ) {
+        result = i;
+      }
     }
+    return result;
   }
 
 }
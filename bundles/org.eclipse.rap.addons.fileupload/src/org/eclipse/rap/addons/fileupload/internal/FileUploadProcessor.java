@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2014 EclipseSource and others.
+ * Copyright (c) 2011, 2026 EclipseSource and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,35 +10,73 @@
  ******************************************************************************/
 package org.eclipse.rap.addons.fileupload.internal;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.fileupload.FileUploadBase.FileSizeLimitExceededException;
+import org.apache.commons.fileupload.FileItemHeaders;
 import org.apache.commons.fileupload.FileItemIterator;
 import org.apache.commons.fileupload.FileItemStream;
+import org.apache.commons.fileupload.ParameterParser;
 import org.apache.commons.fileupload.ProgressListener;
 import org.apache.commons.fileupload.servlet.ServletFileUpload;
+import org.eclipse.rap.addons.fileupload.DiskFileUploadReceiver;
 import org.eclipse.rap.addons.fileupload.FileDetails;
 import org.eclipse.rap.addons.fileupload.FileUploadHandler;
 import org.eclipse.rap.addons.fileupload.FileUploadReceiver;
+import org.eclipse.rap.addons.fileupload.UploadAdmissionControl;
+import org.eclipse.rap.rwt.RWT;
+import org.eclipse.rap.rwt.internal.service.ContextProvider;
+import org.eclipse.rap.rwt.service.UISession;
 
 
+@SuppressWarnings( "restriction" )
 final class FileUploadProcessor {
 
+  private static final String CONTENT_LENGTH = "Content-Length";
+  private static final String CONTENT_RANGE = "Content-Range";
+  private static final String CONTENT_DISPOSITION = "Content-Disposition";
+  private static final String UPLOAD_OFFSET = "Upload-Offset";
+  private static final String SESSION_BANDWIDTH_LIMITER
+    = FileUploadProcessor.class.getName() + "#sessionBandwidthLimiter";
+
   private final FileUploadHandler handler;
+  private final String token;
+  private final FileUploadHandlerStore handlerStore;
   private final FileUploadTracker tracker;
+  private final ProgressThrottle progressThrottle;
+  private final TokenBucket sessionBandwidthLimiter;
+  private final FileUploadStatistics statistics;
+  private final long startTime;
+  private long prevBytesRead = -1;
+  private long countedBytes;
+  private volatile Exception abortCause;
+  private volatile int abortStatus;
 
-  FileUploadProcessor( FileUploadHandler handler ) {
+  FileUploadProcessor( FileUploadHandler handler, String token ) {
     this.handler = handler;
+    this.token = token;
+    // keep a reference, progress may be reported from threads without an application context
+    handlerStore = FileUploadHandlerStore.getInstance();
     tracker = new FileUploadTracker( handler );
+    progressThrottle = new ProgressThrottle( handler );
+    sessionBandwidthLimiter = getSessionBandwidthLimiter();
+    statistics = handlerStore.getStatistics();
+    startTime = System.nanoTime();
   }
 
   void handleFileUpload( HttpServletRequest request, HttpServletResponse response )
     throws IOException
   {
+    statistics.uploadStarted();
     try {
       ServletFileUpload upload = createUpload();
       FileItemIterator iter = upload.getItemIterator( request );
@@ -52,24 +90,210 @@ final class FileUploadProcessor {
         String errorMessage = "No file upload data found in request";
         tracker.setException( new Exception( errorMessage ) );
         tracker.handleFailed();
+        statistics.uploadFailed( HttpServletResponse.SC_BAD_REQUEST );
         response.sendError( HttpServletResponse.SC_BAD_REQUEST, errorMessage );
       } else {
+        flushProgress();
         tracker.handleFinished();
+        statistics.uploadCompleted( getLatency() );
       }
     } catch( Exception exception ) {
+      handleException( exception, response );
+    } finally {
+      statistics.uploadEnded();
+    }
+  }
+
+  /*
+   * Makes the upload fail with the given exception and status instead of the error that reading
+   * the aborted request causes. Must be called before the request data is aborted.
+   */
+  void setAbortCause( Exception exception, int status ) {
+    abortStatus = status;
+    abortCause = exception;
+  }
+
+  private void handleException( Exception exception, HttpServletResponse response )
+    throws IOException
+  {
+    if( abortCause != null ) {
+      handleFailure( abortCause, abortStatus, response );
+    } else {
       Throwable cause = exception.getCause();
       if( cause instanceof FileSizeLimitExceededException ) {
         exception = ( Exception )cause;
       }
-      tracker.setException( exception );
-      tracker.handleFailed();
       int errorCode = exception instanceof FileSizeLimitExceededException
                     ? HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE
                     : HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
-      response.sendError( errorCode, exception.getMessage() );
+      handleFailure( exception, errorCode, response );
+    }
+  }
+
+  void handleFailure( Exception exception, int status, HttpServletResponse response )
+    throws IOException
+  {
+    tracker.setException( exception );
+    tracker.handleFailed();
+    statistics.uploadFailed( status );
+    response.sendError( status, exception.getMessage() );
+  }
+
+  private void flushProgress() {
+    // the last progress event may have been throttled if the content length is unknown
+    if( progressThrottle.flush() ) {
+      tracker.handleProgress();
+    }
+  }
+
+  long getAsyncTimeout() {
+    return handler.getAsyncTimeout();
+  }
+
+  Executor getAsyncExecutor() {
+    return handlerStore.getAsyncExecutor();
+  }
+
+  void handleProgress( long bytesRead, long contentLength ) {
+    // Depending on the servlet engine and other environmental factors,
+    // this method may be called for every network packet, so don't notify unless there
+    // is an actual increase.
+    if( bytesRead > prevBytesRead ) {
+      prevBytesRead = bytesRead;
+      if( bytesRead > countedBytes ) {
+        statistics.bytesReceived( bytesRead - countedBytes );
+        countedBytes = bytesRead;
+      }
+      // prevent the handler from expiring while data is being received
+      handlerStore.touch( token );
+      tracker.setContentLength( contentLength );
+      tracker.setBytesRead( bytesRead );
+      if( progressThrottle.isDue( bytesRead, contentLength ) ) {
+        tracker.handleProgress();
+      }
+    }
+  }
+
+  void handleChunkedUpload( HttpServletRequest request, HttpServletResponse response )
+    throws IOException
+  {
+    ContentRange range = ContentRange.parse( request.getHeader( CONTENT_RANGE ) );
+    if( range == null ) {
+      statistics.uploadFailed( HttpServletResponse.SC_BAD_REQUEST );
+      response.sendError( HttpServletResponse.SC_BAD_REQUEST, "Invalid Content-Range header" );
+    } else {
+      statistics.uploadStarted();
+      try {
+        boolean handled = false;
+        while( !handled ) {
+          ChunkedUpload upload = handlerStore.getChunkedUpload( token, getStagingDirectory() );
+          synchronized( upload ) {
+            // another request may have completed or discarded this upload in the meantime
+            if( !upload.isDisposed() ) {
+              handleChunk( request, response, range, upload );
+              handled = true;
+            }
+          }
+        }
+      } finally {
+        statistics.uploadEnded();
+      }
+    }
+  }
+
+  private void handleChunk( HttpServletRequest request,
+                            HttpServletResponse response,
+                            ContentRange range,
+                            ChunkedUpload upload )
+    throws IOException
+  {
+    long maxFileSize = handler.getMaxFileSize();
+    long total = range.getTotal() == -1 ? upload.getTotal() : range.getTotal();
+    long end = Math.max( total, range.getFirst() + range.getLength() );
+    if( upload.getTotal() != -1 && total != upload.getTotal() ) {
+      String message = "Content-Range does not match the total length of previous chunks";
+      statistics.uploadFailed( HttpServletResponse.SC_BAD_REQUEST );
+      response.sendError( HttpServletResponse.SC_BAD_REQUEST, message );
+    } else if( maxFileSize >= 0 && end > maxFileSize ) {
+      String message = "The field file exceeds its maximum permitted size of "
+                       + maxFileSize
+                       + " bytes.";
+      handlerStore.discardChunkedUpload( token );
+      tracker.setException( new FileSizeLimitExceededException( message, end, maxFileSize ) );
+      tracker.handleFailed();
+      statistics.uploadFailed( HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE );
+      response.sendError( HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, message );
+    } else if( !range.isQuery() && range.getFirst() != upload.getOffset() ) {
+      response.setHeader( UPLOAD_OFFSET, String.valueOf( upload.getOffset() ) );
+      String message = "Chunk does not start at the committed offset";
+      statistics.uploadFailed( HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE );
+      response.sendError( HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE, message );
+    } else {
+      upload.setTotal( total );
+      try {
+        boolean appended = true;
+        if( !range.isQuery() ) {
+          // only the bytes of this chunk count as received
+          countedBytes = upload.getOffset();
+          // the buckets outlive the request, so splitting an upload into chunks gains no bandwidth
+          appended = upload.append( throttle( request.getInputStream() ), range.getLength() );
+          handleProgress( upload.getOffset(), total );
+        }
+        response.setHeader( UPLOAD_OFFSET, String.valueOf( upload.getOffset() ) );
+        if( !appended ) {
+          String message = "Chunk is shorter than its Content-Range";
+          statistics.uploadFailed( HttpServletResponse.SC_BAD_REQUEST );
+          response.sendError( HttpServletResponse.SC_BAD_REQUEST, message );
+        } else if( upload.isComplete() ) {
+          finishChunkedUpload( request, response, upload );
+        }
+      } catch( IOException exception ) {
+        // keep the bytes received so far, the client can resume from the committed offset
+        response.setHeader( UPLOAD_OFFSET, String.valueOf( upload.getOffset() ) );
+        statistics.uploadFailed( HttpServletResponse.SC_INTERNAL_SERVER_ERROR );
+        response.sendError( HttpServletResponse.SC_INTERNAL_SERVER_ERROR, exception.getMessage() );
+      }
+    }
+  }
+
+  private void finishChunkedUpload( HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    ChunkedUpload upload )
+    throws IOException
+  {
+    try {
+      InputStream stream = upload.openStream();
+      try {
+        String fileName = getFileName( request );
+        receive( stream, fileName, request.getContentType(), upload.getTotal() );
+      } finally {
+        stream.close();
+      }
+      flushProgress();
+      tracker.handleFinished();
+      statistics.uploadCompleted( getLatency() );
+    } catch( Exception exception ) {
+      tracker.setException( exception );
+      tracker.handleFailed();
+      statistics.uploadFailed( HttpServletResponse.SC_INTERNAL_SERVER_ERROR );
+      response.sendError( HttpServletResponse.SC_INTERNAL_SERVER_ERROR, exception.getMessage() );
+    } finally {
+      handlerStore.discardChunkedUpload( token );
     }
   }
 
+  /*
+   * Stages chunks next to the files of the receiver if it keeps them in a storage root.
+   */
+  private File getStagingDirectory() {
+    File result = null;
+    FileUploadReceiver receiver = handler.getReceiver();
+    if( receiver instanceof DiskFileUploadReceiver ) {
+      result = ( ( DiskFileUploadReceiver )receiver ).getStorageRoot();
+    }
+    return result;
+  }
+
   private ServletFileUpload createUpload() {
     ServletFileUpload upload = new ServletFileUpload();
     upload.setFileSizeMax( handler.getMaxFileSize() );
@@ -79,36 +303,122 @@ final class FileUploadProcessor {
 
   private ProgressListener createProgressListener() {
     ProgressListener result = new ProgressListener() {
-      long prevTotalBytesRead = -1;
       public void update( long totalBytesRead, long contentLength, int item ) {
-        // Depending on the servlet engine and other environmental factors,
-        // this listener may be notified for every network packet, so don't notify unless there
-        // is an actual increase.
-        if ( totalBytesRead > prevTotalBytesRead ) {
-          prevTotalBytesRead = totalBytesRead;
-          tracker.setContentLength( contentLength );
-          tracker.setBytesRead( totalBytesRead );
-          tracker.handleProgress();
-        }
+        handleProgress( totalBytesRead, contentLength );
       }
     };
     return result;
   }
 
   private void receive( FileItemStream item ) throws IOException {
-    InputStream stream = item.openStream();
+    InputStream stream = throttle( item.openStream() );
     try {
       String fileName = stripFileName( item.getName() );
       String contentType = item.getContentType();
-      FileDetails details = new FileDetailsImpl( fileName, contentType, -1 );
-      FileUploadReceiver receiver = handler.getReceiver();
-      receiver.receive( stream, details );
-      tracker.addFile( details );
+      long contentLength = getContentLength( item );
+      receive( stream, fileName, contentType, contentLength );
     } finally {
       stream.close();
     }
   }
 
+  private void receive( InputStream inputStream,
+                        String fileName,
+                        String contentType,
+                        long contentLength )
+    throws IOException
+  {
+    // chunked uploads have already been throttled while their chunks were received
+    CountingInputStream countingStream = new CountingInputStream( inputStream );
+    StreamDigests digests = new StreamDigests( handler.getDigestAlgorithms() );
+    // receivers may reuse the digests instead of computing them once more
+    FileDetails details = new FileDetailsImpl( fileName, contentType, contentLength, digests );
+    InputStream stream = digests.wrap( countingStream );
+    FileUploadReceiver receiver = handler.getReceiver();
+    long startTime = System.nanoTime();
+    receiver.receive( stream, details );
+    long duration = ( System.nanoTime() - startTime ) / 1000000;
+    tracker.addFile( new FileDetailsImpl( fileName,
+                                          contentType,
+                                          contentLength,
+                                          countingStream.getCount(),
+                                          duration,
+                                          digests.getHexDigests() ) );
+  }
+
+  private InputStream throttle( InputStream inputStream ) {
+    InputStream result = inputStream;
+    List<TokenBucket> limiters = new ArrayList<TokenBucket>( 2 );
+    TokenBucket handlerBandwidthLimiter = handlerStore.getBandwidthLimiter( token );
+    if( handlerBandwidthLimiter != null && handlerBandwidthLimiter.getRate() > 0 ) {
+      limiters.add( handlerBandwidthLimiter );
+    }
+    if( sessionBandwidthLimiter != null && sessionBandwidthLimiter.getRate() > 0 ) {
+      limiters.add( sessionBandwidthLimiter );
+    }
+    if( !limiters.isEmpty() ) {
+      result = new ThrottledInputStream( inputStream,
+                                         limiters.toArray( new TokenBucket[ limiters.size() ] ) );
+    }
+    return result;
+  }
+
+  /*
+   * Returns the length of a single part, which is only known if the client sent it in the part
+   * headers. Browsers usually don't.
+   */
+  private static long getContentLength( FileItemStream item ) {
+    long result = -1;
+    FileItemHeaders headers = item.getHeaders();
+    String header = headers == null ? null : headers.getHeader( CONTENT_LENGTH );
+    if( header != null ) {
+      try {
+        result = Long.parseLong( header.trim() );
+      } catch( NumberFormatException exception ) {
+        // unknown
+      }
+    }
+    return result;
+  }
+
+  private static String getFileName( HttpServletRequest request ) {
+    String result = null;
+    String header = request.getHeader( CONTENT_DISPOSITION );
+    if( header != null ) {
+      ParameterParser parser = new ParameterParser();
+      parser.setLowerCaseNames( true );
+      Map<String, String> parameters = parser.parse( header, ';' );
+      String fileName = parameters.get( "filename" );
+      if( fileName != null ) {
+        result = stripFileName( fileName );
+      }
+    }
+    return result;
+  }
+
+  private long getLatency() {
+    return ( System.nanoTime() - startTime ) / 1000000;
+  }
+
+  private static TokenBucket getSessionBandwidthLimiter() {
+    TokenBucket result = null;
+    UISession uiSession = ContextProvider.hasContext() ? RWT.getUISession() : null;
+    if( uiSession != null ) {
+      long maxBandwidth = UploadAdmissionControl.getInstance().getMaxBandwidthPerSession();
+      // the limiter is shared by all uploads of the session
+      synchronized( uiSession ) {
+        result = ( TokenBucket )uiSession.getAttribute( SESSION_BANDWIDTH_LIMITER );
+        if( result != null ) {
+          result.setRate( maxBandwidth );
+        } else if( maxBandwidth > 0 ) {
+          result = new TokenBucket( maxBandwidth );
+          uiSession.setAttribute( SESSION_BANDWIDTH_LIMITER, result );
+        }
+      }
+    }
+    return result;
+  }
+
   private static String stripFileName( String name ) {
     String result = name;
     int lastSlash = result.lastIndexOf( '/' );
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2002, 2014 EclipseSource and others.
+ * Copyright (c) 2002, 2026 EclipseSource and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,6 +14,7 @@
 package org.eclipse.rap.addons.fileupload.internal;
 
 import java.io.IOException;
+import java.util.concurrent.Executor;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
@@ -21,13 +22,21 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.fileupload.servlet.ServletFileUpload;
 import org.eclipse.rap.addons.fileupload.FileUploadHandler;
+import org.eclipse.rap.addons.fileupload.UploadAdmissionControl;
+import org.eclipse.rap.addons.fileupload.internal.UploadAdmission.Permit;
 import org.eclipse.rap.rwt.RWT;
 import org.eclipse.rap.rwt.service.ServiceHandler;
+import org.eclipse.rap.rwt.service.UISession;
 
 
 public final class FileUploadServiceHandler implements ServiceHandler {
 
   private static final String PARAMETER_TOKEN = "token";
+  private static final String HEADER_CONTENT_RANGE = "Content-Range";
+  private static final String HEADER_RETRY_AFTER = "Retry-After";
+  private static final String HEADER_CONTENT_LENGTH = "Content-Length";
+
+  private static final boolean SERVLET_3_1_AVAILABLE = isServlet31Available();
 
   static final String SERVICE_HANDLER_ID = "org.eclipse.rap.fileupload";
 
@@ -43,6 +52,8 @@ public final class FileUploadServiceHandler implements ServiceHandler {
       if( registeredHandler == null ) {
         String message = "Invalid or missing token";
         response.sendError( HttpServletResponse.SC_FORBIDDEN, message );
+      } else if( isChunkedUpload( request ) ) {
+        admitUpload( registeredHandler, token, true, request, response );
       } else if( !"POST".equals( request.getMethod().toUpperCase() ) ) {
         String message = "Only POST requests allowed";
         response.sendError( HttpServletResponse.SC_METHOD_NOT_ALLOWED, message );
@@ -50,10 +61,91 @@ public final class FileUploadServiceHandler implements ServiceHandler {
         String message = "Content must be in multipart type";
         response.sendError( HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE, message );
       } else {
-        FileUploadProcessor processor = new FileUploadProcessor( registeredHandler );
-        processor.handleFileUpload( request, response );
+        admitUpload( registeredHandler, token, false, request, response );
+      }
+    }
+  }
+
+  private static void admitUpload( FileUploadHandler handler,
+                                   String token,
+                                   boolean chunked,
+                                   HttpServletRequest request,
+                                   HttpServletResponse response )
+    throws IOException
+  {
+    UploadAdmission admission = UploadAdmission.getInstance();
+    long contentLength = getContentLength( request );
+    Permit permit = admission.acquire( getUISessionId(), contentLength );
+    if( permit != null ) {
+      boolean async = false;
+      try {
+        FileUploadProcessor processor = new FileUploadProcessor( handler, token );
+        if( chunked ) {
+          processor.handleChunkedUpload( request, response );
+        } else if( handler.isAsyncProcessing() && isAsyncSupported( request ) ) {
+          Executor executor = processor.getAsyncExecutor();
+          AsyncFileUploadProcessor.start( processor, request, response, executor, permit );
+          async = true;
+        } else {
+          processor.handleFileUpload( request, response );
+        }
+      } finally {
+        // an asynchronous upload is released when its processing has completed
+        if( !async ) {
+          permit.run();
+        }
+      }
+    } else if( contentLength < 0 && admission.hasByteLimits() ) {
+      // only byte limits need the length, uploads rejected by count limits may be retried
+      String message = "Content length required";
+      response.sendError( HttpServletResponse.SC_LENGTH_REQUIRED, message );
+    } else {
+      int retryAfter = UploadAdmissionControl.getInstance().getRetryAfter();
+      response.setHeader( HEADER_RETRY_AFTER, String.valueOf( retryAfter ) );
+      String message = "Too many concurrent uploads";
+      response.sendError( HttpServletResponse.SC_SERVICE_UNAVAILABLE, message );
+    }
+  }
+
+  private static long getContentLength( HttpServletRequest request ) {
+    // ServletRequest#getContentLength() does not support uploads larger than 2 GB
+    long result = -1;
+    String header = request.getHeader( HEADER_CONTENT_LENGTH );
+    if( header != null ) {
+      try {
+        result = Long.parseLong( header.trim() );
+      } catch( NumberFormatException exception ) {
+        result = -1;
       }
     }
+    return result < 0 ? request.getContentLength() : result;
+  }
+
+  private static String getUISessionId() {
+    UISession uiSession = RWT.getUISession();
+    return uiSession == null ? null : uiSession.getId();
+  }
+
+  private static boolean isAsyncSupported( HttpServletRequest request ) {
+    // HttpServletRequest#isAsyncSupported() does not exist prior to Servlet 3.0
+    return SERVLET_3_1_AVAILABLE && request.isAsyncSupported();
+  }
+
+  private static boolean isServlet31Available() {
+    boolean result = true;
+    try {
+      Class.forName( "javax.servlet.ReadListener" );
+    } catch( ClassNotFoundException exception ) {
+      result = false;
+    } catch( LinkageError error ) {
+      result = false;
+    }
+    return result;
+  }
+
+  private static boolean isChunkedUpload( HttpServletRequest request ) {
+    return "PUT".equals( request.getMethod().toUpperCase() )
+           && request.getHeader( HEADER_CONTENT_RANGE ) != null;
   }
 
   public static String getUrl( String token ) {
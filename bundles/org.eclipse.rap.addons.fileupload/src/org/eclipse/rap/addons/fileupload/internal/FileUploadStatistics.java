@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.rap.rwt.service.ApplicationContext;
+
+
+/*
+ * Collects statistics about the uploads of an application. The counters are updated from many
+ * request threads concurrently, hence they are striped and lock-free. The statistics are
+ * registered as an MBean in the platform MBean server for the lifetime of the application
+ * context.
+ */
+public final class FileUploadStatistics implements FileUploadStatisticsMBean {
+
+  static final String DOMAIN = "org.eclipse.rap.addons.fileupload";
+
+  private final FileUploadHandlerStore handlerStore;
+  private final UploadAdmission admission;
+  private final StripedCounter activeUploads;
+  private final StripedCounter completedUploads;
+  private final StripedCounter badRequests;
+  private final StripedCounter fileSizeExceeded;
+  private final StripedCounter rangeNotSatisfiable;
+  private final StripedCounter serverErrors;
+  private final StripedCounter bytesReceived;
+  private final RateMeter throughput;
+  private final LatencyHistogram latencies;
+  private ObjectName objectName;
+
+  FileUploadStatistics( FileUploadHandlerStore handlerStore, UploadAdmission admission ) {
+    this.handlerStore = handlerStore;
+    this.admission = admission;
+    activeUploads = new StripedCounter();
+    completedUploads = new StripedCounter();
+    badRequests = new StripedCounter();
+    fileSizeExceeded = new StripedCounter();
+    rangeNotSatisfiable = new StripedCounter();
+    serverErrors = new StripedCounter();
+    bytesReceived = new StripedCounter();
+    throughput = new RateMeter();
+    latencies = new LatencyHistogram();
+  }
+
+  public int getRegisteredHandlerCount() {
+    return handlerStore.getHandlerCount();
+  }
+
+  public long getEvictedHandlerCount() {
+    return handlerStore.getEvictionCount();
+  }
+
+  public long getActiveUploadCount() {
+    return activeUploads.get();
+  }
+
+  public long getRejectedUploadCount() {
+    return admission.getRejectionCount();
+  }
+
+  public long getCompletedUploadCount() {
+    return completedUploads.get();
+  }
+
+  public long getBadRequestCount() {
+    return badRequests.get();
+  }
+
+  public long getFileSizeExceededCount() {
+    return fileSizeExceeded.get();
+  }
+
+  public long getRangeNotSatisfiableCount() {
+    return rangeNotSatisfiable.get();
+  }
+
+  public long getServerErrorCount() {
+    return serverErrors.get();
+  }
+
+  public long getBytesReceived() {
+    return bytesReceived.get();
+  }
+
+  public long getBytesReceivedPerSecond() {
+    return throughput.getRate( System.currentTimeMillis() );
+  }
+
+  public long getLatencyMedian() {
+    return latencies.getPercentile( 50 );
+  }
+
+  public long getLatency95thPercentile() {
+    return latencies.getPercentile( 95 );
+  }
+
+  public long getLatency99thPercentile() {
+    return latencies.getPercentile( 99 );
+  }
+
+  void uploadStarted() {
+    activeUploads.increment();
+  }
+
+  void uploadEnded() {
+    activeUploads.decrement();
+  }
+
+  void uploadCompleted( long latency ) {
+    completedUploads.increment();
+    latencies.record( latency );
+  }
+
+  void uploadFailed( int status ) {
+    if( status == HttpServletResponse.SC_BAD_REQUEST ) {
+      badRequests.increment();
+    } else if( status == HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE ) {
+      fileSizeExceeded.increment();
+    } else if( status == HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE ) {
+      rangeNotSatisfiable.increment();
+    } else {
+      serverErrors.increment();
+    }
+  }
+
+  void bytesReceived( long bytes ) {
+    bytesReceived.add( bytes );
+    throughput.add( bytes, System.currentTimeMillis() );
+  }
+
+  synchronized void register( ApplicationContext applicationContext ) {
+    try {
+      ObjectName name = createObjectName( applicationContext );
+      getMBeanServer().registerMBean( this, name );
+      objectName = name;
+    } catch( JMException exception ) {
+      // monitoring is optional, uploads must work without it
+    } catch( SecurityException exception ) {
+      // monitoring is optional, uploads must work without it
+    }
+  }
+
+  synchronized void unregister() {
+    if( objectName != null ) {
+      try {
+        getMBeanServer().unregisterMBean( objectName );
+      } catch( JMException exception ) {
+        // already unregistered
+      }
+      objectName = null;
+    }
+  }
+
+  synchronized ObjectName getObjectName() {
+    return objectName;
+  }
+
+  static ObjectName createObjectName( ApplicationContext applicationContext ) throws JMException {
+    String context = Integer.toHexString( System.identityHashCode( applicationContext ) );
+    return new ObjectName( DOMAIN + ":type=FileUploadStatistics,context=" + context );
+  }
+
+  private static MBeanServer getMBeanServer() {
+    return ManagementFactory.getPlatformMBeanServer();
+  }
+
+}
@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+
+/*
+ * The management interface of the upload statistics of an application. Latencies are given in
+ * milliseconds and measured from the start of an upload request until the upload has been
+ * processed.
+ */
+public interface FileUploadStatisticsMBean {
+
+  int getRegisteredHandlerCount();
+
+  long getEvictedHandlerCount();
+
+  long getActiveUploadCount();
+
+  long getRejectedUploadCount();
+
+  long getCompletedUploadCount();
+
+  // uploads without file data or with an invalid chunk, status 400
+  long getBadRequestCount();
+
+  // uploads that exceeded the maximum file size, status 413
+  long getFileSizeExceededCount();
+
+  // chunks that did not start at the committed offset, status 416
+  long getRangeNotSatisfiableCount();
+
+  // uploads that failed with an exception, status 500
+  long getServerErrorCount();
+
+  long getBytesReceived();
+
+  long getBytesReceivedPerSecond();
+
+  long getLatencyMedian();
+
+  long getLatency95thPercentile();
+
+  long getLatency99thPercentile();
+
+}
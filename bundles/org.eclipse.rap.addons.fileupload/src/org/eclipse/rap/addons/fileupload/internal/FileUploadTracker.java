@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2014 EclipseSource and others.
+ * Copyright (c) 2011, 2026 EclipseSource and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,70 +10,112 @@
  ******************************************************************************/
 package org.eclipse.rap.addons.fileupload.internal;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import org.eclipse.rap.addons.fileupload.FileDetails;
 import org.eclipse.rap.addons.fileupload.FileUploadEvent;
 import org.eclipse.rap.addons.fileupload.FileUploadHandler;
 
 
+/*
+ * Listeners may keep events and read them on other threads. Therefore every dispatched event is an
+ * immutable snapshot of the upload state. A snapshot is only created when the state has changed
+ * since the last dispatch, and the array of file details is only copied when a file is added.
+ */
 final class FileUploadTracker {
 
+  private static final FileDetails[] NO_FILES = new FileDetails[ 0 ];
+
   private final FileUploadHandler handler;
-  private final List<FileDetails> files;
+  private FileDetails[] files;
   private long contentLength;
   private long bytesRead;
   private Exception exception;
+  private volatile InternalFileUploadEvent snapshot;
 
   FileUploadTracker( FileUploadHandler handler ) {
     this.handler = handler;
-    files = new ArrayList<FileDetails>();
+    files = NO_FILES;
   }
 
   void addFile( FileDetails details ) {
-    files.add( details );
+    FileDetails[] result = new FileDetails[ files.length + 1 ];
+    System.arraycopy( files, 0, result, 0, files.length );
+    result[ files.length ] = details;
+    files = result;
+    snapshot = null;
   }
 
   boolean isEmpty() {
-    return files.isEmpty();
+    return files.length == 0;
   }
 
   void setContentLength( long contentLength ) {
-    this.contentLength = contentLength;
+    if( this.contentLength != contentLength ) {
+      this.contentLength = contentLength;
+      snapshot = null;
+    }
   }
 
   void setBytesRead( long bytesRead ) {
-    this.bytesRead = bytesRead;
+    if( this.bytesRead != bytesRead ) {
+      this.bytesRead = bytesRead;
+      snapshot = null;
+    }
   }
 
   void setException( Exception exception ) {
-    this.exception = exception;
+    if( this.exception != exception ) {
+      this.exception = exception;
+      snapshot = null;
+    }
   }
 
   void handleProgress() {
-    new InternalFileUploadEvent( handler ).dispatchAsProgress();
+    getSnapshot().dispatchAsProgress();
   }
 
   void handleFinished() {
-    new InternalFileUploadEvent( handler ).dispatchAsFinished();
+    getSnapshot().dispatchAsFinished();
   }
 
   void handleFailed() {
-    new InternalFileUploadEvent( handler ).dispatchAsFailed();
+    getSnapshot().dispatchAsFailed();
+  }
+
+  private InternalFileUploadEvent getSnapshot() {
+    InternalFileUploadEvent result = snapshot;
+    if( result == null ) {
+      result = new InternalFileUploadEvent( handler, files, contentLength, bytesRead, exception );
+      snapshot = result;
+    }
+    return result;
   }
 
-  private final class InternalFileUploadEvent extends FileUploadEvent {
+  private static final class InternalFileUploadEvent extends FileUploadEvent {
 
     private static final long serialVersionUID = 1L;
 
-    private InternalFileUploadEvent( FileUploadHandler source ) {
+    // final fields are safely published to listeners on other threads
+    private final FileDetails[] files;
+    private final long contentLength;
+    private final long bytesRead;
+    private final Exception exception;
+
+    private InternalFileUploadEvent( FileUploadHandler source,
+                                     FileDetails[] files,
+                                     long contentLength,
+                                     long bytesRead,
+                                     Exception exception )
+    {
       super( source );
+      this.files = files;
+      this.contentLength = contentLength;
+      this.bytesRead = bytesRead;
+      this.exception = exception;
     }
 
     @Override
     public FileDetails[] getFileDetails() {
-      return files.toArray( new FileDetails[ 0 ] );
+      return files;
     }
 
     @Override
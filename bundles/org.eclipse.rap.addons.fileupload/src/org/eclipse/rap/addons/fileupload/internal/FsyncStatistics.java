@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+
+/*
+ * Collects statistics about forcing received files to disk. As files are forced regardless of the
+ * application they were uploaded to, there is a single instance per JVM. It is registered as an
+ * MBean in the platform MBean server while at least one application context uses it.
+ */
+public final class FsyncStatistics implements FsyncStatisticsMBean {
+
+  // guarded by FsyncStatistics.class
+  private static int users;
+
+  private final StripedCounter fsyncs;
+  private final StripedCounter failures;
+  private final LatencyHistogram latencies;
+
+  FsyncStatistics() {
+    fsyncs = new StripedCounter();
+    failures = new StripedCounter();
+    latencies = new LatencyHistogram();
+  }
+
+  public static FsyncStatistics getInstance() {
+    return InstanceHolder.INSTANCE;
+  }
+
+  public long getFsyncCount() {
+    return fsyncs.get();
+  }
+
+  public long getFsyncFailureCount() {
+    return failures.get();
+  }
+
+  public long getFsyncLatencyMedian() {
+    return latencies.getPercentile( 50 );
+  }
+
+  public long getFsyncLatency95thPercentile() {
+    return latencies.getPercentile( 95 );
+  }
+
+  public long getFsyncLatency99thPercentile() {
+    return latencies.getPercentile( 99 );
+  }
+
+  public void fsyncCompleted( long latencyNanos ) {
+    fsyncs.increment();
+    latencies.record( latencyNanos / 1000 );
+  }
+
+  public void fsyncFailed() {
+    failures.increment();
+  }
+
+  /*
+   * Registers the MBean when the first application context starts to use it. Every call must be
+   * balanced by a call to release(), so that the MBean does not outlive the last application.
+   */
+  static synchronized void acquire() {
+    if( users == 0 ) {
+      try {
+        getMBeanServer().registerMBean( getInstance(), createObjectName() );
+      } catch( JMException exception ) {
+        // monitoring is optional, uploads must work without it
+      } catch( SecurityException exception ) {
+        // monitoring is optional, uploads must work without it
+      }
+    }
+    users++;
+  }
+
+  static synchronized void release() {
+    users--;
+    if( users == 0 ) {
+      try {
+        getMBeanServer().unregisterMBean( createObjectName() );
+      } catch( JMException exception ) {
+        // not registered
+      } catch( SecurityException exception ) {
+        // not registered
+      }
+    }
+  }
+
+  static ObjectName createObjectName() throws JMException {
+    return new ObjectName( FileUploadStatistics.DOMAIN + ":type=FsyncStatistics" );
+  }
+
+  private static MBeanServer getMBeanServer() {
+    return ManagementFactory.getPlatformMBeanServer();
+  }
+
+  private static final class InstanceHolder {
+
+    static final FsyncStatistics INSTANCE = new FsyncStatistics();
+
+  }
+
+}
@@ -0,0 +1,30 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+
+/*
+ * The management interface of the statistics about forcing received files to disk. Latencies are
+ * given in microseconds.
+ */
+public interface FsyncStatisticsMBean {
+
+  long getFsyncCount();
+
+  long getFsyncFailureCount();
+
+  long getFsyncLatencyMedian();
+
+  long getFsyncLatency95thPercentile();
+
+  long getFsyncLatency99thPercentile();
+
+}
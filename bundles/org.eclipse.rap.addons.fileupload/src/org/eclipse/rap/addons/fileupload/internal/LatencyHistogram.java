@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/*
+ * A lock-free histogram of latencies in milliseconds. Values below 8 are recorded exactly. Larger
+ * values are recorded in buckets that split every power of two into 8 linear sub-buckets, hence
+ * a percentile is accurate to within 12.5%. Percentiles are computed from a snapshot of the
+ * buckets and return the upper bound of the bucket that contains the percentile.
+ */
+final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKET_COUNT = 64 * SUB_BUCKET_COUNT;
+
+  private final AtomicLongArray buckets;
+
+  LatencyHistogram() {
+    buckets = new AtomicLongArray( BUCKET_COUNT );
+  }
+
+  void record( long value ) {
+    buckets.incrementAndGet( getBucketIndex( Math.max( 0, value ) ) );
+  }
+
+  long getCount() {
+    long result = 0;
+    for( int i = 0; i < BUCKET_COUNT; i++ ) {
+      result += buckets.get( i );
+    }
+    return result;
+  }
+
+  /*
+   * Returns the value below which the given percentage of all recorded values fall, or 0 if no
+   * values have been recorded.
+   */
+  long getPercentile( double percentile ) {
+    long[] counts = new long[ BUCKET_COUNT ];
+    long total = 0;
+    for( int i = 0; i < BUCKET_COUNT; i++ ) {
+      counts[ i ] = buckets.get( i );
+      total += counts[ i ];
+    }
+    long result = 0;
+    if( total > 0 ) {
+      long rank = Math.max( 1, ( long )Math.ceil( total * percentile / 100 ) );
+      long count = 0;
+      int index = 0;
+      boolean finished = false;
+      while( !finished ) {
+        count += counts[ index ];
+        if( count >= rank || index == BUCKET_COUNT - 1 ) {
+          finished = true;
+        } else {
+          index++;
+        }
+      }
+      result = getUpperBound( index );
+    }
+    return result;
+  }
+
+  static int getBucketIndex( long value ) {
+    int result;
+    if( value < SUB_BUCKET_COUNT ) {
+      result = ( int )value;
+    } else {
+      int shift = 63 - Long.numberOfLeadingZeros( value ) - SUB_BUCKET_BITS;
+      result = ( shift + 1 ) * SUB_BUCKET_COUNT + ( int )( value >>> shift ) - SUB_BUCKET_COUNT;
+    }
+    return result;
+  }
+
+  static long getUpperBound( int index ) {
+    long result;
+    if( index < SUB_BUCKET_COUNT ) {
+      result = index;
+    } else {
+      int shift = index / SUB_BUCKET_COUNT - 1;
+      long lowerBound = ( long )( index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT ) << shift;
+      result = lowerBound + ( 1L << shift ) - 1;
+    }
+    return result;
+  }
+
+}
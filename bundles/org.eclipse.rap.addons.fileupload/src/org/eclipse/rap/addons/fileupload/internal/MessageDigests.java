@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/*
+ * Helper methods to compute message digests of uploaded files.
+ */
+public final class MessageDigests {
+
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  private MessageDigests() {
+    // prevent instantiation
+  }
+
+  public static void checkAlgorithms( String[] algorithms ) {
+    if( algorithms == null ) {
+      throw new NullPointerException( "algorithms is null" );
+    }
+    for( String algorithm : algorithms ) {
+      try {
+        MessageDigest.getInstance( algorithm );
+      } catch( NoSuchAlgorithmException exception ) {
+        throw new IllegalArgumentException( "Digest algorithm not available: " + algorithm );
+      }
+    }
+  }
+
+  public static MessageDigest[] create( String[] algorithms ) {
+    MessageDigest[] result = new MessageDigest[ algorithms.length ];
+    for( int i = 0; i < algorithms.length; i++ ) {
+      try {
+        result[ i ] = MessageDigest.getInstance( algorithms[ i ] );
+      } catch( NoSuchAlgorithmException exception ) {
+        throw new IllegalStateException( "Digest algorithm not available: " + algorithms[ i ],
+                                         exception );
+      }
+    }
+    return result;
+  }
+
+  public static Map<String, String> toHexDigests( MessageDigest[] digests ) {
+    Map<String, String> result = null;
+    if( digests.length > 0 ) {
+      result = new HashMap<String, String>();
+      for( MessageDigest digest : digests ) {
+        result.put( digest.getAlgorithm(), toHex( digest.digest() ) );
+      }
+    }
+    return result;
+  }
+
+  static String toHex( byte[] bytes ) {
+    char[] result = new char[ bytes.length * 2 ];
+    for( int i = 0; i < bytes.length; i++ ) {
+      result[ i * 2 ] = HEX_DIGITS[ ( bytes[ i ] >> 4 ) & 0xf ];
+      result[ i * 2 + 1 ] = HEX_DIGITS[ bytes[ i ] & 0xf ];
+    }
+    return new String( result );
+  }
+
+}
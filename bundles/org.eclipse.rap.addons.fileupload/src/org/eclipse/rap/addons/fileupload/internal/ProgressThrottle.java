@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import org.eclipse.rap.addons.fileupload.FileUploadHandler;
+
+
+/*
+ * Decides whether a progress update is dispatched to the listeners. Without any thresholds
+ * configured, every update is dispatched. Otherwise, an update is dispatched when one of the
+ * configured thresholds has been reached since the last dispatched update. The first update and
+ * the update that completes the content length are always dispatched. As the content length may
+ * be unknown, a suppressed last update is flushed when the upload is finished.
+ */
+final class ProgressThrottle {
+
+  private final long interval;
+  private final long byteThreshold;
+  private final int percentThreshold;
+  private long lastBytesRead = -1;
+  private long latestBytesRead = -1;
+  private long lastTime;
+
+  ProgressThrottle( FileUploadHandler handler ) {
+    interval = handler.getProgressInterval() * 1000000;
+    byteThreshold = handler.getProgressByteThreshold();
+    percentThreshold = handler.getProgressPercentThreshold();
+  }
+
+  boolean isDue( long bytesRead, long contentLength ) {
+    latestBytesRead = bytesRead;
+    long now = System.nanoTime();
+    boolean result =    lastBytesRead == -1
+                     || bytesRead == contentLength
+                     || !isThrottled()
+                     || interval > 0 && now - lastTime >= interval
+                     || byteThreshold > 0 && bytesRead - lastBytesRead >= byteThreshold
+                     || isPercentThresholdReached( bytesRead, contentLength );
+    if( result ) {
+      lastBytesRead = bytesRead;
+      lastTime = now;
+    }
+    return result;
+  }
+
+  /*
+   * Returns true if the latest update has been suppressed and marks it as dispatched.
+   */
+  boolean flush() {
+    boolean result = latestBytesRead != lastBytesRead;
+    if( result ) {
+      lastBytesRead = latestBytesRead;
+      lastTime = System.nanoTime();
+    }
+    return result;
+  }
+
+  private boolean isThrottled() {
+    return interval > 0 || byteThreshold > 0 || percentThreshold > 0;
+  }
+
+  private boolean isPercentThresholdReached( long bytesRead, long contentLength ) {
+    return    percentThreshold > 0
+           && contentLength > 0
+           && ( bytesRead - lastBytesRead ) * 100 >= percentThreshold * contentLength;
+  }
+
+}
@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/*
+ * Measures the average rate of events per second over a sliding window of whole seconds. Every
+ * second is counted in a slot of a ring, which is reset lock-free when it is reused for a new
+ * second. An update that races with the reset of its slot may get lost, so the rate is an
+ * approximation.
+ */
+final class RateMeter {
+
+  private static final int WINDOW = 10;
+  // one extra slot for the current, incomplete second
+  private static final int SLOT_COUNT = WINDOW + 1;
+
+  private final AtomicLongArray counts;
+  private final AtomicLongArray seconds;
+
+  RateMeter() {
+    counts = new AtomicLongArray( SLOT_COUNT );
+    seconds = new AtomicLongArray( SLOT_COUNT );
+  }
+
+  void add( long amount, long now ) {
+    long second = now / 1000;
+    int index = ( int )( second % SLOT_COUNT );
+    long slotSecond = seconds.get( index );
+    if( slotSecond != second && seconds.compareAndSet( index, slotSecond, second ) ) {
+      counts.set( index, 0 );
+    }
+    counts.addAndGet( index, amount );
+  }
+
+  /*
+   * Returns the average amount per second of the last complete seconds in the window.
+   */
+  long getRate( long now ) {
+    long currentSecond = now / 1000;
+    long total = 0;
+    for( int i = 0; i < SLOT_COUNT; i++ ) {
+      long second = seconds.get( i );
+      if( second < currentSecond && second >= currentSecond - WINDOW ) {
+        total += counts.get( i );
+      }
+    }
+    return total / WINDOW;
+  }
+
+}
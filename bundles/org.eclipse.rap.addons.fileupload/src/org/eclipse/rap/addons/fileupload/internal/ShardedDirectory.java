@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import java.io.File;
+import java.io.IOException;
+
+
+/*
+ * A directory that is shared by many uploaded files. The files are spread over two levels of 256
+ * shard directories each, so that no single directory grows too large to be listed. Every file
+ * name is prefixed with a random id, and the shards are taken from the leading digits of that id.
+ * Files are created atomically, so concurrent receivers can never obtain the same file.
+ *
+ * As most file systems limit names to 255 bytes, names that would exceed this limit together with
+ * the id are truncated. The extension of a truncated name is preserved unless it is unusually long.
+ */
+public final class ShardedDirectory {
+
+  private static final char ID_SEPARATOR = '-';
+  // in bytes, the limit of most file systems
+  private static final int MAX_NAME_LENGTH = 255;
+  private static final int MAX_EXTENSION_LENGTH = 32;
+
+  private final File root;
+
+  public ShardedDirectory( File root ) {
+    if( root == null ) {
+      throw new NullPointerException( "root is null" );
+    }
+    this.root = root;
+  }
+
+  public File getRoot() {
+    return root;
+  }
+
+  public File createFile( String fileName ) throws IOException {
+    File result = null;
+    while( result == null ) {
+      String id = FileUploadHandlerStore.createToken();
+      File shard = new File( new File( root, id.substring( 0, 2 ) ), id.substring( 2, 4 ) );
+      String name = shorten( fileName, MAX_NAME_LENGTH - id.length() - 1 );
+      File file = new File( shard, id + ID_SEPARATOR + name );
+      if( createNewFile( shard, file ) ) {
+        result = file;
+      }
+    }
+    return result;
+  }
+
+  private static boolean createNewFile( File shard, File file ) throws IOException {
+    boolean result;
+    try {
+      result = file.createNewFile();
+    } catch( IOException exception ) {
+      // shards are created on demand, which saves a lookup for every file in an existing shard
+      if( !shard.mkdirs() && !shard.isDirectory() ) {
+        throw new IOException( "Unable to create shard directory: " + shard.getAbsolutePath() );
+      }
+      result = file.createNewFile();
+    }
+    return result;
+  }
+
+  static String shorten( String fileName, int maxLength ) {
+    String result = fileName;
+    if( getEncodedLength( fileName ) > maxLength ) {
+      int index = fileName.lastIndexOf( '.' );
+      String extension = index > 0 ? fileName.substring( index ) : "";
+      if( getEncodedLength( extension ) > MAX_EXTENSION_LENGTH ) {
+        extension = "";
+      }
+      String baseName = fileName.substring( 0, fileName.length() - extension.length() );
+      result = truncate( baseName, maxLength - getEncodedLength( extension ) ) + extension;
+    }
+    return result;
+  }
+
+  private static String truncate( String string, int maxLength ) {
+    int length = 0;
+    int end = 0;
+    boolean finished = false;
+    while( !finished && end < string.length() ) {
+      int codePoint = string.codePointAt( end );
+      int encodedLength = getEncodedLength( codePoint );
+      // never split a character
+      finished = length + encodedLength > maxLength;
+      if( !finished ) {
+        length += encodedLength;
+        end += Character.charCount( codePoint );
+      }
+    }
+    return string.substring( 0, end );
+  }
+
+  private static int getEncodedLength( String string ) {
+    int result = 0;
+    int index = 0;
+    while( index < string.length() ) {
+      int codePoint = string.codePointAt( index );
+      result += getEncodedLength( codePoint );
+      index += Character.charCount( codePoint );
+    }
+    return result;
+  }
+
+  // the number of bytes of a code point in UTF-8
+  private static int getEncodedLength( int codePoint ) {
+    int result = 4;
+    if( codePoint < 0x80 ) {
+      result = 1;
+    } else if( codePoint < 0x800 ) {
+      result = 2;
+    } else if( codePoint < 0x10000 ) {
+      result = 3;
+    }
+    return result;
+  }
+
+}
@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.Map;
+
+
+/*
+ * The message digests of the data read from a stream. The digests are updated while the data is
+ * read and can be obtained once the stream has been read completely. They are completed only once,
+ * so that the upload processor and a receiver can share them.
+ */
+public final class StreamDigests {
+
+  private final MessageDigest[] digests;
+  private Map<String, String> hexDigests;
+
+  public StreamDigests( String[] algorithms ) {
+    digests = MessageDigests.create( algorithms );
+  }
+
+  public InputStream wrap( InputStream inputStream ) {
+    InputStream result = inputStream;
+    for( MessageDigest digest : digests ) {
+      result = new DigestInputStream( result, digest );
+    }
+    return result;
+  }
+
+  public boolean contains( String algorithm ) {
+    boolean result = false;
+    for( int i = 0; i < digests.length && !result; i++ ) {
+      result = digests[ i ].getAlgorithm().equals( algorithm );
+    }
+    return result;
+  }
+
+  /*
+   * Returns the hexadecimal digests by algorithm name or null if no digests are computed. Must not
+   * be called before the stream has been read completely, later calls return the same digests.
+   */
+  public synchronized Map<String, String> getHexDigests() {
+    if( hexDigests == null ) {
+      hexDigests = MessageDigests.toHexDigests( digests );
+    }
+    return hexDigests;
+  }
+
+}
@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import org.eclipse.rap.addons.fileupload.BufferPool;
+
+
+/*
+ * Helper methods for receivers to transfer data through pooled buffers.
+ */
+public final class StreamUtil {
+
+  private StreamUtil() {
+    // prevent instantiation
+  }
+
+  /*
+   * Copies all data from the given input stream to the given output stream, using a transfer
+   * buffer from the heap buffer pool of the current application context. Neither of the streams
+   * is closed. Returns the number of bytes copied.
+   */
+  public static long copy( InputStream inputStream, OutputStream outputStream )
+    throws IOException
+  {
+    long result = 0;
+    BufferPool pool = BufferPool.getInstance();
+    ByteBuffer buffer = pool.acquire();
+    try {
+      byte[] bytes = buffer.array();
+      boolean finished = false;
+      while( !finished ) {
+        int bytesRead = inputStream.read( bytes );
+        if( bytesRead != -1 ) {
+          outputStream.write( bytes, 0, bytesRead );
+          result += bytesRead;
+        } else {
+          finished = true;
+        }
+      }
+    } finally {
+      pool.release( buffer );
+    }
+    return result;
+  }
+
+}
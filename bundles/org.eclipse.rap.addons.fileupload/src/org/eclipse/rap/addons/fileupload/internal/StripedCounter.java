@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/*
+ * A lock-free counter that spreads concurrent updates over several cells, selected by the id of
+ * the updating thread, to avoid contention on a single memory location. Cells are padded to
+ * separate cache lines. Reading the value sums up all cells and is therefore more expensive than
+ * updating it.
+ */
+final class StripedCounter {
+
+  // 8 longs fill a cache line of 64 bytes
+  private static final int PADDING = 8;
+  private static final int STRIPE_COUNT = getStripeCount();
+
+  private final AtomicLongArray cells;
+
+  StripedCounter() {
+    cells = new AtomicLongArray( STRIPE_COUNT * PADDING );
+  }
+
+  void increment() {
+    add( 1 );
+  }
+
+  void decrement() {
+    add( -1 );
+  }
+
+  void add( long delta ) {
+    cells.addAndGet( getCellIndex(), delta );
+  }
+
+  long get() {
+    long result = 0;
+    for( int i = 0; i < STRIPE_COUNT; i++ ) {
+      result += cells.get( i * PADDING );
+    }
+    return result;
+  }
+
+  private static int getCellIndex() {
+    long id = Thread.currentThread().getId();
+    // spread consecutive thread ids over all stripes
+    int hash = ( int )( id * 0x9E3779B97F4A7C15L >>> 32 );
+    return ( hash & ( STRIPE_COUNT - 1 ) ) * PADDING;
+  }
+
+  private static int getStripeCount() {
+    int processors = Runtime.getRuntime().availableProcessors();
+    int result = 1;
+    while( result < processors * 2 ) {
+      result <<= 1;
+    }
+    return result;
+  }
+
+}
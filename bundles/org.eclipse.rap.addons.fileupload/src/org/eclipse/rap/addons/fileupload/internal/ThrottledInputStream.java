@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+
+/*
+ * Limits the rate at which data is read from the wrapped stream. Every chunk that has been read
+ * is consumed from all given token buckets. Single bytes are consumed in batches, so that a caller
+ * that reads byte by byte does not wait for every byte.
+ */
+final class ThrottledInputStream extends FilterInputStream {
+
+  private static final int SINGLE_BYTE_BATCH = 1024;
+
+  private final TokenBucket[] buckets;
+  private int unconsumed;
+
+  ThrottledInputStream( InputStream in, TokenBucket... buckets ) {
+    super( in );
+    this.buckets = buckets;
+  }
+
+  @Override
+  public int read() throws IOException {
+    int result = super.read();
+    if( result != -1 && ++unconsumed >= SINGLE_BYTE_BATCH ) {
+      consume( 0 );
+    }
+    return result;
+  }
+
+  @Override
+  public int read( byte[] buffer, int offset, int length ) throws IOException {
+    int result = super.read( buffer, offset, length );
+    if( result > 0 ) {
+      consume( result );
+    }
+    return result;
+  }
+
+  @Override
+  public long skip( long length ) throws IOException {
+    long result = super.skip( length );
+    if( result > 0 ) {
+      consume( result );
+    }
+    return result;
+  }
+
+  private void consume( long bytes ) throws IOException {
+    long total = bytes + unconsumed;
+    unconsumed = 0;
+    for( TokenBucket bucket : buckets ) {
+      bucket.consume( total );
+    }
+  }
+
+}
@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+
+/*
+ * A token bucket that limits the rate at which bytes are transferred. The bucket is refilled at a
+ * given rate up to a burst of one second. Bytes are consumed after they have been transferred,
+ * and a consumer that leaves the bucket in debt sleeps once until the debt has been refilled, so
+ * the waiting time is paid per chunk rather than per byte. Concurrent consumers of the same
+ * bucket share its rate, since every consumer has to wait for the debt of its predecessors.
+ *
+ * A rate of 0 disables the limit.
+ */
+final class TokenBucket {
+
+  private static final long NANOS_PER_SECOND = 1000 * 1000 * 1000;
+
+  private long rate;
+  private long tokens;
+  private long lastRefillTime;
+
+  TokenBucket( long rate ) {
+    this.rate = rate;
+    tokens = rate;
+    lastRefillTime = System.nanoTime();
+  }
+
+  synchronized long getRate() {
+    return rate;
+  }
+
+  synchronized void setRate( long rate ) {
+    if( rate != this.rate ) {
+      this.rate = rate;
+      tokens = Math.min( tokens, rate );
+      lastRefillTime = System.nanoTime();
+    }
+  }
+
+  void consume( long bytes ) throws IOException {
+    long delay = reserve( bytes, System.nanoTime() );
+    if( delay > 0 ) {
+      try {
+        Thread.sleep( delay / 1000000, ( int )( delay % 1000000 ) );
+      } catch( InterruptedException exception ) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException( "Interrupted while limiting the bandwidth" );
+      }
+    }
+  }
+
+  /*
+   * Takes the given number of bytes from the bucket and returns the time in nanoseconds the caller
+   * has to wait until the bucket is no longer in debt.
+   */
+  synchronized long reserve( long bytes, long now ) {
+    long result = 0;
+    if( rate > 0 ) {
+      refill( now );
+      tokens -= bytes;
+      if( tokens < 0 ) {
+        result = ( long )( ( double )-tokens * NANOS_PER_SECOND / rate );
+      }
+    }
+    return result;
+  }
+
+  private void refill( long now ) {
+    long elapsed = now - lastRefillTime;
+    if( elapsed > 0 ) {
+      long added = ( long )( ( double )elapsed * rate / NANOS_PER_SECOND );
+      if( tokens + added >= rate ) {
+        tokens = rate;
+        lastRefillTime = now;
+      } else {
+        tokens += added;
+        // keep the remainder of the elapsed time, frequent small refills must not lose tokens
+        lastRefillTime += ( long )( ( double )added * NANOS_PER_SECOND / rate );
+      }
+    }
+  }
+
+}
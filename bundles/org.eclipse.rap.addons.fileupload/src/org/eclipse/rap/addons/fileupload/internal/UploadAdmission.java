@@ -0,0 +1,229 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import static org.eclipse.rap.rwt.SingletonUtil.getUniqueInstance;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.rap.addons.fileupload.UploadAdmissionControl;
+import org.eclipse.rap.rwt.RWT;
+
+
+/*
+ * Admits uploads according to the limits of an UploadAdmissionControl. As long as no limit is set,
+ * uploads are only counted with atomic counters and never contend for a lock. Only uploads that
+ * are subject to a limit synchronize on this object and, if a maximum wait time is set, wait for
+ * running uploads to finish.
+ */
+public final class UploadAdmission {
+
+  private final UploadAdmissionControl control;
+  private final AtomicInteger activeUploads;
+  private final AtomicLong inFlightBytes;
+  private final AtomicLong rejectionCount;
+  // guarded by this
+  private final Map<String, Usage> sessionUsages;
+
+  private UploadAdmission() {
+    this( UploadAdmissionControl.getInstance() );
+  }
+
+  UploadAdmission( UploadAdmissionControl control ) {
+    this.control = control;
+    activeUploads = new AtomicInteger();
+    inFlightBytes = new AtomicLong();
+    rejectionCount = new AtomicLong();
+    sessionUsages = new HashMap<String, Usage>();
+  }
+
+  public static UploadAdmission getInstance() {
+    return getUniqueInstance( UploadAdmission.class, RWT.getApplicationContext() );
+  }
+
+  /*
+   * Admits an upload and returns a permit that must be run when the upload has finished, or
+   * returns null if the upload has been rejected. An upload of unknown size is passed as -1 and
+   * is rejected while a byte limit is set.
+   */
+  public Permit acquire( String sessionId, long bytes ) {
+    Permit result;
+    if( !hasLimits() ) {
+      activeUploads.incrementAndGet();
+      inFlightBytes.addAndGet( Math.max( 0, bytes ) );
+      result = new Permit( null, Math.max( 0, bytes ), false );
+    } else if( bytes < 0 && hasByteLimits() ) {
+      rejectionCount.incrementAndGet();
+      result = null;
+    } else {
+      result = acquireLimited( sessionId, Math.max( 0, bytes ) );
+    }
+    return result;
+  }
+
+  public boolean hasByteLimits() {
+    return control.getMaxBytes() > 0 || control.getMaxBytesPerSession() > 0;
+  }
+
+  public int getActiveUploadCount() {
+    return activeUploads.get();
+  }
+
+  public long getInFlightBytes() {
+    return inFlightBytes.get();
+  }
+
+  public long getRejectionCount() {
+    return rejectionCount.get();
+  }
+
+  private boolean hasLimits() {
+    return control.getMaxUploads() > 0
+           || control.getMaxUploadsPerSession() > 0
+           || hasByteLimits();
+  }
+
+  private synchronized Permit acquireLimited( String sessionId, long bytes ) {
+    Usage sessionUsage = getSessionUsage( sessionId );
+    long maxWaitTime = control.getMaxWaitTime();
+    long deadline = System.currentTimeMillis() + maxWaitTime;
+    boolean interrupted = false;
+    long remaining = maxWaitTime;
+    while( !isAdmissible( sessionUsage, bytes ) && remaining > 0 && !interrupted ) {
+      try {
+        wait( remaining );
+      } catch( InterruptedException exception ) {
+        Thread.currentThread().interrupt();
+        interrupted = true;
+      }
+      remaining = deadline - System.currentTimeMillis();
+    }
+    Permit result = null;
+    if( !interrupted && isAdmissible( sessionUsage, bytes ) ) {
+      activeUploads.incrementAndGet();
+      inFlightBytes.addAndGet( bytes );
+      sessionUsage.add( 1, bytes );
+      result = new Permit( sessionId, bytes, true );
+    } else {
+      rejectionCount.incrementAndGet();
+      removeUnusedSessionUsage( sessionId, sessionUsage );
+    }
+    return result;
+  }
+
+  private void release( Permit permit ) {
+    if( permit.limited ) {
+      releaseLimited( permit );
+    } else {
+      activeUploads.decrementAndGet();
+      inFlightBytes.addAndGet( -permit.bytes );
+      // limits may have been set while this upload was running
+      if( hasLimits() ) {
+        synchronized( this ) {
+          notifyAll();
+        }
+      }
+    }
+  }
+
+  private synchronized void releaseLimited( Permit permit ) {
+    Usage sessionUsage = getSessionUsage( permit.sessionId );
+    activeUploads.decrementAndGet();
+    inFlightBytes.addAndGet( -permit.bytes );
+    sessionUsage.add( -1, -permit.bytes );
+    removeUnusedSessionUsage( permit.sessionId, sessionUsage );
+    notifyAll();
+  }
+
+  private boolean isAdmissible( Usage sessionUsage, long bytes ) {
+    return isAdmissible( activeUploads.get(),
+                         inFlightBytes.get(),
+                         bytes,
+                         control.getMaxUploads(),
+                         control.getMaxBytes() )
+           && isAdmissible( sessionUsage.uploads,
+                            sessionUsage.bytes,
+                            bytes,
+                            control.getMaxUploadsPerSession(),
+                            control.getMaxBytesPerSession() );
+  }
+
+  private Usage getSessionUsage( String sessionId ) {
+    // uploads without a UI session are only subject to the global limits
+    Usage result = sessionId == null ? new Usage() : sessionUsages.get( sessionId );
+    if( result == null ) {
+      result = new Usage();
+      sessionUsages.put( sessionId, result );
+    }
+    return result;
+  }
+
+  private void removeUnusedSessionUsage( String sessionId, Usage sessionUsage ) {
+    if( sessionId != null && sessionUsage.uploads == 0 ) {
+      sessionUsages.remove( sessionId );
+    }
+  }
+
+  private static boolean isAdmissible( int uploads,
+                                       long usedBytes,
+                                       long bytes,
+                                       int maxUploads,
+                                       long maxBytes )
+  {
+    boolean uploadsAdmissible = maxUploads == 0 || uploads < maxUploads;
+    // an upload that exceeds the limit on its own must not wait forever
+    boolean bytesAdmissible = maxBytes == 0 || uploads == 0 || usedBytes + bytes <= maxBytes;
+    return uploadsAdmissible && bytesAdmissible;
+  }
+
+  /*
+   * Releases an admitted upload when run. Running a permit more than once has no effect, as a
+   * container may report an error after a failed completion.
+   */
+  public final class Permit implements Runnable {
+
+    private final String sessionId;
+    private final long bytes;
+    private final boolean limited;
+    private final AtomicBoolean released;
+
+    Permit( String sessionId, long bytes, boolean limited ) {
+      this.sessionId = sessionId;
+      this.bytes = bytes;
+      this.limited = limited;
+      released = new AtomicBoolean();
+    }
+
+    public void run() {
+      if( released.compareAndSet( false, true ) ) {
+        release( this );
+      }
+    }
+
+  }
+
+  private static final class Usage {
+
+    int uploads;
+    long bytes;
+
+    void add( int uploads, long bytes ) {
+      this.uploads += uploads;
+      this.bytes += bytes;
+    }
+
+  }
+
+}
@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rap.addons.fileupload.internal.FileDetailsImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/*
+ * Measures the write throughput of DiskFileUploadReceiver for various file sizes, with stream and
+ * channel transfer. The written files are deleted after every invocation.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class DiskFileUploadReceiverBenchmark {
+
+  @Param( { "4096", "1048576", "67108864" } )
+  private int fileSize;
+
+  @Param( { "false", "true" } )
+  private boolean channelTransfer;
+
+  @Param( { "false", "true" } )
+  private boolean preallocation;
+
+  private byte[] data;
+  private FileDetails details;
+  private DiskFileUploadReceiver receiver;
+
+  @Setup
+  public void setUp() {
+    data = new byte[ fileSize ];
+    for( int i = 0; i < fileSize; i++ ) {
+      data[ i ] = ( byte )i;
+    }
+    details = new FileDetailsImpl( "benchmark.bin", "application/octet-stream", fileSize );
+  }
+
+  @Setup( Level.Invocation )
+  public void createReceiver() {
+    receiver = new DiskFileUploadReceiver();
+    receiver.setChannelTransfer( channelTransfer );
+    receiver.setPreallocation( preallocation );
+  }
+
+  @TearDown( Level.Invocation )
+  public void deleteFiles() {
+    for( File file : receiver.getTargetFiles() ) {
+      File directory = file.getParentFile();
+      file.delete();
+      File[] remaining = directory.listFiles();
+      if( remaining != null ) {
+        for( File sidecar : remaining ) {
+          sidecar.delete();
+        }
+      }
+      directory.delete();
+      UploadCleanupService.getInstance().unregister( directory );
+    }
+  }
+
+  @Benchmark
+  public DiskFileUploadReceiver receive() throws IOException {
+    receiver.receive( new ByteArrayInputStream( data ), details );
+    return receiver;
+  }
+
+}
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rap.addons.fileupload.DiskFileUploadReceiver.Durability;
+import org.eclipse.rap.addons.fileupload.internal.FileDetailsImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/*
+ * Measures the throughput of many concurrent uploads of small files with every durability of
+ * DiskFileUploadReceiver, i.e. the cost of forcing files to disk when they complete at the same
+ * time. The results depend on the file system and the device of the temporary directory.
+ *
+ * It was used to decide against a group commit durability, which handed the forces of files that
+ * complete at about the same time to a committer thread. On ext4 with 16 threads and 4 KiB files,
+ * two runs each reached the following throughput:
+ *
+ *   FSYNC                                         6873, 7561 files/s
+ *   group commit, forced one after another        4374, 6397 files/s
+ *   group commit, forced concurrently             5460, 7195 files/s
+ *
+ * The file system already combines the journal commits of concurrent forces, hence a committer
+ * only adds a handoff. Java cannot force several files with a single call.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Threads( 16 )
+@Fork( 1 )
+public class DurabilityBenchmark {
+
+  @Param( { "4096", "65536" } )
+  private int fileSize;
+
+  @Param( { "NONE", "FSYNC" } )
+  private Durability durability;
+
+  private byte[] data;
+  private FileDetails details;
+  private DiskFileUploadReceiver receiver;
+
+  @Setup
+  public void setUp() {
+    data = new byte[ fileSize ];
+    for( int i = 0; i < fileSize; i++ ) {
+      data[ i ] = ( byte )i;
+    }
+    details = new FileDetailsImpl( "benchmark.bin", "application/octet-stream", fileSize );
+  }
+
+  @Setup( Level.Invocation )
+  public void createReceiver() {
+    receiver = new DiskFileUploadReceiver();
+    receiver.setDurability( durability );
+  }
+
+  @TearDown( Level.Invocation )
+  public void deleteFiles() {
+    for( File file : receiver.getTargetFiles() ) {
+      File directory = file.getParentFile();
+      file.delete();
+      File[] remaining = directory.listFiles();
+      if( remaining != null ) {
+        for( File sidecar : remaining ) {
+          sidecar.delete();
+        }
+      }
+      directory.delete();
+      UploadCleanupService.getInstance().unregister( directory );
+    }
+  }
+
+  @Benchmark
+  public DiskFileUploadReceiver receive() throws IOException {
+    receiver.receive( new ByteArrayInputStream( data ), details );
+    return receiver;
+  }
+
+}
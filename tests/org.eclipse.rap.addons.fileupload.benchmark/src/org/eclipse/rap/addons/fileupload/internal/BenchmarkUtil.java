@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import org.eclipse.rap.rwt.testfixture.internal.TestRequest;
+
+
+@SuppressWarnings( "restriction" )
+final class BenchmarkUtil {
+
+  private static final String BOUNDARY = "-----4711-----";
+  private static final String NEWLINE = "\r\n";
+
+  private BenchmarkUtil() {
+    // prevent instantiation
+  }
+
+  static TestRequest createMultipartRequest( String body ) {
+    TestRequest request = new TestRequest();
+    request.setMethod( "POST" );
+    request.setBody( body );
+    request.setContentType( "multipart/form-data; boundary=" + BOUNDARY );
+    return request;
+  }
+
+  static String createMultipartBody( int fileSize, int fileCount ) {
+    String content = createContent( fileSize );
+    StringBuilder builder = new StringBuilder( ( fileSize + 200 ) * fileCount );
+    for( int i = 0; i < fileCount; i++ ) {
+      builder.append( "--" ).append( BOUNDARY ).append( NEWLINE );
+      builder.append( "Content-Disposition: form-data; name=\"file\"; filename=\"file" );
+      builder.append( i ).append( ".txt\"" ).append( NEWLINE );
+      builder.append( "Content-Type: text/plain" ).append( NEWLINE );
+      builder.append( NEWLINE );
+      builder.append( content );
+      builder.append( NEWLINE );
+    }
+    builder.append( "--" ).append( BOUNDARY ).append( "--" ).append( NEWLINE );
+    return builder.toString();
+  }
+
+  static byte[] createData( int size ) {
+    byte[] result = new byte[ size ];
+    for( int i = 0; i < size; i++ ) {
+      int column = i % 91;
+      result[ i ] = ( byte )( column == 90 ? 10 : 33 + column );
+    }
+    return result;
+  }
+
+  private static String createContent( int size ) {
+    // printable ASCII only, so that the content cannot contain the boundary
+    return new String( createData( size ) );
+  }
+
+}
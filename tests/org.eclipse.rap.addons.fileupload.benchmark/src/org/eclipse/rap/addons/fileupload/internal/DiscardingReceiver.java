@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import org.eclipse.rap.addons.fileupload.BufferPool;
+import org.eclipse.rap.addons.fileupload.FileDetails;
+import org.eclipse.rap.addons.fileupload.FileUploadReceiver;
+
+
+/*
+ * Reads and discards the uploaded data, so that benchmarks measure the upload pipeline only.
+ */
+final class DiscardingReceiver extends FileUploadReceiver {
+
+  @Override
+  public void receive( InputStream stream, FileDetails details ) throws IOException {
+    BufferPool pool = BufferPool.getInstance();
+    ByteBuffer buffer = pool.acquire();
+    try {
+      byte[] bytes = buffer.array();
+      boolean finished = false;
+      while( !finished ) {
+        finished = stream.read( bytes ) == -1;
+      }
+    } finally {
+      pool.release( buffer );
+    }
+  }
+
+}
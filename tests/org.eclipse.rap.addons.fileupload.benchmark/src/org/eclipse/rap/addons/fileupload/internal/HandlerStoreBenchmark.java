@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.rap.addons.fileupload.FileUploadHandler;
+import org.eclipse.rap.rwt.testfixture.internal.Fixture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/*
+ * Measures registration and lookup of handlers in FileUploadHandlerStore while many threads
+ * access the store concurrently. The lookup benchmark resembles the service handler, which looks
+ * up the handler of every upload request.
+ */
+@SuppressWarnings( "restriction" )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@Threads( 8 )
+public class HandlerStoreBenchmark {
+
+  @State( Scope.Benchmark )
+  public static class Store {
+
+    @Param( { "100", "10000" } )
+    int handlerCount;
+
+    FileUploadHandlerStore store;
+    FileUploadHandler[] handlers;
+    String[] tokens;
+
+    @Setup
+    public void setUp() {
+      // handlers can only be created with an application context, the store itself is thread-safe
+      Fixture.setUp();
+      store = FileUploadHandlerStore.getInstance();
+      handlers = new FileUploadHandler[ handlerCount ];
+      tokens = new String[ handlerCount ];
+      for( int i = 0; i < handlerCount; i++ ) {
+        handlers[ i ] = new FileUploadHandler( new DiscardingReceiver() );
+        tokens[ i ] = FileUploadHandlerStore.createToken();
+        store.registerHandler( tokens[ i ], handlers[ i ] );
+      }
+    }
+
+    @TearDown
+    public void tearDown() {
+      for( int i = 0; i < handlerCount; i++ ) {
+        store.deregisterHandler( tokens[ i ] );
+        handlers[ i ].dispose();
+      }
+      Fixture.tearDown();
+    }
+
+  }
+
+  @State( Scope.Thread )
+  public static class Cursor {
+
+    private static final AtomicInteger SEED = new AtomicInteger();
+
+    int index = SEED.getAndIncrement() * 7919;
+
+    int next( int length ) {
+      index = ( index + 1 ) % length;
+      return index;
+    }
+
+  }
+
+  @Benchmark
+  public FileUploadHandler getHandler( Store state, Cursor cursor ) {
+    return state.store.getHandler( state.tokens[ cursor.next( state.handlerCount ) ] );
+  }
+
+  @Benchmark
+  public FileUploadHandler registerAndDeregister( Store state, Cursor cursor ) {
+    FileUploadHandler handler = state.handlers[ cursor.next( state.handlerCount ) ];
+    String token = FileUploadHandlerStore.createToken();
+    state.store.registerHandler( token, handler );
+    FileUploadHandler result = state.store.getHandler( token );
+    state.store.deregisterHandler( token );
+    return result;
+  }
+
+  @Benchmark
+  public String createToken() {
+    return FileUploadHandlerStore.createToken();
+  }
+
+}
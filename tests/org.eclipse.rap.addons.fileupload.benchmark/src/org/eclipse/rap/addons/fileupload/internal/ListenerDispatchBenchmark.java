@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rap.addons.fileupload.FileUploadEvent;
+import org.eclipse.rap.addons.fileupload.FileUploadHandler;
+import org.eclipse.rap.addons.fileupload.FileUploadListener;
+import org.eclipse.rap.rwt.testfixture.internal.Fixture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+
+/*
+ * Measures the cost of dispatching a progress event to the listeners of a handler, including the
+ * creation of the event snapshot.
+ */
+@SuppressWarnings( "restriction" )
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class ListenerDispatchBenchmark {
+
+  @Param( { "1", "10", "100" } )
+  private int listenerCount;
+
+  private FileUploadHandler handler;
+  private FileUploadTracker tracker;
+  private long bytesRead;
+
+  @Setup
+  public void setUp( Blackhole blackhole ) {
+    Fixture.setUp();
+    handler = new FileUploadHandler( new DiscardingReceiver() );
+    for( int i = 0; i < listenerCount; i++ ) {
+      handler.addUploadListener( new ConsumingListener( blackhole ) );
+    }
+    tracker = new FileUploadTracker( handler );
+    tracker.setContentLength( Long.MAX_VALUE );
+  }
+
+  @TearDown
+  public void tearDown() {
+    handler.dispose();
+    Fixture.tearDown();
+  }
+
+  @Benchmark
+  public void handleProgress() {
+    // every update changes the state, hence a new snapshot is dispatched
+    tracker.setBytesRead( ++bytesRead );
+    tracker.handleProgress();
+  }
+
+  @Benchmark
+  public void handleProgress_unchanged() {
+    tracker.handleProgress();
+  }
+
+  private static final class ConsumingListener implements FileUploadListener {
+
+    private final Blackhole blackhole;
+
+    ConsumingListener( Blackhole blackhole ) {
+      this.blackhole = blackhole;
+    }
+
+    public void uploadProgress( FileUploadEvent event ) {
+      blackhole.consume( event.getBytesRead() );
+    }
+
+    public void uploadFinished( FileUploadEvent event ) {
+      blackhole.consume( event );
+    }
+
+    public void uploadFailed( FileUploadEvent event ) {
+      blackhole.consume( event );
+    }
+
+  }
+
+}
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rap.addons.fileupload.FileUploadHandler;
+import org.eclipse.rap.rwt.testfixture.internal.Fixture;
+import org.eclipse.rap.rwt.testfixture.internal.TestRequest;
+import org.eclipse.rap.rwt.testfixture.internal.TestResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/*
+ * Measures the cost of parsing a multipart request in FileUploadProcessor, including progress
+ * tracking and listener notification. The receiver discards the data, so that only the parsing
+ * pipeline is measured.
+ */
+@SuppressWarnings( "restriction" )
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class MultipartParsingBenchmark {
+
+  @Param( { "1024", "65536", "1048576" } )
+  private int fileSize;
+
+  @Param( { "1", "4" } )
+  private int fileCount;
+
+  private FileUploadHandler handler;
+  private String token;
+  private String body;
+
+  @Setup
+  public void setUp() {
+    Fixture.setUp();
+    handler = new FileUploadHandler( new DiscardingReceiver() );
+    token = FileUploadHandlerStore.createToken();
+    FileUploadHandlerStore.getInstance().registerHandler( token, handler );
+    body = BenchmarkUtil.createMultipartBody( fileSize, fileCount );
+  }
+
+  @TearDown
+  public void tearDown() {
+    handler.dispose();
+    FileUploadHandlerStore.getInstance().deregisterHandler( token );
+    Fixture.tearDown();
+  }
+
+  @Benchmark
+  public TestResponse handleFileUpload() throws IOException {
+    TestRequest request = BenchmarkUtil.createMultipartRequest( body );
+    TestResponse response = new TestResponse();
+    new FileUploadProcessor( handler, token ).handleFileUpload( request, response );
+    return response;
+  }
+
+}
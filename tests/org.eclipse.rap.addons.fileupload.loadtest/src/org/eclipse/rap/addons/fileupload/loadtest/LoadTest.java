@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+
+/*
+ * Starts the upload service handler in an embedded servlet container and runs concurrent
+ * multipart clients against it. Reports throughput, latency percentiles and heap and GC usage of
+ * the measured phase. Server and clients share a JVM, so the heap figures include the clients,
+ * which only hold a small send buffer each.
+ */
+public final class LoadTest {
+
+  private static final double[] PERCENTILES = { 50, 90, 95, 99, 99.9 };
+  private static final String STATISTICS_PATTERN
+    = "org.eclipse.rap.addons.fileupload:type=FileUploadStatistics,*";
+  private static final String FSYNC_STATISTICS_NAME
+    = "org.eclipse.rap.addons.fileupload:type=FsyncStatistics";
+
+  private final LoadTestSettings settings;
+  private final PrintStream out;
+
+  LoadTest( LoadTestSettings settings, PrintStream out ) {
+    this.settings = settings;
+    this.out = out;
+  }
+
+  public static void main( String[] args ) throws Exception {
+    LoadTestSettings settings = new LoadTestSettings();
+    try {
+      settings.parse( args );
+    } catch( IllegalArgumentException exception ) {
+      System.err.println( exception.getMessage() );
+      System.err.println( LoadTestSettings.getUsage() );
+      System.exit( 1 );
+    }
+    new LoadTest( settings, System.out ).run();
+  }
+
+  void run() throws Exception {
+    UploadServer server = new UploadServer( settings.getPort() );
+    server.start();
+    try {
+      out.println( "URL:         " + server.getUrl() );
+      out.println( "Settings:    " + settings );
+      runClients( server );
+    } finally {
+      server.stop();
+    }
+  }
+
+  private void runClients( UploadServer server ) throws Exception {
+    int clientCount = settings.getClients();
+    CyclicBarrier warmedUp = new CyclicBarrier( clientCount + 1 );
+    byte[] data = UploadClient.createData();
+    UploadClient[] clients = new UploadClient[ clientCount ];
+    Thread[] threads = new Thread[ clientCount ];
+    for( int i = 0; i < clientCount; i++ ) {
+      clients[ i ] = new UploadClient( settings, server.getUrl(), warmedUp, data );
+      threads[ i ] = new Thread( clients[ i ], "Upload Client " + i );
+      threads[ i ].start();
+    }
+    try {
+      warmedUp.await();
+    } catch( BrokenBarrierException exception ) {
+      join( threads );
+      reportSetUpFailure( clients );
+    }
+    MemoryMonitor memoryMonitor = new MemoryMonitor();
+    memoryMonitor.start();
+    long start = System.nanoTime();
+    join( threads );
+    long duration = System.nanoTime() - start;
+    memoryMonitor.stop();
+    report( clients, duration, memoryMonitor );
+  }
+
+  private static void join( Thread[] threads ) throws InterruptedException {
+    for( Thread thread : threads ) {
+      thread.join();
+    }
+  }
+
+  private void report( UploadClient[] clients, long duration, MemoryMonitor memoryMonitor ) {
+    long[] latencies = new long[ 0 ];
+    Map<Integer, Integer> failures = new TreeMap<Integer, Integer>();
+    long bytesSent = 0;
+    for( UploadClient client : clients ) {
+      latencies = concat( latencies, client.getLatencies() );
+      for( Entry<Integer, Integer> entry : client.getFailures().entrySet() ) {
+        Integer count = failures.get( entry.getKey() );
+        failures.put( entry.getKey(), Integer.valueOf( ( count == null ? 0 : count.intValue() )
+                                                       + entry.getValue().intValue() ) );
+      }
+      bytesSent += client.getBytesSent();
+    }
+    Arrays.sort( latencies );
+    double seconds = duration / 1e9;
+    int failed = 0;
+    for( Integer count : failures.values() ) {
+      failed += count.intValue();
+    }
+    out.printf( "Uploads:     %d succeeded, %d failed %s%n",
+                Integer.valueOf( latencies.length ),
+                Integer.valueOf( failed ),
+                failed == 0 ? "" : formatFailures( failures ) );
+    out.printf( "Duration:    %.2f s%n", Double.valueOf( seconds ) );
+    out.printf( "Throughput:  %.1f uploads/s, %s/s%n",
+                Double.valueOf( latencies.length / seconds ),
+                MemoryMonitor.formatBytes( ( long )( bytesSent / seconds ) ) );
+    if( latencies.length > 0 ) {
+      StringBuilder builder = new StringBuilder();
+      for( double percentile : PERCENTILES ) {
+        builder.append( String.format( "p%s %.1f ms, ",
+                                       formatPercentile( percentile ),
+                                       Double.valueOf( getPercentile( latencies, percentile ) ) ) );
+      }
+      builder.append( String.format( "max %.1f ms",
+                                     Double.valueOf( latencies[ latencies.length - 1 ] / 1e6 ) ) );
+      out.println( "Latency:     " + builder );
+    }
+    memoryMonitor.report( out, duration / 1000000 );
+    reportServerStatistics();
+  }
+
+  private void reportServerStatistics() {
+    // the statistics include the warm-up phase
+    MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+    try {
+      Set<ObjectName> names = mbeanServer.queryNames( new ObjectName( STATISTICS_PATTERN ), null );
+      for( ObjectName name : names ) {
+        out.printf( "Server:      %s completed, %s rejected, %s server errors, p95 %s ms%n",
+                    mbeanServer.getAttribute( name, "CompletedUploadCount" ),
+                    mbeanServer.getAttribute( name, "RejectedUploadCount" ),
+                    mbeanServer.getAttribute( name, "ServerErrorCount" ),
+                    mbeanServer.getAttribute( name, "Latency95thPercentile" ) );
+      }
+      ObjectName fsyncName = new ObjectName( FSYNC_STATISTICS_NAME );
+      if( mbeanServer.isRegistered( fsyncName ) ) {
+        out.printf( "Fsync:       %s files, p50 %s us, p99 %s us%n",
+                    mbeanServer.getAttribute( fsyncName, "FsyncCount" ),
+                    mbeanServer.getAttribute( fsyncName, "FsyncLatencyMedian" ),
+                    mbeanServer.getAttribute( fsyncName, "FsyncLatency99thPercentile" ) );
+      }
+    } catch( JMException exception ) {
+      out.println( "Server:      statistics not available: " + exception.getMessage() );
+    }
+  }
+
+  private static void reportSetUpFailure( UploadClient[] clients ) throws IOException {
+    for( UploadClient client : clients ) {
+      if( client.getSetUpFailure() != null ) {
+        IOException exception = new IOException( "A client failed to obtain an upload URL" );
+        exception.initCause( client.getSetUpFailure() );
+        throw exception;
+      }
+    }
+    throw new IOException( "Load test aborted" );
+  }
+
+  private static double getPercentile( long[] sortedLatencies, double percentile ) {
+    int index = ( int )Math.ceil( percentile / 100 * sortedLatencies.length ) - 1;
+    return sortedLatencies[ Math.max( 0, index ) ] / 1e6;
+  }
+
+  private static String formatPercentile( double percentile ) {
+    return percentile == Math.floor( percentile )
+           ? String.valueOf( ( int )percentile )
+           : String.valueOf( percentile );
+  }
+
+  private static String formatFailures( Map<Integer, Integer> failures ) {
+    StringBuilder builder = new StringBuilder( "(" );
+    for( Entry<Integer, Integer> entry : failures.entrySet() ) {
+      if( builder.length() > 1 ) {
+        builder.append( ", " );
+      }
+      int status = entry.getKey().intValue();
+      builder.append( status == -1 ? "exception" : "status " + status );
+      builder.append( ": " ).append( entry.getValue() );
+    }
+    return builder.append( ")" ).toString();
+  }
+
+  private static long[] concat( long[] first, long[] second ) {
+    long[] result = new long[ first.length + second.length ];
+    System.arraycopy( first, 0, result, 0, first.length );
+    System.arraycopy( second, 0, result, first.length, second.length );
+    return result;
+  }
+
+}
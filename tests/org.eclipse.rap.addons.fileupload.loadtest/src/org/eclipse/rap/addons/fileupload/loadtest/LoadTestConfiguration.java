@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.loadtest;
+
+import java.io.IOException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.rap.addons.fileupload.FileUploadHandler;
+import org.eclipse.rap.rwt.application.Application;
+import org.eclipse.rap.rwt.application.ApplicationConfiguration;
+import org.eclipse.rap.rwt.service.ServiceHandler;
+
+
+/*
+ * The RAP application of the load test server. It has no entry point, clients request an upload
+ * URL from the setup service handler and upload to it.
+ */
+public class LoadTestConfiguration implements ApplicationConfiguration {
+
+  static final String SETUP_SERVICE_HANDLER_ID = "org.eclipse.rap.addons.fileupload.loadtest";
+  static final String PARAMETER_RECEIVER = "receiver";
+  static final String PARAMETER_ASYNC = "async";
+  static final String PARAMETER_DURABILITY = "durability";
+
+  public void configure( Application application ) {
+    application.addServiceHandler( SETUP_SERVICE_HANDLER_ID, new SetupServiceHandler() );
+  }
+
+  /*
+   * Creates an upload handler in the UI session of the requesting client and responds with its
+   * upload URL.
+   */
+  private static final class SetupServiceHandler implements ServiceHandler {
+
+    public void service( HttpServletRequest request, HttpServletResponse response )
+      throws IOException
+    {
+      String receiver = request.getParameter( PARAMETER_RECEIVER );
+      boolean async = Boolean.parseBoolean( request.getParameter( PARAMETER_ASYNC ) );
+      String durability = request.getParameter( PARAMETER_DURABILITY );
+      if( !ReceiverFactory.isKnown( receiver ) ) {
+        response.sendError( HttpServletResponse.SC_BAD_REQUEST, "Unknown receiver: " + receiver );
+      } else if( !ReceiverFactory.isKnownDurability( durability ) ) {
+        String message = "Unknown durability: " + durability;
+        response.sendError( HttpServletResponse.SC_BAD_REQUEST, message );
+      } else {
+        FileUploadHandler handler = ReceiverFactory.createHandler( receiver, async, durability );
+        response.setContentType( "text/plain" );
+        response.setCharacterEncoding( "UTF-8" );
+        response.getWriter().write( handler.getUploadUrl() );
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+
+/*
+ * The settings of a load test run, parsed from command line arguments of the form key=value.
+ * Sizes and bandwidths accept the suffixes k and m.
+ */
+final class LoadTestSettings {
+
+  private final Map<String, String> values;
+
+  LoadTestSettings() {
+    values = new LinkedHashMap<String, String>();
+    values.put( "clients", "16" );
+    values.put( "uploads", "50" );
+    values.put( "warmup", "5" );
+    values.put( "size", "1m" );
+    values.put( "files", "1" );
+    values.put( "chunked", "false" );
+    values.put( "bandwidth", "0" );
+    values.put( "receiver", "discard" );
+    values.put( "async", "false" );
+    values.put( "durability", "none" );
+    values.put( "port", "0" );
+  }
+
+  void parse( String[] args ) {
+    for( String arg : args ) {
+      int index = arg.indexOf( '=' );
+      if( index == -1 || !values.containsKey( arg.substring( 0, index ) ) ) {
+        throw new IllegalArgumentException( "Unknown argument: " + arg );
+      }
+      values.put( arg.substring( 0, index ), arg.substring( index + 1 ) );
+    }
+    if( getClients() <= 0 || getUploads() <= 0 || getFiles() <= 0 ) {
+      throw new IllegalArgumentException( "clients, uploads and files must be positive" );
+    }
+    if( !ReceiverFactory.isKnown( getReceiver() ) ) {
+      throw new IllegalArgumentException( "Unknown receiver: " + getReceiver() );
+    }
+    if( !ReceiverFactory.isKnownDurability( getDurability() ) ) {
+      throw new IllegalArgumentException( "Unknown durability: " + getDurability() );
+    }
+  }
+
+  /* number of concurrent clients */
+  int getClients() {
+    return Integer.parseInt( values.get( "clients" ) );
+  }
+
+  /* number of measured uploads per client */
+  int getUploads() {
+    return Integer.parseInt( values.get( "uploads" ) );
+  }
+
+  /* number of uploads per client before the measurement starts */
+  int getWarmUpUploads() {
+    return Integer.parseInt( values.get( "warmup" ) );
+  }
+
+  /* size of a single file in bytes */
+  long getFileSize() {
+    return parseSize( values.get( "size" ) );
+  }
+
+  /* number of files per request */
+  int getFiles() {
+    return Integer.parseInt( values.get( "files" ) );
+  }
+
+  /* whether requests are sent with chunked transfer encoding instead of a content length */
+  boolean isChunked() {
+    return Boolean.parseBoolean( values.get( "chunked" ) );
+  }
+
+  /* bytes per second a single client sends, 0 for unlimited */
+  long getBandwidth() {
+    return parseSize( values.get( "bandwidth" ) );
+  }
+
+  /* the receiver the server stores uploaded files with */
+  String getReceiver() {
+    return values.get( "receiver" );
+  }
+
+  /* whether the upload handlers process uploads asynchronously */
+  boolean isAsync() {
+    return Boolean.parseBoolean( values.get( "async" ) );
+  }
+
+  /* whether the disk receiver forces received files to disk */
+  String getDurability() {
+    return values.get( "durability" );
+  }
+
+  /* the port of the server, 0 for an ephemeral port */
+  int getPort() {
+    return Integer.parseInt( values.get( "port" ) );
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder();
+    for( Entry<String, String> entry : values.entrySet() ) {
+      if( builder.length() > 0 ) {
+        builder.append( ' ' );
+      }
+      builder.append( entry.getKey() ).append( '=' ).append( entry.getValue() );
+    }
+    return builder.toString();
+  }
+
+  static String getUsage() {
+    return "Usage: java -jar loadtest.jar [key=value]...\n"
+         + "  clients=16        number of concurrent clients\n"
+         + "  uploads=50        number of measured uploads per client\n"
+         + "  warmup=5          number of uploads per client before measuring\n"
+         + "  size=1m           size of a single file, accepts k and m\n"
+         + "  files=1           number of files per request\n"
+         + "  chunked=false     send requests with chunked transfer encoding\n"
+         + "  bandwidth=0       bytes per second per client to simulate slow clients, 0 for\n"
+         + "                    unlimited\n"
+         + "  receiver=discard  discard, memory or disk\n"
+         + "  async=false       process uploads asynchronously\n"
+         + "  durability=none   none or fsync, only used by the disk receiver\n"
+         + "  port=0            server port, 0 for an ephemeral port";
+  }
+
+  private static long parseSize( String value ) {
+    String lowerCase = value.trim().toLowerCase();
+    long factor = 1;
+    if( lowerCase.endsWith( "k" ) ) {
+      factor = 1024;
+    } else if( lowerCase.endsWith( "m" ) ) {
+      factor = 1024 * 1024;
+    }
+    if( factor != 1 ) {
+      lowerCase = lowerCase.substring( 0, lowerCase.length() - 1 );
+    }
+    return Long.parseLong( lowerCase ) * factor;
+  }
+
+}
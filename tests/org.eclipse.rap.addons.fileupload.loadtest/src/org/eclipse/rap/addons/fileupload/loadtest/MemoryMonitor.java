@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.loadtest;
+
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+
+
+/*
+ * Samples heap usage while the load test runs and records the garbage collections that happened
+ * in between. The peak is sampled rather than taken from the memory pools, because the pools reach
+ * their peaks at different times and their sum overstates the heap usage.
+ */
+final class MemoryMonitor implements Runnable {
+
+  private static final long SAMPLE_INTERVAL = 50;
+
+  private final MemoryMXBean memoryBean;
+  private final List<GarbageCollectorMXBean> collectorBeans;
+  private final long[] startCounts;
+  private final long[] startTimes;
+  private final long[] endCounts;
+  private final long[] endTimes;
+  private Thread thread;
+  private volatile boolean running;
+  private volatile long peakUsed;
+  private long startUsed;
+  private long endUsed;
+
+  MemoryMonitor() {
+    memoryBean = ManagementFactory.getMemoryMXBean();
+    collectorBeans = ManagementFactory.getGarbageCollectorMXBeans();
+    startCounts = new long[ collectorBeans.size() ];
+    startTimes = new long[ collectorBeans.size() ];
+    endCounts = new long[ collectorBeans.size() ];
+    endTimes = new long[ collectorBeans.size() ];
+  }
+
+  void start() {
+    readCollectors( startCounts, startTimes );
+    startUsed = getHeapUsed();
+    peakUsed = startUsed;
+    running = true;
+    thread = new Thread( this, "Load Test Memory Monitor" );
+    thread.setDaemon( true );
+    thread.start();
+  }
+
+  void stop() throws InterruptedException {
+    running = false;
+    thread.join();
+    readCollectors( endCounts, endTimes );
+    endUsed = getHeapUsed();
+  }
+
+  public void run() {
+    while( running ) {
+      peakUsed = Math.max( peakUsed, getHeapUsed() );
+      try {
+        Thread.sleep( SAMPLE_INTERVAL );
+      } catch( InterruptedException exception ) {
+        running = false;
+      }
+    }
+  }
+
+  void report( PrintStream out, long duration ) {
+    long maxHeap = memoryBean.getHeapMemoryUsage().getMax();
+    out.printf( "Heap:        %s at start, %s peak, %s at end, %s max%n",
+                formatBytes( startUsed ),
+                formatBytes( peakUsed ),
+                formatBytes( endUsed ),
+                maxHeap == -1 ? "unbounded" : formatBytes( maxHeap ) );
+    long totalTime = 0;
+    for( int i = 0; i < collectorBeans.size(); i++ ) {
+      long count = endCounts[ i ] - startCounts[ i ];
+      long time = endTimes[ i ] - startTimes[ i ];
+      totalTime += time;
+      out.printf( "GC:          %s: %d collections, %d ms%n",
+                  collectorBeans.get( i ).getName(),
+                  Long.valueOf( count ),
+                  Long.valueOf( time ) );
+    }
+    double share = duration == 0 ? 0 : 100.0 * totalTime / duration;
+    out.printf( "GC time:     %.1f %% of the run%n", Double.valueOf( share ) );
+  }
+
+  private long getHeapUsed() {
+    return memoryBean.getHeapMemoryUsage().getUsed();
+  }
+
+  private void readCollectors( long[] counts, long[] times ) {
+    for( int i = 0; i < collectorBeans.size(); i++ ) {
+      // both values are -1 if a collector does not support them
+      counts[ i ] = Math.max( 0, collectorBeans.get( i ).getCollectionCount() );
+      times[ i ] = Math.max( 0, collectorBeans.get( i ).getCollectionTime() );
+    }
+  }
+
+  static String formatBytes( long bytes ) {
+    return String.format( "%.1f MB", Double.valueOf( bytes / ( 1024.0 * 1024.0 ) ) );
+  }
+
+}
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import org.eclipse.rap.addons.fileupload.BufferPool;
+import org.eclipse.rap.addons.fileupload.DiskFileUploadReceiver;
+import org.eclipse.rap.addons.fileupload.DiskFileUploadReceiver.Durability;
+import org.eclipse.rap.addons.fileupload.FileDetails;
+import org.eclipse.rap.addons.fileupload.FileUploadEvent;
+import org.eclipse.rap.addons.fileupload.FileUploadHandler;
+import org.eclipse.rap.addons.fileupload.FileUploadListener;
+import org.eclipse.rap.addons.fileupload.FileUploadReceiver;
+import org.eclipse.rap.addons.fileupload.MemoryFileUploadReceiver;
+import org.eclipse.rap.addons.fileupload.ReceivedContent;
+import org.eclipse.rap.addons.fileupload.UploadCleanupService;
+
+
+/*
+ * Creates upload handlers with the receiver selected for a load test. Received files are released
+ * as soon as an upload has finished, so that long runs neither fill the disk nor the heap.
+ */
+final class ReceiverFactory {
+
+  static final String DISCARD = "discard";
+  static final String MEMORY = "memory";
+  static final String DISK = "disk";
+
+  private ReceiverFactory() {
+    // prevent instantiation
+  }
+
+  static boolean isKnown( String receiver ) {
+    return DISCARD.equals( receiver ) || MEMORY.equals( receiver ) || DISK.equals( receiver );
+  }
+
+  static boolean isKnownDurability( String durability ) {
+    boolean result = false;
+    for( Durability value : Durability.values() ) {
+      result |= value.name().equalsIgnoreCase( durability );
+    }
+    return result;
+  }
+
+  static FileUploadHandler createHandler( String receiver, boolean async, String durability ) {
+    FileUploadHandler result;
+    if( MEMORY.equals( receiver ) ) {
+      MemoryFileUploadReceiver memoryReceiver = new MemoryFileUploadReceiver();
+      result = new FileUploadHandler( memoryReceiver );
+      result.addUploadListener( new MemoryCleanup( memoryReceiver ) );
+    } else if( DISK.equals( receiver ) ) {
+      DiskFileUploadReceiver diskReceiver = new DiskFileUploadReceiver();
+      diskReceiver.setDurability( Durability.valueOf( durability.toUpperCase() ) );
+      result = new FileUploadHandler( diskReceiver );
+      result.addUploadListener( new DiskCleanup( diskReceiver ) );
+    } else {
+      result = new FileUploadHandler( new DiscardingReceiver() );
+    }
+    result.setAsyncProcessing( async );
+    return result;
+  }
+
+  private static final class DiscardingReceiver extends FileUploadReceiver {
+
+    @Override
+    public void receive( InputStream stream, FileDetails details ) throws IOException {
+      BufferPool pool = BufferPool.getInstance();
+      ByteBuffer buffer = pool.acquire();
+      try {
+        byte[] bytes = buffer.array();
+        boolean finished = false;
+        while( !finished ) {
+          finished = stream.read( bytes ) == -1;
+        }
+      } finally {
+        pool.release( buffer );
+      }
+    }
+
+  }
+
+  private abstract static class Cleanup implements FileUploadListener {
+
+    public void uploadProgress( FileUploadEvent event ) {
+    }
+
+    public void uploadFinished( FileUploadEvent event ) {
+      cleanUp();
+    }
+
+    public void uploadFailed( FileUploadEvent event ) {
+      cleanUp();
+    }
+
+    abstract void cleanUp();
+
+  }
+
+  private static final class MemoryCleanup extends Cleanup {
+
+    private final MemoryFileUploadReceiver receiver;
+    private int released;
+
+    MemoryCleanup( MemoryFileUploadReceiver receiver ) {
+      this.receiver = receiver;
+    }
+
+    @Override
+    synchronized void cleanUp() {
+      ReceivedContent[] contents = receiver.getContents();
+      for( int i = released; i < contents.length; i++ ) {
+        contents[ i ].dispose();
+      }
+      released = contents.length;
+    }
+
+  }
+
+  private static final class DiskCleanup extends Cleanup {
+
+    private final DiskFileUploadReceiver receiver;
+    private int released;
+
+    DiskCleanup( DiskFileUploadReceiver receiver ) {
+      this.receiver = receiver;
+    }
+
+    @Override
+    synchronized void cleanUp() {
+      File[] files = receiver.getTargetFiles();
+      for( int i = released; i < files.length; i++ ) {
+        UploadCleanupService.getInstance().release( files[ i ] );
+      }
+      released = files.length;
+    }
+
+  }
+
+}
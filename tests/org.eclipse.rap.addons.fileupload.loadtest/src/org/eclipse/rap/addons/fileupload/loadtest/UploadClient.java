@@ -0,0 +1,263 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+
+
+/*
+ * A client that uploads multipart requests to the server one after another, like a browser that
+ * uploads files over a single connection. Each client has its own HTTP session and thus its own
+ * UI session and upload handler.
+ */
+final class UploadClient implements Runnable {
+
+  private static final String BOUNDARY = "----LoadTestBoundary";
+  private static final String NEWLINE = "\r\n";
+  private static final int BLOCK_SIZE = 8192;
+  private static final int STATUS_EXCEPTION = -1;
+
+  private final LoadTestSettings settings;
+  private final URL serverUrl;
+  private final CyclicBarrier warmedUp;
+  private final byte[] data;
+  private final long[] latencies;
+  private final Map<Integer, Integer> failures;
+  private int measuredUploads;
+  private long bytesSent;
+  private URL uploadUrl;
+  private String sessionCookie;
+  private volatile IOException setUpFailure;
+
+  UploadClient( LoadTestSettings settings, URL serverUrl, CyclicBarrier warmedUp, byte[] data ) {
+    this.settings = settings;
+    this.serverUrl = serverUrl;
+    this.warmedUp = warmedUp;
+    this.data = data;
+    latencies = new long[ settings.getUploads() ];
+    failures = new TreeMap<Integer, Integer>();
+  }
+
+  public void run() {
+    try {
+      setUp();
+      for( int i = 0; i < settings.getWarmUpUploads(); i++ ) {
+        upload( false );
+      }
+      warmedUp.await();
+      for( int i = 0; i < settings.getUploads(); i++ ) {
+        upload( true );
+      }
+    } catch( InterruptedException exception ) {
+      Thread.currentThread().interrupt();
+    } catch( BrokenBarrierException exception ) {
+      // another client failed to set up, the run is aborted
+    } catch( InterruptedIOException exception ) {
+      Thread.currentThread().interrupt();
+    } catch( IOException exception ) {
+      setUpFailure = exception;
+      warmedUp.reset();
+    }
+  }
+
+  /* the exception that prevented this client from obtaining an upload URL, if any */
+  IOException getSetUpFailure() {
+    return setUpFailure;
+  }
+
+  /* latencies of successful measured uploads in nanoseconds */
+  long[] getLatencies() {
+    long[] result = new long[ measuredUploads ];
+    System.arraycopy( latencies, 0, result, 0, measuredUploads );
+    return result;
+  }
+
+  /* number of failed measured uploads by HTTP status, -1 for uploads that threw an exception */
+  Map<Integer, Integer> getFailures() {
+    return failures;
+  }
+
+  /* number of bytes of measured uploads that have been sent, including multipart framing */
+  long getBytesSent() {
+    return bytesSent;
+  }
+
+  private void setUp() throws IOException {
+    String query = "?servicehandler=" + LoadTestConfiguration.SETUP_SERVICE_HANDLER_ID
+                 + "&" + LoadTestConfiguration.PARAMETER_RECEIVER + "=" + settings.getReceiver()
+                 + "&" + LoadTestConfiguration.PARAMETER_ASYNC + "=" + settings.isAsync()
+                 + "&" + LoadTestConfiguration.PARAMETER_DURABILITY + "="
+                 + settings.getDurability();
+    HttpURLConnection connection
+      = ( HttpURLConnection )new URL( serverUrl, serverUrl.getPath() + query ).openConnection();
+    try {
+      if( connection.getResponseCode() != HttpURLConnection.HTTP_OK ) {
+        throw new IOException( "Setup failed with status " + connection.getResponseCode() );
+      }
+      String cookie = connection.getHeaderField( "Set-Cookie" );
+      if( cookie != null ) {
+        sessionCookie = cookie.split( ";" )[ 0 ];
+      }
+      uploadUrl = new URL( serverUrl, readFully( connection.getInputStream() ).trim() );
+    } finally {
+      connection.disconnect();
+    }
+  }
+
+  private void upload( boolean measured ) throws InterruptedIOException {
+    byte[][] headers = createPartHeaders();
+    byte[] trailer = ( NEWLINE + "--" + BOUNDARY + "--" + NEWLINE ).getBytes();
+    long contentLength = trailer.length + ( headers.length - 1 ) * NEWLINE.length();
+    for( byte[] header : headers ) {
+      contentLength += header.length + settings.getFileSize();
+    }
+    long start = System.nanoTime();
+    int status;
+    try {
+      status = send( headers, trailer, contentLength );
+    } catch( InterruptedIOException exception ) {
+      throw exception;
+    } catch( IOException exception ) {
+      status = STATUS_EXCEPTION;
+    }
+    long latency = System.nanoTime() - start;
+    if( measured ) {
+      if( status == HttpURLConnection.HTTP_OK ) {
+        latencies[ measuredUploads++ ] = latency;
+        bytesSent += contentLength;
+      } else {
+        Integer count = failures.get( Integer.valueOf( status ) );
+        failures.put( Integer.valueOf( status ), Integer.valueOf( count == null ? 1 : count + 1 ) );
+      }
+    }
+  }
+
+  private int send( byte[][] headers, byte[] trailer, long contentLength ) throws IOException {
+    HttpURLConnection connection = ( HttpURLConnection )uploadUrl.openConnection();
+    connection.setDoOutput( true );
+    connection.setRequestMethod( "POST" );
+    connection.setRequestProperty( "Content-Type", "multipart/form-data; boundary=" + BOUNDARY );
+    if( sessionCookie != null ) {
+      connection.setRequestProperty( "Cookie", sessionCookie );
+    }
+    if( settings.isChunked() ) {
+      connection.setChunkedStreamingMode( BLOCK_SIZE );
+    } else {
+      connection.setFixedLengthStreamingMode( contentLength );
+    }
+    OutputStream outputStream = connection.getOutputStream();
+    Pacer pacer = new Pacer( settings.getBandwidth() );
+    for( int i = 0; i < headers.length; i++ ) {
+      if( i > 0 ) {
+        outputStream.write( NEWLINE.getBytes() );
+      }
+      outputStream.write( headers[ i ] );
+      long remaining = settings.getFileSize();
+      while( remaining > 0 ) {
+        int length = ( int )Math.min( remaining, data.length );
+        outputStream.write( data, 0, length );
+        remaining -= length;
+        pacer.sent( length );
+      }
+    }
+    outputStream.write( trailer );
+    outputStream.close();
+    int result = connection.getResponseCode();
+    // read the response completely, so that the connection can be reused
+    InputStream inputStream = result < 400 ? connection.getInputStream()
+                                           : connection.getErrorStream();
+    if( inputStream != null ) {
+      readFully( inputStream );
+    }
+    return result;
+  }
+
+  private byte[][] createPartHeaders() {
+    byte[][] result = new byte[ settings.getFiles() ][];
+    for( int i = 0; i < result.length; i++ ) {
+      String header = "--" + BOUNDARY + NEWLINE
+                    + "Content-Disposition: form-data; name=\"file\"; filename=\"file" + i
+                    + ".bin\"" + NEWLINE
+                    + "Content-Type: application/octet-stream" + NEWLINE
+                    + NEWLINE;
+      result[ i ] = header.getBytes();
+    }
+    return result;
+  }
+
+  static byte[] createData() {
+    // printable characters and line feeds only, so that the data cannot contain the boundary
+    byte[] result = new byte[ BLOCK_SIZE ];
+    for( int i = 0; i < result.length; i++ ) {
+      int column = i % 91;
+      result[ i ] = ( byte )( column == 90 ? 10 : 33 + column );
+    }
+    return result;
+  }
+
+  private static String readFully( InputStream inputStream ) throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try {
+      byte[] buffer = new byte[ BLOCK_SIZE ];
+      int read = inputStream.read( buffer );
+      while( read != -1 ) {
+        outputStream.write( buffer, 0, read );
+        read = inputStream.read( buffer );
+      }
+    } finally {
+      inputStream.close();
+    }
+    return outputStream.toString( "UTF-8" );
+  }
+
+  /*
+   * Delays a slow client, so that it does not send more than the given bandwidth on average.
+   */
+  private static final class Pacer {
+
+    private final long bandwidth;
+    private final long start;
+    private long sent;
+
+    Pacer( long bandwidth ) {
+      this.bandwidth = bandwidth;
+      start = System.nanoTime();
+    }
+
+    void sent( int bytes ) throws InterruptedIOException {
+      sent += bytes;
+      if( bandwidth > 0 ) {
+        long due = start + sent * 1000000000L / bandwidth;
+        long delay = due - System.nanoTime();
+        if( delay > 0 ) {
+          try {
+            Thread.sleep( delay / 1000000, ( int )( delay % 1000000 ) );
+          } catch( InterruptedException exception ) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException( "Interrupted while pacing upload" );
+          }
+        }
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.eclipse.rap.rwt.application.ApplicationConfiguration;
+import org.eclipse.rap.rwt.engine.RWTServlet;
+import org.eclipse.rap.rwt.engine.RWTServletContextListener;
+
+
+/*
+ * An embedded Jetty on localhost that runs the load test application like a web.xml deployment
+ * would, so that uploads pass through real sockets and the servlet container's request parsing.
+ */
+final class UploadServer {
+
+  static final String SERVLET_PATH = "/upload";
+
+  private final Server server;
+  private final ServerConnector connector;
+  private final File resourceDirectory;
+
+  UploadServer( int port ) throws IOException {
+    server = new Server();
+    connector = new ServerConnector( server );
+    connector.setHost( "localhost" );
+    connector.setPort( port );
+    server.addConnector( connector );
+    resourceDirectory = createResourceDirectory();
+    ServletContextHandler context = new ServletContextHandler( ServletContextHandler.SESSIONS );
+    context.setContextPath( "/" );
+    context.setInitParameter( ApplicationConfiguration.CONFIGURATION_PARAM,
+                              LoadTestConfiguration.class.getName() );
+    context.setAttribute( ApplicationConfiguration.RESOURCE_ROOT_LOCATION,
+                          resourceDirectory.getAbsolutePath() );
+    context.addEventListener( new RWTServletContextListener() );
+    ServletHolder servletHolder = new ServletHolder( new RWTServlet() );
+    // required by upload handlers that process uploads asynchronously
+    servletHolder.setAsyncSupported( true );
+    context.addServlet( servletHolder, SERVLET_PATH );
+    server.setHandler( context );
+  }
+
+  void start() throws Exception {
+    server.start();
+  }
+
+  void stop() throws Exception {
+    server.stop();
+    delete( resourceDirectory );
+  }
+
+  URL getUrl() throws IOException {
+    return new URL( "http", "localhost", connector.getLocalPort(), SERVLET_PATH );
+  }
+
+  private static File createResourceDirectory() throws IOException {
+    File result = File.createTempFile( "fileupload-loadtest", "" );
+    if( !result.delete() || !result.mkdir() ) {
+      throw new IOException( "Unable to create resource directory: " + result );
+    }
+    return result;
+  }
+
+  private static void delete( File file ) {
+    File[] children = file.listFiles();
+    if( children != null ) {
+      for( File child : children ) {
+        delete( child );
+      }
+    }
+    file.delete();
+  }
+
+}
@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+
+import org.eclipse.rap.rwt.testfixture.internal.Fixture;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+@SuppressWarnings( "restriction" )
+public class BufferPool_Test {
+
+  private BufferPool pool;
+
+  @Before
+  public void setUp() {
+    Fixture.setUp();
+    pool = new BufferPool( 16, 2, false );
+  }
+
+  @After
+  public void tearDown() {
+    Fixture.tearDown();
+  }
+
+  @Test
+  public void testCreateWithInvalidBufferSize() {
+    try {
+      new BufferPool( 0, 2, false );
+      fail();
+    } catch( IllegalArgumentException expected ) {
+    }
+  }
+
+  @Test
+  public void testCreateWithNegativeCapacity() {
+    try {
+      new BufferPool( 16, -1, false );
+      fail();
+    } catch( IllegalArgumentException expected ) {
+    }
+  }
+
+  @Test
+  public void testAcquire_allocatesWhenEmpty() {
+    ByteBuffer buffer = pool.acquire();
+
+    assertEquals( 16, buffer.capacity() );
+    assertFalse( buffer.isDirect() );
+    assertEquals( 0, pool.getHitCount() );
+    assertEquals( 1, pool.getMissCount() );
+  }
+
+  @Test
+  public void testAcquire_reusesReleasedBuffer() {
+    ByteBuffer buffer = pool.acquire();
+    buffer.put( ( byte )1 );
+
+    pool.release( buffer );
+    ByteBuffer result = pool.acquire();
+
+    assertSame( buffer, result );
+    assertEquals( 0, result.position() );
+    assertEquals( 1, pool.getHitCount() );
+    assertEquals( 1, pool.getMissCount() );
+  }
+
+  @Test
+  public void testRelease_discardsBuffersBeyondCapacity() {
+    ByteBuffer buffer1 = pool.acquire();
+    ByteBuffer buffer2 = pool.acquire();
+    ByteBuffer buffer3 = pool.acquire();
+
+    pool.release( buffer1 );
+    pool.release( buffer2 );
+    pool.release( buffer3 );
+    pool.acquire();
+    pool.acquire();
+    pool.acquire();
+
+    assertEquals( 2, pool.getHitCount() );
+    assertEquals( 4, pool.getMissCount() );
+  }
+
+  @Test
+  public void testRelease_ignoresForeignBuffers() {
+    pool.release( ByteBuffer.allocate( 32 ) );
+    pool.release( ByteBuffer.allocateDirect( 16 ) );
+    pool.acquire();
+
+    assertEquals( 0, pool.getHitCount() );
+  }
+
+  @Test
+  public void testReleaseWithNull() {
+    try {
+      pool.release( null );
+      fail();
+    } catch( NullPointerException expected ) {
+    }
+  }
+
+  @Test
+  public void testSetBufferSize_discardsPooledBuffers() {
+    pool.release( pool.acquire() );
+
+    pool.setBufferSize( 32 );
+    ByteBuffer result = pool.acquire();
+
+    assertEquals( 32, result.capacity() );
+    assertEquals( 0, pool.getHitCount() );
+  }
+
+  @Test
+  public void testDirectPool() {
+    BufferPool directPool = new BufferPool( 16, 2, true );
+
+    ByteBuffer buffer = directPool.acquire();
+
+    assertTrue( directPool.isDirect() );
+    assertTrue( buffer.isDirect() );
+  }
+
+  @Test
+  public void testGetInstance_sameInstanceInSameApplication() {
+    assertSame( BufferPool.getInstance(), BufferPool.getInstance() );
+    assertFalse( BufferPool.getInstance().isDirect() );
+    assertTrue( BufferPool.getDirectInstance().isDirect() );
+  }
+
+  @Test
+  public void testGetInstance_differentInstanceInOtherApplication() {
+    BufferPool instance = BufferPool.getInstance();
+
+    Fixture.disposeOfServiceContext();
+    Fixture.disposeOfApplicationContext();
+    Fixture.createApplicationContext();
+    Fixture.createServiceContext();
+
+    assertNotSame( instance, BufferPool.getInstance() );
+  }
+
+}
@@ -0,0 +1,465 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.rap.addons.fileupload.internal.FileDetailsImpl;
+import org.eclipse.rap.addons.fileupload.test.TestFileUploadReceiver;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class CompositeFileUploadReceiver_Test {
+
+  private static final int BUFFER_SIZE = BufferPool.DEFAULT_BUFFER_SIZE;
+
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() {
+    executor = Executors.newCachedThreadPool();
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testCreateWithNullReceivers() {
+    try {
+      new CompositeFileUploadReceiver( ( FileUploadReceiver[] )null );
+      fail();
+    } catch( NullPointerException expected ) {
+    }
+  }
+
+  @Test
+  public void testCreateWithNullReceiver() {
+    try {
+      new CompositeFileUploadReceiver( new TestFileUploadReceiver(), null );
+      fail();
+    } catch( NullPointerException expected ) {
+    }
+  }
+
+  @Test
+  public void testCreateWithoutReceivers() {
+    try {
+      new CompositeFileUploadReceiver();
+      fail();
+    } catch( IllegalArgumentException expected ) {
+    }
+  }
+
+  @Test
+  public void testSetRingBufferSizeWithInvalidValue() {
+    CompositeFileUploadReceiver receiver
+      = new CompositeFileUploadReceiver( new TestFileUploadReceiver() );
+
+    try {
+      receiver.setRingBufferSize( 0 );
+      fail();
+    } catch( IllegalArgumentException expected ) {
+    }
+  }
+
+  @Test
+  public void testDefaults() {
+    CompositeFileUploadReceiver receiver
+      = new CompositeFileUploadReceiver( new TestFileUploadReceiver() );
+
+    assertNull( receiver.getExecutor() );
+    assertEquals( CompositeFileUploadReceiver.DEFAULT_RING_BUFFER_SIZE,
+                  receiver.getRingBufferSize() );
+  }
+
+  @Test
+  public void testReceive_runsChildrenOnReceivingThread() throws IOException {
+    final Thread[] threads = new Thread[ 2 ];
+    FileUploadReceiver child1 = new TestFileUploadReceiver() {
+      @Override
+      public void receive( InputStream dataStream, FileDetails details ) throws IOException {
+        threads[ 0 ] = Thread.currentThread();
+        super.receive( dataStream, details );
+      }
+    };
+    FileUploadReceiver child2 = new TestFileUploadReceiver() {
+      @Override
+      public void receive( InputStream dataStream, FileDetails details ) throws IOException {
+        threads[ 1 ] = Thread.currentThread();
+        super.receive( dataStream, details );
+      }
+    };
+    CompositeFileUploadReceiver receiver = new CompositeFileUploadReceiver( child1, child2 );
+
+    receiver.receive( new ByteArrayInputStream( createData( 100 ) ), null );
+
+    assertSame( Thread.currentThread(), threads[ 0 ] );
+    assertSame( Thread.currentThread(), threads[ 1 ] );
+  }
+
+  @Test
+  public void testReceive_readsDataOnlyOnce() throws IOException {
+    TestFileUploadReceiver child1 = new TestFileUploadReceiver();
+    TestFileUploadReceiver child2 = new TestFileUploadReceiver();
+    CompositeFileUploadReceiver receiver = new CompositeFileUploadReceiver( child1, child2 );
+    byte[] data = createData( 3 * BUFFER_SIZE );
+    CountingStream dataStream = new CountingStream( data );
+
+    receiver.receive( dataStream, null );
+
+    assertEquals( data.length, dataStream.count.get() );
+    assertArrayEquals( data, child2.getContent() );
+  }
+
+  @Test
+  public void testReceive_deletesSpoolFile() throws IOException {
+    UploadCleanupService cleanupService = UploadCleanupService.getInstance();
+    int trackedCount = cleanupService.getTrackedCount();
+    CompositeFileUploadReceiver receiver
+      = new CompositeFileUploadReceiver( new TestFileUploadReceiver(),
+                                         new TestFileUploadReceiver() );
+
+    receiver.receive( new ByteArrayInputStream( createData( 100 ) ), null );
+
+    assertEquals( trackedCount, cleanupService.getTrackedCount() );
+  }
+
+  @Test
+  public void testReceive_passesDataToAllReceivers() throws IOException {
+    TestFileUploadReceiver child1 = new TestFileUploadReceiver();
+    TestFileUploadReceiver child2 = new TestFileUploadReceiver();
+    TestFileUploadReceiver child3 = new TestFileUploadReceiver();
+    CompositeFileUploadReceiver receiver
+      = new CompositeFileUploadReceiver( child1, child2, child3 );
+    byte[] data = createData( 10 * BUFFER_SIZE + 17 );
+
+    receiver.receive( new ByteArrayInputStream( data ), null );
+
+    assertArrayEquals( data, child1.getContent() );
+    assertArrayEquals( data, child2.getContent() );
+    assertArrayEquals( data, child3.getContent() );
+  }
+
+  @Test
+  public void testReceive_withRingBuffer() throws IOException {
+    TestFileUploadReceiver child1 = new TestFileUploadReceiver();
+    TestFileUploadReceiver child2 = new TestFileUploadReceiver();
+    CompositeFileUploadReceiver receiver = new CompositeFileUploadReceiver( child1, child2 );
+    receiver.setExecutor( executor );
+    receiver.setRingBufferSize( 4 );
+    byte[] data = createData( 10 * BUFFER_SIZE + 17 );
+
+    receiver.receive( new ByteArrayInputStream( data ), null );
+
+    assertArrayEquals( data, child1.getContent() );
+    assertArrayEquals( data, child2.getContent() );
+  }
+
+  @Test
+  public void testReceive_passesFileDetails() throws IOException {
+    final FileDetails[] received = new FileDetails[ 1 ];
+    FileUploadReceiver child = new TestFileUploadReceiver() {
+      @Override
+      public void receive( InputStream dataStream, FileDetails details ) throws IOException {
+        received[ 0 ] = details;
+        super.receive( dataStream, details );
+      }
+    };
+    FileDetails details = new FileDetailsImpl( "foo.txt", "text/plain", 3 );
+
+    new CompositeFileUploadReceiver( child ).receive( new ByteArrayInputStream( new byte[ 3 ] ),
+                                                      details );
+
+    assertSame( details, received[ 0 ] );
+  }
+
+  @Test
+  public void testDispose_disposesAllChildren() {
+    TestFileUploadReceiver firstChild = new TestFileUploadReceiver();
+    TestFileUploadReceiver secondChild = new TestFileUploadReceiver();
+    CompositeFileUploadReceiver receiver
+      = new CompositeFileUploadReceiver( firstChild, secondChild );
+
+    receiver.dispose();
+
+    assertTrue( firstChild.isDisposed() );
+    assertTrue( secondChild.isDisposed() );
+  }
+
+  @Test
+  public void testDispose_continuesAfterFailureOfChild() {
+    final RuntimeException failure = new RuntimeException();
+    FileUploadReceiver failingChild = new TestFileUploadReceiver() {
+      @Override
+      public void dispose() {
+        throw failure;
+      }
+    };
+    TestFileUploadReceiver child = new TestFileUploadReceiver();
+    CompositeFileUploadReceiver receiver = new CompositeFileUploadReceiver( failingChild, child );
+
+    try {
+      receiver.dispose();
+      fail();
+    } catch( RuntimeException expected ) {
+      assertSame( failure, expected );
+    }
+    assertTrue( child.isDisposed() );
+  }
+
+  @Test
+  public void testReceive_reportsFailureOfChild() {
+    TestFileUploadReceiver child = new TestFileUploadReceiver();
+    final IOException failure = new IOException();
+    FileUploadReceiver failingChild = new FileUploadReceiver() {
+      @Override
+      public void receive( InputStream dataStream, FileDetails details ) throws IOException {
+        dataStream.read();
+        throw failure;
+      }
+    };
+    CompositeFileUploadReceiver receiver = new CompositeFileUploadReceiver( failingChild, child );
+    byte[] data = createData( 5 * BUFFER_SIZE );
+
+    try {
+      receiver.receive( new ByteArrayInputStream( data ), null );
+      fail();
+    } catch( IOException expected ) {
+      assertSame( failure, expected );
+    }
+    assertArrayEquals( data, child.getContent() );
+  }
+
+  @Test
+  public void testReceive_reportsFailureOfChild_withExecutor() {
+    TestFileUploadReceiver child = new TestFileUploadReceiver();
+    final IOException failure = new IOException();
+    FileUploadReceiver failingChild = new FileUploadReceiver() {
+      @Override
+      public void receive( InputStream dataStream, FileDetails details ) throws IOException {
+        dataStream.read();
+        throw failure;
+      }
+    };
+    CompositeFileUploadReceiver receiver = new CompositeFileUploadReceiver( failingChild, child );
+    receiver.setExecutor( executor );
+    byte[] data = createData( 5 * BUFFER_SIZE );
+
+    try {
+      receiver.receive( new ByteArrayInputStream( data ), null );
+      fail();
+    } catch( IOException expected ) {
+      assertSame( failure, expected );
+    }
+    assertArrayEquals( data, child.getContent() );
+  }
+
+  @Test
+  public void testReceive_childStopsReading_withExecutor() throws IOException {
+    TestFileUploadReceiver child = new TestFileUploadReceiver();
+    FileUploadReceiver lazyChild = new FileUploadReceiver() {
+      @Override
+      public void receive( InputStream dataStream, FileDetails details ) {
+      }
+    };
+    CompositeFileUploadReceiver receiver = new CompositeFileUploadReceiver( lazyChild, child );
+    receiver.setExecutor( executor );
+    receiver.setRingBufferSize( 1 );
+    byte[] data = createData( 5 * BUFFER_SIZE );
+
+    receiver.receive( new ByteArrayInputStream( data ), null );
+
+    assertArrayEquals( data, child.getContent() );
+  }
+
+  @Test
+  public void testReceive_childStopsReading() throws IOException {
+    TestFileUploadReceiver child = new TestFileUploadReceiver();
+    FileUploadReceiver lazyChild = new FileUploadReceiver() {
+      @Override
+      public void receive( InputStream dataStream, FileDetails details ) {
+      }
+    };
+    CompositeFileUploadReceiver receiver = new CompositeFileUploadReceiver( lazyChild, child );
+    byte[] data = createData( 5 * BUFFER_SIZE );
+
+    receiver.receive( new ByteArrayInputStream( data ), null );
+
+    assertArrayEquals( data, child.getContent() );
+  }
+
+  @Test
+  public void testReceive_failureOfDataStream() {
+    final IOException failure = new IOException( "connection reset" );
+    final Throwable[] childFailure = new Throwable[ 1 ];
+    FileUploadReceiver child = new TestFileUploadReceiver() {
+      @Override
+      public void receive( InputStream dataStream, FileDetails details ) throws IOException {
+        try {
+          super.receive( dataStream, details );
+        } catch( IOException exception ) {
+          childFailure[ 0 ] = exception;
+          throw exception;
+        }
+      }
+    };
+    InputStream dataStream = new InputStream() {
+      private int count;
+      @Override
+      public int read() throws IOException {
+        if( count++ >= 100 ) {
+          throw failure;
+        }
+        return 0;
+      }
+    };
+
+    try {
+      new CompositeFileUploadReceiver( child, new TestFileUploadReceiver() ).receive( dataStream,
+                                                                               null );
+      fail();
+    } catch( IOException expected ) {
+      assertSame( failure, expected );
+    }
+    assertSame( failure, childFailure[ 0 ] );
+  }
+
+  @Test
+  public void testReceive_failureOfDataStream_withExecutor() {
+    final IOException failure = new IOException( "connection reset" );
+    final Throwable[] childFailure = new Throwable[ 1 ];
+    FileUploadReceiver child = new TestFileUploadReceiver() {
+      @Override
+      public void receive( InputStream dataStream, FileDetails details ) throws IOException {
+        try {
+          super.receive( dataStream, details );
+        } catch( IOException exception ) {
+          childFailure[ 0 ] = exception;
+          throw exception;
+        }
+      }
+    };
+    InputStream dataStream = new InputStream() {
+      private int count;
+      @Override
+      public int read() throws IOException {
+        if( count++ >= 100 ) {
+          throw failure;
+        }
+        return 0;
+      }
+    };
+
+    try {
+      CompositeFileUploadReceiver receiver
+        = new CompositeFileUploadReceiver( child, new TestFileUploadReceiver() );
+      receiver.setExecutor( executor );
+      receiver.receive( dataStream, null );
+      fail();
+    } catch( IOException expected ) {
+      assertSame( failure, expected );
+    }
+    assertSame( failure, childFailure[ 0 ].getCause() );
+  }
+
+  @Test
+  public void testReceive_readsAheadOfSlowChild() throws Exception {
+    final CountDownLatch slowChildReleased = new CountDownLatch( 1 );
+    FileUploadReceiver slowChild = new TestFileUploadReceiver() {
+      @Override
+      public void receive( InputStream dataStream, FileDetails details ) throws IOException {
+        try {
+          slowChildReleased.await( 10, TimeUnit.SECONDS );
+        } catch( InterruptedException exception ) {
+          Thread.currentThread().interrupt();
+        }
+        super.receive( dataStream, details );
+      }
+    };
+    TestFileUploadReceiver fastChild = new TestFileUploadReceiver();
+    final CompositeFileUploadReceiver receiver
+      = new CompositeFileUploadReceiver( slowChild, fastChild );
+    receiver.setExecutor( executor );
+    receiver.setRingBufferSize( 4 );
+    final CountingStream dataStream = new CountingStream( createData( 10 * BUFFER_SIZE ) );
+    final Throwable[] failure = new Throwable[ 1 ];
+    Thread receivingThread = new Thread( new Runnable() {
+      public void run() {
+        try {
+          receiver.receive( dataStream, null );
+        } catch( Throwable throwable ) {
+          failure[ 0 ] = throwable;
+        }
+      }
+    } );
+
+    receivingThread.start();
+    long deadline = System.currentTimeMillis() + 5000;
+    while( dataStream.count.get() < 4 * BUFFER_SIZE && System.currentTimeMillis() < deadline ) {
+      Thread.sleep( 5 );
+    }
+    Thread.sleep( 50 );
+    long bytesReadAhead = dataStream.count.get();
+    slowChildReleased.countDown();
+    receivingThread.join( 10000 );
+
+    assertEquals( 4 * BUFFER_SIZE, bytesReadAhead );
+    assertNull( failure[ 0 ] );
+    assertEquals( 10 * BUFFER_SIZE, fastChild.getTotal() );
+    assertEquals( 10 * BUFFER_SIZE, dataStream.count.get() );
+  }
+
+  private static byte[] createData( int length ) {
+    byte[] result = new byte[ length ];
+    for( int i = 0; i < length; i++ ) {
+      result[ i ] = ( byte )i;
+    }
+    return result;
+  }
+
+  private static final class CountingStream extends ByteArrayInputStream {
+
+    final AtomicLong count = new AtomicLong();
+
+    CountingStream( byte[] data ) {
+      super( data );
+    }
+
+    @Override
+    public synchronized int read( byte[] bytes, int offset, int length ) {
+      int result = super.read( bytes, offset, length );
+      if( result > 0 ) {
+        count.addAndGet( result );
+      }
+      return result;
+    }
+
+  }
+
+}
@@ -0,0 +1,289 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import org.eclipse.rap.addons.fileupload.internal.FileDetailsImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class DirectBufferFileUploadReceiver_Test {
+
+  // the size of the first segment of a file
+  private static final int BUFFER_SIZE = 8192;
+
+  private DirectMemoryBudget budget;
+  private DirectBufferFileUploadReceiver receiver;
+
+  @Before
+  public void setUp() {
+    budget = new DirectMemoryBudget( 4 * BUFFER_SIZE );
+    receiver = new DirectBufferFileUploadReceiver( budget );
+  }
+
+  @After
+  public void tearDown() {
+    for( DirectBufferContent content : receiver.getContents() ) {
+      content.dispose();
+    }
+  }
+
+  @Test
+  public void testCreateWithNullBudget() {
+    try {
+      new DirectBufferFileUploadReceiver( null );
+      fail();
+    } catch( NullPointerException expected ) {
+    }
+  }
+
+  @Test
+  public void testCreateBudgetWithInvalidLimit() {
+    try {
+      new DirectMemoryBudget( 0 );
+      fail();
+    } catch( IllegalArgumentException expected ) {
+    }
+  }
+
+  @Test
+  public void testSetBudgetTimeoutWithNegativeValue() {
+    try {
+      receiver.setBudgetTimeout( -1 );
+      fail();
+    } catch( IllegalArgumentException expected ) {
+    }
+  }
+
+  @Test
+  public void testSetSegmentSizeWithZero() {
+    try {
+      receiver.setSegmentSize( 0 );
+      fail();
+    } catch( IllegalArgumentException expected ) {
+    }
+  }
+
+  @Test
+  public void testSegmentSize_defaultValue() {
+    assertEquals( 1024 * 1024, receiver.getSegmentSize() );
+  }
+
+  @Test
+  public void testReceive_segmentsGrowWithReceivedData() throws IOException {
+    DirectMemoryBudget largeBudget = new DirectMemoryBudget( 1024 * 1024 );
+    DirectBufferFileUploadReceiver receiver = new DirectBufferFileUploadReceiver( largeBudget );
+    byte[] data = createData( 8 * BUFFER_SIZE );
+
+    receiver.receive( new ByteArrayInputStream( data ), null );
+
+    DirectBufferContent content = receiver.getContents()[ 0 ];
+    ByteBuffer[] buffers = content.getBuffers();
+    assertEquals( 4, buffers.length );
+    assertEquals( BUFFER_SIZE, buffers[ 0 ].remaining() );
+    assertEquals( BUFFER_SIZE, buffers[ 1 ].remaining() );
+    assertEquals( 2 * BUFFER_SIZE, buffers[ 2 ].remaining() );
+    assertEquals( 4 * BUFFER_SIZE, buffers[ 3 ].remaining() );
+    assertArrayEquals( data, read( content.openStream() ) );
+    content.dispose();
+  }
+
+  @Test
+  public void testReceive_limitsSegmentSize() throws IOException {
+    receiver.setSegmentSize( BUFFER_SIZE );
+
+    receiver.receive( new ByteArrayInputStream( createData( 3 * BUFFER_SIZE ) ), null );
+
+    assertEquals( 3, receiver.getContents()[ 0 ].getBuffers().length );
+    assertEquals( 3 * BUFFER_SIZE, budget.getUsed() );
+  }
+
+  @Test
+  public void testReceive() throws IOException {
+    byte[] data = createData( 2 * BUFFER_SIZE + 100 );
+    FileDetails details = new FileDetailsImpl( "foo.bin", "application/octet-stream", -1 );
+
+    receiver.receive( new ByteArrayInputStream( data ), details );
+
+    DirectBufferContent content = receiver.getContents()[ 0 ];
+    assertSame( details, content.getFileDetails() );
+    assertEquals( data.length, content.getLength() );
+    assertArrayEquals( data, read( content.openStream() ) );
+  }
+
+  @Test
+  public void testGetBuffers_returnsReadOnlyDirectViews() throws IOException {
+    byte[] data = createData( BUFFER_SIZE + 100 );
+    receiver.receive( new ByteArrayInputStream( data ), null );
+
+    ByteBuffer[] buffers = receiver.getContents()[ 0 ].getBuffers();
+
+    assertEquals( 2, buffers.length );
+    assertTrue( buffers[ 0 ].isReadOnly() );
+    assertTrue( buffers[ 0 ].isDirect() );
+    assertEquals( BUFFER_SIZE, buffers[ 0 ].remaining() );
+    assertEquals( 100, buffers[ 1 ].remaining() );
+  }
+
+  @Test
+  public void testGetBuffers_viewsAreIndependent() throws IOException {
+    receiver.receive( new ByteArrayInputStream( createData( 100 ) ), null );
+    DirectBufferContent content = receiver.getContents()[ 0 ];
+
+    content.getBuffers()[ 0 ].get();
+
+    assertEquals( 100, content.getBuffers()[ 0 ].remaining() );
+  }
+
+  @Test
+  public void testReceive_dataOfExactBufferSize() throws IOException {
+    byte[] data = createData( BUFFER_SIZE );
+
+    receiver.receive( new ByteArrayInputStream( data ), null );
+
+    DirectBufferContent content = receiver.getContents()[ 0 ];
+    assertEquals( 1, content.getBuffers().length );
+    assertEquals( BUFFER_SIZE, receiver.getDirectMemoryUsage() );
+    assertArrayEquals( data, read( content.openStream() ) );
+  }
+
+  @Test
+  public void testReceive_emptyFile() throws IOException {
+    receiver.receive( new ByteArrayInputStream( new byte[ 0 ] ), null );
+
+    DirectBufferContent content = receiver.getContents()[ 0 ];
+    assertEquals( 0, content.getLength() );
+    assertEquals( 0, content.getBuffers().length );
+    assertEquals( 0, receiver.getDirectMemoryUsage() );
+  }
+
+  @Test
+  public void testDirectMemoryUsage() throws IOException {
+    receiver.receive( new ByteArrayInputStream( createData( BUFFER_SIZE + 1 ) ), null );
+
+    assertEquals( 2 * BUFFER_SIZE, receiver.getDirectMemoryUsage() );
+    assertEquals( 2 * BUFFER_SIZE, budget.getUsed() );
+  }
+
+  @Test
+  public void testDispose_releasesMemory() throws IOException {
+    receiver.receive( new ByteArrayInputStream( createData( BUFFER_SIZE + 1 ) ), null );
+    DirectBufferContent content = receiver.getContents()[ 0 ];
+
+    content.dispose();
+    content.dispose();
+
+    assertTrue( content.isDisposed() );
+    assertEquals( 0, receiver.getDirectMemoryUsage() );
+    assertEquals( 0, budget.getUsed() );
+  }
+
+  @Test
+  public void testDisposeReceiver_releasesMemoryOfAllContents() throws IOException {
+    receiver.receive( new ByteArrayInputStream( createData( BUFFER_SIZE + 1 ) ), null );
+    receiver.receive( new ByteArrayInputStream( createData( 10 ) ), null );
+    DirectBufferContent[] contents = receiver.getContents();
+
+    receiver.dispose();
+
+    assertTrue( contents[ 0 ].isDisposed() );
+    assertTrue( contents[ 1 ].isDisposed() );
+    assertEquals( 0, receiver.getContents().length );
+    assertEquals( 0, receiver.getDirectMemoryUsage() );
+    assertEquals( 0, budget.getUsed() );
+  }
+
+  @Test
+  public void testGetBuffers_afterDispose() throws IOException {
+    receiver.receive( new ByteArrayInputStream( createData( 10 ) ), null );
+    DirectBufferContent content = receiver.getContents()[ 0 ];
+    content.dispose();
+
+    try {
+      content.getBuffers();
+      fail();
+    } catch( IllegalStateException expected ) {
+    }
+  }
+
+  @Test
+  public void testReceive_failsWhenBudgetExhausted() {
+    receiver.setBudgetTimeout( 0 );
+
+    try {
+      receiver.receive( new ByteArrayInputStream( createData( 4 * BUFFER_SIZE + 1 ) ), null );
+      fail();
+    } catch( IOException expected ) {
+    }
+
+    assertEquals( 0, receiver.getContents().length );
+    assertEquals( 0, receiver.getDirectMemoryUsage() );
+    assertEquals( 0, budget.getUsed() );
+  }
+
+  @Test
+  public void testReceive_waitsForReleasedMemory() throws Exception {
+    DirectBufferFileUploadReceiver otherReceiver = new DirectBufferFileUploadReceiver( budget );
+    otherReceiver.receive( new ByteArrayInputStream( createData( 4 * BUFFER_SIZE ) ), null );
+    final DirectBufferContent otherContent = otherReceiver.getContents()[ 0 ];
+    Thread releaser = new Thread( new Runnable() {
+      public void run() {
+        try {
+          Thread.sleep( 50 );
+        } catch( InterruptedException exception ) {
+          Thread.currentThread().interrupt();
+        }
+        otherContent.dispose();
+      }
+    } );
+
+    releaser.start();
+    receiver.receive( new ByteArrayInputStream( createData( 100 ) ), null );
+    releaser.join();
+
+    assertEquals( 1, budget.getWaitCount() );
+    assertEquals( 0, otherReceiver.getDirectMemoryUsage() );
+    assertEquals( BUFFER_SIZE, receiver.getDirectMemoryUsage() );
+  }
+
+  private static byte[] createData( int length ) {
+    byte[] result = new byte[ length ];
+    for( int i = 0; i < length; i++ ) {
+      result[ i ] = ( byte )i;
+    }
+    return result;
+  }
+
+  private static byte[] read( InputStream stream ) throws IOException {
+    ByteArrayOutputStream result = new ByteArrayOutputStream();
+    byte[] bytes = new byte[ 1000 ];
+    int read = stream.read( bytes );
+    while( read != -1 ) {
+      result.write( bytes, 0, read );
+      read = stream.read( bytes );
+    }
+    return result.toByteArray();
+  }
+
+}
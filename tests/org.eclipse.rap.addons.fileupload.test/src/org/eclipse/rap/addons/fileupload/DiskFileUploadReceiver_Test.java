@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2013 EclipseSource and others.
+ * Copyright (c) 2011, 2026 EclipseSource and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,13 +13,25 @@ package org.eclipse.rap.addons.fileupload;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
+import org.eclipse.rap.addons.fileupload.DiskFileUploadReceiver.Durability;
+import org.eclipse.rap.addons.fileupload.internal.DirectorySync;
 import org.eclipse.rap.addons.fileupload.internal.FileDetailsImpl;
+import org.eclipse.rap.addons.fileupload.internal.FsyncStatistics;
+import org.eclipse.rap.addons.fileupload.internal.StreamDigests;
 import org.eclipse.rap.addons.fileupload.test.FileUploadTestUtil;
 import org.junit.After;
 import org.junit.Test;
@@ -29,6 +41,7 @@ public class DiskFileUploadReceiver_Test {
 
   private File createdFile;
   private File createdContentTypeFile;
+  private File storageRoot;
 
   @After
   public void tearDown() {
@@ -40,6 +53,10 @@ public class DiskFileUploadReceiver_Test {
       createdContentTypeFile.delete();
       createdContentTypeFile = null;
     }
+    if( storageRoot != null ) {
+      FileUploadTestUtil.deleteRecursively( storageRoot );
+      storageRoot = null;
+    }
   }
 
   @Test
@@ -49,6 +66,35 @@ public class DiskFileUploadReceiver_Test {
     assertEquals( 0, receiver.getTargetFiles().length );
   }
 
+  @Test
+  public void testDispose_releasesTemporaryDirectories() throws IOException {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+    FileDetails details = new FileDetailsImpl( "foo.bar", "text/plain", 5 );
+    receiver.receive( new ByteArrayInputStream( "Hello".getBytes() ), details );
+    createdFile = receiver.getTargetFiles()[ 0 ];
+
+    receiver.dispose();
+
+    assertEquals( 0, receiver.getTargetFiles().length );
+    assertFalse( UploadCleanupService.getInstance().retain( createdFile ) );
+  }
+
+  @Test
+  public void testDispose_removesMetadataOfDeletedFiles() throws IOException {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+    MemoryFileMetadataStore metadataStore = new MemoryFileMetadataStore();
+    receiver.setMetadataStore( metadataStore );
+    FileDetails details = new FileDetailsImpl( "foo.bar", "text/plain", 5 );
+    receiver.receive( new ByteArrayInputStream( "Hello".getBytes() ), details );
+    createdFile = receiver.getTargetFiles()[ 0 ];
+
+    receiver.dispose();
+    UploadCleanupService.getInstance().cleanUp( System.currentTimeMillis() );
+
+    assertFalse( createdFile.exists() );
+    assertEquals( 0, metadataStore.size() );
+  }
+
   @Test
   public void testCreateTargetFile() throws IOException {
     DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
@@ -104,6 +150,16 @@ public class DiskFileUploadReceiver_Test {
     assertEquals( content, FileUploadTestUtil.getFileContents( createdFile ) );
   }
 
+  @Test
+  public void testReceive_tracksTempDirectory() throws IOException {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+
+    receiver.receive( new ByteArrayInputStream( "Hello world!".getBytes() ), null );
+    createdFile = receiver.getTargetFiles()[ 0 ];
+
+    assertTrue( UploadCleanupService.getInstance().release( createdFile ) );
+  }
+
   @Test
   public void testReceiveWithNullDetails() throws IOException {
     DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
@@ -118,4 +174,576 @@ public class DiskFileUploadReceiver_Test {
     assertEquals( content, FileUploadTestUtil.getFileContents( createdFile ) );
   }
 
+  @Test
+  public void testChannelTransferIsDisabledByDefault() {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+
+    assertFalse( receiver.isChannelTransfer() );
+  }
+
+  @Test
+  public void testSetTransferWindowSize() {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+
+    receiver.setTransferWindowSize( 4096 );
+
+    assertEquals( 4096, receiver.getTransferWindowSize() );
+  }
+
+  @Test
+  public void testSetTransferWindowSizeWithZero() {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+
+    try {
+      receiver.setTransferWindowSize( 0 );
+      fail();
+    } catch( IllegalArgumentException expected ) {
+    }
+  }
+
+  @Test
+  public void testReceiveWithChannelTransfer() throws IOException {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+    receiver.setChannelTransfer( true );
+    receiver.setTransferWindowSize( 5 );
+    String content = "Hello world!";
+
+    FileDetails details = new FileDetailsImpl( "foo.bar", "text/plain", content.length() );
+    receiver.receive( new ByteArrayInputStream( content.getBytes() ), details );
+    createdFile = receiver.getTargetFiles()[ 0 ];
+
+    assertEquals( content, FileUploadTestUtil.getFileContents( createdFile ) );
+    assertEquals( "text/plain", DiskFileUploadReceiver.getContentType( createdFile ) );
+  }
+
+  @Test
+  public void testReceiveEmptyWithChannelTransfer() throws IOException {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+    receiver.setChannelTransfer( true );
+
+    receiver.receive( new ByteArrayInputStream( new byte[ 0 ] ), null );
+    createdFile = receiver.getTargetFiles()[ 0 ];
+
+    assertTrue( createdFile.exists() );
+    assertEquals( 0, createdFile.length() );
+  }
+
+  @Test
+  public void testPreallocationIsDisabledByDefault() {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+
+    assertFalse( receiver.isPreallocation() );
+  }
+
+  @Test
+  public void testReceiveWithPreallocation_truncatesToActualLength() throws IOException {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+    receiver.setPreallocation( true );
+    String content = "Hello world!";
+
+    FileDetails details = new FileDetailsImpl( "foo.bar", "text/plain", 1000 );
+    receiver.receive( new ByteArrayInputStream( content.getBytes() ), details );
+    createdFile = receiver.getTargetFiles()[ 0 ];
+
+    assertEquals( content.length(), createdFile.length() );
+    assertEquals( content, FileUploadTestUtil.getFileContents( createdFile ) );
+  }
+
+  @Test
+  public void testReceiveWithPreallocationAndChannelTransfer() throws IOException {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+    receiver.setPreallocation( true );
+    receiver.setChannelTransfer( true );
+    String content = "Hello world!";
+
+    FileDetails details = new FileDetailsImpl( "foo.bar", "text/plain", 1000 );
+    receiver.receive( new ByteArrayInputStream( content.getBytes() ), details );
+    createdFile = receiver.getTargetFiles()[ 0 ];
+
+    assertEquals( content.length(), createdFile.length() );
+    assertEquals( content, FileUploadTestUtil.getFileContents( createdFile ) );
+  }
+
+  @Test
+  public void testReceiveWithPreallocationAndUnknownLength() throws IOException {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+    receiver.setPreallocation( true );
+    String content = "Hello world!";
+
+    FileDetails details = new FileDetailsImpl( "foo.bar", "text/plain", -1 );
+    receiver.receive( new ByteArrayInputStream( content.getBytes() ), details );
+    createdFile = receiver.getTargetFiles()[ 0 ];
+
+    assertEquals( content, FileUploadTestUtil.getFileContents( createdFile ) );
+  }
+
+  @Test
+  public void testReceiveWithPreallocation_allocatesExpectedLength() throws IOException {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver() {
+      @Override
+      protected File createTargetFile( FileDetails details ) throws IOException {
+        createdFile = super.createTargetFile( details );
+        return createdFile;
+      }
+    };
+    receiver.setPreallocation( true );
+    final long[] lengthWhileReceiving = new long[ 1 ];
+    InputStream inputStream = new ByteArrayInputStream( new byte[ 3 ] ) {
+      @Override
+      public synchronized int read( byte[] bytes, int offset, int length ) {
+        lengthWhileReceiving[ 0 ] = createdFile.length();
+        return super.read( bytes, offset, length );
+      }
+    };
+
+    receiver.receive( inputStream, new FileDetailsImpl( "foo.bar", null, 100000 ) );
+
+    assertEquals( 100000, lengthWhileReceiving[ 0 ] );
+    assertEquals( 3, createdFile.length() );
+  }
+
+  @Test
+  public void testReceive_replacesPreviousContentsOfTargetFile() throws IOException {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver() {
+      @Override
+      protected File createTargetFile( FileDetails details ) throws IOException {
+        createdFile = super.createTargetFile( details );
+        FileOutputStream outputStream = new FileOutputStream( createdFile );
+        outputStream.write( "previous contents".getBytes() );
+        outputStream.close();
+        return createdFile;
+      }
+    };
+
+    receiver.receive( new ByteArrayInputStream( "new".getBytes() ), null );
+
+    assertEquals( "new", FileUploadTestUtil.getFileContents( createdFile ) );
+  }
+
+  @Test
+  public void testReceiveWithPreallocation_truncatesOnFailure() {
+    DiskFileUploadReceiver receiver = createFailingPreallocatingReceiver();
+
+    try {
+      receiver.receive( new FailingInputStream(), new FileDetailsImpl( "foo.bar", null, 1000 ) );
+      fail();
+    } catch( IOException expected ) {
+    }
+
+    assertEquals( 2, createdFile.length() );
+  }
+
+  @Test
+  public void testReceiveWithPreallocationAndChannelTransfer_truncatesOnFailure() {
+    DiskFileUploadReceiver receiver = createFailingPreallocatingReceiver();
+    receiver.setChannelTransfer( true );
+
+    try {
+      receiver.receive( new FailingInputStream(), new FileDetailsImpl( "foo.bar", null, 1000 ) );
+      fail();
+    } catch( IOException expected ) {
+    }
+
+    assertTrue( createdFile.length() < 1000 );
+  }
+
+  @Test
+  public void testStorageRootIsNullByDefault() {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+
+    assertNull( receiver.getStorageRoot() );
+  }
+
+  @Test
+  public void testSetStorageRoot() {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+    storageRoot = FileUploadTestUtil.createTempDirectory();
+
+    receiver.setStorageRoot( storageRoot );
+
+    assertEquals( storageRoot, receiver.getStorageRoot() );
+  }
+
+  @Test
+  public void testCreateTargetFileWithStorageRoot() throws IOException {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+    storageRoot = FileUploadTestUtil.createTempDirectory();
+    receiver.setStorageRoot( storageRoot );
+
+    FileDetails details = new FileDetailsImpl( "foo.bar", "text/plain", 5 );
+    File targetFile = receiver.createTargetFile( details );
+
+    assertTrue( targetFile.exists() );
+    assertTrue( targetFile.getName().endsWith( "-foo.bar" ) );
+    assertEquals( storageRoot, targetFile.getParentFile().getParentFile().getParentFile() );
+  }
+
+  @Test
+  public void testCreatedTargetFilesDifferWithStorageRoot() throws IOException {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+    storageRoot = FileUploadTestUtil.createTempDirectory();
+    receiver.setStorageRoot( storageRoot );
+
+    FileDetails details = new FileDetailsImpl( "foo.bar", "text/plain", 5 );
+    File targetFile1 = receiver.createTargetFile( details );
+    File targetFile2 = receiver.createTargetFile( details );
+
+    assertFalse( targetFile1.equals( targetFile2 ) );
+  }
+
+  @Test
+  public void testReceiveWithStorageRoot() throws IOException {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+    storageRoot = FileUploadTestUtil.createTempDirectory();
+    receiver.setStorageRoot( storageRoot );
+    String content = "Hello world!";
+
+    FileDetails details = new FileDetailsImpl( "foo.bar", "text/plain", content.length() );
+    receiver.receive( new ByteArrayInputStream( content.getBytes() ), details );
+    receiver.receive( new ByteArrayInputStream( content.getBytes() ), details );
+    File[] targetFiles = receiver.getTargetFiles();
+
+    assertEquals( 2, targetFiles.length );
+    assertEquals( content, FileUploadTestUtil.getFileContents( targetFiles[ 0 ] ) );
+    assertEquals( content, FileUploadTestUtil.getFileContents( targetFiles[ 1 ] ) );
+    assertEquals( "text/plain", DiskFileUploadReceiver.getContentType( targetFiles[ 0 ] ) );
+    assertEquals( "text/plain", DiskFileUploadReceiver.getContentType( targetFiles[ 1 ] ) );
+  }
+
+  @Test
+  public void testReceiveWithStorageRoot_doesNotCreateDirectoryPerFile() throws IOException {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+    storageRoot = FileUploadTestUtil.createTempDirectory();
+    receiver.setStorageRoot( storageRoot );
+
+    for( int i = 0; i < 10; i++ ) {
+      receiver.receive( new ByteArrayInputStream( new byte[ 1 ] ), null );
+    }
+
+    for( File targetFile : receiver.getTargetFiles() ) {
+      assertTrue( targetFile.getName().endsWith( "-upload.tmp" ) );
+      assertEquals( storageRoot, targetFile.getParentFile().getParentFile().getParentFile() );
+    }
+  }
+
+  @Test
+  public void testSetStorageRootToNull_restoresTempDirectories() throws IOException {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+    storageRoot = FileUploadTestUtil.createTempDirectory();
+    receiver.setStorageRoot( storageRoot );
+
+    receiver.setStorageRoot( null );
+    createdFile = receiver.createTargetFile( new FileDetailsImpl( "foo.bar", "text/plain", 5 ) );
+
+    assertEquals( "foo.bar", createdFile.getName() );
+  }
+
+  @Test
+  public void testMetadataStoreIsNullByDefault() {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+
+    assertNull( receiver.getMetadataStore() );
+  }
+
+  @Test
+  public void testReceiveWithMetadataStore() throws IOException {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+    storageRoot = FileUploadTestUtil.createTempDirectory();
+    receiver.setStorageRoot( storageRoot );
+    MemoryFileMetadataStore metadataStore = new MemoryFileMetadataStore();
+    receiver.setMetadataStore( metadataStore );
+    String content = "Hello world!";
+
+    FileDetails details = new FileDetailsImpl( "foo.bar", "text/plain", content.length() );
+    receiver.receive( new ByteArrayInputStream( content.getBytes() ), details );
+    File targetFile = receiver.getTargetFiles()[ 0 ];
+    FileMetadata metadata = metadataStore.get( targetFile );
+
+    assertEquals( "foo.bar", metadata.getFileName() );
+    assertEquals( "text/plain", metadata.getContentType() );
+    assertEquals( content.length(), metadata.getSize() );
+    assertTrue( metadata.getDigests().isEmpty() );
+  }
+
+  @Test
+  public void testReceiveWithMetadataStore_doesNotCreateContentTypeFile() throws IOException {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+    storageRoot = FileUploadTestUtil.createTempDirectory();
+    receiver.setStorageRoot( storageRoot );
+    receiver.setMetadataStore( new MemoryFileMetadataStore() );
+
+    FileDetails details = new FileDetailsImpl( "foo.bar", "text/plain", 1 );
+    receiver.receive( new ByteArrayInputStream( new byte[ 1 ] ), details );
+    File targetFile = receiver.getTargetFiles()[ 0 ];
+
+    assertEquals( 1, targetFile.getParentFile().listFiles().length );
+    assertNull( DiskFileUploadReceiver.getContentType( targetFile ) );
+  }
+
+  @Test
+  public void testReceiveWithMetadataStoreAndNullDetails() throws IOException {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+    storageRoot = FileUploadTestUtil.createTempDirectory();
+    receiver.setStorageRoot( storageRoot );
+    MemoryFileMetadataStore metadataStore = new MemoryFileMetadataStore();
+    receiver.setMetadataStore( metadataStore );
+
+    receiver.receive( new ByteArrayInputStream( new byte[ 3 ] ), null );
+    FileMetadata metadata = metadataStore.get( receiver.getTargetFiles()[ 0 ] );
+
+    assertNull( metadata.getFileName() );
+    assertNull( metadata.getContentType() );
+    assertEquals( 3, metadata.getSize() );
+  }
+
+  @Test
+  public void testDigestAlgorithmsAreEmptyByDefault() {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+
+    assertEquals( 0, receiver.getDigestAlgorithms().length );
+  }
+
+  @Test
+  public void testSetDigestAlgorithmsWithUnknownAlgorithm() {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+
+    try {
+      receiver.setDigestAlgorithms( "foo" );
+      fail();
+    } catch( IllegalArgumentException expected ) {
+    }
+  }
+
+  @Test
+  public void testReceiveWithMetadataStore_computesDigests() throws IOException {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+    storageRoot = FileUploadTestUtil.createTempDirectory();
+    receiver.setStorageRoot( storageRoot );
+    MemoryFileMetadataStore metadataStore = new MemoryFileMetadataStore();
+    receiver.setMetadataStore( metadataStore );
+    receiver.setDigestAlgorithms( "MD5", "SHA-1" );
+    receiver.setChannelTransfer( true );
+
+    receiver.receive( new ByteArrayInputStream( "abc".getBytes( "UTF-8" ) ), null );
+    FileMetadata metadata = metadataStore.get( receiver.getTargetFiles()[ 0 ] );
+
+    assertEquals( "900150983cd24fb0d6963f7d28e17f72", metadata.getDigest( "MD5" ) );
+    assertEquals( "a9993e364706816aba3e25717850c26c9cd0d89d", metadata.getDigest( "SHA-1" ) );
+  }
+
+  @Test
+  public void testReceiveWithMetadataStore_reusesDigestsOfHandler() throws IOException {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+    storageRoot = FileUploadTestUtil.createTempDirectory();
+    receiver.setStorageRoot( storageRoot );
+    MemoryFileMetadataStore metadataStore = new MemoryFileMetadataStore();
+    receiver.setMetadataStore( metadataStore );
+    receiver.setDigestAlgorithms( "MD5", "SHA-1" );
+    StreamDigests handlerDigests = new StreamDigests( new String[] { "MD5" } );
+    FileDetails details = new FileDetailsImpl( "abc.txt", "text/plain", 3, handlerDigests );
+    InputStream stream = new ByteArrayInputStream( "abc".getBytes( "UTF-8" ) );
+
+    receiver.receive( handlerDigests.wrap( stream ), details );
+    FileMetadata metadata = metadataStore.get( receiver.getTargetFiles()[ 0 ] );
+
+    assertSame( handlerDigests.getHexDigests().get( "MD5" ), metadata.getDigest( "MD5" ) );
+    assertEquals( "900150983cd24fb0d6963f7d28e17f72", metadata.getDigest( "MD5" ) );
+    assertEquals( "a9993e364706816aba3e25717850c26c9cd0d89d", metadata.getDigest( "SHA-1" ) );
+  }
+
+  @Test
+  public void testDurabilityIsNoneByDefault() {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+
+    assertEquals( Durability.NONE, receiver.getDurability() );
+  }
+
+  @Test
+  public void testSetDurabilityWithNull() {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+
+    try {
+      receiver.setDurability( null );
+      fail();
+    } catch( NullPointerException expected ) {
+    }
+  }
+
+  @Test
+  public void testReceiveWithFsync() throws IOException {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+    receiver.setDurability( Durability.FSYNC );
+    long fsyncCount = FsyncStatistics.getInstance().getFsyncCount();
+    String content = "Hello world!";
+
+    receiver.receive( new ByteArrayInputStream( content.getBytes() ), null );
+    createdFile = receiver.getTargetFiles()[ 0 ];
+
+    // the directory is forced as well, unless the platform does not support this
+    int directorySyncs = DirectorySync.sync( createdFile.getParentFile() ) ? 1 : 0;
+    assertEquals( content, FileUploadTestUtil.getFileContents( createdFile ) );
+    assertEquals( fsyncCount + 1 + directorySyncs, FsyncStatistics.getInstance().getFsyncCount() );
+  }
+
+  @Test
+  public void testStagingIsDisabledByDefault() {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+
+    assertFalse( receiver.isStaging() );
+  }
+
+  @Test
+  public void testReceiveWithStaging() throws IOException {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+    receiver.setStaging( true );
+    String content = "Hello world!";
+
+    FileDetails details = new FileDetailsImpl( "foo.bar", "text/plain", content.length() );
+    receiver.receive( new ByteArrayInputStream( content.getBytes() ), details );
+    createdFile = receiver.getTargetFiles()[ 0 ];
+    createdContentTypeFile = new File( createdFile.getParentFile(), "content-type.tmp" );
+
+    assertEquals( "foo.bar", createdFile.getName() );
+    assertEquals( content, FileUploadTestUtil.getFileContents( createdFile ) );
+    assertEquals( "text/plain", DiskFileUploadReceiver.getContentType( createdFile ) );
+    assertEquals( 2, createdFile.getParentFile().listFiles().length );
+  }
+
+  @Test
+  public void testReceiveWithStagingAndFsync() throws IOException {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+    receiver.setStaging( true );
+    receiver.setDurability( Durability.FSYNC );
+    long fsyncCount = FsyncStatistics.getInstance().getFsyncCount();
+    String content = "Hello world!";
+
+    receiver.receive( new ByteArrayInputStream( content.getBytes() ), null );
+    createdFile = receiver.getTargetFiles()[ 0 ];
+
+    // the directory is forced after the rename, unless the platform does not support this
+    int directorySyncs = DirectorySync.sync( createdFile.getParentFile() ) ? 1 : 0;
+    assertEquals( content, FileUploadTestUtil.getFileContents( createdFile ) );
+    assertEquals( fsyncCount + 1 + directorySyncs, FsyncStatistics.getInstance().getFsyncCount() );
+  }
+
+  @Test
+  public void testReceiveWithStaging_writesToStagingFile() throws IOException {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+    storageRoot = FileUploadTestUtil.createTempDirectory();
+    receiver.setStorageRoot( storageRoot );
+    receiver.setStaging( true );
+    final List<String> fileNames = new ArrayList<String>();
+    InputStream inputStream = new ByteArrayInputStream( new byte[ 3 ] ) {
+      @Override
+      public synchronized int read( byte[] bytes, int offset, int length ) {
+        if( fileNames.isEmpty() ) {
+          fileNames.addAll( listFiles( storageRoot ) );
+        }
+        return super.read( bytes, offset, length );
+      }
+    };
+
+    receiver.receive( inputStream, new FileDetailsImpl( "foo.bar", null, 3 ) );
+    File targetFile = receiver.getTargetFiles()[ 0 ];
+
+    assertEquals( 1, fileNames.size() );
+    assertEquals( targetFile.getName() + ".part", fileNames.get( 0 ) );
+    assertEquals( Arrays.asList( targetFile.getName() ), listFiles( storageRoot ) );
+  }
+
+  @Test
+  public void testReceiveWithStaging_discardsStagingFileOnFailure() throws IOException {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+    storageRoot = FileUploadTestUtil.createTempDirectory();
+    receiver.setStorageRoot( storageRoot );
+    receiver.setStaging( true );
+
+    try {
+      receiver.receive( new FailingInputStream(), new FileDetailsImpl( "foo.bar", null, 3 ) );
+      fail();
+    } catch( IOException expected ) {
+    }
+
+    assertEquals( 0, receiver.getTargetFiles().length );
+    assertTrue( listFiles( storageRoot ).isEmpty() );
+  }
+
+  @Test
+  public void testReceiveWithStaging_discardsTempDirectoryOnFailure() {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+    receiver.setStaging( true );
+    int trackedCount = UploadCleanupService.getInstance().getTrackedCount();
+
+    try {
+      receiver.receive( new FailingInputStream(), null );
+      fail();
+    } catch( IOException expected ) {
+    }
+
+    assertEquals( trackedCount, UploadCleanupService.getInstance().getTrackedCount() );
+  }
+
+  @Test
+  public void testReceiveWithStaging_removesMetadataOnFailure() throws IOException {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+    storageRoot = FileUploadTestUtil.createTempDirectory();
+    receiver.setStorageRoot( storageRoot );
+    receiver.setStaging( true );
+    MemoryFileMetadataStore metadataStore = new MemoryFileMetadataStore() {
+      @Override
+      public void put( File file, FileMetadata metadata ) {
+        super.put( file, metadata );
+        // prevents the staging file from being renamed
+        file.mkdir();
+      }
+    };
+    receiver.setMetadataStore( metadataStore );
+
+    try {
+      receiver.receive( new ByteArrayInputStream( new byte[ 3 ] ), null );
+      fail();
+    } catch( IOException expected ) {
+    }
+
+    assertEquals( 0, metadataStore.size() );
+  }
+
+  private DiskFileUploadReceiver createFailingPreallocatingReceiver() {
+    DiskFileUploadReceiver result = new DiskFileUploadReceiver() {
+      @Override
+      protected File createTargetFile( FileDetails details ) throws IOException {
+        createdFile = super.createTargetFile( details );
+        return createdFile;
+      }
+    };
+    result.setPreallocation( true );
+    return result;
+  }
+
+  private static List<String> listFiles( File directory ) {
+    List<String> result = new ArrayList<String>();
+    for( File file : directory.listFiles() ) {
+      if( file.isDirectory() ) {
+        result.addAll( listFiles( file ) );
+      } else {
+        result.add( file.getName() );
+      }
+    }
+    return result;
+  }
+
+  private static class FailingInputStream extends InputStream {
+
+    private int count;
+
+    @Override
+    public int read() throws IOException {
+      if( ++count > 2 ) {
+        throw new IOException( "Connection reset" );
+      }
+      return 0;
+    }
+
+  }
+
 }
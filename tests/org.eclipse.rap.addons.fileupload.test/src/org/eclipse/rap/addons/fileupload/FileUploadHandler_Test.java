@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2014 EclipseSource and others.
+ * Copyright (c) 2011, 2026 EclipseSource and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,13 +12,17 @@ package org.eclipse.rap.addons.fileupload;
 
 import static org.eclipse.rap.rwt.internal.service.ContextProvider.getApplicationContext;
 import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -86,6 +90,23 @@ public class FileUploadHandler_Test {
     assertNull( getRegisteredHandler( handler.getToken() ) );
   }
 
+  @Test
+  public void testDispose_keepsReceivedFiles() throws IOException {
+    DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+    FileUploadHandler handler = new FileUploadHandler( receiver );
+    receiver.receive( new ByteArrayInputStream( new byte[ 10 ] ), null );
+    File file = receiver.getTargetFiles()[ 0 ];
+
+    handler.dispose();
+    UploadCleanupService.getInstance().cleanUp( System.currentTimeMillis() );
+
+    try {
+      assertTrue( file.exists() );
+    } finally {
+      receiver.dispose();
+    }
+  }
+
   @Test
   public void testGetReceiver() {
     FileUploadReceiver receiver = new TestFileUploadReceiver();
@@ -181,6 +202,154 @@ public class FileUploadHandler_Test {
     assertEquals( "", anotherUploadListener.getLog() );
   }
 
+  @Test
+  public void testGetDigestAlgorithms_defaultIsEmpty() {
+    assertEquals( 0, handler.getDigestAlgorithms().length );
+  }
+
+  @Test
+  public void testSetDigestAlgorithms() {
+    handler.setDigestAlgorithms( "SHA-256", "MD5" );
+
+    assertArrayEquals( new String[] { "SHA-256", "MD5" }, handler.getDigestAlgorithms() );
+  }
+
+  @Test
+  public void testSetDigestAlgorithmsWithNull() {
+    try {
+      handler.setDigestAlgorithms( ( String[] )null );
+      fail();
+    } catch( NullPointerException expected ) {
+    }
+  }
+
+  @Test
+  public void testSetDigestAlgorithmsWithUnknownAlgorithm() {
+    try {
+      handler.setDigestAlgorithms( "SHA-256", "unknown" );
+      fail();
+    } catch( IllegalArgumentException expected ) {
+    }
+    assertEquals( 0, handler.getDigestAlgorithms().length );
+  }
+
+  @Test
+  public void testProgressThresholds_defaultIsZero() {
+    assertEquals( 0, handler.getProgressInterval() );
+    assertEquals( 0, handler.getProgressByteThreshold() );
+    assertEquals( 0, handler.getProgressPercentThreshold() );
+  }
+
+  @Test
+  public void testSetProgressThresholds() {
+    handler.setProgressInterval( 100 );
+    handler.setProgressByteThreshold( 4096 );
+    handler.setProgressPercentThreshold( 5 );
+
+    assertEquals( 100, handler.getProgressInterval() );
+    assertEquals( 4096, handler.getProgressByteThreshold() );
+    assertEquals( 5, handler.getProgressPercentThreshold() );
+  }
+
+  @Test
+  public void testSetProgressIntervalWithNegativeValue() {
+    try {
+      handler.setProgressInterval( -1 );
+      fail();
+    } catch( IllegalArgumentException expected ) {
+    }
+  }
+
+  @Test
+  public void testSetProgressPercentThresholdWithInvalidValue() {
+    try {
+      handler.setProgressPercentThreshold( 101 );
+      fail();
+    } catch( IllegalArgumentException expected ) {
+    }
+  }
+
+  @Test
+  public void testAsyncTimeout_defaultValue() {
+    FileUploadHandler handler = new FileUploadHandler( new TestFileUploadReceiver() );
+
+    assertEquals( 10 * 60 * 1000, handler.getAsyncTimeout() );
+  }
+
+  @Test
+  public void testSetAsyncTimeout() {
+    FileUploadHandler handler = new FileUploadHandler( new TestFileUploadReceiver() );
+
+    handler.setAsyncTimeout( 60000 );
+
+    assertEquals( 60000, handler.getAsyncTimeout() );
+  }
+
+  @Test
+  public void testSetAsyncTimeoutWithZero() {
+    FileUploadHandler handler = new FileUploadHandler( new TestFileUploadReceiver() );
+
+    try {
+      handler.setAsyncTimeout( 0 );
+      fail();
+    } catch( IllegalArgumentException expected ) {
+    }
+  }
+
+  @Test
+  public void testIdleTimeout_defaultValue() {
+    FileUploadHandler handler = new FileUploadHandler( new TestFileUploadReceiver() );
+
+    assertEquals( 0, handler.getIdleTimeout() );
+  }
+
+  @Test
+  public void testSetIdleTimeout() {
+    FileUploadHandler handler = new FileUploadHandler( new TestFileUploadReceiver() );
+
+    handler.setIdleTimeout( 60000 );
+
+    assertEquals( 60000, handler.getIdleTimeout() );
+  }
+
+  @Test
+  public void testSetIdleTimeoutWithNegativeValue() {
+    FileUploadHandler handler = new FileUploadHandler( new TestFileUploadReceiver() );
+
+    try {
+      handler.setIdleTimeout( -1 );
+      fail();
+    } catch( IllegalArgumentException expected ) {
+    }
+  }
+
+  @Test
+  public void testMaxBandwidth_defaultValue() {
+    FileUploadHandler handler = new FileUploadHandler( new TestFileUploadReceiver() );
+
+    assertEquals( 0, handler.getMaxBandwidth() );
+  }
+
+  @Test
+  public void testSetMaxBandwidth() {
+    FileUploadHandler handler = new FileUploadHandler( new TestFileUploadReceiver() );
+
+    handler.setMaxBandwidth( 1024 * 1024 );
+
+    assertEquals( 1024 * 1024, handler.getMaxBandwidth() );
+  }
+
+  @Test
+  public void testSetMaxBandwidthWithNegativeValue() {
+    FileUploadHandler handler = new FileUploadHandler( new TestFileUploadReceiver() );
+
+    try {
+      handler.setMaxBandwidth( -1 );
+      fail();
+    } catch( IllegalArgumentException expected ) {
+    }
+  }
+
   @Test
   public void testUpload() throws IOException, ServletException {
     TestFileUploadReceiver receiver = new TestFileUploadReceiver();
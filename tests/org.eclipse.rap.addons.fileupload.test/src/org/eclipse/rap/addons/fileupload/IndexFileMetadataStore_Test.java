@@ -0,0 +1,309 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.rap.addons.fileupload.test.FileUploadTestUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class IndexFileMetadataStore_Test {
+
+  private File storageRoot;
+  private IndexFileMetadataStore store;
+
+  @Before
+  public void setUp() throws IOException {
+    storageRoot = FileUploadTestUtil.createTempDirectory();
+    store = new IndexFileMetadataStore( storageRoot );
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    store.close();
+    FileUploadTestUtil.deleteRecursively( storageRoot );
+  }
+
+  @Test
+  public void testCreatesIndexFile() {
+    File indexFile = new File( storageRoot, IndexFileMetadataStore.INDEX_FILE_NAME );
+
+    assertEquals( indexFile, store.getIndexFile() );
+    assertTrue( indexFile.exists() );
+  }
+
+  @Test
+  public void testCreatesStorageRoot() throws IOException {
+    File root = new File( storageRoot, "sub" );
+
+    IndexFileMetadataStore subStore = new IndexFileMetadataStore( root );
+    subStore.close();
+
+    assertTrue( subStore.getIndexFile().exists() );
+  }
+
+  @Test
+  public void testCreateWithNullStorageRoot() throws IOException {
+    try {
+      new IndexFileMetadataStore( null );
+      fail();
+    } catch( NullPointerException expected ) {
+    }
+  }
+
+  @Test
+  public void testPut() throws IOException {
+    File file = new File( storageRoot, "ab/cd/foo" );
+
+    store.put( file, new FileMetadata( "foo.txt", "text/plain", 10, null ) );
+
+    assertEquals( "foo.txt", store.get( file ).getFileName() );
+    assertEquals( 1, store.size() );
+  }
+
+  @Test
+  public void testReload() throws IOException {
+    File file = new File( storageRoot, "ab/cd/foo" );
+    Map<String, String> digests = new HashMap<String, String>();
+    digests.put( "MD5", "900150983cd24fb0d6963f7d28e17f72" );
+    digests.put( "SHA-1", "a9993e364706816aba3e25717850c26c9cd0d89d" );
+    store.put( file, new FileMetadata( "foo.txt", "text/plain", 10, digests ) );
+
+    FileMetadata metadata = reload().get( file );
+
+    assertEquals( "foo.txt", metadata.getFileName() );
+    assertEquals( "text/plain", metadata.getContentType() );
+    assertEquals( 10, metadata.getSize() );
+    assertEquals( digests, metadata.getDigests() );
+  }
+
+  @Test
+  public void testReload_withSpecialCharacters() throws IOException {
+    File file = new File( storageRoot, "foo\tbar" );
+    String fileName = "a\tb\nc\rd\\e,f\\0";
+    store.put( file, new FileMetadata( fileName, null, 0, null ) );
+
+    FileMetadata metadata = reload().get( file );
+
+    assertEquals( fileName, metadata.getFileName() );
+    assertNull( metadata.getContentType() );
+  }
+
+  @Test
+  public void testReload_withFileOutsideStorageRoot() throws IOException {
+    File file = new File( storageRoot.getParentFile(), "foo" );
+    store.put( file, new FileMetadata( "foo.txt", "text/plain", 10, null ) );
+
+    assertEquals( "foo.txt", reload().get( file ).getFileName() );
+  }
+
+  @Test
+  public void testReload_afterStorageRootMoved() throws IOException {
+    store.put( new File( storageRoot, "ab/foo" ), new FileMetadata( "foo.txt", null, 10, null ) );
+    store.close();
+    File movedRoot = FileUploadTestUtil.createTempDirectory();
+    movedRoot.delete();
+    storageRoot.renameTo( movedRoot );
+    storageRoot = movedRoot;
+
+    store = new IndexFileMetadataStore( movedRoot );
+
+    assertEquals( "foo.txt", store.get( new File( movedRoot, "ab/foo" ) ).getFileName() );
+  }
+
+  @Test
+  public void testRemove() throws IOException {
+    File file = new File( storageRoot, "foo" );
+    store.put( file, new FileMetadata( "foo.txt", "text/plain", 10, null ) );
+
+    store.remove( file );
+
+    assertNull( store.get( file ) );
+    assertNull( reload().get( file ) );
+  }
+
+  @Test
+  public void testRemove_unknownFileDoesNotGrowIndex() throws IOException {
+    long length = store.getIndexFile().length();
+
+    store.remove( new File( storageRoot, "foo" ) );
+
+    assertEquals( length, store.getIndexFile().length() );
+  }
+
+  @Test
+  public void testReload_skipsTruncatedLine() throws IOException {
+    File file = new File( storageRoot, "foo" );
+    store.put( file, new FileMetadata( "foo.txt", "text/plain", 10, null ) );
+    store.close();
+    append( store.getIndexFile(), "+\tbar\t1" );
+
+    store = new IndexFileMetadataStore( storageRoot );
+
+    assertEquals( 1, store.size() );
+    assertEquals( "foo.txt", store.get( file ).getFileName() );
+  }
+
+  @Test
+  public void testReload_discardsParsableTruncatedLine() throws IOException {
+    store.close();
+    append( store.getIndexFile(), "+\tbar\t1\tbar.txt\ttext/plain\tMD5=90015" );
+
+    store = new IndexFileMetadataStore( storageRoot );
+
+    assertEquals( 0, store.size() );
+    assertEquals( 0, store.getIndexFile().length() );
+  }
+
+  @Test
+  public void testPut_afterTruncatedLine() throws IOException {
+    File file = new File( storageRoot, "foo" );
+    store.put( file, new FileMetadata( "foo.txt", "text/plain", 10, null ) );
+    store.close();
+    append( store.getIndexFile(), "+\tbar\t1" );
+    store = new IndexFileMetadataStore( storageRoot );
+    File otherFile = new File( storageRoot, "baz" );
+
+    store.put( otherFile, new FileMetadata( "baz.txt", "text/plain", 20, null ) );
+    IndexFileMetadataStore reloadedStore = reload();
+
+    assertEquals( 2, reloadedStore.size() );
+    assertEquals( "foo.txt", reloadedStore.get( file ).getFileName() );
+    assertEquals( "baz.txt", reloadedStore.get( otherFile ).getFileName() );
+  }
+
+  @Test
+  public void testCompact() throws IOException {
+    File file = new File( storageRoot, "foo" );
+    for( int i = 0; i < 10; i++ ) {
+      store.put( new File( storageRoot, "bar" + i ), new FileMetadata( "bar", null, i, null ) );
+      store.remove( new File( storageRoot, "bar" + i ) );
+    }
+    store.put( file, new FileMetadata( "foo.txt", "text/plain", 10, null ) );
+    long length = store.getIndexFile().length();
+
+    store.compact();
+
+    assertTrue( store.getIndexFile().length() < length );
+    assertEquals( "foo.txt", store.get( file ).getFileName() );
+    assertEquals( 1, reload().size() );
+  }
+
+  @Test
+  public void testCompact_replacesIndexFile() throws IOException {
+    store.put( new File( storageRoot, "foo" ), new FileMetadata( "foo.txt", null, 10, null ) );
+
+    store.compact();
+
+    assertTrue( store.getIndexFile().exists() );
+    assertFalse( getCompactedFile().exists() );
+  }
+
+  @Test
+  public void testCompact_failureKeepsStoreWritable() throws IOException {
+    File file = new File( storageRoot, "foo" );
+    // the compacted file cannot be written if a directory is in its place
+    getCompactedFile().mkdir();
+
+    try {
+      store.compact();
+      fail();
+    } catch( IOException expected ) {
+    }
+    store.put( file, new FileMetadata( "foo.txt", null, 10, null ) );
+    getCompactedFile().delete();
+
+    assertEquals( "foo.txt", reload().get( file ).getFileName() );
+  }
+
+  @Test
+  public void testRecoversFromCompactedFile() throws IOException {
+    File file = new File( storageRoot, "foo" );
+    store.put( file, new FileMetadata( "foo.txt", null, 10, null ) );
+    store.close();
+    // a compaction that was interrupted after the index file has been deleted
+    store.getIndexFile().renameTo( getCompactedFile() );
+
+    store = new IndexFileMetadataStore( storageRoot );
+
+    assertEquals( "foo.txt", store.get( file ).getFileName() );
+    assertTrue( store.getIndexFile().exists() );
+    assertFalse( getCompactedFile().exists() );
+  }
+
+  @Test
+  public void testDiscardsIncompleteCompactedFile() throws IOException {
+    File file = new File( storageRoot, "foo" );
+    store.put( file, new FileMetadata( "foo.txt", null, 10, null ) );
+    store.close();
+    // a compaction that was interrupted while the compacted file was written
+    append( getCompactedFile(), "+\tbar\t10" );
+
+    store = new IndexFileMetadataStore( storageRoot );
+
+    assertEquals( 1, store.size() );
+    assertEquals( "foo.txt", store.get( file ).getFileName() );
+    assertFalse( getCompactedFile().exists() );
+  }
+
+  @Test
+  public void testPut_afterCompact() throws IOException {
+    store.compact();
+
+    store.put( new File( storageRoot, "foo" ), new FileMetadata( "foo.txt", null, 10, null ) );
+
+    assertEquals( 1, reload().size() );
+  }
+
+  @Test
+  public void testPut_afterClose() throws IOException {
+    store.close();
+
+    try {
+      store.put( new File( storageRoot, "foo" ), new FileMetadata( "foo.txt", null, 10, null ) );
+      fail();
+    } catch( IOException expected ) {
+    }
+  }
+
+  private File getCompactedFile() {
+    return new File( storageRoot, IndexFileMetadataStore.INDEX_FILE_NAME + ".tmp" );
+  }
+
+  private IndexFileMetadataStore reload() throws IOException {
+    store.close();
+    store = new IndexFileMetadataStore( storageRoot );
+    return store;
+  }
+
+  private static void append( File file, String text ) throws IOException {
+    FileOutputStream outputStream = new FileOutputStream( file, true );
+    try {
+      outputStream.write( text.getBytes( "UTF-8" ) );
+    } finally {
+      outputStream.close();
+    }
+  }
+
+}
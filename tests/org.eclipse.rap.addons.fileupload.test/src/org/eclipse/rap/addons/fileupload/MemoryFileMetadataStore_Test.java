@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class MemoryFileMetadataStore_Test {
+
+  private MemoryFileMetadataStore store;
+
+  @Before
+  public void setUp() {
+    store = new MemoryFileMetadataStore();
+  }
+
+  @Test
+  public void testGetUnknownFile() {
+    assertNull( store.get( new File( "foo" ) ) );
+  }
+
+  @Test
+  public void testGetNull() {
+    assertNull( store.get( null ) );
+  }
+
+  @Test
+  public void testPut() {
+    FileMetadata metadata = new FileMetadata( "foo.txt", "text/plain", 10, null );
+
+    store.put( new File( "foo" ), metadata );
+
+    assertSame( metadata, store.get( new File( "foo" ) ) );
+    assertEquals( 1, store.size() );
+  }
+
+  @Test
+  public void testPut_resolvesRelativePaths() {
+    FileMetadata metadata = new FileMetadata( "foo.txt", "text/plain", 10, null );
+
+    store.put( new File( "foo" ), metadata );
+
+    assertSame( metadata, store.get( new File( "foo" ).getAbsoluteFile() ) );
+  }
+
+  @Test
+  public void testPut_replacesMetadata() {
+    FileMetadata metadata = new FileMetadata( "bar.txt", "text/plain", 20, null );
+    store.put( new File( "foo" ), new FileMetadata( "foo.txt", "text/plain", 10, null ) );
+
+    store.put( new File( "foo" ), metadata );
+
+    assertSame( metadata, store.get( new File( "foo" ) ) );
+    assertEquals( 1, store.size() );
+  }
+
+  @Test
+  public void testPutWithNullFile() {
+    try {
+      store.put( null, new FileMetadata( "foo.txt", "text/plain", 10, null ) );
+      fail();
+    } catch( NullPointerException expected ) {
+    }
+  }
+
+  @Test
+  public void testPutWithNullMetadata() {
+    try {
+      store.put( new File( "foo" ), null );
+      fail();
+    } catch( NullPointerException expected ) {
+    }
+  }
+
+  @Test
+  public void testRemove() {
+    store.put( new File( "foo" ), new FileMetadata( "foo.txt", "text/plain", 10, null ) );
+
+    store.remove( new File( "foo" ) );
+
+    assertNull( store.get( new File( "foo" ) ) );
+    assertEquals( 0, store.size() );
+  }
+
+}
@@ -0,0 +1,358 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.eclipse.rap.addons.fileupload.internal.FileDetailsImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class MemoryFileUploadReceiver_Test {
+
+  private MemoryFileUploadReceiver receiver;
+
+  @Before
+  public void setUp() {
+    receiver = new MemoryFileUploadReceiver( 16 );
+  }
+
+  @After
+  public void tearDown() {
+    for( ReceivedContent content : receiver.getContents() ) {
+      content.dispose();
+    }
+  }
+
+  @Test
+  public void testCreateWithNegativeThreshold() {
+    try {
+      new MemoryFileUploadReceiver( -1 );
+      fail();
+    } catch( IllegalArgumentException expected ) {
+    }
+  }
+
+  @Test
+  public void testDefaultThreshold() {
+    MemoryFileUploadReceiver receiver = new MemoryFileUploadReceiver();
+
+    assertEquals( MemoryFileUploadReceiver.DEFAULT_THRESHOLD, receiver.getThreshold() );
+  }
+
+  @Test
+  public void testSetThresholdWithNegativeValue() {
+    try {
+      receiver.setThreshold( -1 );
+      fail();
+    } catch( IllegalArgumentException expected ) {
+    }
+  }
+
+  @Test
+  public void testInitialGetContents() {
+    assertEquals( 0, receiver.getContents().length );
+  }
+
+  @Test
+  public void testReceive_keepsSmallFileInMemory() throws IOException {
+    FileDetails details = new FileDetailsImpl( "foo.txt", "text/plain", 11 );
+
+    receiver.receive( createStream( "Lorem ipsum" ), details );
+
+    ReceivedContent content = receiver.getContents()[ 0 ];
+    assertTrue( content.isInMemory() );
+    assertNull( content.getFile() );
+    assertSame( details, content.getFileDetails() );
+    assertEquals( 11, content.getLength() );
+    assertEquals( "Lorem ipsum", read( content.openStream() ) );
+  }
+
+  @Test
+  public void testReceive_keepsFileOfThresholdSizeInMemory() throws IOException {
+    receiver.receive( createStream( "0123456789abcdef" ), null );
+
+    assertTrue( receiver.getContents()[ 0 ].isInMemory() );
+  }
+
+  @Test
+  public void testReceive_spillsLargeFileToDisk() throws IOException {
+    String data = "Lorem ipsum dolor sit amet";
+
+    receiver.receive( createStream( data ), new FileDetailsImpl( "foo.txt", "text/plain", -1 ) );
+
+    ReceivedContent content = receiver.getContents()[ 0 ];
+    assertFalse( content.isInMemory() );
+    assertTrue( content.getFile().exists() );
+    assertEquals( data.length(), content.getFile().length() );
+    assertEquals( data.length(), content.getLength() );
+    assertEquals( data, read( content.openStream() ) );
+  }
+
+  @Test
+  public void testReceive_withContentLengthAboveThreshold() throws IOException {
+    // the content length may be the length of the entire request
+    receiver.receive( createStream( "Lorem ipsum" ), new FileDetailsImpl( "a", "b", 1000 ) );
+
+    assertTrue( receiver.getContents()[ 0 ].isInMemory() );
+  }
+
+  @Test
+  public void testReceive_multipleFiles() throws IOException {
+    receiver.receive( createStream( "foo" ), null );
+    receiver.receive( createStream( "Lorem ipsum dolor sit amet" ), null );
+
+    ReceivedContent[] contents = receiver.getContents();
+    assertEquals( 2, contents.length );
+    assertEquals( "foo", read( contents[ 0 ].openStream() ) );
+    assertEquals( "Lorem ipsum dolor sit amet", read( contents[ 1 ].openStream() ) );
+  }
+
+  @Test
+  public void testReceive_deletesSpillFileOnFailure() throws IOException {
+    final File[] spillFile = new File[ 1 ];
+    MemoryFileUploadReceiver receiver = new MemoryFileUploadReceiver( 4 ) {
+      @Override
+      protected File createSpillFile() throws IOException {
+        spillFile[ 0 ] = super.createSpillFile();
+        return spillFile[ 0 ];
+      }
+    };
+    InputStream stream = new InputStream() {
+      private int count;
+      @Override
+      public int read() throws IOException {
+        if( count++ >= 8 ) {
+          throw new IOException( "connection reset" );
+        }
+        return 'x';
+      }
+    };
+
+    try {
+      receiver.receive( stream, null );
+      fail();
+    } catch( IOException expected ) {
+    }
+
+    assertEquals( 0, receiver.getContents().length );
+    assertFalse( spillFile[ 0 ].exists() );
+  }
+
+  @Test
+  public void testGetByteBuffer_inMemory() throws IOException {
+    receiver.receive( createStream( "Lorem ipsum" ), null );
+
+    ByteBuffer buffer = receiver.getContents()[ 0 ].getByteBuffer();
+
+    assertTrue( buffer.isReadOnly() );
+    assertEquals( "Lorem ipsum", toString( buffer ) );
+  }
+
+  @Test
+  public void testGetByteBuffer_onDisk() throws IOException {
+    receiver.receive( createStream( "Lorem ipsum dolor sit amet" ), null );
+
+    ByteBuffer buffer = receiver.getContents()[ 0 ].getByteBuffer();
+
+    assertTrue( buffer.isReadOnly() );
+    assertEquals( "Lorem ipsum dolor sit amet", toString( buffer ) );
+  }
+
+  @Test
+  public void testGetByteBufferSection_inMemory() throws IOException {
+    receiver.receive( createStream( "Lorem ipsum" ), null );
+
+    ByteBuffer buffer = receiver.getContents()[ 0 ].getByteBuffer( 6, 100 );
+
+    assertTrue( buffer.isReadOnly() );
+    assertEquals( "ipsum", toString( buffer ) );
+  }
+
+  @Test
+  public void testGetByteBufferSection_onDisk() throws IOException {
+    receiver.receive( createStream( "Lorem ipsum dolor sit amet" ), null );
+    ReceivedContent content = receiver.getContents()[ 0 ];
+
+    assertEquals( "Lorem", toString( content.getByteBuffer( 0, 5 ) ) );
+    assertEquals( "ipsum", toString( content.getByteBuffer( 6, 5 ) ) );
+    assertEquals( "amet", toString( content.getByteBuffer( 22, 5 ) ) );
+  }
+
+  @Test
+  public void testGetByteBufferSection_beyondEnd() throws IOException {
+    receiver.receive( createStream( "Lorem ipsum dolor sit amet" ), null );
+
+    ByteBuffer buffer = receiver.getContents()[ 0 ].getByteBuffer( 100, 5 );
+
+    assertEquals( 0, buffer.remaining() );
+  }
+
+  @Test
+  public void testGetByteBufferSection_withNegativePosition() throws IOException {
+    receiver.receive( createStream( "Lorem ipsum" ), null );
+
+    try {
+      receiver.getContents()[ 0 ].getByteBuffer( -1, 5 );
+      fail();
+    } catch( IllegalArgumentException expected ) {
+    }
+  }
+
+  @Test
+  public void testGetByteBuffer_withContentExceedingBufferSize() throws IOException {
+    File file = File.createTempFile( "fileupload_", ".tmp" );
+    ReceivedContent content = new ReceivedContent( null, file, Integer.MAX_VALUE + 1L );
+
+    try {
+      content.getByteBuffer();
+      fail();
+    } catch( IllegalStateException expected ) {
+    } finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void testClear() throws IOException {
+    receiver.receive( createStream( "Lorem ipsum dolor sit amet" ), null );
+    receiver.receive( createStream( "Lorem" ), null );
+    File spillFile = receiver.getContents()[ 0 ].getFile();
+
+    receiver.clear();
+
+    assertEquals( 0, receiver.getContents().length );
+    assertFalse( spillFile.exists() );
+  }
+
+  @Test
+  public void testDispose_clearsContents() throws IOException {
+    receiver.receive( createStream( "Lorem ipsum dolor sit amet" ), null );
+    File spillFile = receiver.getContents()[ 0 ].getFile();
+
+    receiver.dispose();
+
+    assertEquals( 0, receiver.getContents().length );
+    assertFalse( spillFile.exists() );
+  }
+
+  @Test
+  public void testDispose_whileReceiving() throws InterruptedException {
+    final List<File> spillFiles = new CopyOnWriteArrayList<File>();
+    final MemoryFileUploadReceiver receiver = new MemoryFileUploadReceiver( 0 ) {
+      @Override
+      protected File createSpillFile() throws IOException {
+        File result = super.createSpillFile();
+        spillFiles.add( result );
+        return result;
+      }
+    };
+    Thread[] threads = new Thread[ 4 ];
+    for( int i = 0; i < threads.length; i++ ) {
+      threads[ i ] = new Thread( new Runnable() {
+        public void run() {
+          try {
+            for( int j = 0; j < 50; j++ ) {
+              receiver.receive( createStream( "Lorem ipsum" ), null );
+            }
+          } catch( IOException exception ) {
+            throw new RuntimeException( exception );
+          }
+        }
+      } );
+      threads[ i ].start();
+    }
+
+    for( Thread thread : threads ) {
+      while( thread.isAlive() ) {
+        receiver.dispose();
+      }
+      thread.join();
+    }
+    receiver.dispose();
+
+    assertEquals( 200, spillFiles.size() );
+    for( File spillFile : spillFiles ) {
+      assertFalse( spillFile.exists() );
+    }
+  }
+
+  @Test
+  public void testDispose_deletesSpillFile() throws IOException {
+    receiver.receive( createStream( "Lorem ipsum dolor sit amet" ), null );
+    ReceivedContent content = receiver.getContents()[ 0 ];
+
+    content.dispose();
+
+    assertFalse( content.getFile().exists() );
+  }
+
+  @Test
+  public void testReceive_tracksSpillFile() throws IOException {
+    receiver.receive( createStream( "Lorem ipsum dolor sit amet" ), null );
+    File spillFile = receiver.getContents()[ 0 ].getFile();
+    UploadCleanupService cleanupService = UploadCleanupService.getInstance();
+
+    assertTrue( cleanupService.retain( spillFile ) );
+    cleanupService.release( spillFile );
+  }
+
+  @Test
+  public void testDispose_untracksSpillFile() throws IOException {
+    receiver.receive( createStream( "Lorem ipsum dolor sit amet" ), null );
+    ReceivedContent content = receiver.getContents()[ 0 ];
+
+    content.dispose();
+
+    assertFalse( UploadCleanupService.getInstance().retain( content.getFile() ) );
+  }
+
+  private static InputStream createStream( String data ) {
+    return new ByteArrayInputStream( data.getBytes() );
+  }
+
+  private static String read( InputStream stream ) throws IOException {
+    ByteArrayOutputStream result = new ByteArrayOutputStream();
+    try {
+      int read = stream.read();
+      while( read != -1 ) {
+        result.write( read );
+        read = stream.read();
+      }
+    } finally {
+      stream.close();
+    }
+    return result.toString();
+  }
+
+  private static String toString( ByteBuffer buffer ) {
+    byte[] bytes = new byte[ buffer.remaining() ];
+    buffer.get( bytes );
+    return new String( bytes );
+  }
+
+}
@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import org.eclipse.rap.rwt.testfixture.internal.Fixture;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class UploadAdmissionControl_Test {
+
+  private UploadAdmissionControl admissionControl;
+
+  @Before
+  public void setUp() {
+    admissionControl = new UploadAdmissionControl();
+  }
+
+  @Test
+  @SuppressWarnings( "restriction" )
+  public void testGetInstance() {
+    Fixture.setUp();
+    try {
+      UploadAdmissionControl instance = UploadAdmissionControl.getInstance();
+
+      assertSame( instance, UploadAdmissionControl.getInstance() );
+    } finally {
+      Fixture.tearDown();
+    }
+  }
+
+  @Test
+  public void testDefaults() {
+    UploadAdmissionControl admissionControl = new UploadAdmissionControl();
+
+    assertEquals( 0, admissionControl.getMaxUploads() );
+    assertEquals( 0, admissionControl.getMaxBytes() );
+    assertEquals( 0, admissionControl.getMaxUploadsPerSession() );
+    assertEquals( 0, admissionControl.getMaxBytesPerSession() );
+    assertEquals( UploadAdmissionControl.DEFAULT_MAX_WAIT_TIME, admissionControl.getMaxWaitTime() );
+    assertEquals( UploadAdmissionControl.DEFAULT_RETRY_AFTER, admissionControl.getRetryAfter() );
+  }
+
+  @Test
+  public void testSetMaxUploadsWithNegativeValue() {
+    try {
+      admissionControl.setMaxUploads( -1 );
+      fail();
+    } catch( IllegalArgumentException expected ) {
+    }
+  }
+
+  @Test
+  public void testSetMaxWaitTimeWithNegativeValue() {
+    try {
+      admissionControl.setMaxWaitTime( -1 );
+      fail();
+    } catch( IllegalArgumentException expected ) {
+    }
+  }
+
+}
@@ -0,0 +1,424 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.rap.addons.fileupload.test.FileUploadTestUtil;
+import org.eclipse.rap.rwt.service.ApplicationContext;
+import org.eclipse.rap.rwt.service.ApplicationContextEvent;
+import org.eclipse.rap.rwt.service.ApplicationContextListener;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+
+public class UploadCleanupService_Test {
+
+  private File directory;
+  private UploadCleanupService service;
+  private List<ApplicationContextListener> listeners;
+  private ArgumentCaptor<ApplicationContextListener> captor;
+
+  @Before
+  public void setUp() {
+    directory = FileUploadTestUtil.createTempDirectory();
+    service = new UploadCleanupService();
+    listeners = new ArrayList<ApplicationContextListener>();
+    captor = ArgumentCaptor.forClass( ApplicationContextListener.class );
+  }
+
+  @After
+  public void tearDown() {
+    // stops the cleanup thread of the service
+    for( ApplicationContextListener listener : listeners ) {
+      listener.beforeDestroy( mock( ApplicationContextEvent.class ) );
+    }
+    // registering files starts the cleanup thread without an application as well
+    service.stop();
+    FileUploadTestUtil.deleteRecursively( directory );
+  }
+
+  @Test
+  public void testGetInstance() {
+    assertSame( UploadCleanupService.getInstance(), UploadCleanupService.getInstance() );
+  }
+
+  @Test
+  public void testRegisterNull() {
+    try {
+      service.register( null );
+      fail();
+    } catch( NullPointerException expected ) {
+    }
+  }
+
+  @Test
+  public void testRegister() throws IOException {
+    File file = createFile( "foo", 10 );
+
+    service.register( file );
+
+    assertEquals( 1, service.getTrackedCount() );
+  }
+
+  @Test
+  public void testRelease_deletesFileAsynchronously() throws IOException {
+    File file = createFile( "foo", 10 );
+    service.register( file );
+
+    boolean released = service.release( file );
+
+    assertTrue( released );
+    assertTrue( file.exists() );
+    assertEquals( 0, service.getTrackedCount() );
+    assertEquals( 1, service.getPendingCount() );
+  }
+
+  @Test
+  public void testCleanUp_deletesReleasedFile() throws IOException {
+    File file = createFile( "foo", 10 );
+    service.register( file );
+    service.release( file );
+
+    boolean morePending = service.cleanUp( System.currentTimeMillis() );
+
+    assertFalse( morePending );
+    assertFalse( file.exists() );
+    assertEquals( 0, service.getPendingCount() );
+    assertEquals( 1, service.getDeletionCount() );
+    assertEquals( 10, service.getReclaimedBytes() );
+  }
+
+  @Test
+  public void testCleanUp_removesMetadataOfDeletedFiles() throws IOException {
+    File file = createFile( "foo", 10 );
+    MemoryFileMetadataStore metadataStore = new MemoryFileMetadataStore();
+    metadataStore.put( file, new FileMetadata( "foo.txt", null, 10, null ) );
+    service.register( directory, metadataStore );
+    service.release( directory );
+
+    service.cleanUp( System.currentTimeMillis() );
+
+    assertFalse( file.exists() );
+    assertEquals( 0, metadataStore.size() );
+  }
+
+  @Test
+  public void testCleanUp_keepsRegisteredFile() throws IOException {
+    File file = createFile( "foo", 10 );
+    service.register( file );
+
+    service.cleanUp( System.currentTimeMillis() );
+
+    assertTrue( file.exists() );
+    assertEquals( 0, service.getDeletionCount() );
+  }
+
+  @Test
+  public void testRelease_untrackedFile() throws IOException {
+    File file = createFile( "foo", 10 );
+
+    boolean released = service.release( file );
+    service.cleanUp( System.currentTimeMillis() );
+
+    assertFalse( released );
+    assertTrue( file.exists() );
+  }
+
+  @Test
+  public void testRelease_fileInTrackedDirectory() throws IOException {
+    File trackedDirectory = new File( directory, "tracked" );
+    trackedDirectory.mkdir();
+    File file = createFile( "tracked/foo", 10 );
+    createFile( "tracked/bar", 5 );
+    service.register( trackedDirectory );
+
+    service.release( file );
+    service.cleanUp( System.currentTimeMillis() );
+
+    assertFalse( trackedDirectory.exists() );
+    assertEquals( 1, service.getDeletionCount() );
+    assertEquals( 15, service.getReclaimedBytes() );
+  }
+
+  @Test
+  public void testRetain() throws IOException {
+    File file = createFile( "foo", 10 );
+    service.register( file );
+
+    boolean retained = service.retain( file );
+    service.release( file );
+    service.cleanUp( System.currentTimeMillis() );
+
+    assertTrue( retained );
+    assertTrue( file.exists() );
+  }
+
+  @Test
+  public void testRetain_untrackedFile() throws IOException {
+    File file = createFile( "foo", 10 );
+
+    assertFalse( service.retain( file ) );
+  }
+
+  @Test
+  public void testRetain_releasedFile() throws IOException {
+    File file = createFile( "foo", 10 );
+    service.register( file );
+    service.release( file );
+
+    assertFalse( service.retain( file ) );
+  }
+
+  @Test
+  public void testRelease_afterRetain() throws IOException {
+    File file = createFile( "foo", 10 );
+    service.register( file );
+    service.retain( file );
+
+    service.release( file );
+    service.release( file );
+    service.cleanUp( System.currentTimeMillis() );
+
+    assertFalse( file.exists() );
+  }
+
+  @Test
+  public void testRegisterTwice_requiresTwoReleases() throws IOException {
+    File file = createFile( "foo", 10 );
+    service.register( file );
+    service.register( file );
+
+    service.release( file );
+    service.cleanUp( System.currentTimeMillis() );
+
+    assertTrue( file.exists() );
+    assertEquals( 1, service.getTrackedCount() );
+  }
+
+  @Test
+  public void testUnregister() throws IOException {
+    File file = createFile( "foo", 10 );
+    service.register( file );
+
+    boolean unregistered = service.unregister( file );
+    service.deleteAll();
+
+    assertTrue( unregistered );
+    assertTrue( file.exists() );
+    assertEquals( 0, service.getTrackedCount() );
+  }
+
+  @Test
+  public void testUnregister_untrackedFile() throws IOException {
+    File file = createFile( "foo", 10 );
+
+    assertFalse( service.unregister( file ) );
+  }
+
+  @Test
+  public void testMaxAge_disabledByDefault() {
+    assertEquals( 0, service.getMaxAge() );
+  }
+
+  @Test
+  public void testCleanUp_keepsFilesWithoutMaxAge() throws IOException {
+    File file = createFile( "foo", 10 );
+    service.register( file );
+    service.setMaxAge( 0 );
+
+    service.cleanUp( Long.MAX_VALUE );
+
+    assertTrue( file.exists() );
+  }
+
+  @Test
+  public void testSetMaxAgeWithNegativeValue() {
+    try {
+      service.setMaxAge( -1 );
+      fail();
+    } catch( IllegalArgumentException expected ) {
+    }
+  }
+
+  @Test
+  public void testCleanUp_deletesExpiredFile() throws IOException {
+    File file = createFile( "foo", 10 );
+    service.setMaxAge( 1000 );
+    long now = System.currentTimeMillis();
+    service.register( file );
+
+    service.cleanUp( now + 500 );
+    boolean existsBeforeExpiry = file.exists();
+    service.cleanUp( now + 2000 );
+
+    assertTrue( existsBeforeExpiry );
+    assertFalse( file.exists() );
+    assertEquals( 0, service.getTrackedCount() );
+    assertEquals( 10, service.getReclaimedBytes() );
+  }
+
+  @Test
+  public void testCleanUp_keepsRetainedFileBeyondMaxAge() throws IOException {
+    File file = createFile( "foo", 10 );
+    service.setMaxAge( 1000 );
+    service.register( file );
+    service.retain( file );
+
+    service.cleanUp( System.currentTimeMillis() + 2000 );
+    boolean existsAfterExpiry = file.exists();
+    service.release( file );
+    service.release( file );
+    service.cleanUp( System.currentTimeMillis() );
+
+    assertTrue( existsAfterExpiry );
+    assertFalse( file.exists() );
+  }
+
+  @Test
+  public void testBatchSize() {
+    service.setBatchSize( 10 );
+
+    assertEquals( 10, service.getBatchSize() );
+  }
+
+  @Test
+  public void testSetBatchSizeWithZero() {
+    try {
+      service.setBatchSize( 0 );
+      fail();
+    } catch( IllegalArgumentException expected ) {
+    }
+  }
+
+  @Test
+  public void testCleanUp_deletesInBatches() throws IOException {
+    service.setBatchSize( 2 );
+    for( int i = 0; i < 5; i++ ) {
+      File file = createFile( "file" + i, 1 );
+      service.register( file );
+      service.release( file );
+    }
+
+    boolean morePendingAfterFirstBatch = service.cleanUp( System.currentTimeMillis() );
+    int pendingAfterFirstBatch = service.getPendingCount();
+    service.cleanUp( System.currentTimeMillis() );
+    boolean morePendingAfterLastBatch = service.cleanUp( System.currentTimeMillis() );
+
+    assertTrue( morePendingAfterFirstBatch );
+    assertEquals( 3, pendingAfterFirstBatch );
+    assertFalse( morePendingAfterLastBatch );
+    assertEquals( 5, service.getDeletionCount() );
+    assertEquals( 0, directory.listFiles().length );
+  }
+
+  @Test
+  public void testDeleteAll() throws IOException {
+    File registeredFile = createFile( "foo", 10 );
+    File releasedFile = createFile( "bar", 10 );
+    service.register( registeredFile );
+    service.register( releasedFile );
+    service.release( releasedFile );
+
+    service.deleteAll();
+
+    assertFalse( registeredFile.exists() );
+    assertFalse( releasedFile.exists() );
+    assertEquals( 0, service.getTrackedCount() );
+    assertEquals( 0, service.getPendingCount() );
+  }
+
+  @Test
+  public void testIsNotRunningInitially() {
+    assertFalse( service.isRunning() );
+  }
+
+  @Test
+  public void testRegister_startsCleanupWithoutApplication() throws IOException {
+    service.register( createFile( "foo", 10 ) );
+
+    assertTrue( service.isRunning() );
+  }
+
+  @Test
+  public void testAttach_startsCleanup() {
+    attach();
+
+    assertTrue( service.isRunning() );
+  }
+
+  @Test
+  public void testAttach_registersListenerOnlyOnce() {
+    ApplicationContext applicationContext = mock( ApplicationContext.class );
+    service.attach( applicationContext );
+
+    service.attach( applicationContext );
+
+    verify( applicationContext ).addApplicationContextListener( captor.capture() );
+    listeners.add( captor.getValue() );
+  }
+
+  @Test
+  public void testApplicationContextDestroyed_stopsCleanupAndDeletesFiles() throws IOException {
+    File file = createFile( "foo", 10 );
+    service.register( file );
+    ApplicationContextListener listener = attach();
+
+    listener.beforeDestroy( mock( ApplicationContextEvent.class ) );
+
+    assertFalse( service.isRunning() );
+    assertFalse( file.exists() );
+  }
+
+  @Test
+  public void testApplicationContextDestroyed_keepsCleanupForOtherApplications() {
+    ApplicationContextListener listener = attach();
+    attach();
+
+    listener.beforeDestroy( mock( ApplicationContextEvent.class ) );
+
+    assertTrue( service.isRunning() );
+  }
+
+  private ApplicationContextListener attach() {
+    ApplicationContext applicationContext = mock( ApplicationContext.class );
+    service.attach( applicationContext );
+    verify( applicationContext ).addApplicationContextListener( captor.capture() );
+    listeners.add( captor.getValue() );
+    return captor.getValue();
+  }
+
+  private File createFile( String name, int length ) throws IOException {
+    File result = new File( directory, name );
+    FileOutputStream outputStream = new FileOutputStream( result );
+    try {
+      outputStream.write( new byte[ length ] );
+    } finally {
+      outputStream.close();
+    }
+    return result;
+  }
+
+}
@@ -0,0 +1,301 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import static org.eclipse.rap.addons.fileupload.test.FileUploadTestUtil.fakeUploadRequest;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertNotSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.rap.addons.fileupload.FileDetails;
+import org.eclipse.rap.addons.fileupload.FileUploadHandler;
+import org.eclipse.rap.addons.fileupload.test.FileUploadTestUtil.FileData;
+import org.eclipse.rap.addons.fileupload.test.TestFileUploadListener;
+import org.eclipse.rap.addons.fileupload.test.TestFileUploadReceiver;
+import org.eclipse.rap.rwt.RWT;
+import org.eclipse.rap.rwt.testfixture.internal.Fixture;
+import org.eclipse.rap.rwt.testfixture.internal.TestResponse;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+
+@SuppressWarnings( "restriction" )
+public class AsyncFileUploadProcessor_Test {
+
+  private TestFileUploadListener testListener;
+  private TestFileUploadReceiver testReceiver;
+  private FileUploadHandler uploadHandler;
+  private AsyncContext asyncContext;
+
+  @Before
+  public void setUp() {
+    Fixture.setUp();
+    testListener = new TestFileUploadListener();
+    testReceiver = new TestFileUploadReceiver();
+    uploadHandler = new FileUploadHandler( testReceiver );
+    uploadHandler.setAsyncProcessing( true );
+    uploadHandler.addUploadListener( testListener );
+    asyncContext = mock( AsyncContext.class );
+  }
+
+  @After
+  public void tearDown() {
+    uploadHandler.dispose();
+    Fixture.tearDown();
+  }
+
+  @Test
+  public void testProcessesRequest() throws IOException, ServletException {
+    fakeUploadRequest( uploadHandler, "Lorem ipsum", "text/plain", "foo.txt" );
+    AsyncRequest request = new AsyncRequest( RWT.getRequest() );
+
+    new FileUploadServiceHandler().service( request, RWT.getResponse() );
+    assertNotNull( request.readListener );
+    request.readListener.onDataAvailable();
+    request.readListener.onAllDataRead();
+    awaitCompletion();
+
+    assertEquals( 0, getResponseErrorStatus() );
+    assertEquals( "progress.finished.", testListener.getLog() );
+    assertEquals( "Lorem ipsum", new String( testReceiver.getContent() ) );
+  }
+
+  @Test
+  public void testParsesOnSeparateThread() throws IOException, ServletException {
+    final Thread[] receivingThread = new Thread[ 1 ];
+    FileUploadHandler handler = new FileUploadHandler( new TestFileUploadReceiver() {
+      @Override
+      public void receive( InputStream stream, FileDetails details ) throws IOException {
+        receivingThread[ 0 ] = Thread.currentThread();
+        super.receive( stream, details );
+      }
+    } );
+    handler.setAsyncProcessing( true );
+    fakeUploadRequest( handler, "Lorem ipsum", "text/plain", "foo.txt" );
+    AsyncRequest request = new AsyncRequest( RWT.getRequest() );
+
+    new FileUploadServiceHandler().service( request, RWT.getResponse() );
+    request.readListener.onDataAvailable();
+    request.readListener.onAllDataRead();
+    awaitCompletion();
+    handler.dispose();
+
+    assertNotNull( receivingThread[ 0 ] );
+    assertNotSame( Thread.currentThread(), receivingThread[ 0 ] );
+  }
+
+  @Test
+  public void testReportsError() throws IOException, ServletException {
+    fakeUploadRequest( uploadHandler, "Lorem ipsum", "text/plain", "foo.txt" );
+    AsyncRequest request = new AsyncRequest( RWT.getRequest() );
+
+    new FileUploadServiceHandler().service( request, RWT.getResponse() );
+    request.readListener.onError( new IOException( "connection reset" ) );
+    awaitCompletion();
+
+    assertEquals( HttpServletResponse.SC_INTERNAL_SERVER_ERROR, getResponseErrorStatus() );
+    assertEquals( "failed.", testListener.getLog() );
+  }
+
+  @Test
+  public void testCompletesWhenStartFails() throws IOException, ServletException {
+    UploadAdmission admission = UploadAdmission.getInstance();
+    fakeUploadRequest( uploadHandler, "Lorem ipsum", "text/plain", "foo.txt" );
+    AsyncRequest request = new AsyncRequest( RWT.getRequest() );
+    request.readListenerFailure = new IllegalStateException( "read listener already set" );
+
+    new FileUploadServiceHandler().service( request, RWT.getResponse() );
+
+    assertEquals( HttpServletResponse.SC_INTERNAL_SERVER_ERROR, getResponseErrorStatus() );
+    assertEquals( "failed.", testListener.getLog() );
+    assertEquals( 0, admission.getActiveUploadCount() );
+    verify( asyncContext ).complete();
+  }
+
+  @Test
+  public void testSetsAsyncTimeout() throws IOException, ServletException {
+    uploadHandler.setAsyncTimeout( 5000 );
+    fakeUploadRequest( uploadHandler, "Lorem ipsum", "text/plain", "foo.txt" );
+    AsyncRequest request = new AsyncRequest( RWT.getRequest() );
+
+    new FileUploadServiceHandler().service( request, RWT.getResponse() );
+
+    verify( asyncContext ).setTimeout( 5000 );
+  }
+
+  @Test
+  public void testFailsOnTimeout() throws IOException, ServletException {
+    UploadAdmission admission = UploadAdmission.getInstance();
+    fakeUploadRequest( uploadHandler, "Lorem ipsum", "text/plain", "foo.txt" );
+    AsyncRequest request = new AsyncRequest( RWT.getRequest() );
+
+    new FileUploadServiceHandler().service( request, RWT.getResponse() );
+    ArgumentCaptor<AsyncListener> captor = ArgumentCaptor.forClass( AsyncListener.class );
+    verify( asyncContext ).addListener( captor.capture() );
+    captor.getValue().onTimeout( mock( AsyncEvent.class ) );
+    request.readListener.onAllDataRead();
+    awaitCompletion();
+
+    assertEquals( HttpServletResponse.SC_REQUEST_TIMEOUT, getResponseErrorStatus() );
+    assertEquals( "failed.", testListener.getLog() );
+    assertEquals( 0, admission.getActiveUploadCount() );
+  }
+
+  @Test
+  public void testAbortsWhenFileSizeExceeded() throws IOException, ServletException {
+    uploadHandler.setMaxFileSize( 10 );
+    fakeUploadRequest( uploadHandler, createContent( 20000 ), "text/plain", "foo.txt" );
+    AsyncRequest request = new AsyncRequest( RWT.getRequest() );
+
+    new FileUploadServiceHandler().service( request, RWT.getResponse() );
+    request.readListener.onDataAvailable();
+    request.readListener.onAllDataRead();
+    awaitCompletion();
+
+    assertEquals( HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, getResponseErrorStatus() );
+    assertEquals( "failed.", testListener.getLog().replace( "progress.", "" ) );
+    assertNull( testReceiver.getContent() );
+  }
+
+  @Test
+  public void testAcceptsMultipleFilesBelowFileSizeLimit() throws IOException, ServletException {
+    uploadHandler.setMaxFileSize( 15000 );
+    FileData file1 = new FileData( createContent( 12000 ), "text/plain", "foo.txt" );
+    FileData file2 = new FileData( createContent( 12000 ), "text/plain", "bar.txt" );
+    fakeUploadRequest( uploadHandler, file1, file2 );
+    AsyncRequest request = new AsyncRequest( RWT.getRequest() );
+
+    new FileUploadServiceHandler().service( request, RWT.getResponse() );
+    request.readListener.onDataAvailable();
+    request.readListener.onAllDataRead();
+    awaitCompletion();
+
+    assertEquals( 0, getResponseErrorStatus() );
+    assertEquals( "finished.", testListener.getLog().replace( "progress.", "" ) );
+  }
+
+  @Test
+  public void testHoldsAdmissionUntilCompleted() throws IOException, ServletException {
+    UploadAdmission admission = UploadAdmission.getInstance();
+    fakeUploadRequest( uploadHandler, "Lorem ipsum", "text/plain", "foo.txt" );
+    AsyncRequest request = new AsyncRequest( RWT.getRequest() );
+
+    new FileUploadServiceHandler().service( request, RWT.getResponse() );
+    int activeUploadCount = admission.getActiveUploadCount();
+    request.readListener.onDataAvailable();
+    request.readListener.onAllDataRead();
+    awaitCompletion();
+
+    assertEquals( 1, activeUploadCount );
+    assertEquals( 0, admission.getActiveUploadCount() );
+  }
+
+  @Test
+  public void testFallsBackToBlockingProcessing() throws IOException, ServletException {
+    fakeUploadRequest( uploadHandler, "Lorem ipsum", "text/plain", "foo.txt" );
+
+    new FileUploadServiceHandler().service( RWT.getRequest(), RWT.getResponse() );
+
+    assertEquals( "progress.finished.", testListener.getLog() );
+    assertEquals( "Lorem ipsum", new String( testReceiver.getContent() ) );
+  }
+
+  // the request is completed by the parser thread after the response has been written
+  private void awaitCompletion() {
+    verify( asyncContext, timeout( 5000 ) ).complete();
+  }
+
+  private static String createContent( int length ) {
+    StringBuilder builder = new StringBuilder( length );
+    for( int i = 0; i < length; i++ ) {
+      builder.append( ( char )( 'a' + i % 26 ) );
+    }
+    return builder.toString();
+  }
+
+  private static int getResponseErrorStatus() {
+    TestResponse response = ( TestResponse )RWT.getResponse();
+    return response.getErrorStatus();
+  }
+
+  private final class AsyncRequest extends HttpServletRequestWrapper {
+
+    ReadListener readListener;
+    RuntimeException readListenerFailure;
+
+    AsyncRequest( HttpServletRequest request ) {
+      super( request );
+    }
+
+    @Override
+    public boolean isAsyncSupported() {
+      return true;
+    }
+
+    @Override
+    public AsyncContext startAsync( ServletRequest request, ServletResponse response ) {
+      return asyncContext;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+      final ServletInputStream inputStream = super.getInputStream();
+      return new ServletInputStream() {
+        @Override
+        public int read() throws IOException {
+          return inputStream.read();
+        }
+        @Override
+        public int read( byte[] bytes, int offset, int length ) throws IOException {
+          return inputStream.read( bytes, offset, length );
+        }
+        @Override
+        public boolean isFinished() {
+          return inputStream.isFinished();
+        }
+        @Override
+        public boolean isReady() {
+          return true;
+        }
+        @Override
+        public void setReadListener( ReadListener listener ) {
+          if( readListenerFailure != null ) {
+            throw readListenerFailure;
+          }
+          readListener = listener;
+        }
+      };
+    }
+
+  }
+
+}
@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+
+public class ContentRange_Test {
+
+  @Test
+  public void testParseChunk() {
+    ContentRange range = ContentRange.parse( "bytes 100-199/1000" );
+
+    assertFalse( range.isQuery() );
+    assertEquals( 100, range.getFirst() );
+    assertEquals( 100, range.getLength() );
+    assertEquals( 1000, range.getTotal() );
+  }
+
+  @Test
+  public void testParseChunkWithUnknownTotal() {
+    ContentRange range = ContentRange.parse( "bytes 0-99/*" );
+
+    assertEquals( 100, range.getLength() );
+    assertEquals( -1, range.getTotal() );
+  }
+
+  @Test
+  public void testParseQuery() {
+    ContentRange range = ContentRange.parse( "bytes */1000" );
+
+    assertTrue( range.isQuery() );
+    assertEquals( 0, range.getLength() );
+    assertEquals( 1000, range.getTotal() );
+  }
+
+  @Test
+  public void testParseInvalid() {
+    assertNull( ContentRange.parse( null ) );
+    assertNull( ContentRange.parse( "" ) );
+    assertNull( ContentRange.parse( "bytes 0-99" ) );
+    assertNull( ContentRange.parse( "items 0-99/100" ) );
+    assertNull( ContentRange.parse( "bytes 99-0/100" ) );
+    assertNull( ContentRange.parse( "bytes 0-100/100" ) );
+    assertNull( ContentRange.parse( "bytes 0-99999999999999999999/*" ) );
+  }
+
+}
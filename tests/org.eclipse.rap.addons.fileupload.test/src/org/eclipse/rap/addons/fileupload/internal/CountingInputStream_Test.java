@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class CountingInputStream_Test {
+
+  private CountingInputStream stream;
+
+  @Before
+  public void setUp() {
+    stream = new CountingInputStream( new ByteArrayInputStream( "Hello world!".getBytes() ) );
+  }
+
+  @Test
+  public void testInitialCount() {
+    assertEquals( 0, stream.getCount() );
+  }
+
+  @Test
+  public void testReadSingleBytes() throws IOException {
+    stream.read();
+    stream.read();
+
+    assertEquals( 2, stream.getCount() );
+  }
+
+  @Test
+  public void testReadArray() throws IOException {
+    stream.read( new byte[ 5 ] );
+
+    assertEquals( 5, stream.getCount() );
+  }
+
+  @Test
+  public void testSkip() throws IOException {
+    stream.skip( 3 );
+    stream.read( new byte[ 100 ] );
+
+    assertEquals( 12, stream.getCount() );
+  }
+
+  @Test
+  public void testEndOfStreamIsNotCounted() throws IOException {
+    stream.read( new byte[ 100 ] );
+    stream.read( new byte[ 100 ] );
+    stream.read();
+
+    assertEquals( 12, stream.getCount() );
+  }
+
+  @Test
+  public void testMarkIsNotSupported() {
+    assertFalse( stream.markSupported() );
+  }
+
+}
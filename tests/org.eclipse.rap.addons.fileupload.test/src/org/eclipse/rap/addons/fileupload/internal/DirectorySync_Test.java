@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.eclipse.rap.addons.fileupload.test.FileUploadTestUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class DirectorySync_Test {
+
+  private File directory;
+
+  @Before
+  public void setUp() {
+    directory = FileUploadTestUtil.createTempDirectory();
+  }
+
+  @After
+  public void tearDown() {
+    FileUploadTestUtil.deleteRecursively( directory );
+  }
+
+  @Test
+  public void testSync() throws IOException {
+    DirectorySync.sync( directory );
+  }
+
+  @Test( expected = IOException.class )
+  public void testSync_missingDirectory() throws IOException {
+    DirectorySync.sync( new File( directory, "missing" ) );
+  }
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2014 EclipseSource and others.
+ * Copyright (c) 2011, 2026 EclipseSource and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,6 +10,7 @@
  ******************************************************************************/
 package org.eclipse.rap.addons.fileupload.internal;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
@@ -17,8 +18,30 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.eclipse.rap.addons.fileupload.DirectBufferFileUploadReceiver;
+import org.eclipse.rap.addons.fileupload.DirectMemoryBudget;
 import org.eclipse.rap.addons.fileupload.FileUploadHandler;
+import org.eclipse.rap.addons.fileupload.TestAdapter;
 import org.eclipse.rap.addons.fileupload.test.TestFileUploadReceiver;
+import org.eclipse.rap.rwt.RWT;
+import org.eclipse.rap.rwt.internal.service.UISessionImpl;
 import org.eclipse.rap.rwt.testfixture.internal.Fixture;
 import org.junit.After;
 import org.junit.Before;
@@ -28,6 +51,9 @@ import org.junit.Test;
 @SuppressWarnings( "restriction" )
 public class FileUploadHandlerStore_Test {
 
+  private static final int THREAD_COUNT = 8;
+  private static final int ITERATIONS = 2000;
+
   private FileUploadHandlerStore handlerStore;
   private FileUploadHandler testHandler;
 
@@ -36,6 +62,8 @@ public class FileUploadHandlerStore_Test {
     Fixture.setUp();
     handlerStore = FileUploadHandlerStore.getInstance();
     testHandler = new FileUploadHandler( new TestFileUploadReceiver() );
+    // the handler registers itself, tests register it with their own token
+    handlerStore.deregisterHandler( TestAdapter.getTokenFor( testHandler ) );
   }
 
   @After
@@ -117,4 +145,269 @@ public class FileUploadHandlerStore_Test {
     assertFalse( token.equals( FileUploadHandlerStore.createToken() ) );
   }
 
+  @Test
+  public void testGetHandlerWithNullToken() {
+    FileUploadHandler result = handlerStore.getHandler( null );
+
+    assertNull( result );
+  }
+
+  @Test
+  public void testCreateToken_isHexEncoded128Bit() {
+    String token = FileUploadHandlerStore.createToken();
+
+    assertTrue( token.matches( "[0-9a-f]{32}" ) );
+  }
+
+  @Test
+  public void testSweep_keepsHandlerWithoutIdleTimeout() {
+    handlerStore.registerHandler( "testId", testHandler );
+
+    handlerStore.sweep( System.currentTimeMillis() + 60000 );
+
+    assertSame( testHandler, handlerStore.getHandler( "testId" ) );
+    assertEquals( 0, handlerStore.getEvictionCount() );
+  }
+
+  @Test
+  public void testSweep_evictsIdleHandler() {
+    testHandler.setIdleTimeout( 1000 );
+    handlerStore.registerHandler( "testId", testHandler );
+
+    handlerStore.sweep( System.currentTimeMillis() + 2000 );
+
+    assertNull( handlerStore.getHandler( "testId" ) );
+    assertEquals( 1, handlerStore.getEvictionCount() );
+  }
+
+  @Test
+  public void testSweep_keepsRecentlyUsedHandler() {
+    testHandler.setIdleTimeout( 60000 );
+    handlerStore.registerHandler( "testId", testHandler );
+
+    handlerStore.sweep( System.currentTimeMillis() + 1000 );
+
+    assertSame( testHandler, handlerStore.getHandler( "testId" ) );
+    assertEquals( 0, handlerStore.getEvictionCount() );
+  }
+
+  @Test
+  public void testSweep_discardsChunkedUploadOfEvictedHandler() {
+    testHandler.setIdleTimeout( 1000 );
+    handlerStore.registerHandler( "testId", testHandler );
+    ChunkedUpload chunkedUpload = handlerStore.getChunkedUpload( "testId", null );
+
+    handlerStore.sweep( System.currentTimeMillis() + 2000 );
+
+    assertTrue( chunkedUpload.isDisposed() );
+  }
+
+  @Test
+  public void testSweep_disposesReceiverOfEvictedHandler() {
+    testHandler.setIdleTimeout( 1000 );
+    handlerStore.registerHandler( "testId", testHandler );
+
+    handlerStore.sweep( System.currentTimeMillis() + 2000 );
+
+    assertTrue( ( ( TestFileUploadReceiver )testHandler.getReceiver() ).isDisposed() );
+  }
+
+  @Test
+  public void testSweep_releasesDirectMemoryOfEvictedHandler() throws IOException {
+    DirectMemoryBudget budget = new DirectMemoryBudget( 1024 * 1024 );
+    DirectBufferFileUploadReceiver receiver = new DirectBufferFileUploadReceiver( budget );
+    receiver.receive( new ByteArrayInputStream( new byte[ 100 ] ), null );
+    FileUploadHandler handler = new FileUploadHandler( receiver );
+    handler.setIdleTimeout( 1000 );
+
+    handlerStore.sweep( System.currentTimeMillis() + 2000 );
+
+    assertEquals( 0, receiver.getDirectMemoryUsage() );
+    assertEquals( 0, budget.getUsed() );
+  }
+
+  @Test
+  public void testSweep_keepsReceiverOfRecentlyUsedHandler() {
+    TestFileUploadReceiver receiver = new TestFileUploadReceiver();
+    FileUploadHandler handler = new FileUploadHandler( receiver );
+    handler.setIdleTimeout( 60000 );
+
+    handlerStore.sweep( System.currentTimeMillis() + 1000 );
+
+    assertFalse( receiver.isDisposed() );
+  }
+
+  @Test
+  public void testDeregisterHandler_keepsReceiver() {
+    TestFileUploadReceiver receiver = new TestFileUploadReceiver();
+    FileUploadHandler handler = new FileUploadHandler( receiver );
+
+    handlerStore.deregisterHandler( TestAdapter.getTokenFor( handler ) );
+
+    assertFalse( receiver.isDisposed() );
+  }
+
+  @Test
+  public void testApplicationContextDestroyed_stopsSweeper() {
+    handlerStore.registerHandler( "testId", testHandler );
+    boolean runningBefore = FileUploadHandlerStore.isSweeperRunning();
+
+    Fixture.tearDown();
+    boolean runningAfter = FileUploadHandlerStore.isSweeperRunning();
+    Fixture.setUp();
+
+    assertTrue( runningBefore );
+    assertFalse( runningAfter );
+  }
+
+  @Test
+  public void testApplicationContextDestroyed_shutsDownAsyncExecutor() {
+    ExecutorService executor = ( ExecutorService )handlerStore.getAsyncExecutor();
+
+    Fixture.tearDown();
+    boolean shutdown = executor.isShutdown();
+    Fixture.setUp();
+
+    assertTrue( shutdown );
+  }
+
+  @Test
+  public void testApplicationContextDestroyed_unregistersFsyncStatistics() throws JMException {
+    MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+    ObjectName name = FsyncStatistics.createObjectName();
+    boolean registeredBefore = mbeanServer.isRegistered( name );
+
+    Fixture.tearDown();
+    boolean registeredAfter = mbeanServer.isRegistered( name );
+    Fixture.setUp();
+
+    assertTrue( registeredBefore );
+    assertFalse( registeredAfter );
+  }
+
+  @Test
+  public void testGetHandler_evictsExpiredHandler() throws InterruptedException {
+    testHandler.setIdleTimeout( 1 );
+    handlerStore.registerHandler( "testId", testHandler );
+
+    Thread.sleep( 20 );
+    FileUploadHandler result = handlerStore.getHandler( "testId" );
+
+    assertNull( result );
+    assertEquals( 1, handlerStore.getEvictionCount() );
+  }
+
+  @Test
+  public void testTouch_postponesExpiry() throws InterruptedException {
+    testHandler.setIdleTimeout( 1000 );
+    handlerStore.registerHandler( "testId", testHandler );
+    long registrationTime = System.currentTimeMillis();
+
+    Thread.sleep( 50 );
+    handlerStore.touch( "testId" );
+    handlerStore.sweep( registrationTime + 1040 );
+
+    assertSame( testHandler, handlerStore.getHandler( "testId" ) );
+  }
+
+  @Test
+  public void testUISessionDestroyed_evictsHandler() {
+    handlerStore.registerHandler( "testId", testHandler );
+
+    ( ( UISessionImpl )RWT.getUISession() ).shutdown();
+
+    assertNull( handlerStore.getHandler( "testId" ) );
+    assertEquals( 1, handlerStore.getEvictionCount() );
+  }
+
+  @Test
+  public void testUISessionDestroyed_afterDeregisterHandler() {
+    handlerStore.registerHandler( "testId", testHandler );
+    handlerStore.deregisterHandler( "testId" );
+
+    ( ( UISessionImpl )RWT.getUISession() ).shutdown();
+
+    assertEquals( 0, handlerStore.getEvictionCount() );
+  }
+
+  @Test
+  public void testCreateToken_uniqueAcrossThreads() throws Exception {
+    final ConcurrentMap<String, String> tokens = new ConcurrentHashMap<String, String>();
+
+    runConcurrently( new Callable<Void>() {
+      public Void call() {
+        for( int i = 0; i < ITERATIONS; i++ ) {
+          String token = FileUploadHandlerStore.createToken();
+          tokens.put( token, token );
+        }
+        return null;
+      }
+    } );
+
+    assertEquals( THREAD_COUNT * ITERATIONS, tokens.size() );
+  }
+
+  @Test
+  public void testConcurrentRegisterGetAndDeregister() throws Exception {
+    final FileUploadHandler handler = testHandler;
+    handlerStore.registerHandler( "testId", testHandler );
+
+    runConcurrently( new Callable<Void>() {
+      public Void call() {
+        for( int i = 0; i < ITERATIONS; i++ ) {
+          String token = FileUploadHandlerStore.createToken();
+          handlerStore.registerHandler( token, handler );
+          assertSame( handler, handlerStore.getHandler( token ) );
+          handlerStore.deregisterHandler( token );
+          assertNull( handlerStore.getHandler( token ) );
+        }
+        return null;
+      }
+    } );
+
+    assertSame( testHandler, handlerStore.getHandler( "testId" ) );
+  }
+
+  @Test
+  public void testConcurrentGetChunkedUpload_returnsSameInstance() throws Exception {
+    final ConcurrentMap<ChunkedUpload, Boolean> uploads
+      = new ConcurrentHashMap<ChunkedUpload, Boolean>();
+
+    runConcurrently( new Callable<Void>() {
+      public Void call() {
+        for( int i = 0; i < ITERATIONS; i++ ) {
+          uploads.put( handlerStore.getChunkedUpload( "testId", null ), Boolean.TRUE );
+        }
+        return null;
+      }
+    } );
+    handlerStore.discardChunkedUpload( "testId" );
+
+    assertEquals( 1, uploads.size() );
+    assertTrue( uploads.keySet().iterator().next().isDisposed() );
+  }
+
+  private static void runConcurrently( final Callable<Void> task ) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool( THREAD_COUNT );
+    try {
+      final CountDownLatch startSignal = new CountDownLatch( 1 );
+      List<Future<Void>> futures = new ArrayList<Future<Void>>();
+      for( int i = 0; i < THREAD_COUNT; i++ ) {
+        futures.add( executor.submit( new Callable<Void>() {
+          public Void call() throws Exception {
+            startSignal.await();
+            return task.call();
+          }
+        } ) );
+      }
+      startSignal.countDown();
+      for( Future<Void> future : futures ) {
+        // rethrows assertion errors of the worker threads
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
 }
@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.rap.addons.fileupload.FileUploadEvent;
+import org.eclipse.rap.addons.fileupload.FileUploadListener;
+import org.eclipse.rap.addons.fileupload.test.TestFileUploadListener;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class FileUploadListenerList_Test {
+
+  private FileUploadListenerList listenerList;
+  private FileUploadEvent event;
+
+  @Before
+  public void setUp() {
+    listenerList = new FileUploadListenerList();
+    event = mock( FileUploadEvent.class );
+  }
+
+  @Test
+  public void testNotifyInOrderOfRegistration() {
+    TestFileUploadListener listener1 = new LoggingListener( "1" );
+    TestFileUploadListener listener2 = new LoggingListener( "2" );
+    listenerList.addUploadListener( listener1 );
+    listenerList.addUploadListener( listener2 );
+
+    listenerList.notifyUploadProgress( event );
+    listenerList.notifyUploadFinished( event );
+    listenerList.notifyUploadFailed( event );
+
+    assertEquals( "progress1.finished1.failed1.", listener1.getLog() );
+    assertEquals( "progress2.finished2.failed2.", listener2.getLog() );
+  }
+
+  @Test
+  public void testAddListenerTwice() {
+    TestFileUploadListener listener = new TestFileUploadListener();
+    listenerList.addUploadListener( listener );
+    listenerList.addUploadListener( listener );
+
+    listenerList.notifyUploadProgress( event );
+
+    assertEquals( "progress.", listener.getLog() );
+  }
+
+  @Test
+  public void testRemoveListener() {
+    TestFileUploadListener listener1 = new TestFileUploadListener();
+    TestFileUploadListener listener2 = new TestFileUploadListener();
+    TestFileUploadListener listener3 = new TestFileUploadListener();
+    listenerList.addUploadListener( listener1 );
+    listenerList.addUploadListener( listener2 );
+    listenerList.addUploadListener( listener3 );
+
+    listenerList.removeUploadListener( listener2 );
+    listenerList.notifyUploadProgress( event );
+
+    assertEquals( "progress.", listener1.getLog() );
+    assertEquals( "", listener2.getLog() );
+    assertEquals( "progress.", listener3.getLog() );
+  }
+
+  @Test
+  public void testRemoveUnknownListener() {
+    TestFileUploadListener listener = new TestFileUploadListener();
+    listenerList.addUploadListener( listener );
+
+    listenerList.removeUploadListener( new TestFileUploadListener() );
+    listenerList.notifyUploadProgress( event );
+
+    assertEquals( "progress.", listener.getLog() );
+  }
+
+  @Test
+  public void testModifyDuringNotification_affectsNextNotification() {
+    final TestFileUploadListener addedListener = new TestFileUploadListener();
+    TestFileUploadListener removingListener = new TestFileUploadListener() {
+      @Override
+      public void uploadProgress( FileUploadEvent event ) {
+        super.uploadProgress( event );
+        listenerList.removeUploadListener( this );
+        listenerList.addUploadListener( addedListener );
+      }
+    };
+    listenerList.addUploadListener( removingListener );
+
+    listenerList.notifyUploadProgress( event );
+    listenerList.notifyUploadProgress( event );
+
+    assertEquals( "progress.", removingListener.getLog() );
+    assertEquals( "progress.", addedListener.getLog() );
+  }
+
+  @Test
+  public void testConcurrentModificationDuringNotification() throws Exception {
+    final int notificationCount = 20000;
+    final CountingListener permanentListener = new CountingListener();
+    listenerList.addUploadListener( permanentListener );
+    final AtomicBoolean running = new AtomicBoolean( true );
+    final CountDownLatch startSignal = new CountDownLatch( 1 );
+    ExecutorService executor = Executors.newFixedThreadPool( 4 );
+    try {
+      List<Future<Void>> modifiers = new ArrayList<Future<Void>>();
+      for( int i = 0; i < 3; i++ ) {
+        modifiers.add( executor.submit( new Callable<Void>() {
+          public Void call() throws Exception {
+            startSignal.await();
+            while( running.get() ) {
+              FileUploadListener listener = new CountingListener();
+              listenerList.addUploadListener( listener );
+              listenerList.removeUploadListener( listener );
+            }
+            return null;
+          }
+        } ) );
+      }
+      Future<Void> notifier = executor.submit( new Callable<Void>() {
+        public Void call() throws Exception {
+          startSignal.await();
+          for( int i = 0; i < notificationCount; i++ ) {
+            listenerList.notifyUploadProgress( event );
+          }
+          return null;
+        }
+      } );
+      startSignal.countDown();
+      notifier.get();
+      running.set( false );
+      for( Future<Void> modifier : modifiers ) {
+        modifier.get();
+      }
+    } finally {
+      running.set( false );
+      executor.shutdown();
+    }
+
+    assertEquals( notificationCount, permanentListener.count );
+  }
+
+  private static class LoggingListener extends TestFileUploadListener {
+
+    private final String suffix;
+
+    LoggingListener( String suffix ) {
+      this.suffix = suffix;
+    }
+
+    @Override
+    public void uploadProgress( FileUploadEvent event ) {
+      log.append( "progress" + suffix + "." );
+    }
+
+    @Override
+    public void uploadFinished( FileUploadEvent event ) {
+      log.append( "finished" + suffix + "." );
+    }
+
+    @Override
+    public void uploadFailed( FileUploadEvent event ) {
+      log.append( "failed" + suffix + "." );
+    }
+
+  }
+
+  private static class CountingListener extends TestFileUploadListener {
+
+    int count;
+
+    @Override
+    public void uploadProgress( FileUploadEvent event ) {
+      count++;
+    }
+
+  }
+
+}
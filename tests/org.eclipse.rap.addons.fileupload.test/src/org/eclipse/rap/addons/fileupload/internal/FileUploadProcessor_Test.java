@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2014 EclipseSource and others.
+ * Copyright (c) 2013, 2026 EclipseSource and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,6 +12,8 @@ package org.eclipse.rap.addons.fileupload.internal;
 
 import static org.eclipse.rap.addons.fileupload.test.FileUploadTestUtil.fakeUploadRequest;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
@@ -19,16 +21,24 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import javax.servlet.http.HttpServletResponse;
 
+import org.eclipse.rap.addons.fileupload.DiskFileUploadReceiver;
 import org.eclipse.rap.addons.fileupload.FileDetails;
 import org.eclipse.rap.addons.fileupload.FileUploadEvent;
 import org.eclipse.rap.addons.fileupload.FileUploadHandler;
+import org.eclipse.rap.addons.fileupload.FileUploadListener;
 import org.eclipse.rap.addons.fileupload.FileUploadReceiver;
+import org.eclipse.rap.addons.fileupload.ReceivedFileDetails;
+import org.eclipse.rap.addons.fileupload.TestAdapter;
+import org.eclipse.rap.addons.fileupload.test.FileUploadTestUtil;
 import org.eclipse.rap.addons.fileupload.test.FileUploadTestUtil.FileData;
 import org.eclipse.rap.addons.fileupload.test.TestFileUploadListener;
 import org.eclipse.rap.addons.fileupload.test.TestFileUploadReceiver;
@@ -57,7 +67,7 @@ public class FileUploadProcessor_Test {
     testListener = new TestFileUploadListener();
     receiver = mock( FileUploadReceiver.class );
     uploadHandler = new FileUploadHandler( receiver );
-    uploadProcessor = new FileUploadProcessor( uploadHandler );
+    uploadProcessor = new FileUploadProcessor( uploadHandler, TestAdapter.getTokenFor( uploadHandler ) );
   }
 
   @After
@@ -154,6 +164,66 @@ public class FileUploadProcessor_Test {
     assertEquals( "bar.png", values.get( 1 ).getFileName() );
   }
 
+  @Test
+  public void testHandleFileUpload_multipleFiles_setsBytesReceived() throws IOException {
+    uploadHandler.addUploadListener( testListener );
+    stubReceiveMethod( receiver );
+
+    FileData file1 = new FileData( "foo", "text/plain", "foo.txt" );
+    FileData file2 = new FileData( "bar bar", "image/png", "bar.png" );
+    fakeUploadRequest( uploadHandler, file1, file2 );
+    uploadProcessor.handleFileUpload( RWT.getRequest(), RWT.getResponse() );
+
+    FileDetails[] fileDetails = testListener.getLastEvent().getFileDetails();
+    ReceivedFileDetails fileDetails1 = ( ReceivedFileDetails )fileDetails[ 0 ];
+    ReceivedFileDetails fileDetails2 = ( ReceivedFileDetails )fileDetails[ 1 ];
+    assertEquals( 3, fileDetails1.getBytesReceived() );
+    assertEquals( 7, fileDetails2.getBytesReceived() );
+    assertTrue( fileDetails1.getReceiveDuration() >= 0 );
+    assertTrue( fileDetails2.getReceiveDuration() >= 0 );
+  }
+
+  @Test
+  public void testHandleFileUpload_passesUnknownBytesReceivedToReceiver() throws IOException {
+    fakeUploadRequest( uploadHandler, "foo", "text/plain", "foo.txt" );
+    uploadProcessor.handleFileUpload( RWT.getRequest(), RWT.getResponse() );
+
+    ArgumentCaptor<FileDetails> captor = ArgumentCaptor.forClass( FileDetails.class );
+    verify( receiver ).receive( any( InputStream.class ), captor.capture() );
+    ReceivedFileDetails fileDetails = ( ReceivedFileDetails )captor.getValue();
+    assertEquals( -1, fileDetails.getBytesReceived() );
+    assertEquals( -1, fileDetails.getReceiveDuration() );
+  }
+
+  @Test
+  public void testHandleFileUpload_computesDigests() throws IOException {
+    uploadHandler.setDigestAlgorithms( "SHA-256", "MD5" );
+    uploadHandler.addUploadListener( testListener );
+    stubReceiveMethod( receiver );
+
+    fakeUploadRequest( uploadHandler, "foo", "text/plain", "foo.txt" );
+    uploadProcessor.handleFileUpload( RWT.getRequest(), RWT.getResponse() );
+
+    FileDetails[] allDetails = testListener.getLastEvent().getFileDetails();
+    ReceivedFileDetails fileDetails = ( ReceivedFileDetails )allDetails[ 0 ];
+    assertEquals( "2c26b46b68ffc68ff99b453c1d30413413422d706483bfa0f98a5e886266e7ae",
+                  fileDetails.getDigest( "SHA-256" ) );
+    assertEquals( "acbd18db4cc2f85cedef654fccc4a4d8", fileDetails.getDigest( "MD5" ) );
+  }
+
+  @Test
+  public void testHandleFileUpload_withoutDigestAlgorithms() throws IOException {
+    uploadHandler.addUploadListener( testListener );
+    stubReceiveMethod( receiver );
+
+    fakeUploadRequest( uploadHandler, "foo", "text/plain", "foo.txt" );
+    uploadProcessor.handleFileUpload( RWT.getRequest(), RWT.getResponse() );
+
+    FileDetails[] allDetails = testListener.getLastEvent().getFileDetails();
+    ReceivedFileDetails fileDetails = ( ReceivedFileDetails )allDetails[ 0 ];
+    assertNull( fileDetails.getDigest( "SHA-256" ) );
+  }
+
   @Test
   public void testHandleFileUpload_withoutData() throws IOException {
     uploadHandler.addUploadListener( testListener );
@@ -180,6 +250,43 @@ public class FileUploadProcessor_Test {
     assertEquals( HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, getResponseErrorStatus() );
   }
 
+  @Test
+  public void testHandleFileUpload_fileExceedsMaxSizeWithStaging() throws IOException {
+    final File storageRoot = FileUploadTestUtil.createTempDirectory();
+    DiskFileUploadReceiver diskReceiver = new DiskFileUploadReceiver();
+    diskReceiver.setStorageRoot( storageRoot );
+    diskReceiver.setStaging( true );
+    FileUploadHandler handler = new FileUploadHandler( diskReceiver );
+    handler.setMaxFileSize( 5 );
+    final List<String> filesOnFailure = new ArrayList<String>();
+    handler.addUploadListener( new FileUploadListener() {
+      public void uploadProgress( FileUploadEvent event ) {
+      }
+      public void uploadFinished( FileUploadEvent event ) {
+      }
+      public void uploadFailed( FileUploadEvent event ) {
+        collectFiles( storageRoot, filesOnFailure );
+      }
+    } );
+
+    try {
+      FileData file1 = new FileData( "foo", "text/plain", "foo.txt" );
+      FileData file2 = new FileData( "bar bar", "image/png", "bar.png" );
+      fakeUploadRequest( handler, file1, file2 );
+      new FileUploadProcessor( handler, TestAdapter.getTokenFor( handler ) )
+        .handleFileUpload( RWT.getRequest(), RWT.getResponse() );
+
+      // the completed file is kept, the partial one has been discarded
+      Collections.sort( filesOnFailure );
+      assertEquals( 2, filesOnFailure.size() );
+      assertTrue( filesOnFailure.get( 0 ).endsWith( "-foo.txt" ) );
+      assertTrue( filesOnFailure.get( 1 ).endsWith( "-foo.txt.content-type" ) );
+    } finally {
+      handler.dispose();
+      FileUploadTestUtil.deleteRecursively( storageRoot );
+    }
+  }
+
   @Test
   public void testHandleFileUpload_withExceptionInReciever() throws IOException {
     doThrow( new IOException() ).when( receiver ).receive( any( InputStream.class ),
@@ -203,6 +310,16 @@ public class FileUploadProcessor_Test {
     doAnswer( answer ).when( receiver ).receive( any( InputStream.class ), any( FileDetails.class ) );
   }
 
+  private static void collectFiles( File directory, List<String> fileNames ) {
+    for( File file : directory.listFiles() ) {
+      if( file.isDirectory() ) {
+        collectFiles( file, fileNames );
+      } else {
+        fileNames.add( file.getName() );
+      }
+    }
+  }
+
   private static int getResponseErrorStatus() {
     TestResponse response = ( TestResponse )RWT.getResponse();
     return response.getErrorStatus();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2014 EclipseSource and others.
+ * Copyright (c) 2011, 2026 EclipseSource and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -15,18 +15,25 @@ import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.startsWith;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.List;
 
 import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
 import javax.servlet.http.HttpServletResponse;
 
+import org.eclipse.rap.addons.fileupload.DiskFileUploadReceiver;
 import org.eclipse.rap.addons.fileupload.FileUploadEvent;
 import org.eclipse.rap.addons.fileupload.FileUploadHandler;
+import org.eclipse.rap.addons.fileupload.ReceivedFileDetails;
 import org.eclipse.rap.addons.fileupload.TestAdapter;
+import org.eclipse.rap.addons.fileupload.UploadAdmissionControl;
 import org.eclipse.rap.addons.fileupload.test.FileUploadTestUtil;
 import org.eclipse.rap.addons.fileupload.test.TestFileUploadListener;
 import org.eclipse.rap.addons.fileupload.test.TestFileUploadReceiver;
@@ -58,6 +65,7 @@ public class FileUploadServiceHandler_Test {
 
   @After
   public void tearDown() {
+    uploadHandler.dispose();
     Fixture.tearDown();
   }
 
@@ -101,6 +109,27 @@ public class FileUploadServiceHandler_Test {
     assertEquals( "text/plain", uploadedItem.getFileDetails()[ 0 ].getContentType() );
   }
 
+  @Test
+  public void testUploadBigFile_withProgressByteThreshold() throws IOException, ServletException {
+    TestFileUploadListener testListener = new TestFileUploadListener() {
+      @Override
+      public void uploadProgress( FileUploadEvent info ) {
+        log.append( "progress(" + info.getBytesRead() + "/" + info.getContentLength() + ").");
+      }
+    };
+    uploadHandler.addUploadListener( testListener );
+    uploadHandler.setProgressByteThreshold( 5000 );
+    String content = createExampleContent( 12000 );
+
+    fakeUploadRequest( content, "text/plain", "test.txt"  );
+    serviceHandler.service( RWT.getRequest(), RWT.getResponse() );
+
+    assertEquals( 0, getResponseErrorStatus() );
+    String expected = "progress(4096/12134).progress(12134/12134).finished.";
+    assertEquals( expected, testListener.getLog() );
+    assertEquals( 12134, testListener.getLastEvent().getBytesRead() );
+  }
+
   @Test
   public void testCanUploadEmptyFile() throws IOException, ServletException {
     uploadHandler.addUploadListener( testListener );
@@ -211,6 +240,293 @@ public class FileUploadServiceHandler_Test {
     assertEquals( "some.txt", uploadedItem.getFileDetails()[ 0 ].getFileName() );
   }
 
+  @Test
+  public void testChunkedUpload() throws IOException, ServletException {
+    uploadHandler.addUploadListener( testListener );
+
+    fakeChunkedUploadRequest( "Hello ", "bytes 0-5/12" );
+    serviceHandler.service( RWT.getRequest(), RWT.getResponse() );
+    assertEquals( "6", getResponseHeader( "Upload-Offset" ) );
+    fakeChunkedUploadRequest( "world!", "bytes 6-11/12" );
+    serviceHandler.service( RWT.getRequest(), RWT.getResponse() );
+
+    assertEquals( 0, getResponseErrorStatus() );
+    assertEquals( "12", getResponseHeader( "Upload-Offset" ) );
+    assertEquals( "progress.progress.finished.", testListener.getLog() );
+    assertEquals( "Hello world!", new String( testReceiver.getContent() ) );
+    FileUploadEvent event = testListener.getLastEvent();
+    assertEquals( "chunked.txt", event.getFileDetails()[ 0 ].getFileName() );
+    assertEquals( "text/plain", event.getFileDetails()[ 0 ].getContentType() );
+    ReceivedFileDetails fileDetails = ( ReceivedFileDetails )event.getFileDetails()[ 0 ];
+    assertEquals( 12, fileDetails.getBytesReceived() );
+  }
+
+  @Test
+  public void testChunkedUpload_withUnknownTotal() throws IOException, ServletException {
+    uploadHandler.addUploadListener( testListener );
+
+    fakeChunkedUploadRequest( "Hello ", "bytes 0-5/*" );
+    serviceHandler.service( RWT.getRequest(), RWT.getResponse() );
+    fakeChunkedUploadRequest( "world!", "bytes 6-11/12" );
+    serviceHandler.service( RWT.getRequest(), RWT.getResponse() );
+
+    assertEquals( "progress.progress.finished.", testListener.getLog() );
+    assertEquals( "Hello world!", new String( testReceiver.getContent() ) );
+  }
+
+  @Test
+  public void testChunkedUpload_queryOffset() throws IOException, ServletException {
+    fakeChunkedUploadRequest( "Hello ", "bytes 0-5/12" );
+    serviceHandler.service( RWT.getRequest(), RWT.getResponse() );
+
+    fakeChunkedUploadRequest( "", "bytes */12" );
+    serviceHandler.service( RWT.getRequest(), RWT.getResponse() );
+
+    assertEquals( 0, getResponseErrorStatus() );
+    assertEquals( "6", getResponseHeader( "Upload-Offset" ) );
+  }
+
+  @Test
+  public void testChunkedUpload_rejectsShortChunk() throws IOException, ServletException {
+    uploadHandler.addUploadListener( testListener );
+
+    fakeChunkedUploadRequest( "Hel", "bytes 0-5/12" );
+    serviceHandler.service( RWT.getRequest(), RWT.getResponse() );
+
+    assertEquals( HttpServletResponse.SC_BAD_REQUEST, getResponseErrorStatus() );
+    assertEquals( "0", getResponseHeader( "Upload-Offset" ) );
+  }
+
+  @Test
+  public void testChunkedUpload_resumesAfterShortChunk() throws IOException, ServletException {
+    uploadHandler.addUploadListener( testListener );
+
+    fakeChunkedUploadRequest( "Hel", "bytes 0-5/12" );
+    serviceHandler.service( RWT.getRequest(), RWT.getResponse() );
+    fakeChunkedUploadRequest( "Hello ", "bytes 0-5/12" );
+    serviceHandler.service( RWT.getRequest(), RWT.getResponse() );
+    fakeChunkedUploadRequest( "world!", "bytes 6-11/12" );
+    serviceHandler.service( RWT.getRequest(), RWT.getResponse() );
+
+    assertEquals( "Hello world!", new String( testReceiver.getContent() ) );
+    assertEquals( "progress.progress.progress.finished.", testListener.getLog() );
+  }
+
+  @Test
+  public void testChunkedUpload_stagesChunksInStorageRoot() throws IOException, ServletException {
+    File storageRoot = FileUploadTestUtil.createTempDirectory();
+    try {
+      DiskFileUploadReceiver receiver = new DiskFileUploadReceiver();
+      receiver.setStorageRoot( storageRoot );
+      uploadHandler = new FileUploadHandler( receiver );
+
+      fakeChunkedUploadRequest( "Hello ", "bytes 0-5/12" );
+      serviceHandler.service( RWT.getRequest(), RWT.getResponse() );
+      File[] stagedFiles = storageRoot.listFiles();
+      uploadHandler.dispose();
+
+      assertEquals( 1, stagedFiles.length );
+      assertTrue( stagedFiles[ 0 ].getName().endsWith( ".part" ) );
+      assertFalse( stagedFiles[ 0 ].exists() );
+    } finally {
+      FileUploadTestUtil.deleteRecursively( storageRoot );
+    }
+  }
+
+  @Test
+  public void testChunkedUpload_rejectsChunkWithWrongOffset() throws IOException, ServletException {
+    uploadHandler.addUploadListener( testListener );
+
+    fakeChunkedUploadRequest( "Hello ", "bytes 0-5/12" );
+    serviceHandler.service( RWT.getRequest(), RWT.getResponse() );
+    fakeChunkedUploadRequest( "world!", "bytes 7-11/12" );
+    serviceHandler.service( RWT.getRequest(), RWT.getResponse() );
+
+    assertEquals( HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE,
+                  getResponseErrorStatus() );
+    assertEquals( "6", getResponseHeader( "Upload-Offset" ) );
+    assertEquals( "progress.", testListener.getLog() );
+  }
+
+  @Test
+  public void testChunkedUpload_withInvalidContentRange() throws IOException, ServletException {
+    fakeChunkedUploadRequest( "Hello ", "bytes 5-0/12" );
+    serviceHandler.service( RWT.getRequest(), RWT.getResponse() );
+
+    assertEquals( HttpServletResponse.SC_BAD_REQUEST, getResponseErrorStatus() );
+  }
+
+  @Test
+  public void testChunkedUpload_exceedsMaxFileSize() throws IOException, ServletException {
+    uploadHandler.setMaxFileSize( 10 );
+    uploadHandler.addUploadListener( testListener );
+
+    fakeChunkedUploadRequest( "Hello ", "bytes 0-5/12" );
+    serviceHandler.service( RWT.getRequest(), RWT.getResponse() );
+
+    assertEquals( HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, getResponseErrorStatus() );
+    assertEquals( "failed.", testListener.getLog() );
+  }
+
+  @Test
+  public void testChunkedUpload_discardedOnDispose() throws IOException, ServletException {
+    fakeChunkedUploadRequest( "Hello ", "bytes 0-5/12" );
+    serviceHandler.service( RWT.getRequest(), RWT.getResponse() );
+
+    uploadHandler.dispose();
+    uploadHandler = new FileUploadHandler( testReceiver );
+    fakeChunkedUploadRequest( "", "bytes */12" );
+    serviceHandler.service( RWT.getRequest(), RWT.getResponse() );
+
+    assertEquals( "0", getResponseHeader( "Upload-Offset" ) );
+  }
+
+  @Test
+  public void testUpload_rejectedWhenLimitExceeded() throws IOException, ServletException {
+    uploadHandler.addUploadListener( testListener );
+    UploadAdmissionControl admissionControl = UploadAdmissionControl.getInstance();
+    UploadAdmission admission = UploadAdmission.getInstance();
+    admissionControl.setMaxUploads( 1 );
+    admissionControl.setRetryAfter( 7 );
+    admission.acquire( null, 0 );
+
+    fakeUploadRequest( "Some content", "text/plain", "test.txt" );
+    serviceHandler.service( RWT.getRequest(), RWT.getResponse() );
+
+    assertEquals( HttpServletResponse.SC_SERVICE_UNAVAILABLE, getResponseErrorStatus() );
+    assertEquals( "7", getResponseHeader( "Retry-After" ) );
+    assertEquals( 1, admission.getRejectionCount() );
+    assertEquals( "", testListener.getLog() );
+  }
+
+  @Test
+  public void testUpload_releasesAdmission() throws IOException, ServletException {
+    UploadAdmission admission = UploadAdmission.getInstance();
+    UploadAdmissionControl.getInstance().setMaxUploads( 1 );
+
+    fakeUploadRequest( "Some content", "text/plain", "test.txt" );
+    serviceHandler.service( RWT.getRequest(), RWT.getResponse() );
+    fakeUploadRequest( "Other content", "text/plain", "test.txt" );
+    serviceHandler.service( RWT.getRequest(), RWT.getResponse() );
+
+    assertEquals( 0, getResponseErrorStatus() );
+    assertEquals( 0, admission.getActiveUploadCount() );
+    assertEquals( 0, admission.getInFlightBytes() );
+    assertEquals( 0, admission.getRejectionCount() );
+  }
+
+  @Test
+  public void testChunkedUpload_rejectedWhenSessionLimitExceeded()
+    throws IOException, ServletException
+  {
+    UploadAdmission admission = UploadAdmission.getInstance();
+    UploadAdmissionControl.getInstance().setMaxUploadsPerSession( 1 );
+    admission.acquire( RWT.getUISession().getId(), 0 );
+
+    fakeChunkedUploadRequest( "Lorem", "bytes 0-4/11" );
+    serviceHandler.service( RWT.getRequest(), RWT.getResponse() );
+
+    assertEquals( HttpServletResponse.SC_SERVICE_UNAVAILABLE, getResponseErrorStatus() );
+    assertEquals( 1, admission.getRejectionCount() );
+  }
+
+  @Test
+  public void testUpload_withoutContentLengthRejectedWhenByteLimitSet()
+    throws IOException, ServletException
+  {
+    uploadHandler.addUploadListener( testListener );
+    UploadAdmissionControl.getInstance().setMaxBytes( 1000 );
+    fakeUploadRequest( "Some content", "text/plain", "test.txt" );
+
+    serviceHandler.service( withoutContentLength( RWT.getRequest() ), RWT.getResponse() );
+
+    assertEquals( HttpServletResponse.SC_LENGTH_REQUIRED, getResponseErrorStatus() );
+    assertEquals( 1, UploadAdmission.getInstance().getRejectionCount() );
+    assertEquals( "", testListener.getLog() );
+  }
+
+  @Test
+  public void testUpload_withoutContentLengthRejectedWhenCountLimitExceeded()
+    throws IOException, ServletException
+  {
+    uploadHandler.addUploadListener( testListener );
+    UploadAdmissionControl admissionControl = UploadAdmissionControl.getInstance();
+    UploadAdmission admission = UploadAdmission.getInstance();
+    admissionControl.setMaxUploads( 1 );
+    admissionControl.setRetryAfter( 7 );
+    admission.acquire( null, 0 );
+    fakeUploadRequest( "Some content", "text/plain", "test.txt" );
+
+    serviceHandler.service( withoutContentLength( RWT.getRequest() ), RWT.getResponse() );
+
+    assertEquals( HttpServletResponse.SC_SERVICE_UNAVAILABLE, getResponseErrorStatus() );
+    assertEquals( "7", getResponseHeader( "Retry-After" ) );
+    assertEquals( 1, admission.getRejectionCount() );
+    assertEquals( "", testListener.getLog() );
+  }
+
+  @Test
+  public void testUpload_withoutContentLengthAdmittedByCountLimit()
+    throws IOException, ServletException
+  {
+    UploadAdmissionControl.getInstance().setMaxUploads( 1 );
+    fakeUploadRequest( "Some content", "text/plain", "test.txt" );
+
+    serviceHandler.service( withoutContentLength( RWT.getRequest() ), RWT.getResponse() );
+
+    assertEquals( 0, getResponseErrorStatus() );
+    assertEquals( "Some content", new String( testReceiver.getContent() ) );
+  }
+
+  @Test
+  public void testUpload_withMaxBandwidth() throws IOException, ServletException {
+    uploadHandler.setMaxBandwidth( 10000 );
+    String content = createExampleContent( 15000 );
+
+    fakeUploadRequest( content, "text/plain", "test.txt" );
+    long start = System.currentTimeMillis();
+    serviceHandler.service( RWT.getRequest(), RWT.getResponse() );
+    long duration = System.currentTimeMillis() - start;
+
+    assertEquals( 0, getResponseErrorStatus() );
+    assertEquals( content, new String( testReceiver.getContent() ) );
+    // the first second is covered by the initial burst
+    assertTrue( duration >= 400 );
+  }
+
+  @Test
+  public void testUpload_withMaxBandwidthPerSession() throws IOException, ServletException {
+    UploadAdmissionControl.getInstance().setMaxBandwidthPerSession( 10000 );
+    String content = createExampleContent( 15000 );
+
+    fakeUploadRequest( content, "text/plain", "test.txt" );
+    long start = System.currentTimeMillis();
+    serviceHandler.service( RWT.getRequest(), RWT.getResponse() );
+    long duration = System.currentTimeMillis() - start;
+
+    assertEquals( 0, getResponseErrorStatus() );
+    assertEquals( content, new String( testReceiver.getContent() ) );
+    assertTrue( duration >= 400 );
+  }
+
+  @Test
+  public void testChunkedUpload_withMaxBandwidth() throws IOException, ServletException {
+    uploadHandler.setMaxBandwidth( 10000 );
+    String chunk = createExampleContent( 7500 );
+
+    long start = System.currentTimeMillis();
+    fakeChunkedUploadRequest( chunk, "bytes 0-7499/30000" );
+    serviceHandler.service( RWT.getRequest(), RWT.getResponse() );
+    fakeChunkedUploadRequest( chunk, "bytes 7500-14999/30000" );
+    serviceHandler.service( RWT.getRequest(), RWT.getResponse() );
+    long duration = System.currentTimeMillis() - start;
+
+    assertEquals( 0, getResponseErrorStatus() );
+    assertEquals( "15000", getResponseHeader( "Upload-Offset" ) );
+    // the limit applies across chunks, the first second is covered by the initial burst
+    assertTrue( duration >= 400 );
+  }
+
   @Test
   public void testGetURL_returnsAbsoluteUrl() {
     String url = FileUploadServiceHandler.getUrl( "token" );
@@ -241,6 +557,15 @@ public class FileUploadServiceHandler_Test {
     FileUploadTestUtil.fakeUploadRequest( token, content, contentType, fileName );
   }
 
+  private void fakeChunkedUploadRequest( String content, String contentRange ) {
+    FileUploadTestUtil.fakeChunkedUploadRequest( uploadHandler, content, contentRange );
+  }
+
+  private static String getResponseHeader( String name ) {
+    TestResponse response = ( TestResponse )RWT.getResponse();
+    return response.getHeader( name );
+  }
+
   private static List<String> getQueryParameters( String url ) {
     int queryIndex = url.indexOf( '?' );
     String queryString = queryIndex == -1 ? "" : url.substring( queryIndex + 1 );
@@ -252,6 +577,19 @@ public class FileUploadServiceHandler_Test {
     return response.getErrorStatus();
   }
 
+  private static HttpServletRequest withoutContentLength( HttpServletRequest request ) {
+    return new HttpServletRequestWrapper( request ) {
+      @Override
+      public int getContentLength() {
+        return -1;
+      }
+      @Override
+      public String getHeader( String name ) {
+        return "Content-Length".equalsIgnoreCase( name ) ? null : super.getHeader( name );
+      }
+    };
+  }
+
   private static String createExampleContent( int length ) {
     byte[] bytes = new byte[ length ];
     for( int i = 0; i < length; i++ ) {
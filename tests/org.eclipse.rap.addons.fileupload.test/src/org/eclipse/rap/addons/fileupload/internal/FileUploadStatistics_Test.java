@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import static org.eclipse.rap.addons.fileupload.test.FileUploadTestUtil.fakeChunkedUploadRequest;
+import static org.eclipse.rap.addons.fileupload.test.FileUploadTestUtil.fakeUploadRequest;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.rap.addons.fileupload.FileUploadHandler;
+import org.eclipse.rap.addons.fileupload.test.TestFileUploadReceiver;
+import org.eclipse.rap.rwt.RWT;
+import org.eclipse.rap.rwt.testfixture.internal.Fixture;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+@SuppressWarnings( "restriction" )
+public class FileUploadStatistics_Test {
+
+  private FileUploadHandler uploadHandler;
+  private FileUploadStatistics statistics;
+
+  @Before
+  public void setUp() {
+    Fixture.setUp();
+    uploadHandler = new FileUploadHandler( new TestFileUploadReceiver() );
+    statistics = FileUploadHandlerStore.getInstance().getStatistics();
+  }
+
+  @After
+  public void tearDown() {
+    Fixture.tearDown();
+  }
+
+  @Test
+  public void testIsRegisteredAsMBean() throws JMException {
+    ObjectName objectName = FileUploadStatistics.createObjectName( RWT.getApplicationContext() );
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+    assertTrue( server.isRegistered( objectName ) );
+    assertEquals( Integer.valueOf( 1 ),
+                  server.getAttribute( objectName, "RegisteredHandlerCount" ) );
+  }
+
+  @Test
+  public void testIsUnregisteredWithApplicationContext() throws JMException {
+    ObjectName objectName = FileUploadStatistics.createObjectName( RWT.getApplicationContext() );
+
+    Fixture.tearDown();
+
+    assertFalse( ManagementFactory.getPlatformMBeanServer().isRegistered( objectName ) );
+    Fixture.setUp();
+  }
+
+  @Test
+  public void testCountsCompletedUpload() throws IOException, ServletException {
+    fakeUploadRequest( uploadHandler, "Lorem ipsum", "text/plain", "foo.txt" );
+
+    new FileUploadServiceHandler().service( RWT.getRequest(), RWT.getResponse() );
+
+    assertEquals( 1, statistics.getCompletedUploadCount() );
+    assertEquals( 0, statistics.getActiveUploadCount() );
+    assertEquals( RWT.getRequest().getContentLength(), statistics.getBytesReceived() );
+    assertTrue( statistics.getLatencyMedian() >= 0 );
+  }
+
+  @Test
+  public void testCountsBadRequest() throws IOException, ServletException {
+    fakeUploadRequest( uploadHandler );
+
+    new FileUploadServiceHandler().service( RWT.getRequest(), RWT.getResponse() );
+
+    assertEquals( 1, statistics.getBadRequestCount() );
+    assertEquals( 0, statistics.getCompletedUploadCount() );
+  }
+
+  @Test
+  public void testCountsFileSizeExceeded() throws IOException, ServletException {
+    uploadHandler.setMaxFileSize( 5 );
+    fakeUploadRequest( uploadHandler, "Lorem ipsum", "text/plain", "foo.txt" );
+
+    new FileUploadServiceHandler().service( RWT.getRequest(), RWT.getResponse() );
+
+    assertEquals( 1, statistics.getFileSizeExceededCount() );
+    assertEquals( 0, statistics.getServerErrorCount() );
+  }
+
+  @Test
+  public void testCountsChunkedUpload() throws IOException, ServletException {
+    fakeChunkedUploadRequest( uploadHandler, "Hello ", "bytes 0-5/11" );
+    new FileUploadServiceHandler().service( RWT.getRequest(), RWT.getResponse() );
+    fakeChunkedUploadRequest( uploadHandler, "world", "bytes 6-10/11" );
+    new FileUploadServiceHandler().service( RWT.getRequest(), RWT.getResponse() );
+
+    assertEquals( 1, statistics.getCompletedUploadCount() );
+    assertEquals( 11, statistics.getBytesReceived() );
+    assertEquals( 0, statistics.getActiveUploadCount() );
+  }
+
+  @Test
+  public void testCountsRejectedChunks() throws IOException, ServletException {
+    fakeChunkedUploadRequest( uploadHandler, "Hel", "bytes 0-5/11" );
+    new FileUploadServiceHandler().service( RWT.getRequest(), RWT.getResponse() );
+    fakeChunkedUploadRequest( uploadHandler, "world", "bytes 6-10/11" );
+    new FileUploadServiceHandler().service( RWT.getRequest(), RWT.getResponse() );
+    fakeChunkedUploadRequest( uploadHandler, "Hello ", "bytes 5-0/11" );
+    new FileUploadServiceHandler().service( RWT.getRequest(), RWT.getResponse() );
+
+    assertEquals( 2, statistics.getBadRequestCount() );
+    assertEquals( 1, statistics.getRangeNotSatisfiableCount() );
+    assertEquals( 0, statistics.getActiveUploadCount() );
+  }
+
+  @Test
+  public void testUploadFailed_byStatus() {
+    statistics.uploadFailed( HttpServletResponse.SC_BAD_REQUEST );
+    statistics.uploadFailed( HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE );
+    statistics.uploadFailed( HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE );
+    statistics.uploadFailed( HttpServletResponse.SC_INTERNAL_SERVER_ERROR );
+    statistics.uploadFailed( HttpServletResponse.SC_INTERNAL_SERVER_ERROR );
+
+    assertEquals( 1, statistics.getBadRequestCount() );
+    assertEquals( 1, statistics.getFileSizeExceededCount() );
+    assertEquals( 1, statistics.getRangeNotSatisfiableCount() );
+    assertEquals( 2, statistics.getServerErrorCount() );
+  }
+
+  @Test
+  public void testRateMeter() {
+    RateMeter meter = new RateMeter();
+    long now = 1000000;
+    for( int i = 0; i < 10; i++ ) {
+      meter.add( 500, now + i * 1000 );
+      meter.add( 500, now + i * 1000 + 999 );
+    }
+
+    assertEquals( 1000, meter.getRate( now + 10 * 1000 ) );
+    assertEquals( 500, meter.getRate( now + 15 * 1000 ) );
+    assertEquals( 0, meter.getRate( now + 30 * 1000 ) );
+  }
+
+  @Test
+  public void testRateMeter_excludesCurrentSecond() {
+    RateMeter meter = new RateMeter();
+
+    meter.add( 1000, 5000 );
+
+    assertEquals( 0, meter.getRate( 5500 ) );
+    assertEquals( 100, meter.getRate( 6000 ) );
+  }
+
+}
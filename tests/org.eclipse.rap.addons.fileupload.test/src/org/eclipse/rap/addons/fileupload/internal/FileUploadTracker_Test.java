@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.eclipse.rap.addons.fileupload.FileDetails;
+import org.eclipse.rap.addons.fileupload.FileUploadEvent;
+import org.eclipse.rap.addons.fileupload.FileUploadHandler;
+import org.eclipse.rap.addons.fileupload.test.TestFileUploadListener;
+import org.eclipse.rap.addons.fileupload.test.TestFileUploadReceiver;
+import org.eclipse.rap.rwt.testfixture.internal.Fixture;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+@SuppressWarnings( "restriction" )
+public class FileUploadTracker_Test {
+
+  private FileUploadHandler handler;
+  private TestFileUploadListener listener;
+  private FileUploadTracker tracker;
+
+  @Before
+  public void setUp() {
+    Fixture.setUp();
+    handler = new FileUploadHandler( new TestFileUploadReceiver() );
+    listener = new TestFileUploadListener();
+    handler.addUploadListener( listener );
+    tracker = new FileUploadTracker( handler );
+  }
+
+  @After
+  public void tearDown() {
+    handler.dispose();
+    Fixture.tearDown();
+  }
+
+  @Test
+  public void testEventIsSnapshot() {
+    tracker.setContentLength( 100 );
+    tracker.setBytesRead( 10 );
+    tracker.handleProgress();
+    FileUploadEvent event = listener.getLastEvent();
+
+    tracker.setBytesRead( 50 );
+    tracker.addFile( new FileDetailsImpl( "foo.txt", "text/plain", 100 ) );
+    tracker.setException( new Exception() );
+
+    assertEquals( 100, event.getContentLength() );
+    assertEquals( 10, event.getBytesRead() );
+    assertEquals( 0, event.getFileDetails().length );
+    assertNull( event.getException() );
+  }
+
+  @Test
+  public void testEventReflectsStateAtDispatch() {
+    FileDetails details = new FileDetailsImpl( "foo.txt", "text/plain", 100 );
+    Exception exception = new Exception();
+    tracker.setContentLength( 100 );
+    tracker.setBytesRead( 100 );
+    tracker.addFile( details );
+    tracker.setException( exception );
+
+    tracker.handleFailed();
+    FileUploadEvent event = listener.getLastEvent();
+
+    assertEquals( 100, event.getContentLength() );
+    assertEquals( 100, event.getBytesRead() );
+    assertSame( details, event.getFileDetails()[ 0 ] );
+    assertSame( exception, event.getException() );
+  }
+
+  @Test
+  public void testReusesEventWhenStateUnchanged() {
+    tracker.setBytesRead( 10 );
+    tracker.handleProgress();
+    FileUploadEvent event1 = listener.getLastEvent();
+
+    tracker.setBytesRead( 10 );
+    tracker.handleFinished();
+    FileUploadEvent event2 = listener.getLastEvent();
+
+    assertSame( event1, event2 );
+    assertEquals( "progress.finished.", listener.getLog() );
+  }
+
+  @Test
+  public void testCreatesEventWhenStateChanged() {
+    tracker.setBytesRead( 10 );
+    tracker.handleProgress();
+    FileUploadEvent event1 = listener.getLastEvent();
+
+    tracker.setBytesRead( 20 );
+    tracker.handleProgress();
+    FileUploadEvent event2 = listener.getLastEvent();
+
+    assertNotSame( event1, event2 );
+  }
+
+  @Test
+  public void testSharesFileDetailsUntilFileAdded() {
+    tracker.addFile( new FileDetailsImpl( "foo.txt", "text/plain", 100 ) );
+    tracker.setBytesRead( 10 );
+    tracker.handleProgress();
+    FileDetails[] files1 = listener.getLastEvent().getFileDetails();
+
+    tracker.setBytesRead( 20 );
+    tracker.handleProgress();
+    FileDetails[] files2 = listener.getLastEvent().getFileDetails();
+    tracker.addFile( new FileDetailsImpl( "bar.txt", "text/plain", 100 ) );
+    tracker.handleProgress();
+    FileDetails[] files3 = listener.getLastEvent().getFileDetails();
+
+    assertSame( files1, files2 );
+    assertNotSame( files2, files3 );
+    assertEquals( 1, files2.length );
+    assertEquals( 2, files3.length );
+  }
+
+}
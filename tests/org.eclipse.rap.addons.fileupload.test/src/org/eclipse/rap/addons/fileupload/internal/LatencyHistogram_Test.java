@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+
+public class LatencyHistogram_Test {
+
+  @Test
+  public void testGetPercentile_empty() {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    assertEquals( 0, histogram.getPercentile( 50 ) );
+    assertEquals( 0, histogram.getCount() );
+  }
+
+  @Test
+  public void testGetPercentile_smallValuesAreExact() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for( int i = 0; i < 8; i++ ) {
+      histogram.record( i );
+    }
+
+    assertEquals( 3, histogram.getPercentile( 50 ) );
+    assertEquals( 7, histogram.getPercentile( 100 ) );
+  }
+
+  @Test
+  public void testGetPercentile() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for( int i = 1; i <= 1000; i++ ) {
+      histogram.record( i );
+    }
+
+    assertWithinPrecision( 500, histogram.getPercentile( 50 ) );
+    assertWithinPrecision( 950, histogram.getPercentile( 95 ) );
+    assertWithinPrecision( 990, histogram.getPercentile( 99 ) );
+    assertEquals( 1000, histogram.getCount() );
+  }
+
+  @Test
+  public void testRecord_negativeValue() {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    histogram.record( -5 );
+
+    assertEquals( 0, histogram.getPercentile( 50 ) );
+  }
+
+  @Test
+  public void testRecord_maximumValue() {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    histogram.record( Long.MAX_VALUE );
+
+    assertEquals( Long.MAX_VALUE, histogram.getPercentile( 50 ) );
+  }
+
+  @Test
+  public void testBucketsAreContiguous() {
+    long expectedLowerBound = 0;
+    for( int index = 0; index < LatencyHistogram.getBucketIndex( Long.MAX_VALUE ); index++ ) {
+      long upperBound = LatencyHistogram.getUpperBound( index );
+
+      assertEquals( index, LatencyHistogram.getBucketIndex( expectedLowerBound ) );
+      assertEquals( index, LatencyHistogram.getBucketIndex( upperBound ) );
+      expectedLowerBound = upperBound + 1;
+    }
+  }
+
+  private static void assertWithinPrecision( long expected, long actual ) {
+    assertTrue( "expected " + expected + " but was " + actual,
+                actual >= expected && actual <= expected + expected / 8 );
+  }
+
+}
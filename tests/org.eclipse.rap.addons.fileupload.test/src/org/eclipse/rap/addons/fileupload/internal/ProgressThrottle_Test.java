@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.rap.addons.fileupload.FileUploadHandler;
+import org.eclipse.rap.addons.fileupload.test.TestFileUploadReceiver;
+import org.eclipse.rap.rwt.testfixture.internal.Fixture;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+@SuppressWarnings( "restriction" )
+public class ProgressThrottle_Test {
+
+  private FileUploadHandler handler;
+
+  @Before
+  public void setUp() {
+    Fixture.setUp();
+    handler = new FileUploadHandler( new TestFileUploadReceiver() );
+  }
+
+  @After
+  public void tearDown() {
+    handler.dispose();
+    Fixture.tearDown();
+  }
+
+  @Test
+  public void testWithoutThresholds_dispatchesEveryUpdate() {
+    ProgressThrottle throttle = new ProgressThrottle( handler );
+
+    assertTrue( throttle.isDue( 1, 1000 ) );
+    assertTrue( throttle.isDue( 2, 1000 ) );
+    assertTrue( throttle.isDue( 3, 1000 ) );
+  }
+
+  @Test
+  public void testByteThreshold() {
+    handler.setProgressByteThreshold( 100 );
+    ProgressThrottle throttle = new ProgressThrottle( handler );
+
+    assertTrue( throttle.isDue( 10, 1000 ) );
+    assertFalse( throttle.isDue( 109, 1000 ) );
+    assertTrue( throttle.isDue( 110, 1000 ) );
+    assertFalse( throttle.isDue( 200, 1000 ) );
+  }
+
+  @Test
+  public void testPercentThreshold() {
+    handler.setProgressPercentThreshold( 10 );
+    ProgressThrottle throttle = new ProgressThrottle( handler );
+
+    assertTrue( throttle.isDue( 10, 1000 ) );
+    assertFalse( throttle.isDue( 50, 1000 ) );
+    assertTrue( throttle.isDue( 110, 1000 ) );
+  }
+
+  @Test
+  public void testPercentThreshold_withUnknownContentLength() {
+    handler.setProgressPercentThreshold( 10 );
+    ProgressThrottle throttle = new ProgressThrottle( handler );
+
+    assertTrue( throttle.isDue( 10, -1 ) );
+    assertFalse( throttle.isDue( 100000, -1 ) );
+  }
+
+  @Test
+  public void testIntervalThreshold() throws InterruptedException {
+    handler.setProgressInterval( 20 );
+    ProgressThrottle throttle = new ProgressThrottle( handler );
+
+    assertTrue( throttle.isDue( 10, 1000 ) );
+    assertFalse( throttle.isDue( 20, 1000 ) );
+    Thread.sleep( 30 );
+    assertTrue( throttle.isDue( 30, 1000 ) );
+  }
+
+  @Test
+  public void testFinalUpdateIsAlwaysDispatched() {
+    handler.setProgressByteThreshold( 100 );
+    ProgressThrottle throttle = new ProgressThrottle( handler );
+
+    throttle.isDue( 10, 50 );
+
+    assertTrue( throttle.isDue( 50, 50 ) );
+  }
+
+  @Test
+  public void testFlush_afterSuppressedUpdate() {
+    handler.setProgressByteThreshold( 100 );
+    ProgressThrottle throttle = new ProgressThrottle( handler );
+
+    throttle.isDue( 10, -1 );
+    throttle.isDue( 50, -1 );
+
+    assertTrue( throttle.flush() );
+    assertFalse( throttle.flush() );
+  }
+
+  @Test
+  public void testFlush_afterDispatchedUpdate() {
+    handler.setProgressByteThreshold( 100 );
+    ProgressThrottle throttle = new ProgressThrottle( handler );
+
+    throttle.isDue( 10, -1 );
+
+    assertFalse( throttle.flush() );
+  }
+
+}
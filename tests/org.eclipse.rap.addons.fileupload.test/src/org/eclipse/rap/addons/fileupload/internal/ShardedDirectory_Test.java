@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.rap.addons.fileupload.test.FileUploadTestUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class ShardedDirectory_Test {
+
+  private File root;
+  private ShardedDirectory directory;
+
+  @Before
+  public void setUp() {
+    root = FileUploadTestUtil.createTempDirectory();
+    directory = new ShardedDirectory( root );
+  }
+
+  @After
+  public void tearDown() {
+    FileUploadTestUtil.deleteRecursively( root );
+  }
+
+  @Test
+  public void testCreateWithNullRoot() {
+    try {
+      new ShardedDirectory( null );
+      fail();
+    } catch( NullPointerException expected ) {
+    }
+  }
+
+  @Test
+  public void testGetRoot() {
+    assertEquals( root, directory.getRoot() );
+  }
+
+  @Test
+  public void testCreateFile() throws IOException {
+    File file = directory.createFile( "foo.txt" );
+
+    assertTrue( file.isFile() );
+    assertEquals( 0, file.length() );
+  }
+
+  @Test
+  public void testCreateFile_prefixesNameWithId() throws IOException {
+    File file = directory.createFile( "foo.txt" );
+
+    assertTrue( file.getName().matches( "[0-9a-f]{32}-foo\\.txt" ) );
+  }
+
+  @Test
+  public void testCreateFile_storesFileInShardOfId() throws IOException {
+    File file = directory.createFile( "foo.txt" );
+
+    File shard = file.getParentFile();
+    assertEquals( file.getName().substring( 2, 4 ), shard.getName() );
+    assertEquals( file.getName().substring( 0, 2 ), shard.getParentFile().getName() );
+    assertEquals( root, shard.getParentFile().getParentFile() );
+  }
+
+  @Test
+  public void testCreateFile_withLongName() throws IOException {
+    String fileName = repeat( 'a', 250 ) + ".txt";
+
+    File file = directory.createFile( fileName );
+
+    assertTrue( file.isFile() );
+    assertEquals( 255, file.getName().length() );
+    assertTrue( file.getName().matches( "[0-9a-f]{32}-a+\\.txt" ) );
+  }
+
+  @Test
+  public void testShorten_keepsShortName() {
+    assertEquals( "foo.txt", ShardedDirectory.shorten( "foo.txt", 7 ) );
+  }
+
+  @Test
+  public void testShorten_keepsExtension() {
+    assertEquals( "fo.txt", ShardedDirectory.shorten( "foobar.txt", 6 ) );
+  }
+
+  @Test
+  public void testShorten_dropsLongExtension() {
+    String fileName = "foo." + repeat( 'x', 40 );
+
+    assertEquals( "foo.xx", ShardedDirectory.shorten( fileName, 6 ) );
+  }
+
+  @Test
+  public void testShorten_countsEncodedBytes() throws UnsupportedEncodingException {
+    // two bytes per character in UTF-8
+    String fileName = repeat( '\u00e4', 10 ) + ".txt";
+
+    String result = ShardedDirectory.shorten( fileName, 11 );
+
+    assertEquals( "\u00e4\u00e4\u00e4.txt", result );
+    assertTrue( result.getBytes( "UTF-8" ).length <= 11 );
+  }
+
+  @Test
+  public void testShorten_doesNotSplitSurrogatePairs() {
+    String fileName = "\ud83d\ude00\ud83d\ude00";
+
+    assertEquals( "\ud83d\ude00", ShardedDirectory.shorten( fileName, 7 ) );
+  }
+
+  @Test
+  public void testCreateFile_withSameName() throws IOException {
+    Set<File> files = new HashSet<File>();
+
+    for( int i = 0; i < 100; i++ ) {
+      files.add( directory.createFile( "foo.txt" ) );
+    }
+
+    assertEquals( 100, files.size() );
+  }
+
+  @Test
+  public void testCreateFile_createsMissingRoot() throws IOException {
+    File missingRoot = new File( root, "missing" );
+
+    File file = new ShardedDirectory( missingRoot ).createFile( "foo.txt" );
+
+    assertTrue( file.isFile() );
+  }
+
+  @Test
+  public void testCreateFile_failsIfShardCannotBeCreated() throws IOException {
+    File blockingFile = new File( root, "file" );
+    blockingFile.createNewFile();
+
+    try {
+      new ShardedDirectory( blockingFile ).createFile( "foo.txt" );
+      fail();
+    } catch( IOException expected ) {
+    }
+  }
+
+  private static String repeat( char character, int count ) {
+    StringBuilder builder = new StringBuilder();
+    for( int i = 0; i < count; i++ ) {
+      builder.append( character );
+    }
+    return builder.toString();
+  }
+
+}
@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+import org.junit.Test;
+
+
+public class StreamDigests_Test {
+
+  @Test
+  public void testGetHexDigests() throws IOException {
+    StreamDigests digests = new StreamDigests( new String[] { "MD5", "SHA-1" } );
+    InputStream stream = digests.wrap( new ByteArrayInputStream( "abc".getBytes( "UTF-8" ) ) );
+
+    stream.read( new byte[ 10 ] );
+    Map<String, String> hexDigests = digests.getHexDigests();
+
+    assertEquals( "900150983cd24fb0d6963f7d28e17f72", hexDigests.get( "MD5" ) );
+    assertEquals( "a9993e364706816aba3e25717850c26c9cd0d89d", hexDigests.get( "SHA-1" ) );
+  }
+
+  @Test
+  public void testGetHexDigests_completesDigestsOnlyOnce() {
+    StreamDigests digests = new StreamDigests( new String[] { "MD5" } );
+
+    Map<String, String> hexDigests = digests.getHexDigests();
+
+    assertSame( hexDigests, digests.getHexDigests() );
+  }
+
+  @Test
+  public void testGetHexDigests_withoutAlgorithms() {
+    StreamDigests digests = new StreamDigests( new String[ 0 ] );
+
+    assertNull( digests.getHexDigests() );
+  }
+
+  @Test
+  public void testContains() {
+    StreamDigests digests = new StreamDigests( new String[] { "MD5" } );
+
+    assertTrue( digests.contains( "MD5" ) );
+    assertFalse( digests.contains( "SHA-1" ) );
+  }
+
+}
@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+
+public class StripedCounter_Test {
+
+  private static final int THREAD_COUNT = 8;
+  private static final int ITERATIONS = 10000;
+
+  @Test
+  public void testInitialValue() {
+    assertEquals( 0, new StripedCounter().get() );
+  }
+
+  @Test
+  public void testAddAndDecrement() {
+    StripedCounter counter = new StripedCounter();
+
+    counter.add( 10 );
+    counter.increment();
+    counter.decrement();
+    counter.decrement();
+
+    assertEquals( 9, counter.get() );
+  }
+
+  @Test
+  public void testConcurrentIncrements() throws InterruptedException {
+    final StripedCounter counter = new StripedCounter();
+    final CountDownLatch start = new CountDownLatch( 1 );
+    Thread[] threads = new Thread[ THREAD_COUNT ];
+    for( int i = 0; i < THREAD_COUNT; i++ ) {
+      threads[ i ] = new Thread( new Runnable() {
+        public void run() {
+          try {
+            start.await();
+          } catch( InterruptedException exception ) {
+            Thread.currentThread().interrupt();
+          }
+          for( int j = 0; j < ITERATIONS; j++ ) {
+            counter.increment();
+          }
+        }
+      } );
+      threads[ i ].start();
+    }
+
+    start.countDown();
+    for( Thread thread : threads ) {
+      thread.join();
+    }
+
+    assertEquals( THREAD_COUNT * ITERATIONS, counter.get() );
+  }
+
+}
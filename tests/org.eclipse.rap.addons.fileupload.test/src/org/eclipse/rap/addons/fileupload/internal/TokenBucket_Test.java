@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Test;
+
+
+public class TokenBucket_Test {
+
+  private static final long SECOND = 1000L * 1000 * 1000;
+
+  @Test
+  public void testReserve_withoutLimit() {
+    TokenBucket bucket = new TokenBucket( 0 );
+
+    assertEquals( 0, bucket.reserve( Long.MAX_VALUE / 2, System.nanoTime() ) );
+  }
+
+  @Test
+  public void testReserve_withinBurst() {
+    TokenBucket bucket = new TokenBucket( 1000 );
+    long now = System.nanoTime();
+
+    assertEquals( 0, bucket.reserve( 600, now ) );
+    assertEquals( 0, bucket.reserve( 400, now ) );
+  }
+
+  @Test
+  public void testReserve_inDebt() {
+    TokenBucket bucket = new TokenBucket( 1000 );
+    long now = System.nanoTime();
+
+    long delay = bucket.reserve( 1500, now );
+
+    assertEquals( SECOND / 2, delay );
+  }
+
+  @Test
+  public void testReserve_accumulatesDebtOfConcurrentConsumers() {
+    TokenBucket bucket = new TokenBucket( 1000 );
+    long now = System.nanoTime();
+    bucket.reserve( 1500, now );
+
+    long delay = bucket.reserve( 500, now );
+
+    assertEquals( SECOND, delay );
+  }
+
+  @Test
+  public void testReserve_refillsOverTime() {
+    TokenBucket bucket = new TokenBucket( 1000 );
+    long now = System.nanoTime();
+    bucket.reserve( 1000, now );
+
+    long delay = bucket.reserve( 500, now + SECOND / 2 );
+
+    assertEquals( 0, delay );
+  }
+
+  @Test
+  public void testReserve_refillDoesNotExceedBurst() {
+    TokenBucket bucket = new TokenBucket( 1000 );
+    long now = System.nanoTime();
+
+    long delay = bucket.reserve( 2000, now + 100 * SECOND );
+
+    assertEquals( SECOND, delay );
+  }
+
+  @Test
+  public void testReserve_doesNotLoseTokensOnFrequentRefills() {
+    TokenBucket bucket = new TokenBucket( 1000 );
+    long now = System.nanoTime();
+    bucket.reserve( 1000, now );
+    // refill steps that are too short for a single token each
+    for( int i = 1; i <= 1000; i++ ) {
+      bucket.reserve( 0, now + i * SECOND / 2000 );
+    }
+
+    long delay = bucket.reserve( 500, now + SECOND / 2 );
+
+    assertEquals( 0, delay );
+  }
+
+  @Test
+  public void testSetRate_capsTokens() {
+    TokenBucket bucket = new TokenBucket( 1000 );
+
+    bucket.setRate( 100 );
+
+    assertEquals( 100, bucket.getRate() );
+    assertTrue( bucket.reserve( 200, System.nanoTime() ) > 0 );
+  }
+
+  @Test
+  public void testThrottledInputStream_limitsRate() throws IOException {
+    TokenBucket bucket = new TokenBucket( 20000 );
+    InputStream stream = new ThrottledInputStream( new ByteArrayInputStream( new byte[ 30000 ] ),
+                                                   bucket );
+    long start = System.currentTimeMillis();
+
+    byte[] buffer = new byte[ 1000 ];
+    long total = 0;
+    int read = stream.read( buffer );
+    while( read != -1 ) {
+      total += read;
+      read = stream.read( buffer );
+    }
+
+    assertEquals( 30000, total );
+    assertTrue( System.currentTimeMillis() - start >= 400 );
+  }
+
+  @Test
+  public void testThrottledInputStream_consumesSingleBytesInBatches() throws IOException {
+    TokenBucket bucket = new TokenBucket( 100000 );
+    long now = System.nanoTime();
+    InputStream stream = new ThrottledInputStream( new ByteArrayInputStream( new byte[ 1000 ] ),
+                                                   bucket );
+
+    for( int i = 0; i < 1000; i++ ) {
+      stream.read();
+    }
+
+    // the bytes have not been consumed yet, the bucket is still full
+    assertEquals( 0, bucket.reserve( 100000, now ) );
+  }
+
+}
@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (c) 2026 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.addons.fileupload.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.rap.addons.fileupload.UploadAdmissionControl;
+import org.eclipse.rap.addons.fileupload.internal.UploadAdmission.Permit;
+import org.eclipse.rap.rwt.testfixture.internal.Fixture;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class UploadAdmission_Test {
+
+  private UploadAdmissionControl admissionControl;
+  private UploadAdmission admission;
+
+  @Before
+  public void setUp() {
+    admissionControl = new UploadAdmissionControl();
+    admission = new UploadAdmission( admissionControl );
+  }
+
+  @Test
+  @SuppressWarnings( "restriction" )
+  public void testGetInstance() {
+    Fixture.setUp();
+    try {
+      UploadAdmission instance = UploadAdmission.getInstance();
+
+      assertSame( instance, UploadAdmission.getInstance() );
+    } finally {
+      Fixture.tearDown();
+    }
+  }
+
+  @Test
+  public void testAcquire_withoutLimits() {
+    assertNotNull( admission.acquire( "session", 100 ) );
+    assertNotNull( admission.acquire( "session", 100 ) );
+
+    assertEquals( 2, admission.getActiveUploadCount() );
+    assertEquals( 200, admission.getInFlightBytes() );
+  }
+
+  @Test
+  public void testAcquire_exceedsMaxUploads() {
+    admissionControl.setMaxUploads( 2 );
+
+    assertNotNull( admission.acquire( "session1", 0 ) );
+    assertNotNull( admission.acquire( "session2", 0 ) );
+    assertNull( admission.acquire( "session3", 0 ) );
+    assertEquals( 1, admission.getRejectionCount() );
+  }
+
+  @Test
+  public void testAcquire_exceedsMaxBytes() {
+    admissionControl.setMaxBytes( 100 );
+
+    assertNotNull( admission.acquire( "session1", 60 ) );
+    assertNull( admission.acquire( "session2", 60 ) );
+    assertNotNull( admission.acquire( "session2", 40 ) );
+  }
+
+  @Test
+  public void testAcquire_admitsOversizedUploadWhenIdle() {
+    admissionControl.setMaxBytes( 100 );
+
+    assertNotNull( admission.acquire( "session", 1000 ) );
+    assertNull( admission.acquire( "session", 1 ) );
+  }
+
+  @Test
+  public void testAcquire_exceedsMaxUploadsPerSession() {
+    admissionControl.setMaxUploadsPerSession( 1 );
+
+    assertNotNull( admission.acquire( "session1", 0 ) );
+    assertNull( admission.acquire( "session1", 0 ) );
+    assertNotNull( admission.acquire( "session2", 0 ) );
+  }
+
+  @Test
+  public void testAcquire_exceedsMaxBytesPerSession() {
+    admissionControl.setMaxBytesPerSession( 100 );
+
+    assertNotNull( admission.acquire( "session1", 60 ) );
+    assertNull( admission.acquire( "session1", 60 ) );
+    assertNotNull( admission.acquire( "session2", 60 ) );
+  }
+
+  @Test
+  public void testAcquire_withoutSessionIgnoresSessionLimits() {
+    admissionControl.setMaxUploadsPerSession( 1 );
+
+    assertNotNull( admission.acquire( null, 0 ) );
+    assertNotNull( admission.acquire( null, 0 ) );
+  }
+
+  @Test
+  public void testRelease() {
+    admissionControl.setMaxUploads( 1 );
+    Permit permit = admission.acquire( "session", 100 );
+
+    permit.run();
+
+    assertEquals( 0, admission.getActiveUploadCount() );
+    assertEquals( 0, admission.getInFlightBytes() );
+    assertNotNull( admission.acquire( "session", 100 ) );
+  }
+
+  @Test
+  public void testAcquire_waitsForRelease() throws InterruptedException {
+    admissionControl.setMaxUploads( 1 );
+    admissionControl.setMaxWaitTime( 10000 );
+    Permit permit = admission.acquire( "session1", 0 );
+    final AtomicBoolean admitted = new AtomicBoolean();
+    final CountDownLatch finished = new CountDownLatch( 1 );
+    Thread thread = new Thread( new Runnable() {
+      public void run() {
+        admitted.set( admission.acquire( "session2", 0 ) != null );
+        finished.countDown();
+      }
+    } );
+
+    thread.start();
+    assertFalse( finished.await( 100, TimeUnit.MILLISECONDS ) );
+    permit.run();
+
+    assertTrue( finished.await( 5, TimeUnit.SECONDS ) );
+    assertTrue( admitted.get() );
+    assertEquals( 0, admission.getRejectionCount() );
+  }
+
+  @Test
+  public void testAcquire_rejectsAfterMaxWaitTime() {
+    admissionControl.setMaxUploads( 1 );
+    admissionControl.setMaxWaitTime( 50 );
+    admission.acquire( "session1", 0 );
+    long start = System.currentTimeMillis();
+
+    Permit admitted = admission.acquire( "session2", 0 );
+
+    assertNull( admitted );
+    assertTrue( System.currentTimeMillis() - start >= 50 );
+    assertEquals( 1, admission.getRejectionCount() );
+  }
+
+  @Test
+  public void testAcquire_rejectsUnknownSizeWithByteLimit() {
+    admissionControl.setMaxBytesPerSession( 100 );
+
+    assertNull( admission.acquire( "session", -1 ) );
+    assertEquals( 1, admission.getRejectionCount() );
+  }
+
+  @Test
+  public void testAcquire_admitsUnknownSizeWithoutByteLimit() {
+    admissionControl.setMaxUploads( 1 );
+
+    assertNotNull( admission.acquire( "session", -1 ) );
+    assertEquals( 0, admission.getInFlightBytes() );
+  }
+
+  @Test
+  public void testRelease_onlyOnce() {
+    admission.acquire( "session", 100 );
+    Permit permit = admission.acquire( "session", 100 );
+
+    permit.run();
+    permit.run();
+
+    assertEquals( 1, admission.getActiveUploadCount() );
+    assertEquals( 100, admission.getInFlightBytes() );
+  }
+
+  @Test
+  public void testRelease_afterLimitHasBeenSet() {
+    Permit permit = admission.acquire( "session", 100 );
+    admissionControl.setMaxUploads( 1 );
+
+    permit.run();
+
+    assertEquals( 0, admission.getActiveUploadCount() );
+    assertNotNull( admission.acquire( "session", 100 ) );
+  }
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2014 EclipseSource and others.
+ * Copyright (c) 2011, 2026 EclipseSource and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -116,6 +116,20 @@ public final class FileUploadTestUtil {
   }
 
 
+  public static void fakeChunkedUploadRequest( FileUploadHandler handler,
+                                               String content,
+                                               String contentRange )
+  {
+    TestRequest request = Fixture.fakeNewRequest();
+    request.setMethod( "PUT" );
+    request.setParameter( "servicehandler", "org.eclipse.rap.fileupload" );
+    request.setParameter( "token", TestAdapter.getTokenFor( handler ) );
+    request.setHeader( "Content-Range", contentRange );
+    request.setHeader( "Content-Disposition", "attachment; filename=\"chunked.txt\"" );
+    request.setContentType( "text/plain" );
+    request.setBody( content );
+  }
+
   private static String createMultipartBody( String boundary, FileData... fileData ) {
     StringBuffer buffer = new StringBuffer();
     String newline = "\r\n";
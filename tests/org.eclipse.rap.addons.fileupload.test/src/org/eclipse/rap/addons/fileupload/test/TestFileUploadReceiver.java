@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2013 EclipseSource and others.
+ * Copyright (c) 2011, 2026 EclipseSource and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -22,6 +22,7 @@ public class TestFileUploadReceiver extends FileUploadReceiver {
 
   long total = 0;
   private byte[] uploadedContent;
+  private boolean disposed;
 
   @Override
   public void receive( InputStream dataStream, FileDetails details ) throws IOException {
@@ -41,6 +42,15 @@ public class TestFileUploadReceiver extends FileUploadReceiver {
     }
   }
 
+  @Override
+  public void dispose() {
+    disposed = true;
+  }
+
+  public boolean isDisposed() {
+    return disposed;
+  }
+
   public long getTotal() {
     return total;
   }